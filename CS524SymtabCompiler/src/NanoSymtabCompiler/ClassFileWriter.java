@@ -0,0 +1,309 @@
+package NanoSymtabCompiler;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Hashtable;
+public class ClassFileWriter //Minimal JVM class file assembler
+{
+	//Just enough of the class file format to emit a class of static methods
+	//built from straight bytecode: a constant pool of the entry kinds the code
+	//needs, methods with a Code attribute, branches to labels and exception
+	//handlers. The class is written as version 49 (Java 5) so that no stack map
+	//frames are needed; every JVM since loads it with the type inferencing
+	//verifier. A method is assembled into a byte buffer between startMethod and
+	//endMethod, branches to labels are patched when the method ends, and only
+	//16 bit branch offsets are supported (see isTooLarge).
+
+	//Opcodes used by NQJ
+	public static final int ICONST_0 = 0x03, ICONST_1 = 0x04;
+	public static final int BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13;
+	public static final int ILOAD = 0x15, LLOAD = 0x16, ALOAD = 0x19;
+	public static final int IALOAD = 0x2e, BALOAD = 0x33;
+	public static final int ISTORE = 0x36, LSTORE = 0x37, ASTORE = 0x3a;
+	public static final int IASTORE = 0x4f, BASTORE = 0x54;
+	public static final int POP = 0x57, DUP = 0x59;
+	public static final int IADD = 0x60, LADD = 0x61, ISUB = 0x64, IMUL = 0x68, IDIV = 0x6c, INEG = 0x74;
+	public static final int I2L = 0x85;
+	public static final int IFEQ = 0x99, IFNE = 0x9a;
+	public static final int IF_ICMPEQ = 0x9f, IF_ICMPNE = 0xa0, IF_ICMPLT = 0xa1;
+	public static final int IF_ICMPGE = 0xa2, IF_ICMPGT = 0xa3, IF_ICMPLE = 0xa4;
+	public static final int GOTO = 0xa7, RETURN = 0xb1;
+	public static final int INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8;
+	public static final int ATHROW = 0xbf;
+
+	public static final int ACC_PUBLIC = 0x0001, ACC_STATIC = 0x0008;
+	public static final int ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+	private static final int CONSTANT_UTF8 = 1, CONSTANT_INTEGER = 3, CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8, CONSTANT_METHODREF = 10, CONSTANT_NAME_AND_TYPE = 12;
+
+	private ByteArrayOutputStream poolBytes;
+	private DataOutputStream pool;
+	private Hashtable poolIndex;		//key string -> Integer, so entries are shared
+	private int poolCount;
+
+	private int thisClass;
+	private int superClass;
+	private ByteArrayOutputStream methodBytes;
+	private DataOutputStream methods;
+	private int methodCount;
+
+	//The method being assembled
+	private int methodAccess, methodName, methodDescriptor;
+	private byte[] code;
+	private int codeLength;
+	private int[] labelPositions;
+	private int labelCount;
+	private ArrayList branches;		//int[] {opcode position, label}
+	private ArrayList handlers;		//int[] {start label, end label, handler label, catch class}
+
+	public ClassFileWriter(String className, String superName)
+	{
+		poolBytes = new ByteArrayOutputStream();
+		pool = new DataOutputStream(poolBytes);
+		poolIndex = new Hashtable();
+		poolCount = 1;
+		methodBytes = new ByteArrayOutputStream();
+		methods = new DataOutputStream(methodBytes);
+		methodCount = 0;
+		thisClass = classRef(className);
+		superClass = classRef(superName);
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Constant pool; class names use '/' as in the class file format
+
+	public int utf8(String s)
+	{
+		Integer index = (Integer) poolIndex.get("U" + s);
+		if (index != null) return index.intValue();
+		try
+		{
+			pool.writeByte(CONSTANT_UTF8);
+			pool.writeUTF(s);
+		}
+		catch (IOException e) { throw new IllegalStateException(e.toString()); }
+		return remember("U" + s);
+	}
+
+	public int classRef(String internalName)
+	{
+		Integer index = (Integer) poolIndex.get("C" + internalName);
+		if (index != null) return index.intValue();
+		int name = utf8(internalName);
+		writeEntry(CONSTANT_CLASS, name, -1);
+		return remember("C" + internalName);
+	}
+
+	public int string(String s)
+	{
+		Integer index = (Integer) poolIndex.get("S" + s);
+		if (index != null) return index.intValue();
+		int text = utf8(s);
+		writeEntry(CONSTANT_STRING, text, -1);
+		return remember("S" + s);
+	}
+
+	public int integer(int value)
+	{
+		Integer index = (Integer) poolIndex.get("I" + value);
+		if (index != null) return index.intValue();
+		try
+		{
+			pool.writeByte(CONSTANT_INTEGER);
+			pool.writeInt(value);
+		}
+		catch (IOException e) { throw new IllegalStateException(e.toString()); }
+		return remember("I" + value);
+	}
+
+	public int methodRef(String owner, String name, String descriptor)
+	{
+		String key = "M" + owner + "." + name + descriptor;
+		Integer index = (Integer) poolIndex.get(key);
+		if (index != null) return index.intValue();
+		int ownerClass = classRef(owner);
+		int nameIndex = utf8(name);
+		int typeIndex = utf8(descriptor);
+		Integer nat = (Integer) poolIndex.get("N" + name + descriptor);
+		if (nat == null)
+		{
+			writeEntry(CONSTANT_NAME_AND_TYPE, nameIndex, typeIndex);
+			nat = new Integer(remember("N" + name + descriptor));
+		}
+		writeEntry(CONSTANT_METHODREF, ownerClass, nat.intValue());
+		return remember(key);
+	}
+
+	private void writeEntry(int tag, int first, int second)
+	{
+		try
+		{
+			pool.writeByte(tag);
+			pool.writeShort(first);
+			if (second != -1) pool.writeShort(second);
+		}
+		catch (IOException e) { throw new IllegalStateException(e.toString()); }
+	}
+
+	private int remember(String key)
+	{
+		int index = poolCount++;
+		poolIndex.put(key, new Integer(index));
+		return index;
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Method assembly
+
+	public void startMethod(int access, String name, String descriptor)
+	{
+		methodAccess = access;
+		methodName = utf8(name);
+		methodDescriptor = utf8(descriptor);
+		code = new byte[1024];
+		codeLength = 0;
+		labelPositions = new int[64];
+		labelCount = 0;
+		branches = new ArrayList();
+		handlers = new ArrayList();
+	}
+
+	public int getCodeLength() { return codeLength; }
+
+	//Offsets of branches are signed 16 bit, so longer code can't be patched
+	public boolean isTooLarge() { return codeLength > 32767; }
+
+	public int newLabel()
+	{
+		if (labelCount == labelPositions.length)
+		{
+			int[] grown = new int[labelCount * 2];
+			System.arraycopy(labelPositions, 0, grown, 0, labelCount);
+			labelPositions = grown;
+		}
+		labelPositions[labelCount] = -1;
+		return labelCount++;
+	}
+
+	public void mark(int label) { labelPositions[label] = codeLength; }
+
+	public void op(int opcode) { put(opcode); }
+
+	//Opcodes followed by a local variable index
+	public void local(int opcode, int index)
+	{
+		put(opcode);
+		put(index);
+	}
+
+	//Opcodes followed by a constant pool index
+	public void poolOp(int opcode, int index)
+	{
+		put(opcode);
+		put(index >> 8);
+		put(index);
+	}
+
+	public void pushInt(int value)
+	{
+		if (value == 0) put(ICONST_0);
+		else if (value == 1) put(ICONST_1);
+		else if (value >= -128 && value <= 127) { put(BIPUSH); put(value); }
+		else if (value >= -32768 && value <= 32767) { put(SIPUSH); put(value >> 8); put(value); }
+		else poolOp(LDC_W, integer(value));
+	}
+
+	public void pushString(String s) { poolOp(LDC_W, string(s)); }
+
+	public void branch(int opcode, int label)
+	{
+		branches.add(new int[] { codeLength, label });
+		put(opcode);
+		put(0);
+		put(0);
+	}
+
+	//Exceptions of catchClass (an internal name) thrown between the two labels
+	//go to the handler label
+	public void addHandler(int startLabel, int endLabel, int handlerLabel, String catchClass)
+	{
+		handlers.add(new int[] { startLabel, endLabel, handlerLabel, classRef(catchClass) });
+	}
+
+	public void endMethod(int maxStack, int maxLocals)
+	{
+		for (int i = 0; i < branches.size(); i++)
+		{
+			int[] branch = (int[]) branches.get(i);
+			int offset = labelPositions[branch[1]] - branch[0];
+			code[branch[0] + 1] = (byte) (offset >> 8);
+			code[branch[0] + 2] = (byte) offset;
+		}
+		try
+		{
+			methods.writeShort(methodAccess);
+			methods.writeShort(methodName);
+			methods.writeShort(methodDescriptor);
+			methods.writeShort(1);
+			methods.writeShort(utf8("Code"));
+			methods.writeInt(12 + codeLength + 8 * handlers.size());
+			methods.writeShort(maxStack);
+			methods.writeShort(maxLocals);
+			methods.writeInt(codeLength);
+			methods.write(code, 0, codeLength);
+			methods.writeShort(handlers.size());
+			for (int i = 0; i < handlers.size(); i++)
+			{
+				int[] handler = (int[]) handlers.get(i);
+				methods.writeShort(labelPositions[handler[0]]);
+				methods.writeShort(labelPositions[handler[1]]);
+				methods.writeShort(labelPositions[handler[2]]);
+				methods.writeShort(handler[3]);
+			}
+			methods.writeShort(0);
+		}
+		catch (IOException e) { throw new IllegalStateException(e.toString()); }
+		methodCount++;
+		code = null;
+	}
+
+	public byte[] toByteArray()
+	{
+		try
+		{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(49);
+			out.writeShort(poolCount);
+			out.write(poolBytes.toByteArray());
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0);		//interfaces
+			out.writeShort(0);		//fields
+			out.writeShort(methodCount);
+			out.write(methodBytes.toByteArray());
+			out.writeShort(0);		//attributes
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (IOException e) { throw new IllegalStateException(e.toString()); }
+	}
+
+	private void put(int b)
+	{
+		if (codeLength == code.length)
+		{
+			byte[] grown = new byte[code.length * 2];
+			System.arraycopy(code, 0, grown, 0, codeLength);
+			code = grown;
+		}
+		code[codeLength++] = (byte) b;
+	}
+}
@@ -0,0 +1,320 @@
+package NanoSymtabCompiler;
+public class NQB //Nano Quad Bounds check eliminator
+{
+	//Removes the CHECK quads (see NQG) that can never fail. It runs after the
+	//peephole pass, so for loop tests are already fused compare jumps, and before
+	//the loop optimizer, which must not fold an index away from its CHECK. A
+	//CHECK goes when its index is
+	//
+	//	a literal			inside the array
+	//	an induction var	the variable i of an enclosing loop whose only write
+	//						in the loop is "ADD i, i, #k" (or "SUB i, i, #k"),
+	//						which enters the loop from an "ASSIGN i, #low" in the
+	//						block before the header, and which the header tests
+	//						against a literal bound, leaving the loop when
+	//						"i > #high" (or "i < #high" counting down)
+	//	c * i + d			a temp computed from such an i by ADD, SUB and MUL
+	//						with a literal operand earlier in the CHECK's block
+	//
+	//and the range that gives the index lies inside the array. Between the
+	//header test and the increment i stays between low and high, so a CHECK the
+	//increment can reach without passing through the header again is kept. A
+	//loop whose bound is so close to the int limit that the increment could wrap
+	//around is not trusted either, and neither is a loop that makes a CALL,
+	//since the procedure may write i.
+
+	private boolean literalIndices = true;
+	private boolean loopIndices = true;
+
+	//Statistics of the last eliminate()
+	private int checkCount;
+	private int removedLiteral;
+	private int removedInLoops;
+
+	public boolean isLiteralIndices() { return literalIndices; }
+	public void setLiteralIndices(boolean on) { literalIndices = on; }
+	public boolean isLoopIndices() { return loopIndices; }
+	public void setLoopIndices(boolean on) { loopIndices = on; }
+
+	public int getCheckCount() { return checkCount; }
+	public int getRemovedLiteral() { return removedLiteral; }
+	public int getRemovedInLoops() { return removedInLoops; }
+
+	/*
+	 * Removes the CHECK quads of the program in buffer that cannot fail and
+	 * returns how many it removed
+	 */
+	public int eliminate(QuadBuffer buffer)
+	{
+		checkCount = removedLiteral = removedInLoops = 0;
+		QuadFlowGraph graph = new QuadFlowGraph(buffer);
+		int[] loops = innermostFirst(graph);
+		boolean[] mayHoldReference = new boolean[buffer.size() == 0 ? 0 : maxResult(buffer) + 1];
+		for (int i = 0; i < buffer.size(); i++)
+			if (buffer.getType(i) == NQG.OFFSET) mayHoldReference[buffer.getResult(i)] = true;
+
+		boolean[] keep = new boolean[buffer.size()];
+		for (int i = 0; i < keep.length; i++)
+		{
+			keep[i] = true;
+			if (buffer.getType(i) != NQG.CHECK) continue;
+			checkCount++;
+			int size = buffer.getB(i);
+			if (buffer.isImmediateA(i))
+			{
+				int index = buffer.getA(i);
+				if (literalIndices && index >= 0 && index < size)
+				{
+					keep[i] = false;
+					removedLiteral++;
+				}
+			}
+			else if (loopIndices && isInLoopRange(graph, loops, mayHoldReference, i, size))
+			{
+				keep[i] = false;
+				removedInLoops++;
+			}
+		}
+		return NQO.renumber(buffer, keep);
+	}
+
+	public void showStatistics()
+	{
+		System.out.println("<<<<<<<<<<< Bounds Check Statistics >>>>>>>>>>>>");
+		System.out.println("Index checks:     " + checkCount);
+		System.out.println("Literal indices:  " + removedLiteral);
+		System.out.println("Loop indices:     " + removedInLoops);
+		System.out.println("Checks left:      " + (checkCount - removedLiteral - removedInLoops));
+		System.out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Whether the index CHECK i reads is an induction variable, or a value the
+	//quads before it in its block compute from one with literal ADD, SUB and MUL,
+	//whose range inside its loop fits 0..size-1. The index is scale * iv + delta
+	//with iv read at quad at; int arithmetic wraps the same way as this does in
+	//long, so a range that fits needs no overflow check of its own
+	private static boolean isInLoopRange(QuadFlowGraph graph, int[] loops, boolean[] mayHoldReference,
+										 int check, int size)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int iv = buffer.getA(check);
+		int at = check;
+		long scale = 1, delta = 0;
+		for (int def = lastWriteBefore(graph, at, iv); def != -1; def = lastWriteBefore(graph, at, iv))
+		{
+			int type = buffer.getType(def);
+			boolean immA = buffer.isImmediateA(def), immB = buffer.isImmediateB(def);
+			if (immA == immB) return false;
+			int source = immA ? buffer.getB(def) : buffer.getA(def);
+			long c = immA ? buffer.getA(def) : buffer.getB(def);
+			if (type == NQG.ADD) delta += scale * c;
+			else if (type == NQG.SUB && !immA) delta -= scale * c;
+			else if (type == NQG.MUL) scale *= c;
+			else return false;
+			if (Math.abs(scale) > Integer.MAX_VALUE || Math.abs(delta) > Integer.MAX_VALUE) return false;
+			iv = source;
+			at = def;
+		}
+		if (iv < mayHoldReference.length && mayHoldReference[iv]) return false;
+
+		long[] range = inductionRange(graph, loops, at, iv);
+		if (range == null) return false;
+		long low = scale * range[0] + delta, high = scale * range[1] + delta;
+		if (scale < 0) { long swap = low; low = high; high = swap; }
+		return low >= 0 && high < size;
+	}
+
+	//The lowest and highest value iv can have at quad at, from the innermost
+	//loop around it that writes iv, or null if that loop does not bound it
+	private static long[] inductionRange(QuadFlowGraph graph, int[] loops, int at, int iv)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int block = graph.getBlockOf(at);
+		for (int n = 0; n < loops.length; n++)
+		{
+			int loop = loops[n];
+			if (!graph.isInLoop(loop, block)) continue;
+			boolean[] inLoop = new boolean[graph.getBlockCount()];
+			for (int m = 0; m < graph.getLoopSize(loop); m++) inLoop[graph.getLoopBlock(loop, m)] = true;
+
+			int increment = -1;
+			int writeCount = 0;
+			for (int i = 0; i < buffer.size(); i++)
+			{
+				if (inLoop[graph.getBlockOf(i)] && buffer.getType(i) == NQG.CALL) return null;
+				if (!inLoop[graph.getBlockOf(i)] || !buffer.writesResult(i) || buffer.getResult(i) != iv) continue;
+				increment = i;
+				writeCount++;
+			}
+			if (writeCount == 0) continue;
+			if (writeCount > 1) return null;
+
+			int header = graph.getLoopHeader(loop);
+			long step = stepOf(buffer, increment, iv);
+			if (step == 0 || block == header || graph.getBlockOf(increment) == header) return null;
+			if (isReachableFrom(graph, inLoop, header, increment, at)) return null;
+
+			long init = initialValue(graph, inLoop, header, iv);
+			long bound = exitBound(graph, inLoop, header, iv, step);
+			if (init == NONE || bound == NONE) return null;
+			return step > 0 ? new long[] { init, bound } : new long[] { bound, init };
+		}
+		return null;
+	}
+
+	private static final long NONE = Long.MIN_VALUE;
+
+	//k of the "ADD iv, iv, #k" (or "ADD iv, #k, iv"), -k of "SUB iv, iv, #k",
+	//0 if the quad is not such an increment
+	private static long stepOf(QuadBuffer buffer, int i, int iv)
+	{
+		int type = buffer.getType(i);
+		boolean immA = buffer.isImmediateA(i), immB = buffer.isImmediateB(i);
+		if (type == NQG.ADD && !immA && immB && buffer.getA(i) == iv) return buffer.getB(i);
+		if (type == NQG.ADD && immA && !immB && buffer.getB(i) == iv) return buffer.getA(i);
+		if (type == NQG.SUB && !immA && immB && buffer.getA(i) == iv) return -(long) buffer.getB(i);
+		return 0;
+	}
+
+	//low of the "ASSIGN iv, #low" last writing iv in the only block the loop is
+	//entered from, or NONE
+	private static long initialValue(QuadFlowGraph graph, boolean[] inLoop, int header, int iv)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int outside = -1;
+		for (int n = 0; n < graph.getPredecessorCount(header); n++)
+		{
+			int p = graph.getPredecessor(header, n);
+			if (inLoop[p]) continue;
+			if (outside != -1) return NONE;
+			outside = p;
+		}
+		if (outside == -1) return NONE;
+		for (int i = graph.getLastQuad(outside); i >= graph.getBlockStart(outside); i--)
+		{
+			if (!buffer.writesResult(i) || buffer.getResult(i) != iv) continue;
+			if (buffer.getType(i) == NQG.ASGN && buffer.isImmediateA(i) && !buffer.isBoolean(i))
+				return buffer.getA(i);
+			return NONE;
+		}
+		return NONE;
+	}
+
+	//The last value iv can have past the test at the end of the header, where
+	//the loop jumps out on "iv > #high" (step > 0) or "iv < #high" (step < 0),
+	//as a compare jump or a relop and IFTRUE/IFFALSE; NONE for any other test
+	private static long exitBound(QuadFlowGraph graph, boolean[] inLoop, int header, int iv, long step)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int last = graph.getLastQuad(header);
+		int type = buffer.getType(last);
+		if (!buffer.isJump(last) || type == NQG.DOJMP || type == NQG.START || type == NQG.CALL) return NONE;
+		if (buffer.getResult(last) < 0 || buffer.getResult(last) >= buffer.size()) return NONE;	//left pending by an error
+		if (inLoop[graph.getBlockOf(buffer.getResult(last))]) return NONE;
+		if (last + 1 >= buffer.size() || !inLoop[graph.getBlockOf(last + 1)]) return NONE;
+
+		int test = last;	//the quad comparing iv with the bound
+		int relop;
+		if (NQG.isCompareJump(type)) relop = NQG.relopOf(type);
+		else
+		{
+			test = last - 1;
+			if (buffer.isImmediateA(last) || test < graph.getBlockStart(header)) return NONE;
+			relop = buffer.getType(test);
+			if (relop < NQG.RLEQ || relop > NQG.RLGTEQ || buffer.getResult(test) != buffer.getA(last)) return NONE;
+			if (type == NQG.IFFAL) relop = NQG.negatedRelop(relop);
+		}
+
+		//Exits when "iv relop high"
+		long high;
+		boolean immA = buffer.isImmediateA(test), immB = buffer.isImmediateB(test);
+		if (!immA && immB && buffer.getA(test) == iv) high = buffer.getB(test);
+		else if (immA && !immB && buffer.getB(test) == iv)
+		{
+			high = buffer.getA(test);
+			relop = swappedRelop(relop);
+		}
+		else return NONE;
+
+		if (step > 0 && high + step <= Integer.MAX_VALUE)
+		{
+			if (relop == NQG.RLGT) return high;
+			if (relop == NQG.RLGTEQ) return high - 1;
+		}
+		if (step < 0 && high + step >= Integer.MIN_VALUE)
+		{
+			if (relop == NQG.RLST) return high;
+			if (relop == NQG.RLSTEQ) return high + 1;
+		}
+		return NONE;
+	}
+
+	//The relop that holds for "b relop a" exactly when the given one holds for "a relop b"
+	private static int swappedRelop(int relop)
+	{
+		if (relop == NQG.RLST) return NQG.RLGT;
+		if (relop == NQG.RLSTEQ) return NQG.RLGTEQ;
+		if (relop == NQG.RLGT) return NQG.RLST;
+		if (relop == NQG.RLGTEQ) return NQG.RLSTEQ;
+		return relop;
+	}
+
+	//Whether control can get from just after quad from to quad to inside the
+	//loop without going through the header
+	private static boolean isReachableFrom(QuadFlowGraph graph, boolean[] inLoop, int header, int from, int to)
+	{
+		int home = graph.getBlockOf(from);
+		int target = graph.getBlockOf(to);
+		if (home == target && to > from) return true;
+		boolean[] seen = new boolean[graph.getBlockCount()];
+		int[] work = new int[graph.getBlockCount()];
+		int count = 0;
+		work[count++] = home;
+		boolean first = true;
+		while (count > 0)
+		{
+			int b = work[--count];
+			if (!first && b == target) return true;
+			first = false;
+			for (int n = 0; n < graph.getSuccessorCount(b); n++)
+			{
+				int s = graph.getSuccessor(b, n);
+				if (s == header || !inLoop[s] || seen[s]) continue;
+				seen[s] = true;
+				work[count++] = s;
+			}
+		}
+		return false;
+	}
+
+	//The last quad of quad's block before it that writes address, or -1
+	private static int lastWriteBefore(QuadFlowGraph graph, int quad, int address)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int start = graph.getBlockStart(graph.getBlockOf(quad));
+		for (int i = quad - 1; i >= start; i--)
+			if (buffer.writesResult(i) && buffer.getResult(i) == address) return i;
+		return -1;
+	}
+
+	private static int[] innermostFirst(QuadFlowGraph graph)
+	{
+		int loops = graph.getLoopCount();
+		int[] order = new int[loops];
+		for (int n = 0; n < loops; n++) order[n] = n;
+		for (int n = 1; n < loops; n++)
+			for (int m = n; m > 0 && graph.getLoopSize(order[m]) < graph.getLoopSize(order[m - 1]); m--)
+			{ int swap = order[m]; order[m] = order[m - 1]; order[m - 1] = swap; }
+		return order;
+	}
+
+	private static int maxResult(QuadBuffer buffer)
+	{
+		int maxAddress = 0;
+		for (int i = 0; i < buffer.size(); i++)
+			if (buffer.writesResult(i)) maxAddress = Math.max(maxAddress, buffer.getResult(i));
+		return maxAddress;
+	}
+}
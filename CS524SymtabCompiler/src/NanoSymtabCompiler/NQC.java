@@ -0,0 +1,480 @@
+package NanoSymtabCompiler;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.StringTokenizer;
+public class NQC //Nano Quad Closures: quads pre-decoded into executor objects
+{
+	//An execution mode between the emulator in NQE and the bytecode of NQJ.
+	//Loading turns every quad into one small executor object (a Step) made for
+	//its exact operation and operand modes: the addresses and immediate values
+	//it needs are final fields of the object, and it holds a direct reference
+	//to the Step that runs after it (and, for a jump, to its target). Running is
+	//then a loop of step = step.exec() with no opcode or mode to decode.
+	//
+	//The operand modes chosen between here are the ones the NQG quad classes
+	//carry (LeftImmediate, RightImmediate, Regular), read back from the mode
+	//bits of the QuadBuffer. An operation on two immediates is computed at load
+	//time and becomes a store of the result, and a branch on an immediate (or a
+	//compare jump on two) becomes a jump or a step that does nothing.
+	//
+	//Memory goes through NRT as in the emulator, so checked and unchecked
+	//memory behave the same as there, and so does the call stack: a RETURN
+	//step asks it for the quad index to go back to and looks up that step.
+	//Loading costs one object per quad and no
+	//class generation, which makes this the mode for short programs, where
+	//compiling bytecode costs more than it saves.
+
+	private static final int LEFT_IMMEDIATE = 0, RIGHT_IMMEDIATE = 1, REGULAR = 2;
+
+	//Machine state
+	private NRT memory;
+	private BufferedReader in;
+	private PrintStream out;
+	private StringTokenizer pendingInput;
+
+	//The loaded program
+	private Step first;
+	private Step pastEnd;
+	private Step[] steps;
+	private int quadCount;
+	private int foldedCount;
+	private long loadNanos;
+
+	//Statistics of the last run
+	private long executedQuadCount;
+	private long elapsedNanos;
+
+	public NQC(NRT memory)
+	{
+		this(memory, new BufferedReader(new InputStreamReader(System.in)), System.out);
+	}
+
+	public NQC(NRT memory, BufferedReader in, PrintStream out)
+	{
+		this.memory = memory;
+		this.in = in;
+		this.out = out;
+	}
+
+	public NRT getMemory() { return memory; }
+	public int getFoldedCount() { return foldedCount; }
+	public long getLoadNanos() { return loadNanos; }
+	public long getExecutedQuadCount() { return executedQuadCount; }
+	public long getElapsedNanos() { return elapsedNanos; }
+	public double getQuadsPerSecond()
+	{
+		if (elapsedNanos == 0) return 0.0;
+		return executedQuadCount * 1.0e9 / elapsedNanos;
+	}
+
+	/*
+	 * Builds the executors for the quads currently held by the generator.
+	 * Returns false (and reports why) if a quad can not be executed.
+	 */
+	public boolean load(NQG quadGen)
+	{
+		return load(quadGen.getQuadBuffer());
+	}
+
+	public boolean load(QuadBuffer buffer)
+	{
+		long startTime = System.nanoTime();
+		quadCount = buffer.size();
+		foldedCount = 0;
+		first = null;
+		for (int i = 0; i < quadCount; i++)
+		{
+			String error = NQJ.checkQuad(buffer, i, memory.getSize());
+			if (error != null)
+			{
+				out.println("Load error at I-" + i + ": " + error);
+				return false;
+			}
+		}
+
+		steps = new Step[quadCount];
+		for (int i = 0; i < quadCount; i++) steps[i] = makeStep(buffer, i);
+
+		//Falling off the last quad is an error, as in the emulator
+		pastEnd = new Step(quadCount)
+		{
+			Step exec() { throw new IllegalStateException("control reached past the last quad"); }
+		};
+		for (int i = 0; i < quadCount; i++)
+		{
+			steps[i].next = (i + 1 < quadCount) ? steps[i + 1] : pastEnd;
+			if (steps[i] instanceof Branch) ((Branch) steps[i]).target = steps[buffer.getResult(i)];
+		}
+		first = (quadCount > 0) ? steps[0] : pastEnd;
+		loadNanos = System.nanoTime() - startTime;
+		return true;
+	}
+
+	/*
+	 * Executes the loaded program from quad 0 until END is reached or a runtime
+	 * error occurs. Returns true if the program reached END.
+	 */
+	public boolean run()
+	{
+		Step step = first;
+		Step current = step;
+		long executed = 0;
+		boolean failed = false;
+		long startTime = System.nanoTime();
+		try
+		{
+			while (step != null)
+			{
+				current = step;
+				executed++;
+				step = step.exec();
+			}
+		}
+		catch (RuntimeException e)
+		{
+			failed = true;
+			fail(current, e);
+			if (current == pastEnd) executed--;
+		}
+		catch (IOException e)
+		{
+			failed = true;
+			fail(current, e);
+		}
+		elapsedNanos = System.nanoTime() - startTime;
+		executedQuadCount = executed;
+		return !failed;
+	}
+
+	public void showStatistics()
+	{
+		out.println("<<<<<<<<<<< Closure Statistics >>>>>>>>>>>>");
+		out.println("Steps:            " + quadCount);
+		out.println("Folded at load:   " + foldedCount);
+		out.println("Load time:        " + (loadNanos / 1000000.0) + " ms");
+		out.println("Quads executed:   " + executedQuadCount);
+		out.println("Elapsed time:     " + (elapsedNanos / 1000000.0) + " ms");
+		out.println("Quads per second: " + (long) getQuadsPerSecond());
+		out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//One quad, ready to run: exec does its work and returns the step to run
+	//next, or null at END
+	private static abstract class Step
+	{
+		final int index;
+		Step next;
+
+		Step(int index) { this.index = index; }
+
+		abstract Step exec() throws IOException;
+	}
+
+	//A step that may continue somewhere other than next
+	private static abstract class Branch extends Step
+	{
+		Step target;
+
+		Branch(int index) { super(index); }
+	}
+
+	private void fail(Step step, Exception e)
+	{
+		out.println("Runtime error at I-" + step.index + ": " + e);
+	}
+
+	private Step makeStep(QuadBuffer buffer, int i)
+	{
+		final NRT m = memory;
+		final int type = buffer.getType(i);
+		final int a = buffer.getA(i);
+		final int b = buffer.getB(i);
+		final int r = buffer.getResult(i);
+		boolean immA = buffer.isImmediateA(i);
+		boolean immB = buffer.isImmediateB(i);
+		int variant = immA ? LEFT_IMMEDIATE : (immB ? RIGHT_IMMEDIATE : REGULAR);
+
+		boolean unary = (type == NQG.NEG || type == NQG.NOT);
+		if (immA && (immB || unary) && NQG.isFoldable(type, a, b))
+		{
+			foldedCount++;
+			final int value = NQG.fold(type, a, b);
+			if (NQG.hasBooleanResult(type))
+				return new Step(i) { Step exec() { m.setBoolValueAt(r, value != 0); return next; } };
+			return new Step(i) { Step exec() { m.setIntValueAt(r, value); return next; } };
+		}
+
+		if (type == NQG.DIV && immA && immB)		//by zero, or it would have folded
+			return new Step(i) { Step exec() { m.setIntValueAt(r, a / b); return next; } };
+
+		switch (type)
+		{
+		case NQG.MUL: case NQG.DIV: case NQG.ADD: case NQG.SUB:
+			return arithmetic(i, type, variant, a, b, r);
+		case NQG.AND: case NQG.OR:
+			return logical(i, type, variant, a, b, r);
+		case NQG.RLEQ: case NQG.RLNTEQ: case NQG.RLST: case NQG.RLSTEQ: case NQG.RLGT: case NQG.RLGTEQ:
+			return relational(i, type, variant, a, b, r);
+		case NQG.NEG:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, -m.getIntValueAt(a)); return next; } };
+		case NQG.NOT:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, !m.getBoolValueAt(a)); return next; } };
+		case NQG.OFFSET:
+			if (immB) return new Step(i) { Step exec() { m.setReferenceAt(r, a + b); return next; } };
+			return new Step(i) { Step exec() { m.setReferenceAt(r, a + m.getIntValueAt(b)); return next; } };
+		case NQG.CHECK:
+			if (immA) return new Step(i) { Step exec() { NRT.checkIndex(a, b); return next; } };
+			return new Step(i) { Step exec() { NRT.checkIndex(m.getIntValueAt(a), b); return next; } };
+		case NQG.ASGN:
+			return assignment(i, buffer, a, r);
+		case NQG.DOJMP: case NQG.START:
+			return new Branch(i) { Step exec() { return target; } };
+		case NQG.PARAM:
+		{
+			final byte tag = buffer.isBoolean(i) ? NRT.BOOL_TAG : NRT.INT_TAG;
+			if (immA) return new Step(i) { Step exec() { m.pushParameter(r, a, tag); return next; } };
+			if (tag == NRT.BOOL_TAG)
+				return new Step(i) { Step exec() { m.pushParameter(r, m.getBoolValueAt(a) ? 1 : 0, tag); return next; } };
+			return new Step(i) { Step exec() { m.pushParameter(r, m.getIntValueAt(a), tag); return next; } };
+		}
+		case NQG.CALL:
+			return new Branch(i) { Step exec() { m.call(index + 1, a, b); return target; } };
+		case NQG.RETURN:
+			return new Step(i) { Step exec()
+				{ int point = m.ret(); return (point < quadCount) ? steps[point] : pastEnd; } };
+		case NQG.IFTRU: case NQG.IFFAL:
+		{
+			final boolean onTrue = (type == NQG.IFTRU);
+			if (immA)
+			{
+				foldedCount++;
+				if ((a != 0) == onTrue) return new Branch(i) { Step exec() { return target; } };
+				return new Step(i) { Step exec() { return next; } };
+			}
+			if (onTrue) return new Branch(i) { Step exec() { return m.getBoolValueAt(a) ? target : next; } };
+			return new Branch(i) { Step exec() { return m.getBoolValueAt(a) ? next : target; } };
+		}
+		case NQG.JMPEQ: case NQG.JMPNTEQ: case NQG.JMPST: case NQG.JMPSTEQ: case NQG.JMPGT: case NQG.JMPGTEQ:
+			if (immA && immB)
+			{
+				foldedCount++;
+				if (NQG.fold(NQG.relopOf(type), a, b) != 0) return new Branch(i) { Step exec() { return target; } };
+				return new Step(i) { Step exec() { return next; } };
+			}
+			return compareJump(i, NQG.relopOf(type), variant, a, b);
+		case NQG.PRNT:
+		{
+			final PrintStream out = this.out;
+			if (r == -1)
+			{
+				final String text = NQJ.stripQuotes(buffer.getFormatString(i));
+				return new Step(i) { Step exec() { out.println(text); return next; } };
+			}
+			if (buffer.getFormatString(i).equals("I"))
+				return new Step(i) { Step exec() { out.println(m.getIntValueAt(r)); return next; } };
+			return new Step(i) { Step exec() { out.println(m.getBoolValueAt(r)); return next; } };
+		}
+		case NQG.READ:
+			//Stores through a cell produced by OFFSET, like an indirect assign
+			if (buffer.getFormatString(i).equals("I"))
+				return new Step(i) { Step exec() throws IOException
+					{ m.setIntValueAt(readTarget(r), Integer.parseInt(nextInput())); return next; } };
+			return new Step(i) { Step exec() throws IOException
+				{ m.setBoolValueAt(readTarget(r), parseBoolean(nextInput())); return next; } };
+		default:
+			return new Step(i) { Step exec() { return null; } };		//END
+		}
+	}
+
+	private Step arithmetic(int i, int type, int variant, final int a, final int b, final int r)
+	{
+		final NRT m = memory;
+		switch (type * 3 + variant)
+		{
+		case NQG.MUL * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, a * m.getIntValueAt(b)); return next; } };
+		case NQG.MUL * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) * b); return next; } };
+		case NQG.MUL * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) * m.getIntValueAt(b)); return next; } };
+		case NQG.DIV * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, a / m.getIntValueAt(b)); return next; } };
+		case NQG.DIV * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) / b); return next; } };
+		case NQG.DIV * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) / m.getIntValueAt(b)); return next; } };
+		case NQG.ADD * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, a + m.getIntValueAt(b)); return next; } };
+		case NQG.ADD * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) + b); return next; } };
+		case NQG.ADD * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) + m.getIntValueAt(b)); return next; } };
+		case NQG.SUB * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, a - m.getIntValueAt(b)); return next; } };
+		case NQG.SUB * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) - b); return next; } };
+		default:
+			return new Step(i) { Step exec() { m.setIntValueAt(r, m.getIntValueAt(a) - m.getIntValueAt(b)); return next; } };
+		}
+	}
+
+	//AND and OR short circuit as in the emulator: b is not read when a decides
+	private Step logical(int i, int type, int variant, final int a, final int b, final int r)
+	{
+		final NRT m = memory;
+		final boolean immediateA = (a != 0);
+		final boolean immediateB = (b != 0);
+		switch (type * 3 + variant)
+		{
+		case NQG.AND * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, immediateA && m.getBoolValueAt(b)); return next; } };
+		case NQG.AND * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getBoolValueAt(a) && immediateB); return next; } };
+		case NQG.AND * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getBoolValueAt(a) && m.getBoolValueAt(b)); return next; } };
+		case NQG.OR * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, immediateA || m.getBoolValueAt(b)); return next; } };
+		case NQG.OR * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getBoolValueAt(a) || immediateB); return next; } };
+		default:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getBoolValueAt(a) || m.getBoolValueAt(b)); return next; } };
+		}
+	}
+
+	private Step relational(int i, int type, int variant, final int a, final int b, final int r)
+	{
+		final NRT m = memory;
+		switch (type * 3 + variant)
+		{
+		case NQG.RLEQ * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a == m.getIntValueAt(b)); return next; } };
+		case NQG.RLEQ * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) == b); return next; } };
+		case NQG.RLEQ * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) == m.getIntValueAt(b)); return next; } };
+		case NQG.RLNTEQ * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a != m.getIntValueAt(b)); return next; } };
+		case NQG.RLNTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) != b); return next; } };
+		case NQG.RLNTEQ * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) != m.getIntValueAt(b)); return next; } };
+		case NQG.RLST * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a < m.getIntValueAt(b)); return next; } };
+		case NQG.RLST * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) < b); return next; } };
+		case NQG.RLST * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) < m.getIntValueAt(b)); return next; } };
+		case NQG.RLSTEQ * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a <= m.getIntValueAt(b)); return next; } };
+		case NQG.RLSTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) <= b); return next; } };
+		case NQG.RLSTEQ * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) <= m.getIntValueAt(b)); return next; } };
+		case NQG.RLGT * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a > m.getIntValueAt(b)); return next; } };
+		case NQG.RLGT * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) > b); return next; } };
+		case NQG.RLGT * 3 + REGULAR:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) > m.getIntValueAt(b)); return next; } };
+		case NQG.RLGTEQ * 3 + LEFT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, a >= m.getIntValueAt(b)); return next; } };
+		case NQG.RLGTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) >= b); return next; } };
+		default:
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, m.getIntValueAt(a) >= m.getIntValueAt(b)); return next; } };
+		}
+	}
+
+	private Step compareJump(int i, int relop, int variant, final int a, final int b)
+	{
+		final NRT m = memory;
+		switch (relop * 3 + variant)
+		{
+		case NQG.RLEQ * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a == m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLEQ * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) == b ? target : next; } };
+		case NQG.RLEQ * 3 + REGULAR:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) == m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLNTEQ * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a != m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLNTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) != b ? target : next; } };
+		case NQG.RLNTEQ * 3 + REGULAR:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) != m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLST * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a < m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLST * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) < b ? target : next; } };
+		case NQG.RLST * 3 + REGULAR:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) < m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLSTEQ * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a <= m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLSTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) <= b ? target : next; } };
+		case NQG.RLSTEQ * 3 + REGULAR:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) <= m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLGT * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a > m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLGT * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) > b ? target : next; } };
+		case NQG.RLGT * 3 + REGULAR:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) > m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLGTEQ * 3 + LEFT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return a >= m.getIntValueAt(b) ? target : next; } };
+		case NQG.RLGTEQ * 3 + RIGHT_IMMEDIATE:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) >= b ? target : next; } };
+		default:
+			return new Branch(i) { Step exec() { return m.getIntValueAt(a) >= m.getIntValueAt(b) ? target : next; } };
+		}
+	}
+
+	private Step assignment(int i, QuadBuffer buffer, final int a, final int r)
+	{
+		final NRT m = memory;
+		boolean indirect = buffer.isIndirect(i);
+		if (!buffer.isImmediateA(i))
+		{
+			if (indirect) return new Step(i) { Step exec() { m.copyValueAt(a, m.getReferenceAt(r)); return next; } };
+			return new Step(i) { Step exec() { m.copyValueAt(a, r); return next; } };
+		}
+		if (buffer.isBoolean(i))
+		{
+			final boolean value = (a != 0);
+			if (indirect) return new Step(i) { Step exec() { m.setBoolValueAt(m.getReferenceAt(r), value); return next; } };
+			return new Step(i) { Step exec() { m.setBoolValueAt(r, value); return next; } };
+		}
+		if (indirect) return new Step(i) { Step exec() { m.setIntValueAt(m.getReferenceAt(r), a); return next; } };
+		return new Step(i) { Step exec() { m.setIntValueAt(r, a); return next; } };
+	}
+
+	//READ stores through a cell produced by OFFSET, like an indirect assign
+	private int readTarget(int address)
+	{
+		if (memory.isReferenceAt(address)) return memory.getReferenceAt(address);
+		return address;
+	}
+
+	//Input is a stream of whitespace separated values, any number per line
+	private String nextInput() throws IOException
+	{
+		while (pendingInput == null || !pendingInput.hasMoreTokens())
+		{
+			String line = in.readLine();
+			if (line == null) throw new IllegalStateException("READ past end of input");
+			pendingInput = new StringTokenizer(line);
+		}
+		return pendingInput.nextToken();
+	}
+
+	private static boolean parseBoolean(String s)
+	{
+		if (s.equalsIgnoreCase("true")) return true;
+		if (s.equalsIgnoreCase("false")) return false;
+		throw new IllegalArgumentException("boolean input expected, found \"" + s + "\"");
+	}
+}
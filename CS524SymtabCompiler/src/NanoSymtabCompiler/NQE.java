@@ -0,0 +1,404 @@
+package NanoSymtabCompiler;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.StringTokenizer;
+public class NQE //Nano Quad Emulator
+{
+	//This class is the emulator promised in NQG: it executes the quad list built
+	//by the quad generator against the runtime memory model in NRT.
+
+	//Quads are decoded exactly once, when they are loaded from a QuadBuffer.
+	//Every quad type and operand mode becomes one small integer opcode (below)
+	//plus up to three int operands held in parallel arrays, so the execution
+	//loop is a single dense switch. Boolean immediates are 0 (false) and 1 (true).
+
+	//Suffixes: BI both immediate, LI left immediate, RI right immediate,
+	//RG regular (both addresses), I immediate, R regular (address)
+	private static final int MUL_BI = 0, MUL_LI = 1, MUL_RI = 2, MUL_RG = 3;
+	private static final int DIV_BI = 4, DIV_LI = 5, DIV_RI = 6, DIV_RG = 7;
+	private static final int AND_BI = 8, AND_LI = 9, AND_RI = 10, AND_RG = 11;
+	private static final int ADD_BI = 12, ADD_LI = 13, ADD_RI = 14, ADD_RG = 15;
+	private static final int SUB_BI = 16, SUB_LI = 17, SUB_RI = 18, SUB_RG = 19;
+	private static final int OR_BI = 20, OR_LI = 21, OR_RI = 22, OR_RG = 23;
+	private static final int EQ_BI = 24, EQ_LI = 25, EQ_RI = 26, EQ_RG = 27;
+	private static final int NE_BI = 28, NE_LI = 29, NE_RI = 30, NE_RG = 31;
+	private static final int LT_BI = 32, LT_LI = 33, LT_RI = 34, LT_RG = 35;
+	private static final int LE_BI = 36, LE_LI = 37, LE_RI = 38, LE_RG = 39;
+	private static final int GT_BI = 40, GT_LI = 41, GT_RI = 42, GT_RG = 43;
+	private static final int GE_BI = 44, GE_LI = 45, GE_RI = 46, GE_RG = 47;
+	private static final int NEG_I = 48, NEG_R = 49;
+	private static final int NOT_I = 50, NOT_R = 51;
+	private static final int OFFSET_I = 52, OFFSET_R = 53;
+	private static final int ASSIGN_INT_I = 54, ASSIGN_IND_INT_I = 55;
+	private static final int ASSIGN_BOOL_I = 56, ASSIGN_IND_BOOL_I = 57;
+	private static final int ASSIGN_R = 58, ASSIGN_IND_R = 59;
+	private static final int JMP = 60;
+	private static final int IFTRUE_I = 61, IFTRUE_R = 62;
+	private static final int IFFALSE_I = 63, IFFALSE_R = 64;
+	private static final int PRINT_STRING = 65, PRINT_INT = 66, PRINT_BOOL = 67;
+	private static final int READ_INT = 68, READ_BOOL = 69;
+	private static final int START = 70, END = 71;
+	private static final int JEQ_BI = 72, JEQ_LI = 73, JEQ_RI = 74, JEQ_RG = 75;
+	private static final int JNE_BI = 76, JNE_LI = 77, JNE_RI = 78, JNE_RG = 79;
+	private static final int JLT_BI = 80, JLT_LI = 81, JLT_RI = 82, JLT_RG = 83;
+	private static final int JLE_BI = 84, JLE_LI = 85, JLE_RI = 86, JLE_RG = 87;
+	private static final int JGT_BI = 88, JGT_LI = 89, JGT_RI = 90, JGT_RG = 91;
+	private static final int JGE_BI = 92, JGE_LI = 93, JGE_RI = 94, JGE_RG = 95;
+	private static final int CHECK_I = 96, CHECK_R = 97;
+	private static final int PARAM_INT_I = 98, PARAM_BOOL_I = 99, PARAM_INT_R = 100, PARAM_BOOL_R = 101;
+	private static final int CALL = 102, RETURN = 103;
+
+	//Decoded program
+	private int quadCount;
+	private int[] opcodes;
+	private int[] argsA;		//first operand: immediate value or address
+	private int[] argsB;		//second operand: immediate value or address
+	private int[] results;		//result address, or target quad index for jumps
+	private String[] strings;	//literal text for PRINT_STRING, null otherwise
+
+	//Machine state
+	private NRT memory;
+	private BufferedReader in;
+	private PrintStream out;
+	private StringTokenizer pendingInput;
+	private NQP profile;		//null unless profiling, see NQP
+
+	//Statistics of the last run
+	private long executedQuadCount;
+	private long elapsedNanos;
+
+	public NQE(NRT memory)
+	{
+		this(memory, new BufferedReader(new InputStreamReader(System.in)), System.out);
+	}
+
+	public NQE(NRT memory, BufferedReader in, PrintStream out)
+	{
+		this.memory = memory;
+		this.in = in;
+		this.out = out;
+		quadCount = 0;
+	}
+
+	public NRT getMemory() { return memory; }
+	//A profile made for this program, to count its quads while it runs; its
+	//memory (NQP.getMemory) should be the one this emulator was given
+	public NQP getProfile() { return profile; }
+	public void setProfile(NQP profile) { this.profile = profile; }
+	public long getExecutedQuadCount() { return executedQuadCount; }
+	public long getElapsedNanos() { return elapsedNanos; }
+	public double getQuadsPerSecond()
+	{
+		if (elapsedNanos == 0) return 0.0;
+		return executedQuadCount * 1.0e9 / elapsedNanos;
+	}
+
+	/*
+	 * Decodes the quads currently held by the generator. Returns false (and
+	 * reports why) if a quad can not be executed, e.g. a jump that was never
+	 * backpatched.
+	 */
+	public boolean load(NQG quadGen)
+	{
+		return load(quadGen.getQuadBuffer());
+	}
+
+	public boolean load(QuadBuffer buffer)
+	{
+		quadCount = buffer.size();
+		opcodes = new int[quadCount];
+		argsA = new int[quadCount];
+		argsB = new int[quadCount];
+		results = new int[quadCount];
+		strings = new String[quadCount];
+		for (int i = 0; i < quadCount; i++)
+		{
+			if (!decode(i, buffer)) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Executes the loaded program from quad 0 until END is reached or a runtime
+	 * error occurs. Returns true if the program reached END.
+	 */
+	public boolean run()
+	{
+		//Local copies keep the loop free of field loads
+		final int[] opcodes = this.opcodes;
+		final int[] argsA = this.argsA;
+		final int[] argsB = this.argsB;
+		final int[] results = this.results;
+		final NRT memory = this.memory;
+		final NQP profile = this.profile;
+
+		int ip = 0;
+		long executed = 0;
+		boolean halted = false;
+		boolean failed = false;
+		long startTime = System.nanoTime();
+		if (profile != null) profile.begin();
+		try
+		{
+			while (!halted)
+			{
+				if (ip < 0 || ip >= quadCount)
+					throw new IllegalStateException("control reached past the last quad");
+				executed++;
+				if (profile != null) profile.enter(ip);
+				int a = argsA[ip];
+				int b = argsB[ip];
+				int r = results[ip];
+				switch (opcodes[ip])
+				{
+				case MUL_BI: memory.setIntValueAt(r, a * b); break;
+				case MUL_LI: memory.setIntValueAt(r, a * memory.getIntValueAt(b)); break;
+				case MUL_RI: memory.setIntValueAt(r, memory.getIntValueAt(a) * b); break;
+				case MUL_RG: memory.setIntValueAt(r, memory.getIntValueAt(a) * memory.getIntValueAt(b)); break;
+				case DIV_BI: memory.setIntValueAt(r, a / b); break;
+				case DIV_LI: memory.setIntValueAt(r, a / memory.getIntValueAt(b)); break;
+				case DIV_RI: memory.setIntValueAt(r, memory.getIntValueAt(a) / b); break;
+				case DIV_RG: memory.setIntValueAt(r, memory.getIntValueAt(a) / memory.getIntValueAt(b)); break;
+				case AND_BI: memory.setBoolValueAt(r, (a != 0) && (b != 0)); break;
+				case AND_LI: memory.setBoolValueAt(r, (a != 0) && memory.getBoolValueAt(b)); break;
+				case AND_RI: memory.setBoolValueAt(r, memory.getBoolValueAt(a) && (b != 0)); break;
+				case AND_RG: memory.setBoolValueAt(r, memory.getBoolValueAt(a) && memory.getBoolValueAt(b)); break;
+				case ADD_BI: memory.setIntValueAt(r, a + b); break;
+				case ADD_LI: memory.setIntValueAt(r, a + memory.getIntValueAt(b)); break;
+				case ADD_RI: memory.setIntValueAt(r, memory.getIntValueAt(a) + b); break;
+				case ADD_RG: memory.setIntValueAt(r, memory.getIntValueAt(a) + memory.getIntValueAt(b)); break;
+				case SUB_BI: memory.setIntValueAt(r, a - b); break;
+				case SUB_LI: memory.setIntValueAt(r, a - memory.getIntValueAt(b)); break;
+				case SUB_RI: memory.setIntValueAt(r, memory.getIntValueAt(a) - b); break;
+				case SUB_RG: memory.setIntValueAt(r, memory.getIntValueAt(a) - memory.getIntValueAt(b)); break;
+				case OR_BI: memory.setBoolValueAt(r, (a != 0) || (b != 0)); break;
+				case OR_LI: memory.setBoolValueAt(r, (a != 0) || memory.getBoolValueAt(b)); break;
+				case OR_RI: memory.setBoolValueAt(r, memory.getBoolValueAt(a) || (b != 0)); break;
+				case OR_RG: memory.setBoolValueAt(r, memory.getBoolValueAt(a) || memory.getBoolValueAt(b)); break;
+				case EQ_BI: memory.setBoolValueAt(r, a == b); break;
+				case EQ_LI: memory.setBoolValueAt(r, a == memory.getIntValueAt(b)); break;
+				case EQ_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) == b); break;
+				case EQ_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) == memory.getIntValueAt(b)); break;
+				case NE_BI: memory.setBoolValueAt(r, a != b); break;
+				case NE_LI: memory.setBoolValueAt(r, a != memory.getIntValueAt(b)); break;
+				case NE_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) != b); break;
+				case NE_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) != memory.getIntValueAt(b)); break;
+				case LT_BI: memory.setBoolValueAt(r, a < b); break;
+				case LT_LI: memory.setBoolValueAt(r, a < memory.getIntValueAt(b)); break;
+				case LT_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) < b); break;
+				case LT_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) < memory.getIntValueAt(b)); break;
+				case LE_BI: memory.setBoolValueAt(r, a <= b); break;
+				case LE_LI: memory.setBoolValueAt(r, a <= memory.getIntValueAt(b)); break;
+				case LE_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) <= b); break;
+				case LE_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) <= memory.getIntValueAt(b)); break;
+				case GT_BI: memory.setBoolValueAt(r, a > b); break;
+				case GT_LI: memory.setBoolValueAt(r, a > memory.getIntValueAt(b)); break;
+				case GT_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) > b); break;
+				case GT_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) > memory.getIntValueAt(b)); break;
+				case GE_BI: memory.setBoolValueAt(r, a >= b); break;
+				case GE_LI: memory.setBoolValueAt(r, a >= memory.getIntValueAt(b)); break;
+				case GE_RI: memory.setBoolValueAt(r, memory.getIntValueAt(a) >= b); break;
+				case GE_RG: memory.setBoolValueAt(r, memory.getIntValueAt(a) >= memory.getIntValueAt(b)); break;
+				case NEG_I: memory.setIntValueAt(r, -a); break;
+				case NEG_R: memory.setIntValueAt(r, -memory.getIntValueAt(a)); break;
+				case NOT_I: memory.setBoolValueAt(r, a == 0); break;
+				case NOT_R: memory.setBoolValueAt(r, !memory.getBoolValueAt(a)); break;
+				case OFFSET_I: memory.setReferenceAt(r, a + b); break;
+				case OFFSET_R: memory.setReferenceAt(r, a + memory.getIntValueAt(b)); break;
+				case CHECK_I: NRT.checkIndex(a, b); break;
+				case CHECK_R: NRT.checkIndex(memory.getIntValueAt(a), b); break;
+				case ASSIGN_INT_I: memory.setIntValueAt(r, a); break;
+				case ASSIGN_IND_INT_I: memory.setIntValueAt(memory.getReferenceAt(r), a); break;
+				case ASSIGN_BOOL_I: memory.setBoolValueAt(r, a != 0); break;
+				case ASSIGN_IND_BOOL_I: memory.setBoolValueAt(memory.getReferenceAt(r), a != 0); break;
+				case ASSIGN_R: memory.copyValueAt(a, r); break;
+				case ASSIGN_IND_R: memory.copyValueAt(a, memory.getReferenceAt(r)); break;
+				case JMP: ip = r; continue;
+				case IFTRUE_I: if (a != 0) { ip = r; continue; } break;
+				case IFTRUE_R: if (memory.getBoolValueAt(a)) { ip = r; continue; } break;
+				case IFFALSE_I: if (a == 0) { ip = r; continue; } break;
+				case IFFALSE_R: if (!memory.getBoolValueAt(a)) { ip = r; continue; } break;
+				case JEQ_BI: if (a == b) { ip = r; continue; } break;
+				case JEQ_LI: if (a == memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JEQ_RI: if (memory.getIntValueAt(a) == b) { ip = r; continue; } break;
+				case JEQ_RG: if (memory.getIntValueAt(a) == memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JNE_BI: if (a != b) { ip = r; continue; } break;
+				case JNE_LI: if (a != memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JNE_RI: if (memory.getIntValueAt(a) != b) { ip = r; continue; } break;
+				case JNE_RG: if (memory.getIntValueAt(a) != memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JLT_BI: if (a < b) { ip = r; continue; } break;
+				case JLT_LI: if (a < memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JLT_RI: if (memory.getIntValueAt(a) < b) { ip = r; continue; } break;
+				case JLT_RG: if (memory.getIntValueAt(a) < memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JLE_BI: if (a <= b) { ip = r; continue; } break;
+				case JLE_LI: if (a <= memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JLE_RI: if (memory.getIntValueAt(a) <= b) { ip = r; continue; } break;
+				case JLE_RG: if (memory.getIntValueAt(a) <= memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JGT_BI: if (a > b) { ip = r; continue; } break;
+				case JGT_LI: if (a > memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JGT_RI: if (memory.getIntValueAt(a) > b) { ip = r; continue; } break;
+				case JGT_RG: if (memory.getIntValueAt(a) > memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JGE_BI: if (a >= b) { ip = r; continue; } break;
+				case JGE_LI: if (a >= memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case JGE_RI: if (memory.getIntValueAt(a) >= b) { ip = r; continue; } break;
+				case JGE_RG: if (memory.getIntValueAt(a) >= memory.getIntValueAt(b)) { ip = r; continue; } break;
+				case PRINT_STRING: out.println(strings[ip]); break;
+				case PRINT_INT: out.println(memory.getIntValueAt(r)); break;
+				case PRINT_BOOL: out.println(memory.getBoolValueAt(r)); break;
+				case READ_INT: memory.setIntValueAt(readTarget(r), Integer.parseInt(nextInput())); break;
+				case READ_BOOL: memory.setBoolValueAt(readTarget(r), parseBoolean(nextInput())); break;
+				case PARAM_INT_I: memory.pushParameter(r, a, NRT.INT_TAG); break;
+				case PARAM_BOOL_I: memory.pushParameter(r, a, NRT.BOOL_TAG); break;
+				case PARAM_INT_R: memory.pushParameter(r, memory.getIntValueAt(a), NRT.INT_TAG); break;
+				case PARAM_BOOL_R: memory.pushParameter(r, memory.getBoolValueAt(a) ? 1 : 0, NRT.BOOL_TAG); break;
+				case CALL: memory.call(ip + 1, a, b); ip = r; continue;
+				case RETURN: ip = memory.ret(); continue;
+				case START: ip = r; continue;
+				case END: halted = true; break;
+				}
+				ip++;
+			}
+		}
+		catch (RuntimeException e)
+		{
+			failed = true;
+			out.println("Runtime error at I-" + ip + ": " + e);
+		}
+		catch (IOException e)
+		{
+			failed = true;
+			out.println("Runtime error at I-" + ip + ": " + e);
+		}
+		elapsedNanos = System.nanoTime() - startTime;
+		executedQuadCount = executed;
+		return !failed;
+	}
+
+	public void showStatistics()
+	{
+		out.println("<<<<<<<<<<< Emulator Statistics >>>>>>>>>>>>");
+		out.println("Quads executed:   " + executedQuadCount);
+		out.println("Elapsed time:     " + (elapsedNanos / 1000000.0) + " ms");
+		out.println("Quads per second: " + (long) getQuadsPerSecond());
+		out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//READ stores through a cell produced by OFFSET, like an indirect assign
+	private int readTarget(int address)
+	{
+		if (memory.isReferenceAt(address)) return memory.getReferenceAt(address);
+		return address;
+	}
+
+	//Input is a stream of whitespace separated values, any number per line
+	private String nextInput() throws IOException
+	{
+		while (pendingInput == null || !pendingInput.hasMoreTokens())
+		{
+			String line = in.readLine();
+			if (line == null) throw new IllegalStateException("READ past end of input");
+			pendingInput = new StringTokenizer(line);
+		}
+		return pendingInput.nextToken();
+	}
+
+	private static boolean parseBoolean(String s)
+	{
+		if (s.equalsIgnoreCase("true")) return true;
+		if (s.equalsIgnoreCase("false")) return false;
+		throw new IllegalArgumentException("boolean input expected, found \"" + s + "\"");
+	}
+
+	//Maps row i of the buffer onto slot i of the decoded program
+	private boolean decode(int i, QuadBuffer buffer)
+	{
+		int type = buffer.getType(i);
+		int a = buffer.getA(i);
+		int b = buffer.getB(i);
+		int r = buffer.getResult(i);
+		boolean immA = buffer.isImmediateA(i);
+		int op = -1;
+
+		//Both immediate, left immediate, right immediate, regular
+		int variant = immA ? (buffer.isImmediateB(i) ? 0 : 1) : (buffer.isImmediateB(i) ? 2 : 3);
+
+		//NQG numbers MUL..OR as 0..5, the relops as 8..13 and the compare jumps
+		//as 23..28, in the same order as the opcode groups above
+		if (type >= NQG.MUL && type <= NQG.OR) op = type * 4 + variant;
+		else if (type >= NQG.RLEQ && type <= NQG.RLGTEQ) op = EQ_BI + (type - NQG.RLEQ) * 4 + variant;
+		else if (NQG.isCompareJump(type)) op = JEQ_BI + (type - NQG.JMPEQ) * 4 + variant;
+		else if (type == NQG.NEG) op = immA ? NEG_I : NEG_R;
+		else if (type == NQG.NOT) op = immA ? NOT_I : NOT_R;
+		else if (type == NQG.OFFSET) op = buffer.isImmediateB(i) ? OFFSET_I : OFFSET_R;
+		else if (type == NQG.CHECK) op = immA ? CHECK_I : CHECK_R;
+		else if (type == NQG.ASGN)
+		{
+			if (!immA) op = buffer.isIndirect(i) ? ASSIGN_IND_R : ASSIGN_R;
+			else if (buffer.isBoolean(i)) op = buffer.isIndirect(i) ? ASSIGN_IND_BOOL_I : ASSIGN_BOOL_I;
+			else op = buffer.isIndirect(i) ? ASSIGN_IND_INT_I : ASSIGN_INT_I;
+		}
+		else if (type == NQG.DOJMP) op = JMP;
+		else if (type == NQG.IFTRU) op = immA ? IFTRUE_I : IFTRUE_R;
+		else if (type == NQG.IFFAL) op = immA ? IFFALSE_I : IFFALSE_R;
+		else if (type == NQG.PRNT)
+		{
+			String format = buffer.getFormatString(i);
+			if (r == -1)
+			{
+				op = PRINT_STRING;
+				strings[i] = stripQuotes(format);
+			}
+			else if (format.equals("I")) op = PRINT_INT;
+			else if (format.equals("B")) op = PRINT_BOOL;
+		}
+		else if (type == NQG.READ)
+		{
+			String format = buffer.getFormatString(i);
+			if (format.equals("I")) op = READ_INT;
+			else if (format.equals("B")) op = READ_BOOL;
+		}
+		else if (type == NQG.PARAM)
+		{
+			if (buffer.isBoolean(i)) op = immA ? PARAM_BOOL_I : PARAM_BOOL_R;
+			else op = immA ? PARAM_INT_I : PARAM_INT_R;
+		}
+		else if (type == NQG.CALL) op = CALL;
+		else if (type == NQG.RETURN) op = RETURN;
+		else if (type == NQG.START) op = START;
+		else if (type == NQG.END) op = END;
+
+		if (op == -1)
+		{
+			out.println("Load error at I-" + i + ": unsupported quad " + buffer.toString(i));
+			return false;
+		}
+		if (buffer.isJump(i) && (r < 0 || r >= quadCount))
+		{
+			out.println("Load error at I-" + i + ": jump target I-" + r + " is not a quad");
+			return false;
+		}
+		if (!buffer.isJump(i) && op != END && op != RETURN && op != PRINT_STRING && type != NQG.CHECK
+			&& (r < 0 || r >= memory.getSize()))
+		{
+			out.println("Load error at I-" + i + ": address " + r + " is outside runtime memory");
+			return false;
+		}
+		opcodes[i] = op;
+		argsA[i] = a;
+		argsB[i] = b;
+		results[i] = r;
+		return true;
+	}
+
+	//The scanner hands string constants over with their surrounding quotes
+	private static String stripQuotes(String s)
+	{
+		if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\""))
+			return s.substring(1, s.length() - 1);
+		return s;
+	}
+}
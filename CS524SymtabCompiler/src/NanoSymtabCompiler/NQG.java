@@ -1,7 +1,5 @@
 package NanoSymtabCompiler;
 import java.util.ArrayList;
-import java.util.Hashtable;
-import java.util.Iterator;
 public class NQG //Pico Quad Generator
 {
 	//This class is a factory for quads, handling immediate as well as addressed
@@ -17,17 +15,22 @@ public class NQG //Pico Quad Generator
 	//Internal variables and structures
 	private int expectedSize = 10000;  //Big enough for our examples
 	private int currentQuadNum;
-	private int nextBackpatchLabelNum;
 	private ArrayList quads;
-	private Hashtable quadsToBackpatch;	
+	private QuadBuffer quadBuffer;  //Only in compact mode, where it replaces quads
 	private ArrayList constQuadList;
+	private boolean constantFolding = false;
+	private boolean boundsChecking = false;
 
 	public NQG()
+	{ this(false); }
+
+	//In compact mode every quad added is encoded into a QuadBuffer row and the
+	//quad object itself is not kept, so getQuadList() is not available
+	public NQG(boolean compact)
 	{
 		currentQuadNum = 0;
-		nextBackpatchLabelNum = 0;
-		quads = new ArrayList(expectedSize);
-		quadsToBackpatch = new Hashtable(expectedSize);
+		if (compact) quadBuffer = new QuadBuffer();
+		else quads = new ArrayList(expectedSize);
 		constQuadList = new ArrayList();
 	}
 	//A base abstract class for quads in general handles common features
@@ -38,8 +41,6 @@ public class NQG //Pico Quad Generator
 	//of the concrete subclasses but their specificity greatly facilitates both flexibility
 	//in the compiling and precision in the emulators actions (product forthcoming).
 	
-	//Ahh, yes, and before looking at the quad class structure, consider the utility 
-	//class that is the value stored by quadLabel key in the backpatching hashtable
 	//Many of the public interface methods on these classes may not be of much use
 	//in the compiler, other than during the development stage, but accessor (at
 	//least "getters") are generally always provided
@@ -49,29 +50,75 @@ public class NQG //Pico Quad Generator
 	public void clearConstQuadList() { constQuadList = new ArrayList(); }
 	public int getCurrentQuadNumber() { return currentQuadNum; }	
 	public void setCurrentQuadNumber(int quadNumber) { currentQuadNum = quadNumber; } //Rare
-	public ArrayList getQuadList() { return quads; }	
-	public void addQuad(Quad q) { quads.add(currentQuadNum++,q); }
-	
-	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+	public boolean isCompact() { return quadBuffer != null; }
+	//In constant folding mode the compiler asks fold() for the value of a quad whose
+	//operands are all immediate instead of making the quad (see NanoSymbolTable)
+	public boolean isConstantFolding() { return constantFolding; }
+	public void setConstantFolding(boolean constantFolding) { this.constantFolding = constantFolding; }
+	//In bounds checking mode the compiler puts a CHECK quad in front of each OFFSET
+	//whose index is not a literal known to be inside the array, see NQB
+	public boolean isBoundsChecking() { return boundsChecking; }
+	public void setBoundsChecking(boolean boundsChecking) { this.boundsChecking = boundsChecking; }
+	public ArrayList getQuadList() { return quads; } //null in compact mode
+	//The source line is kept with the quad (and its QuadBuffer row) for the
+	//profiler, see NQP
+	public void addQuad(Quad q, int sourceLine)
+	{
+		q.setSourceLine(sourceLine);
+		addQuad(q);
+	}
 
-	public final class BackpatchEntry
+	public void addQuad(Quad q) 
+	{
+		if (quadBuffer != null) quadBuffer.add(currentQuadNum++,q);
+		else quads.add(currentQuadNum++,q);
+	}
+	//In compact mode the buffer itself, otherwise a buffer built from the quad list
+	public QuadBuffer getQuadBuffer()
+	{
+		if (quadBuffer != null) return quadBuffer;
+		return QuadBuffer.fromQuads(quads, currentQuadNum);
+	}
+	
+	//Runs a peephole optimizer over the finished program and returns the number of
+	//quads it removed. The optimizer rewrites buffer rows, so outside compact mode
+	//the quad list is encoded into a buffer first and NQG continues in compact mode
+	public int optimize(NQO optimizer)
+	{
+		makeCompact();
+		int removed = optimizer.optimize(quadBuffer);
+		currentQuadNum = quadBuffer.size();
+		return removed;
+	}
+	
+	//Same for the loop optimizer, which moves quads out of loops and so may
+	//change the number of quads; returns the number of rewrites it made
+	public int optimizeLoops(NQL optimizer)
+	{
+		makeCompact();
+		int rewrites = optimizer.optimize(quadBuffer);
+		currentQuadNum = quadBuffer.size();
+		return rewrites;
+	}
+	
+	//And for the bounds check eliminator; returns the number of CHECKs removed
+	public int eliminateChecks(NQB eliminator)
+	{
+		makeCompact();
+		int removed = eliminator.eliminate(quadBuffer);
+		currentQuadNum = quadBuffer.size();
+		return removed;
+	}
+	
+	private void makeCompact()
 	{
-		private int quadId = -1; //Once set, this identifies the quad that needs a jump address
-								 //entered (associated with the key this entry is stored with)
-		private int backpatchAddress = -1; //Once discovered and updated the compiler can
-										   //at any moment, but generally at the end of the
-										   //compile iterate over all those in the table 
-		public BackpatchEntry(int quadId, int backpatchAddress)
+		if (quadBuffer == null)
 		{
-			this.quadId = quadId;
-			this.backpatchAddress = backpatchAddress;
+			quadBuffer = QuadBuffer.fromQuads(quads, currentQuadNum);
+			quads = null;
 		}
-		public int getQuadId() {return quadId; }
-		public int getBackpatchAddress() { return backpatchAddress; }
-		public void setBackpatchAddress(int backpatchAddress) 
-		{ this.backpatchAddress = backpatchAddress; }
 	}
-
+	
 	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
 	
 	//public Quad(int quadId, int quadType) -- attributes always stored in any quad
@@ -85,6 +132,7 @@ public class NQG //Pico Quad Generator
 											//actions than this code; but it is "legacy"
 											//to include it and it does facilitate the 
 											//easy printout of quad type names
+		protected int sourceLine = -1;		//Line of source the quad was made for, if known
 		public Quad(int quadId, int quadType)
 		{
 			this.quadId = quadId;
@@ -94,6 +142,8 @@ public class NQG //Pico Quad Generator
 		public void setQuadId(int quadId) { this.quadId = quadId; } //In rare cases
 		public int getQuadType() { return quadType; }
 		public String getQuadTypeName() { return quadTypeNameMap(quadType); }
+		public int getSourceLine() { return sourceLine; }
+		public void setSourceLine(int sourceLine) { this.sourceLine = sourceLine; }
 		public String toString() { return "< I-" + quadId + "\t| " +
 										  getQuadTypeName() + "\t|"; }
 	}
@@ -121,33 +171,24 @@ public class NQG //Pico Quad Generator
 	public abstract class InstrModQuad extends Quad
 	{
 		protected int targetQuadIndex = -1;		//Temporary value until assigned
-		protected String backpatchQuadLabel = "";
+											//(while pending it links a patch list, see below)
 		public InstrModQuad(int quadId, int quadType, int targetQuadIndex)
 		{
 			super(quadId,quadType);
 			this.targetQuadIndex = targetQuadIndex;
-			if (this.targetQuadIndex==-1) 
-			{
-				backpatchQuadLabel = getNewQuadLabel();
-				quadsToBackpatch.put(backpatchQuadLabel, new BackpatchEntry(quadId,-1));
-			}
 		}
 		public int getTargetQuadIndex() { return targetQuadIndex; }
-		public String getBackpatchQuadLabel() { return backpatchQuadLabel; }
 		public void setTargetQuadIndex(int index) { targetQuadIndex = index; }
 		public String toString() { return (super.toString() + "\tI-" + targetQuadIndex); }
 	}
 
 	public final class Start extends InstrModQuad
 	{
-		private int targetQuadIndex = -1; //Temporary value until assigned
-										  //Typically by compiler as last instruction
+		//The target is backpatched by the compiler once the main block begins
 		public Start(int quadId, int targetQuadIndex)
 		{
 			super(quadId,NQG.START,targetQuadIndex);
-			this.targetQuadIndex = targetQuadIndex;
 		}
-		public int getTargetQuadIndex() { return targetQuadIndex; }
 		public String toString() { return (super.toString() + "\t|\t-\t|\t-\t>"); }
 	}
 	
@@ -1210,6 +1251,46 @@ public class NQG //Pico Quad Generator
 		}
 	}	
 	
+	//public CheckIndexImmediate(..., int value, int arraySize)
+	// - traps at run time unless 0 <= value < arraySize; writes no memory, so the
+	// result address stays -1
+	public final class CheckIndexImmediate extends MemModQuad
+	{
+		private int value;
+		private int arraySize;
+		public CheckIndexImmediate(int quadId, int value, int arraySize)
+		{
+			super(quadId,NQG.CHECK,-1);
+			this.value = value;
+			this.arraySize = arraySize;
+		}
+		public int getActualValue() { return value; }
+		public int getArraySize() { return arraySize; }
+		public String toString()
+		{ return "< I-" + quadId + "\t| " + getQuadTypeName() + "\t|\t-\t|\t#" + value +
+					"\t|\t#" + arraySize + "\t>"; }
+	}
+
+	//public CheckIndexRegular(..., int address, int arraySize)
+	public final class CheckIndexRegular extends MemModQuad
+	{
+		private int address;
+		private int arraySize;
+		public CheckIndexRegular(int quadId, int address, int arraySize)
+		{
+			super(quadId,NQG.CHECK,-1);
+			this.address = address;
+			this.arraySize = arraySize;
+		}
+		public int getActualAddress() { return address; }
+		public int getArraySize() { return arraySize; }
+		public String toString()
+		{ return "< I-" + quadId + "\t| " + getQuadTypeName() + "\t|\t-\t|\t" + address +
+					"\t|\t#" + arraySize + "\t>"; }
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
 	//public AssignImmediateInteger (..., int value)
 	public final class AssignImmediateInteger extends MemModQuad
 	{
@@ -1374,6 +1455,89 @@ public class NQG //Pico Quad Generator
 	}
 	
 	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//The fused compare-and-branch quads: "jump if a relop b" in one quad, in place
+	//of a relop into a temp followed by an IFTRUE/IFFALSE on it. One class per
+	//operand variant serves all six relations, the quadType (JMPEQ ... JMPGTEQ)
+	//says which relation it is
+
+	//		public CompareJumpBothImmediate
+	//			(..., int compareJumpType, int valueA, int valueB)
+	public final class CompareJumpBothImmediate extends InstrModQuad
+	{
+		private int valueA = -1;
+		private int valueB = -1;
+		public CompareJumpBothImmediate
+					(int quadId, int compareJumpType, int targetQuadIndex, int valueA, int valueB)
+		{
+			super(quadId,compareJumpType,targetQuadIndex);
+			this.valueA = valueA;
+			this.valueB = valueB;
+		}
+		public int getActualValueA() { return valueA; }
+		public int getActualValueB() { return valueB; }
+		public String toString()
+		{ return (super.toString() + "\t|\t#" + valueA + "\t|\t#" + valueB + "\t>"); }
+	}
+
+	//		public CompareJumpLeftImmediate
+	//			(..., int compareJumpType, int valueA, int addressB)
+	public final class CompareJumpLeftImmediate extends InstrModQuad
+	{
+		private int valueA = -1;
+		private int addressB = -1;
+		public CompareJumpLeftImmediate
+					(int quadId, int compareJumpType, int targetQuadIndex, int valueA, int addressB)
+		{
+			super(quadId,compareJumpType,targetQuadIndex);
+			this.valueA = valueA;
+			this.addressB = addressB;
+		}
+		public int getActualValueA() { return valueA; }
+		public int getActualAddressB() { return addressB; }
+		public String toString()
+		{ return (super.toString() + "\t|\t#" + valueA + "\t|\t" + addressB + "\t>"); }
+	}
+
+	//		public CompareJumpRightImmediate
+	//			(..., int compareJumpType, int addressA, int valueB)
+	public final class CompareJumpRightImmediate extends InstrModQuad
+	{
+		private int addressA = -1;
+		private int valueB = -1;
+		public CompareJumpRightImmediate
+					(int quadId, int compareJumpType, int targetQuadIndex, int addressA, int valueB)
+		{
+			super(quadId,compareJumpType,targetQuadIndex);
+			this.addressA = addressA;
+			this.valueB = valueB;
+		}
+		public int getActualAddressA() { return addressA; }
+		public int getActualValueB() { return valueB; }
+		public String toString()
+		{ return (super.toString() + "\t|\t" + addressA + "\t|\t#" + valueB + "\t>"); }
+	}
+
+	//		public CompareJumpRegular
+	//			(..., int compareJumpType, int addressA, int addressB)
+	public final class CompareJumpRegular extends InstrModQuad
+	{
+		private int addressA = -1;
+		private int addressB = -1;
+		public CompareJumpRegular
+					(int quadId, int compareJumpType, int targetQuadIndex, int addressA, int addressB)
+		{
+			super(quadId,compareJumpType,targetQuadIndex);
+			this.addressA = addressA;
+			this.addressB = addressB;
+		}
+		public int getActualAddressA() { return addressA; }
+		public int getActualAddressB() { return addressB; }
+		public String toString()
+		{ return (super.toString() + "\t|\t" + addressA + "\t|\t" + addressB + "\t>"); }
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
 	
 	
 	//public Print(..., String formatString)
@@ -1410,6 +1574,89 @@ public class NQG //Pico Quad Generator
 		{ return (super.toString() + "\t|\t-\t|\t" + formatString + "\t>"); }
 	}
 		
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Procedure calls. The PARAMs of a call each hand one argument value to a
+	//formal, the CALL then saves the frame of the procedure (frameSize cells from
+	//frameBase, see NanoSymbolTable), stores the arguments into their formals and
+	//jumps to the procedure, and the RETURN at the end of the procedure restores
+	//the frame and continues after the CALL. Frames live on the call stack of NRT.
+
+	//public ParamImmediateInteger(..., int formalAddress, int value)
+	public final class ParamImmediateInteger extends MemModQuad
+	{
+		private int value;
+		public ParamImmediateInteger(int quadId, int formalAddress, int value)
+		{
+			super(quadId,NQG.PARAM,formalAddress);
+			this.value = value;
+		}
+		public int getIntValue() { return value; }
+		public String toString()
+		{ return (super.toString() + "\t|\t-\t|\t#" + value + "\t>"); }
+	}
+
+	//public ParamImmediateBoolean(..., int formalAddress, boolean value)
+	public final class ParamImmediateBoolean extends MemModQuad
+	{
+		private boolean value;
+		public ParamImmediateBoolean(int quadId, int formalAddress, boolean value)
+		{
+			super(quadId,NQG.PARAM,formalAddress);
+			this.value = value;
+		}
+		public boolean getBoolValue() { return value; }
+		public String toString()
+		{ return (super.toString() + "\t|\t-\t|\t#" + value + "\t>"); }
+	}
+
+	//public ParamRegular(..., int formalAddress, int address, boolean isBoolean)
+	// - isBoolean tells the type of the formal, so the value keeps its type
+	public final class ParamRegular extends MemModQuad
+	{
+		private int address;
+		private boolean isBoolean;
+		public ParamRegular(int quadId, int formalAddress, int address, boolean isBoolean)
+		{
+			super(quadId,NQG.PARAM,formalAddress);
+			this.address = address;
+			this.isBoolean = isBoolean;
+		}
+		public int getAddress() { return address; }
+		public boolean isBoolean() { return isBoolean; }
+		public String toString()
+		{ return (super.toString() + "\t|\t-\t|\t" + address + "\t>"); }
+	}
+
+	//public Call(..., int targetQuadIndex, int frameBase, int frameSize)
+	// - a recursive call is made before the procedure's frame is complete, so the
+	// size can be set later
+	public final class Call extends InstrModQuad
+	{
+		private int frameBase;
+		private int frameSize;
+		public Call(int quadId, int targetQuadIndex, int frameBase, int frameSize)
+		{
+			super(quadId,NQG.CALL,targetQuadIndex);
+			this.frameBase = frameBase;
+			this.frameSize = frameSize;
+		}
+		public int getFrameBase() { return frameBase; }
+		public int getFrameSize() { return frameSize; }
+		public void setFrameSize(int frameSize) { this.frameSize = frameSize; }
+		public String toString()
+		{ return (super.toString() + "\t|\t#" + frameBase + "\t|\t#" + frameSize + "\t>"); }
+	}
+
+	public final class Return extends Quad
+	{
+		//Where to continue is on the call stack, so there is nothing to hold
+		public Return(int quadId)
+		{
+			super(quadId,NQG.RETURN);
+		}
+		public String toString() { return (super.toString() + " >"); }
+	}
 	
 	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
 	
@@ -1625,6 +1872,12 @@ public class NQG //Pico Quad Generator
 	{ return new OffsetRegular(currentQuadNum,resultAddress,
 			baseAddressValue,evaluationAddress); }
 
+	public MemModQuad makeCheckIndexImmediate(int value, int arraySize)
+	{ return new CheckIndexImmediate(currentQuadNum,value,arraySize); }
+
+	public MemModQuad makeCheckIndexRegular(int address, int arraySize)
+	{ return new CheckIndexRegular(currentQuadNum,address,arraySize); }
+
 	public MemModQuad makeAssignImmediateInteger(int resultAddress, int value)
 	{ return new AssignImmediateInteger(currentQuadNum,resultAddress,value); }
 	
@@ -1658,6 +1911,27 @@ public class NQG //Pico Quad Generator
 	public InstrModQuad makeIfFalseRegular(int targetQuadIndex,int address)
 	{ return new IfFalseRegular(currentQuadNum,targetQuadIndex,address); }
 
+	//relopType is the relation tested (RLEQ ... RLGTEQ); the quad jumps when it holds
+	public InstrModQuad makeCompareJumpBothImmediate(int relopType, int targetQuadIndex,
+													 int value1, int value2)
+	{ return new CompareJumpBothImmediate(currentQuadNum,compareJumpOf(relopType),
+										  targetQuadIndex,value1,value2); }
+
+	public InstrModQuad makeCompareJumpLeftImmediate(int relopType, int targetQuadIndex,
+													 int value, int address)
+	{ return new CompareJumpLeftImmediate(currentQuadNum,compareJumpOf(relopType),
+										  targetQuadIndex,value,address); }
+
+	public InstrModQuad makeCompareJumpRightImmediate(int relopType, int targetQuadIndex,
+													  int address, int value)
+	{ return new CompareJumpRightImmediate(currentQuadNum,compareJumpOf(relopType),
+										   targetQuadIndex,address,value); }
+
+	public InstrModQuad makeCompareJumpRegular(int relopType, int targetQuadIndex,
+											   int address1, int address2)
+	{ return new CompareJumpRegular(currentQuadNum,compareJumpOf(relopType),
+									targetQuadIndex,address1,address2); }
+
 	public MemModQuad makePrint(int resultAddress, String formatString)
 	{ return new Print(currentQuadNum,resultAddress,formatString); }
 	
@@ -1669,40 +1943,98 @@ public class NQG //Pico Quad Generator
 
 	public Quad makeEnd()
 	{ return new End(currentQuadNum); }
+
+	public MemModQuad makeParamImmediateInteger(int formalAddress, int value)
+	{ return new ParamImmediateInteger(currentQuadNum,formalAddress,value); }
+
+	public MemModQuad makeParamImmediateBoolean(int formalAddress, boolean value)
+	{ return new ParamImmediateBoolean(currentQuadNum,formalAddress,value); }
+
+	public MemModQuad makeParamRegular(int formalAddress, int address, boolean isBoolean)
+	{ return new ParamRegular(currentQuadNum,formalAddress,address,isBoolean); }
+
+	public InstrModQuad makeCall(int targetQuadIndex, int frameBase, int frameSize)
+	{ return new Call(currentQuadNum,targetQuadIndex,frameBase,frameSize); }
+
+	public Quad makeReturn()
+	{ return new Return(currentQuadNum); }
+
+	//Completes a CALL made while its procedure's frame size was not yet known
+	public void setCallFrameSize(int quadId, int frameSize)
+	{
+		if (quadBuffer != null) quadBuffer.setB(quadId, frameSize);
+		else ((Call) quads.get(quadId)).setFrameSize(frameSize);
+	}
 	
 			
 	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
 	
 	/*
 	 * The remaining public interface deals with backpatching and display
+	 *
+	 * A jump made with target -1 is pending. A patch list is named by the quad
+	 * index of its first pending jump and is threaded through the target fields
+	 * of the jumps on it: a pending target of -1 ends the list, and a pending
+	 * target t <= -2 links to the pending jump at index -2-t. So making, merging
+	 * and patching lists needs no storage of its own, and backpatch touches
+	 * each jump on the list once.
 	 */
 
-	public void updateBackpatching(String quadLabel, int newlyDeterminedQuadAddress)
+	public static final int EMPTY_PATCH_LIST = -1;
+
+	//A list holding just the (pending) jump at quadId
+	public int makelist(int quadId)
 	{
-		BackpatchEntry b = (BackpatchEntry) quadsToBackpatch.get(quadLabel);
-		b.setBackpatchAddress(newlyDeterminedQuadAddress);
-		quadsToBackpatch.put(quadLabel, b);
+		return quadId;
 	}
-	
-	public void performFinalBackpatching()
+
+	//Concatenation of two lists; walks only the first
+	public int merge(int list1, int list2)
+	{
+		if (list1 == EMPTY_PATCH_LIST) return list2;
+		if (list2 == EMPTY_PATCH_LIST) return list1;
+		int p = list1;
+		int link = getTarget(p);
+		while (link != -1)
+		{
+			p = -2 - link;
+			link = getTarget(p);
+		}
+		setTarget(p, -2 - list2);
+		return list1;
+	}
+
+	//Points every jump on the list at targetQuadIndex
+	public void backpatch(int list, int targetQuadIndex)
 	{
-		Iterator i = (Iterator) quadsToBackpatch.values().iterator();
-		BackpatchEntry b = null;
-		InstrModQuad q = null;
-		while (i.hasNext())
+		int p = list;
+		while (p != EMPTY_PATCH_LIST)
 		{
-			b = (BackpatchEntry) i.next();
-			q = (InstrModQuad) quads.get(b.getQuadId());
-			q.setTargetQuadIndex(b.getBackpatchAddress());
+			int link = getTarget(p);
+			setTarget(p, targetQuadIndex);
+			p = (link == -1) ? EMPTY_PATCH_LIST : -2 - link;
 		}
 	}
+
+	private int getTarget(int quadId)
+	{
+		if (quadBuffer != null) return quadBuffer.getResult(quadId);
+		return ((InstrModQuad) quads.get(quadId)).getTargetQuadIndex();
+	}
+
+	private void setTarget(int quadId, int target)
+	{
+		if (quadBuffer != null) quadBuffer.setResult(quadId, target);
+		else ((InstrModQuad) quads.get(quadId)).setTargetQuadIndex(target);
+	}
 	
 	public void showQuads()
 	{
 		System.out.println("<<<<<<<<<<< Quad List >>>>>>>>>>>>");
 		for (int i=0; i<currentQuadNum; i++)
 		{
-			System.out.println((Quad)quads.get(i));
+			if (quadBuffer != null) System.out.println(quadBuffer.toString(i));
+			else System.out.println((Quad)quads.get(i));
 		}
 		System.out.println();
 	}
@@ -1731,6 +2063,82 @@ public class NQG //Pico Quad Generator
 	public static final int START =	20;		//indicates targetQuadIndex where emulator begins
 	public static final int OFFSET=	21;		//Used in calculating array indices
 	public static final int END =	22;		//Used to indicate to the emulator to stop 
+	public static final int JMPEQ =	23;		//Two arg addresses/literals + target quad index
+	public static final int JMPNTEQ = 24;	//Same as above
+	public static final int JMPST =	25;		//Same as above
+	public static final int JMPSTEQ = 26;	//Same as above
+	public static final int JMPGT =	27;		//Same as above
+	public static final int JMPGTEQ = 28;	//Same as above
+	public static final int CHECK =	29;		//Index address/literal and array size, traps
+											//unless 0 <= index < size
+	public static final int PARAM =	30;		//1 address/literal and the formal it goes to
+	public static final int CALL =	31;		//Target quad index, frame base and size
+	public static final int RETURN = 32;	//Continues after the CALL on the call stack
+
+	//The fused compare-and-branch types parallel the relops, JMPEQ ... JMPGTEQ
+	//jumping when RLEQ ... RLGTEQ would produce true
+	public static final boolean isCompareJump(int type)
+	{
+		return type>=JMPEQ && type<=JMPGTEQ;
+	}
+
+	public static final int compareJumpOf(int relopType)
+	{
+		return JMPEQ + (relopType - RLEQ);
+	}
+
+	public static final int relopOf(int compareJumpType)
+	{
+		return RLEQ + (compareJumpType - JMPEQ);
+	}
+
+	//The relop that holds exactly when this one does not
+	public static final int negatedRelop(int relopType)
+	{
+		int result = UNK;
+		if (relopType==RLEQ) 			result = RLNTEQ;
+		else if (relopType==RLNTEQ) 	result = RLEQ;
+		else if (relopType==RLST) 		result = RLGTEQ;
+		else if (relopType==RLSTEQ) 	result = RLGT;
+		else if (relopType==RLGT) 		result = RLSTEQ;
+		else if (relopType==RLGTEQ) 	result = RLST;
+		return result;
+	}
+
+	//Compile-time evaluation for constant folding: whether fold() can compute a quad of
+	//this type from immediate operands (division by zero is left for run time)
+	public static final boolean isFoldable(int type, int valueA, int valueB)
+	{
+		if (type==DIV) return valueB != 0;
+		return (type>=MUL && type<=NOT) || (type>=RLEQ && type<=RLGTEQ);
+	}
+
+	//The value the quad would compute; booleans in and out are 0 (false) and 1 (true)
+	//and valueB is ignored by NEG and NOT
+	public static final int fold(int type, int valueA, int valueB)
+	{
+		int result = 0;
+		if (type==MUL) 			result = valueA * valueB;
+		else if (type==DIV)		result = valueA / valueB;
+		else if (type==AND) 	result = ((valueA!=0) && (valueB!=0)) ? 1 : 0;
+		else if (type==ADD) 	result = valueA + valueB;
+		else if (type==SUB) 	result = valueA - valueB;
+		else if (type==OR)  	result = ((valueA!=0) || (valueB!=0)) ? 1 : 0;
+		else if (type==NEG) 	result = -valueA;
+		else if (type==NOT) 	result = (valueA==0) ? 1 : 0;
+		else if (type==RLEQ) 	result = (valueA == valueB) ? 1 : 0;
+		else if (type==RLNTEQ) 	result = (valueA != valueB) ? 1 : 0;
+		else if (type==RLST) 	result = (valueA < valueB) ? 1 : 0;
+		else if (type==RLSTEQ) 	result = (valueA <= valueB) ? 1 : 0;
+		else if (type==RLGT) 	result = (valueA > valueB) ? 1 : 0;
+		else if (type==RLGTEQ) 	result = (valueA >= valueB) ? 1 : 0;
+		return result;
+	}
+
+	public static final boolean hasBooleanResult(int type)
+	{
+		return type==AND || type==OR || type==NOT || (type>=RLEQ && type<=RLGTEQ);
+	}
 
 	//Used in verbose output for tracing contents of symbol table
 	public static final String quadTypeNameMap(int type)
@@ -1760,18 +2168,18 @@ public class NQG //Pico Quad Generator
 		else if (type==START)	result = "START  ";
 		else if (type==OFFSET)	result = "OFFSET";
 		else if (type==END)		result = "END";
+		else if (type==JMPEQ)	result = "JMP==  ";
+		else if (type==JMPNTEQ)	result = "JMP!=  ";
+		else if (type==JMPST)	result = "JMP<   ";
+		else if (type==JMPSTEQ)	result = "JMP<=  ";
+		else if (type==JMPGT)	result = "JMP>   ";
+		else if (type==JMPGTEQ)	result = "JMP>=  ";
+		else if (type==CHECK)	result = "CHECK  ";
+		else if (type==PARAM)	result = "PARAM  ";
+		else if (type==CALL)	result = "CALL   ";
+		else if (type==RETURN)	result = "RETURN ";
 		return result;
 	}	
-	
-	
-	/*Private service method triggered by "addForwardLabeledQuad".
-	 *At end of a parse the list of forward labels must be traversed and 
-	 *their addresses assigned.
-	 */
-	private String getNewQuadLabel()
-	{
-		String name = "%Q"+(new Integer(nextBackpatchLabelNum++)).toString();
-		return name;
-	}
+
 	
 }
\ No newline at end of file
@@ -0,0 +1,759 @@
+package NanoSymtabCompiler;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.StringTokenizer;
+import static NanoSymtabCompiler.ClassFileWriter.*;
+public class NQJ //Nano Quad JIT: compiles the quad program to JVM bytecode
+{
+	//An execution mode beside the emulator in NQE. Instead of decoding every quad
+	//each time it runs, the whole program is translated once into a single static
+	//method of a generated class, which is loaded in process and run. The JVM's
+	//own JIT then compiles that method like any other hot Java code.
+	//
+	//The generated method is
+	//
+	//	public static void run(int[] mem, byte[] tags, NQJ rt)
+	//
+	//where mem and tags are the value and tag lanes of the NRT memory, so the
+	//program's cells are plain array elements. Every basic block of the
+	//QuadFlowGraph gets a label and jumps become goto or if bytecodes to it, so
+	//there is no dispatch left at run time. Only the cells that an OFFSET writes
+	//can hold references; reads of those cells test the tag and follow the
+	//reference, every other cell is read directly. The semantics are those of
+	//unchecked memory: bounds are left to the JVM.
+	//
+	//PRINT, READ and the end of the program call back into the NQJ instance (rt),
+	//which also reports runtime errors the way the emulator does. So do PARAM,
+	//CALL and RETURN, for the call stack of NRT: a CALL saves the return quad
+	//index there and jumps to the procedure, and a RETURN compares the index it
+	//gets back with the quads after the program's CALLs to jump to the right one. Runtime errors
+	//name the quad that failed; to know it, quads that can fail store their
+	//index in a local before they start. Quads are counted per block on entry.
+	//
+	//Branch offsets are 16 bit, so programs whose bytecode passes 32K are not
+	//compiled (load reports it and the emulator can be used instead). HotSpot
+	//also only interprets methods above 8000 bytes of bytecode unless it is run
+	//with -XX:-DontCompileHugeMethods.
+
+	//Locals of the generated method
+	private static final int MEM = 0, TAGS = 1, RT = 2, IP = 3, EXECUTED = 4;	//EXECUTED is a long
+	private static final int TARGET = 6, EXCEPTION = 7;
+	private static final int MAX_LOCALS = 8, MAX_STACK = 16;
+
+	private static final String PROGRAM_CLASS = "NanoProgram";
+	private static final String RT_CLASS = "NanoSymtabCompiler/NQJ";
+	private static final String RUN_DESCRIPTOR = "([I[BL" + RT_CLASS + ";)V";
+
+	//Machine state
+	private NRT memory;
+	private BufferedReader in;
+	private PrintStream out;
+	private StringTokenizer pendingInput;
+
+	//The compiled program
+	private Method entry;
+	private int quadCount;
+	private int bytecodeSize;
+	private long compileNanos;
+	private int[] blockEnd;			//end of the block of each quad, for fail()
+
+	//Working state of load()
+	private QuadBuffer buffer;
+	private QuadFlowGraph graph;
+	private ClassFileWriter writer;
+	private boolean[] isRefCell;
+	private int[] blockLabel;		//label of each block, by its first quad
+	private int[] blockOfQuad;
+	private int[] returnPoints;		//the quad after each CALL
+
+	//Statistics of the last run
+	private long executedQuadCount;
+	private long elapsedNanos;
+	private boolean failed;
+
+	public NQJ(NRT memory)
+	{
+		this(memory, new BufferedReader(new InputStreamReader(System.in)), System.out);
+	}
+
+	public NQJ(NRT memory, BufferedReader in, PrintStream out)
+	{
+		this.memory = memory;
+		this.in = in;
+		this.out = out;
+	}
+
+	public NRT getMemory() { return memory; }
+	public int getBytecodeSize() { return bytecodeSize; }
+	public long getCompileNanos() { return compileNanos; }
+	public long getExecutedQuadCount() { return executedQuadCount; }
+	public long getElapsedNanos() { return elapsedNanos; }
+	public double getQuadsPerSecond()
+	{
+		if (elapsedNanos == 0) return 0.0;
+		return executedQuadCount * 1.0e9 / elapsedNanos;
+	}
+
+	/*
+	 * Compiles and loads the quads currently held by the generator. Returns false
+	 * (and reports why) if a quad can not be executed or the program is too large.
+	 */
+	public boolean load(NQG quadGen)
+	{
+		return load(quadGen.getQuadBuffer());
+	}
+
+	public boolean load(QuadBuffer buffer)
+	{
+		long startTime = System.nanoTime();
+		if (!prepare(buffer)) return false;
+
+		writer = new ClassFileWriter(PROGRAM_CLASS, "java/lang/Object");
+		writer.startMethod(ACC_PUBLIC | ACC_STATIC, "run", RUN_DESCRIPTOR);
+		generate();
+		bytecodeSize = writer.getCodeLength();
+		boolean tooLarge = writer.isTooLarge();
+		if (!tooLarge) writer.endMethod(MAX_STACK, MAX_LOCALS);
+		byte[] classFile = tooLarge ? null : writer.toByteArray();
+		writer = null;
+		graph = null;
+		if (tooLarge)
+		{
+			out.println("Load error: the compiled program is " + bytecodeSize +
+						" bytes of bytecode, more than a branch can span");
+			return false;
+		}
+
+		try
+		{
+			if (!attach(new ProgramLoader(NQJ.class.getClassLoader()).define(PROGRAM_CLASS, classFile)))
+				return false;
+		}
+		catch (LinkageError e)
+		{
+			out.println("Load error: " + e);
+			return false;
+		}
+		compileNanos = System.nanoTime() - startTime;
+		return true;
+	}
+
+	/*
+	 * Loads a program compiled elsewhere (by NQS, from Java source) from the
+	 * same quads, to run with this runtime. The class must have the run method
+	 * described above.
+	 */
+	public boolean load(QuadBuffer buffer, Class program)
+	{
+		if (!prepare(buffer)) return false;
+		graph = null;
+		bytecodeSize = 0;
+		compileNanos = 0;
+		return attach(program);
+	}
+
+	/*
+	 * Runs the compiled program from quad 0 until END is reached or a runtime
+	 * error occurs. Returns true if the program reached END.
+	 */
+	public boolean run()
+	{
+		executedQuadCount = 0;
+		failed = false;
+		long startTime = System.nanoTime();
+		try
+		{
+			entry.invoke(null, new Object[] { memory.getValueArray(), memory.getTagArray(), this });
+		}
+		catch (IllegalAccessException e)
+		{
+			failed = true;
+			out.println("Runtime error: " + e);
+		}
+		catch (InvocationTargetException e)
+		{
+			//RuntimeException and IOException are handled in the compiled code
+			Throwable cause = e.getCause();
+			if (cause instanceof Error) throw (Error) cause;
+			failed = true;
+			out.println("Runtime error: " + cause);
+		}
+		elapsedNanos = System.nanoTime() - startTime;
+		return !failed;
+	}
+
+	public void showStatistics()
+	{
+		out.println("<<<<<<<<<<< Compiled Code Statistics >>>>>>>>>>>>");
+		if (bytecodeSize > 0)
+		{
+			out.println("Bytecode size:    " + bytecodeSize + " bytes");
+			out.println("Compile time:     " + (compileNanos / 1000000.0) + " ms");
+		}
+		out.println("Quads executed:   " + executedQuadCount);
+		out.println("Elapsed time:     " + (elapsedNanos / 1000000.0) + " ms");
+		out.println("Quads per second: " + (long) getQuadsPerSecond());
+		out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Called by the compiled program
+
+	public void printString(String s) { out.println(s); }
+	public void printInt(int value) { out.println(value); }
+	public void printBool(int value) { out.println(value != 0); }
+	public void checkIndex(int index, int size) { NRT.checkIndex(index, size); }
+	public void param(int address, int value, int tag) { memory.pushParameter(address, value, (byte) tag); }
+	public void call(int returnPoint, int base, int size) { memory.call(returnPoint, base, size); }
+	public int ret() { return memory.ret(); }
+
+	public int readInt() throws IOException
+	{
+		return Integer.parseInt(nextInput());
+	}
+
+	public int readBool() throws IOException
+	{
+		return parseBoolean(nextInput()) ? 1 : 0;
+	}
+
+	public void pastEnd()
+	{
+		throw new IllegalStateException("control reached past the last quad");
+	}
+
+	public void finish(long executed)
+	{
+		executedQuadCount = executed;
+	}
+
+	//The whole block of ip was counted on entry, but not the quads after ip
+	public void fail(int ip, Throwable e, long executed)
+	{
+		if (ip < quadCount) executed -= blockEnd[ip] - ip - 1;
+		executedQuadCount = executed;
+		failed = true;
+		out.println("Runtime error at I-" + ip + ": " + e);
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Input is a stream of whitespace separated values, any number per line
+	private String nextInput() throws IOException
+	{
+		while (pendingInput == null || !pendingInput.hasMoreTokens())
+		{
+			String line = in.readLine();
+			if (line == null) throw new IllegalStateException("READ past end of input");
+			pendingInput = new StringTokenizer(line);
+		}
+		return pendingInput.nextToken();
+	}
+
+	private static boolean parseBoolean(String s)
+	{
+		if (s.equalsIgnoreCase("true")) return true;
+		if (s.equalsIgnoreCase("false")) return false;
+		throw new IllegalArgumentException("boolean input expected, found \"" + s + "\"");
+	}
+
+	//Checks the program and works out what running or compiling it needs
+	private boolean prepare(QuadBuffer buffer)
+	{
+		entry = null;
+		this.buffer = buffer;
+		quadCount = buffer.size();
+		for (int i = 0; i < quadCount; i++)
+		{
+			if (!check(i)) return false;
+		}
+
+		isRefCell = findReferenceCells(buffer, memory.getSize());
+		graph = new QuadFlowGraph(buffer);
+		returnPoints = findReturnPoints(buffer);
+		blockOfQuad = new int[quadCount];
+		blockEnd = new int[quadCount];
+		for (int i = 0; i < quadCount; i++)
+		{
+			blockOfQuad[i] = graph.getBlockOf(i);
+			blockEnd[i] = graph.getBlockEnd(blockOfQuad[i]);
+		}
+		return true;
+	}
+
+	private boolean attach(Class program)
+	{
+		try
+		{
+			entry = program.getMethod("run", new Class[] { int[].class, byte[].class, NQJ.class });
+			return true;
+		}
+		catch (NoSuchMethodException e)
+		{
+			out.println("Load error: " + e);
+			return false;
+		}
+	}
+
+	//The load checks of the emulator, so every mode accepts the same programs
+	private boolean check(int i)
+	{
+		String error = checkQuad(buffer, i, memory.getSize());
+		if (error == null) return true;
+		out.println("Load error at I-" + i + ": " + error);
+		return false;
+	}
+
+	//Why quad i can not be run, or null if it can
+	static String checkQuad(QuadBuffer buffer, int i, int memorySize)
+	{
+		int type = buffer.getType(i);
+		int r = buffer.getResult(i);
+		boolean supported = (type >= NQG.MUL && type <= NQG.END) || NQG.isCompareJump(type)
+							|| (type >= NQG.CHECK && type <= NQG.RETURN);
+		if ((type == NQG.PRNT && r != -1) || type == NQG.READ)
+		{
+			String format = buffer.getFormatString(i);
+			supported = format.equals("I") || format.equals("B");
+		}
+		if (!supported) return "unsupported quad " + buffer.toString(i);
+		if (buffer.isJump(i) && (r < 0 || r >= buffer.size()))
+			return "jump target I-" + r + " is not a quad";
+		if (!buffer.isJump(i) && type != NQG.END && type != NQG.RETURN && !(type == NQG.PRNT && r == -1)
+			&& type != NQG.CHECK && (r < 0 || r >= memorySize))
+			return "address " + r + " is outside runtime memory";
+		return null;
+	}
+
+	private void generate()
+	{
+		int blockCount = graph.getBlockCount();
+		blockLabel = new int[blockCount];
+		for (int b = 0; b < blockCount; b++) blockLabel[b] = writer.newLabel();
+
+		int start = writer.newLabel();
+		int end = writer.newLabel();
+		int handler = writer.newLabel();
+
+		writer.pushInt(0);
+		writer.local(ISTORE, IP);
+		writer.pushInt(0);
+		writer.op(I2L);
+		writer.local(LSTORE, EXECUTED);
+		writer.mark(start);
+
+		for (int b = 0; b < blockCount; b++)
+		{
+			writer.mark(blockLabel[b]);
+			writer.local(LLOAD, EXECUTED);
+			writer.pushInt(graph.getBlockEnd(b) - graph.getBlockStart(b));
+			writer.op(I2L);
+			writer.op(LADD);
+			writer.local(LSTORE, EXECUTED);
+			for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++) quad(i);
+		}
+
+		//Falling off the last quad is an error, as in the emulator
+		setIp(quadCount);
+		writer.local(ALOAD, RT);
+		writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "pastEnd", "()V"));
+		writer.op(RETURN);
+		writer.mark(end);
+
+		writer.mark(handler);
+		writer.local(ASTORE, EXCEPTION);
+		writer.local(ALOAD, RT);
+		writer.local(ILOAD, IP);
+		writer.local(ALOAD, EXCEPTION);
+		writer.local(LLOAD, EXECUTED);
+		writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "fail", "(ILjava/lang/Throwable;J)V"));
+		writer.op(RETURN);
+		writer.addHandler(start, end, handler, "java/lang/RuntimeException");
+		writer.addHandler(start, end, handler, "java/io/IOException");
+	}
+
+	private void quad(int i)
+	{
+		int type = buffer.getType(i);
+		int a = buffer.getA(i);
+		int b = buffer.getB(i);
+		int r = buffer.getResult(i);
+		boolean immA = buffer.isImmediateA(i);
+		boolean immB = buffer.isImmediateB(i);
+		if (mayFail(buffer, i, isRefCell)) setIp(i);
+
+		switch (type)
+		{
+		case NQG.MUL: case NQG.DIV: case NQG.ADD: case NQG.SUB:
+			startStore(r);
+			operand(immA, a);
+			operand(immB, b);
+			writer.op(type == NQG.MUL ? IMUL : type == NQG.DIV ? IDIV : type == NQG.ADD ? IADD : ISUB);
+			endStore(r, NRT.INT_TAG);
+			break;
+
+		case NQG.AND: case NQG.OR:
+		{
+			//Short circuit, as in the emulator: b is not read when a decides
+			int decided = writer.newLabel();
+			int done = writer.newLabel();
+			int test = (type == NQG.AND) ? IFEQ : IFNE;
+			startStore(r);
+			operand(immA, a);
+			writer.branch(test, decided);
+			operand(immB, b);
+			writer.branch(test, decided);
+			writer.pushInt(type == NQG.AND ? 1 : 0);
+			writer.branch(GOTO, done);
+			writer.mark(decided);
+			writer.pushInt(type == NQG.AND ? 0 : 1);
+			writer.mark(done);
+			endStore(r, NRT.BOOL_TAG);
+			break;
+		}
+
+		case NQG.RLEQ: case NQG.RLNTEQ: case NQG.RLST: case NQG.RLSTEQ: case NQG.RLGT: case NQG.RLGTEQ:
+		{
+			startStore(r);
+			operand(immA, a);
+			operand(immB, b);
+			pushCondition(compareOpcode(type));
+			endStore(r, NRT.BOOL_TAG);
+			break;
+		}
+
+		case NQG.NEG:
+			startStore(r);
+			operand(immA, a);
+			writer.op(INEG);
+			endStore(r, NRT.INT_TAG);
+			break;
+
+		case NQG.NOT:
+			startStore(r);
+			operand(immA, a);
+			pushCondition(IFEQ);
+			endStore(r, NRT.BOOL_TAG);
+			break;
+
+		case NQG.OFFSET:
+			startStore(r);
+			writer.pushInt(a);
+			operand(immB, b);
+			writer.op(IADD);
+			endStore(r, NRT.REF_TAG);
+			break;
+
+		case NQG.CHECK:
+			writer.local(ALOAD, RT);
+			operand(immA, a);
+			writer.pushInt(b);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "checkIndex", "(II)V"));
+			break;
+
+		case NQG.ASGN:
+		{
+			byte tag = (immA && buffer.isBoolean(i)) ? NRT.BOOL_TAG : NRT.INT_TAG;
+			if (buffer.isIndirect(i))
+			{
+				//The cell r holds the address of the element to store into
+				readRaw(r);
+				writer.local(ISTORE, TARGET);
+				startStore(-1);
+				pushAssigned(immA, a, tag);
+				endStore(-1, tag);
+			}
+			else
+			{
+				startStore(r);
+				pushAssigned(immA, a, tag);
+				endStore(r, tag);
+			}
+			break;
+		}
+
+		case NQG.DOJMP: case NQG.START:
+			writer.branch(GOTO, labelOf(r));
+			break;
+
+		case NQG.PARAM:
+		{
+			byte tag = buffer.isBoolean(i) ? NRT.BOOL_TAG : NRT.INT_TAG;
+			writer.local(ALOAD, RT);
+			writer.pushInt(r);
+			pushAssigned(immA, a, tag);
+			writer.pushInt(tag);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "param", "(III)V"));
+			break;
+		}
+
+		case NQG.CALL:
+			writer.local(ALOAD, RT);
+			writer.pushInt(i + 1);
+			writer.pushInt(a);
+			writer.pushInt(b);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "call", "(III)V"));
+			writer.branch(GOTO, labelOf(r));
+			break;
+
+		case NQG.RETURN:
+			writer.local(ALOAD, RT);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "ret", "()I"));
+			writer.local(ISTORE, TARGET);
+			for (int n = 0; n < returnPoints.length; n++)
+			{
+				if (returnPoints[n] >= quadCount) continue;
+				writer.local(ILOAD, TARGET);
+				writer.pushInt(returnPoints[n]);
+				writer.branch(IF_ICMPEQ, labelOf(returnPoints[n]));
+			}
+			//Only a CALL that is the last quad returns anywhere else
+			setIp(quadCount);
+			writer.local(ALOAD, RT);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "pastEnd", "()V"));
+			writer.op(RETURN);
+			break;
+
+		case NQG.IFTRU: case NQG.IFFAL:
+			if (immA)
+			{
+				if ((a != 0) == (type == NQG.IFTRU)) writer.branch(GOTO, labelOf(r));
+			}
+			else
+			{
+				operand(false, a);
+				writer.branch(type == NQG.IFTRU ? IFNE : IFEQ, labelOf(r));
+			}
+			break;
+
+		case NQG.JMPEQ: case NQG.JMPNTEQ: case NQG.JMPST: case NQG.JMPSTEQ: case NQG.JMPGT: case NQG.JMPGTEQ:
+			operand(immA, a);
+			operand(immB, b);
+			writer.branch(compareOpcode(NQG.relopOf(type)), labelOf(r));
+			break;
+
+		case NQG.PRNT:
+			writer.local(ALOAD, RT);
+			if (r == -1)
+			{
+				writer.pushString(stripQuotes(buffer.getFormatString(i)));
+				writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "printString", "(Ljava/lang/String;)V"));
+			}
+			else
+			{
+				operand(false, r);
+				String method = buffer.getFormatString(i).equals("I") ? "printInt" : "printBool";
+				writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, method, "(I)V"));
+			}
+			break;
+
+		case NQG.READ:
+		{
+			//Stores through a cell produced by OFFSET, like an indirect assign
+			boolean isInt = buffer.getFormatString(i).equals("I");
+			int target = r;
+			if (isRefCell[r])
+			{
+				int plain = writer.newLabel();
+				writer.pushInt(r);
+				testReference(r, plain);
+				writer.op(POP);
+				readRaw(r);
+				writer.mark(plain);
+				writer.local(ISTORE, TARGET);
+				target = -1;
+			}
+			startStore(target);
+			writer.local(ALOAD, RT);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, isInt ? "readInt" : "readBool", "()I"));
+			endStore(target, isInt ? NRT.INT_TAG : NRT.BOOL_TAG);
+			break;
+		}
+
+		case NQG.END:
+			writer.local(ALOAD, RT);
+			writer.local(LLOAD, EXECUTED);
+			writer.poolOp(INVOKEVIRTUAL, writer.methodRef(RT_CLASS, "finish", "(J)V"));
+			writer.op(RETURN);
+			break;
+		}
+	}
+
+	//Only the cells an OFFSET writes can ever hold a reference
+	static boolean[] findReferenceCells(QuadBuffer buffer, int memorySize)
+	{
+		boolean[] isRefCell = new boolean[memorySize];
+		for (int i = 0; i < buffer.size(); i++)
+			if (buffer.getType(i) == NQG.OFFSET) isRefCell[buffer.getResult(i)] = true;
+		return isRefCell;
+	}
+
+	//The quads a RETURN may go back to, one after each CALL
+	static int[] findReturnPoints(QuadBuffer buffer)
+	{
+		int count = 0;
+		for (int i = 0; i < buffer.size(); i++) if (buffer.getType(i) == NQG.CALL) count++;
+		int[] returnPoints = new int[count];
+		count = 0;
+		for (int i = 0; i < buffer.size(); i++) if (buffer.getType(i) == NQG.CALL) returnPoints[count++] = i + 1;
+		return returnPoints;
+	}
+
+	//Quads that can throw: division by a cell or by zero, reads through a
+	//reference, stores through one, input and index checks, and calls and
+	//returns, which move frames through the call stack
+	static boolean mayFail(QuadBuffer buffer, int i, boolean[] isRefCell)
+	{
+		int type = buffer.getType(i);
+		if (type == NQG.READ || type == NQG.CHECK || type == NQG.CALL || type == NQG.RETURN) return true;
+		if (type == NQG.DIV && (!buffer.isImmediateB(i) || buffer.getB(i) == 0)) return true;
+		if (type == NQG.ASGN && buffer.isIndirect(i)) return true;
+		if (buffer.readsA(i) && isRefOperand(buffer.getA(i), isRefCell)) return true;
+		if (buffer.readsB(i) && isRefOperand(buffer.getB(i), isRefCell)) return true;
+		if (type == NQG.PRNT && buffer.getResult(i) >= 0 && isRefOperand(buffer.getResult(i), isRefCell))
+			return true;
+		return false;
+	}
+
+	//Operands outside memory fail like a reference would
+	private static boolean isRefOperand(int address, boolean[] isRefCell)
+	{
+		return address < 0 || address >= isRefCell.length || isRefCell[address];
+	}
+
+	private void setIp(int i)
+	{
+		writer.pushInt(i);
+		writer.local(ISTORE, IP);
+	}
+
+	private int labelOf(int target)
+	{
+		return blockLabel[blockOfQuad[target]];
+	}
+
+	//Pushes an immediate value, or the value of a cell (following a reference)
+	private void operand(boolean immediate, int value)
+	{
+		if (immediate)
+		{
+			writer.pushInt(value);
+			return;
+		}
+		if (value < 0 || value >= isRefCell.length || !isRefCell[value])
+		{
+			readRaw(value);
+			return;
+		}
+		int plain = writer.newLabel();
+		int done = writer.newLabel();
+		testReference(value, plain);
+		writer.local(ALOAD, MEM);
+		readRaw(value);
+		writer.op(IALOAD);
+		writer.branch(GOTO, done);
+		writer.mark(plain);
+		readRaw(value);
+		writer.mark(done);
+	}
+
+	//Branches to notReference unless tags[address] is REF_TAG
+	private void testReference(int address, int notReference)
+	{
+		writer.local(ALOAD, TAGS);
+		writer.pushInt(address);
+		writer.op(BALOAD);
+		writer.pushInt(NRT.REF_TAG);
+		writer.branch(IF_ICMPNE, notReference);
+	}
+
+	private void readRaw(int address)
+	{
+		writer.local(ALOAD, MEM);
+		writer.pushInt(address);
+		writer.op(IALOAD);
+	}
+
+	//A store goes to the fixed cell address, or to the cell held in TARGET
+	//when address is -1
+	private void startStore(int address)
+	{
+		writer.local(ALOAD, MEM);
+		pushAddress(address);
+	}
+
+	//Only cells that can hold a reference need their tag kept up to date
+	private void endStore(int address, byte tag)
+	{
+		writer.op(IASTORE);
+		if (address != -1 && !isRefCell[address]) return;
+		writer.local(ALOAD, TAGS);
+		pushAddress(address);
+		writer.pushInt(tag);
+		writer.op(BASTORE);
+	}
+
+	private void pushAddress(int address)
+	{
+		if (address == -1) writer.local(ILOAD, TARGET);
+		else writer.pushInt(address);
+	}
+
+	private void pushAssigned(boolean immediate, int a, byte tag)
+	{
+		if (immediate && tag == NRT.BOOL_TAG) writer.pushInt(a != 0 ? 1 : 0);
+		else operand(immediate, a);
+	}
+
+	//Replaces the top of the stack (or the two ints compared) with 1 when the
+	//branch opcode would be taken, else 0
+	private void pushCondition(int opcode)
+	{
+		int taken = writer.newLabel();
+		int done = writer.newLabel();
+		writer.branch(opcode, taken);
+		writer.pushInt(0);
+		writer.branch(GOTO, done);
+		writer.mark(taken);
+		writer.pushInt(1);
+		writer.mark(done);
+	}
+
+	private static int compareOpcode(int type)
+	{
+		switch (type)
+		{
+		case NQG.RLEQ: return IF_ICMPEQ;
+		case NQG.RLNTEQ: return IF_ICMPNE;
+		case NQG.RLST: return IF_ICMPLT;
+		case NQG.RLSTEQ: return IF_ICMPLE;
+		case NQG.RLGT: return IF_ICMPGT;
+		default: return IF_ICMPGE;
+		}
+	}
+
+	//The scanner hands string constants over with their surrounding quotes
+	static String stripQuotes(String s)
+	{
+		if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\""))
+			return s.substring(1, s.length() - 1);
+		return s;
+	}
+
+	//Each compiled program gets a loader of its own, so it can be unloaded
+	//once the NQJ that made it is gone
+	private static class ProgramLoader extends ClassLoader
+	{
+		ProgramLoader(ClassLoader parent) { super(parent); }
+
+		Class define(String name, byte[] bytes)
+		{
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
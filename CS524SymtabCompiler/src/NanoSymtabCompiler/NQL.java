@@ -0,0 +1,585 @@
+package NanoSymtabCompiler;
+public class NQL //Nano Quad Loop optimizer
+{
+	//Loop optimizations over the finished quad program, run after the peephole
+	//pass and before temps are packed. Each pass builds one QuadFlowGraph with
+	//its live variables, decides on every rewrite below for every loop, innermost
+	//loop first, and then makes them all in one rewrite of the buffer:
+	//
+	//	offset folding		"ADD t, x, #d" (or SUB) whose t is only read by a
+	//						later "OFFSET r, #base, t" in the same block becomes
+	//						"OFFSET r, #base+d, x", so a[i+1] costs one quad
+	//	code motion			a quad in a loop whose operands the loop never
+	//						writes is moved to the preheader and runs once
+	//	strength reduction	"MUL t, i, #c" on an induction variable i (one
+	//						"ADD i, i, #k" in the loop) is computed once in the
+	//						preheader and kept up to date by "ADD t, t, #c*k"
+	//						after the increment, so a[2*i+1] no longer multiplies
+	//
+	//A loop's preheader is the end of the block before its header, when that
+	//block is the only way into the loop from outside and falls through to it;
+	//the quads assigning the for variable are there already. A moved result
+	//must be read in the loop only where its quad dominates the read and must
+	//not be live where the loop exits, so running it once before a loop that
+	//never iterates changes nothing that is read. Operands that may hold a
+	//reference (some OFFSET writes them) only count as unchanged when the loop
+	//stores through no reference. DIV is only moved when it cannot divide by 0.
+	//A loop that makes a CALL is left alone, since the procedure may write
+	//anything, and a RETURN counts as reading every address, for the caller.
+	//
+	//A quad leaves one loop per pass. Out of an inner loop it lands in that
+	//loop's preheader, which is still inside the outer loop, and the next pass
+	//may take it further out; an outer loop in the same pass leaves alone the
+	//quads an inner one has taken. Passes repeat until one changes nothing,
+	//which takes about as many passes as loops nest deep.
+
+	private boolean offsetFolding = true;
+	private boolean codeMotion = true;
+	private boolean strengthReduction = true;
+
+	//Statistics of the last optimize()
+	private int loopCount;
+	private int passCount;
+	private int foldedOffsets;
+	private int hoistedQuads;
+	private int reducedMultiplies;
+
+	public boolean isOffsetFolding() { return offsetFolding; }
+	public void setOffsetFolding(boolean on) { offsetFolding = on; }
+	public boolean isCodeMotion() { return codeMotion; }
+	public void setCodeMotion(boolean on) { codeMotion = on; }
+	public boolean isStrengthReduction() { return strengthReduction; }
+	public void setStrengthReduction(boolean on) { strengthReduction = on; }
+
+	public int getLoopCount() { return loopCount; }
+	public int getPassCount() { return passCount; }
+	public int getFoldedOffsets() { return foldedOffsets; }
+	public int getHoistedQuads() { return hoistedQuads; }
+	public int getReducedMultiplies() { return reducedMultiplies; }
+
+	/*
+	 * Optimizes the loops of the program in buffer and returns the number of
+	 * rewrites made
+	 */
+	public int optimize(QuadBuffer buffer)
+	{
+		foldedOffsets = hoistedQuads = reducedMultiplies = 0;
+		loopCount = -1;
+		passCount = 0;
+		boolean changed = true;
+		while (changed)
+		{
+			passCount++;
+			changed = false;
+			QuadFlowGraph graph = new QuadFlowGraph(buffer);
+			if (loopCount == -1) loopCount = graph.getLoopCount();
+			if (offsetFolding && foldOffsets(graph))
+			{
+				changed = true;
+				graph = new QuadFlowGraph(buffer);
+			}
+			if ((codeMotion || strengthReduction) && new Pass(graph).run()) changed = true;
+		}
+		return foldedOffsets + hoistedQuads + reducedMultiplies;
+	}
+
+	public void showStatistics()
+	{
+		System.out.println("<<<<<<<<<<< Loop Statistics >>>>>>>>>>>>");
+		System.out.println("Loops:            " + loopCount);
+		System.out.println("Passes:           " + passCount);
+		System.out.println("Offsets folded:   " + foldedOffsets);
+		System.out.println("Quads hoisted:    " + hoistedQuads);
+		System.out.println("MULs reduced:     " + reducedMultiplies);
+		System.out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//One pass of code motion and strength reduction over every loop. The
+	//buffer is only read until rewrite(), so every decision is made on the
+	//program as the graph describes it.
+	private final class Pass
+	{
+		QuadFlowGraph graph;
+		QuadBuffer buffer;
+		int size;
+
+		//By address, for the whole program
+		boolean[] mayHoldReference;
+
+		//By address, for the loop being looked at (cleared after each loop)
+		int[] writeCount;		//direct writes inside the loop
+		int[] writer;			//the last quad inside the loop writing it
+		int[] firstRead;		//head of its list of reading quads, or -1
+
+		//Read lists: the quad of each entry and the next entry, or -1
+		int[] readQuad;
+		int[] nextRead;
+		int readCount;
+
+		//By block, the loop being looked at
+		int[] loopMark;
+		int loopStamp;
+
+		//Decisions: taken quads are left out of the rewrite, the rows of before
+		//go in ahead of a quad (at a loop header) and those of after go in behind
+		//it (behind an increment)
+		boolean[] taken;
+		java.util.ArrayList[] before;
+		java.util.ArrayList[] after;
+		boolean changed;
+
+		//The loop being looked at
+		int header;
+		int preheader;			//quad the preheader code goes before, or -1
+		int[] blocks;			//in program order
+		int[] exits;			//blocks outside the loop a loop block leads to
+		int exitCount;
+		int[] returns;			//RETURN quads inside the loop
+		int returnCount;
+		boolean storesThroughReferences;
+		boolean makesCall;
+
+		Pass(QuadFlowGraph graph)
+		{
+			this.graph = graph;
+			buffer = graph.getQuadBuffer();
+			size = buffer.size();
+			int addresses = maxAddress(buffer) + 1;
+			mayHoldReference = new boolean[addresses];
+			writeCount = new int[addresses];
+			writer = new int[addresses];
+			firstRead = new int[addresses];
+			for (int a = 0; a < addresses; a++) firstRead[a] = -1;
+			readQuad = new int[3 * size];
+			nextRead = new int[3 * size];
+			loopMark = new int[graph.getBlockCount()];
+			for (int b = 0; b < loopMark.length; b++) loopMark[b] = -1;
+			taken = new boolean[size];
+			before = new java.util.ArrayList[size];
+			after = new java.util.ArrayList[size];
+			exits = new int[16];
+			returns = new int[4];
+
+			//Only the results a rewrite may move need to be tracked as live
+			boolean[] tracked = new boolean[addresses];
+			for (int i = 0; i < size; i++)
+			{
+				if (buffer.getType(i) == NQG.OFFSET) mayHoldReference[buffer.getResult(i)] = true;
+				if ((isMovable(buffer, i) || buffer.getType(i) == NQG.MUL) && graph.getLoopDepth(graph.getBlockOf(i)) > 0)
+					tracked[buffer.getResult(i)] = true;
+			}
+			graph.computeLiveness(tracked);
+		}
+
+		boolean run()
+		{
+			//Innermost loops first: a deeper header is inside every loop it nests in
+			int loops = graph.getLoopCount();
+			int maxDepth = 0;
+			for (int n = 0; n < loops; n++) maxDepth = Math.max(maxDepth, graph.getLoopDepth(graph.getLoopHeader(n)));
+			for (int depth = maxDepth; depth > 0; depth--)
+				for (int n = 0; n < loops; n++)
+					if (graph.getLoopDepth(graph.getLoopHeader(n)) == depth) optimizeLoop(n);
+			if (changed) rewrite();
+			return changed;
+		}
+
+		private void optimizeLoop(int loop)
+		{
+			enterLoop(loop);
+			if (preheader != -1 && !makesCall)
+			{
+				if (codeMotion) hoistInvariants();
+				if (strengthReduction) reduceMultiplies();
+			}
+			leaveLoop();
+		}
+
+		//Fills in what the rewrites need to know about one loop, looking only at
+		//the loop's own quads
+		private void enterLoop(int loop)
+		{
+			loopStamp = loop;
+			header = graph.getLoopHeader(loop);
+			blocks = new int[graph.getLoopSize(loop)];
+			for (int n = 0; n < blocks.length; n++)
+			{
+				blocks[n] = graph.getLoopBlock(loop, n);
+				loopMark[blocks[n]] = loop;
+			}
+			java.util.Arrays.sort(blocks);
+
+			exitCount = returnCount = readCount = 0;
+			storesThroughReferences = makesCall = false;
+			for (int n = 0; n < blocks.length; n++)
+			{
+				int b = blocks[n];
+				for (int e = 0; e < graph.getSuccessorCount(b); e++)
+				{
+					int s = graph.getSuccessor(b, e);
+					if (!contains(s)) exits = append(exits, exitCount++, s);
+				}
+				for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++)
+				{
+					int type = buffer.getType(i);
+					if (buffer.writesResult(i)) { writeCount[buffer.getResult(i)]++; writer[buffer.getResult(i)] = i; }
+					if (buffer.readsA(i)) addRead(buffer.getA(i), i);
+					if (buffer.readsB(i)) addRead(buffer.getB(i), i);
+					if (buffer.readsResult(i)) addRead(buffer.getResult(i), i);
+					if (storesThroughReference(buffer, i)) storesThroughReferences = true;
+					if (type == NQG.CALL) makesCall = true;
+					if (type == NQG.RETURN) returns = append(returns, returnCount++, i);
+				}
+			}
+			findPreheader();
+		}
+
+		private void leaveLoop()
+		{
+			for (int n = 0; n < blocks.length; n++)
+				for (int i = graph.getBlockStart(blocks[n]); i < graph.getBlockEnd(blocks[n]); i++)
+				{
+					if (buffer.writesResult(i)) writeCount[buffer.getResult(i)] = 0;
+					if (buffer.readsA(i)) firstRead[buffer.getA(i)] = -1;
+					if (buffer.readsB(i)) firstRead[buffer.getB(i)] = -1;
+					if (buffer.readsResult(i)) firstRead[buffer.getResult(i)] = -1;
+				}
+		}
+
+		private void addRead(int address, int quad)
+		{
+			readQuad[readCount] = quad;
+			nextRead[readCount] = firstRead[address];
+			firstRead[address] = readCount++;
+		}
+
+		private boolean contains(int b) { return loopMark[b] == loopStamp; }
+
+		private boolean isInvariant(int address)
+		{
+			return writeCount[address] == 0 && !(mayHoldReference[address] && storesThroughReferences);
+		}
+
+		private void findPreheader()
+		{
+			preheader = -1;
+			int outside = -1;
+			for (int n = 0; n < graph.getPredecessorCount(header); n++)
+			{
+				int p = graph.getPredecessor(header, n);
+				if (contains(p)) continue;
+				if (outside != -1) return;
+				outside = p;
+			}
+			int headerQuad = graph.getBlockStart(header);
+			if (outside == -1 || outside != header - 1) return;
+			int last = graph.getLastQuad(outside);
+			if (buffer.isJump(last) && buffer.getResult(last) == headerQuad) return;
+			preheader = headerQuad;
+		}
+
+		//Whether address can be read after the loop without being written first
+		private boolean isLiveAtExit(int address)
+		{
+			for (int n = 0; n < exitCount; n++)
+				if (graph.isLiveIn(exits[n], address)) return true;
+			return false;
+		}
+
+		//Whether every read of address inside the loop comes after quad and is
+		//dominated by it
+		private boolean dominatesReads(int quad, int address)
+		{
+			int home = graph.getBlockOf(quad);
+			for (int r = firstRead[address]; r != -1; r = nextRead[r])
+				if (!dominates(home, quad, readQuad[r])) return false;
+			for (int n = 0; n < returnCount; n++)
+				if (!dominates(home, quad, returns[n])) return false;
+			return true;
+		}
+
+		private boolean dominates(int home, int quad, int read)
+		{
+			int b = graph.getBlockOf(read);
+			return b == home ? read > quad : graph.dominates(home, b);
+		}
+
+		//In program order, so a quad reading an earlier moved result moves too
+		private void hoistInvariants()
+		{
+			for (int n = 0; n < blocks.length; n++)
+				for (int i = graph.getBlockStart(blocks[n]); i < graph.getBlockEnd(blocks[n]); i++)
+				{
+					if (taken[i] || !isMovable(buffer, i)) continue;
+					if (buffer.readsA(i) && !isInvariant(buffer.getA(i))) continue;
+					if (buffer.readsB(i) && !isInvariant(buffer.getB(i))) continue;
+					int t = buffer.getResult(i);
+					if (writeCount[t] != 1 || !dominatesReads(i, t) || isLiveAtExit(t)) continue;
+					writeCount[t] = 0;
+					take(i);
+					insert(before, preheader, saveRow(buffer, i));
+					hoistedQuads++;
+				}
+		}
+
+		private void reduceMultiplies()
+		{
+			for (int n = 0; n < blocks.length; n++)
+				for (int i = graph.getBlockStart(blocks[n]); i < graph.getBlockEnd(blocks[n]); i++)
+				{
+					if (taken[i] || buffer.getType(i) != NQG.MUL) continue;
+					int iv, c;
+					if (buffer.isImmediateB(i) && !buffer.isImmediateA(i)) { iv = buffer.getA(i); c = buffer.getB(i); }
+					else if (buffer.isImmediateA(i) && !buffer.isImmediateB(i)) { iv = buffer.getB(i); c = buffer.getA(i); }
+					else continue;
+					int t = buffer.getResult(i);
+					if (t == iv || writeCount[t] != 1 || mayHoldReference[iv]) continue;
+					int increment = findIncrement(iv);
+					if (increment == -1 || !isLocal(i, t, iv) || isLiveAtExit(t)) continue;
+
+					//t holds c*iv from the preheader on, and moves with iv
+					int[] update = { NQG.ADD, QuadBuffer.B_IMMEDIATE, t, c * stepOf(buffer, increment), t,
+									 buffer.getSourceLine(increment) };
+					take(i);
+					insert(before, preheader, saveRow(buffer, i));
+					insert(after, increment, update);
+					reducedMultiplies++;
+				}
+		}
+
+		//Every read of t follows the MUL in its block, before iv changes, so t
+		//can hold c*iv throughout the loop instead
+		private boolean isLocal(int mul, int t, int iv)
+		{
+			int end = graph.getBlockEnd(graph.getBlockOf(mul));
+			for (int r = firstRead[t]; r != -1; r = nextRead[r])
+				if (readQuad[r] <= mul || readQuad[r] >= end) return false;
+			for (int n = 0; n < returnCount; n++)
+				if (returns[n] <= mul || returns[n] >= end) return false;
+			boolean ivChanged = false;
+			for (int j = mul + 1; j < end; j++)
+			{
+				if (reads(buffer, j, t) && ivChanged) return false;
+				if (writes(buffer, j, iv)) ivChanged = true;
+			}
+			return true;
+		}
+
+		//The only quad of the loop writing iv, when it is "ADD iv, iv, #k",
+		//"ADD iv, #k, iv" or "SUB iv, iv, #k"; otherwise -1
+		private int findIncrement(int iv)
+		{
+			if (writeCount[iv] != 1) return -1;
+			int i = writer[iv];
+			int type = buffer.getType(i);
+			boolean immA = buffer.isImmediateA(i), immB = buffer.isImmediateB(i);
+			if (type == NQG.ADD && ((!immA && immB && buffer.getA(i) == iv) || (immA && !immB && buffer.getB(i) == iv)))
+				return i;
+			if (type == NQG.SUB && !immA && immB && buffer.getA(i) == iv)
+				return i;
+			return -1;
+		}
+
+		private void take(int i)
+		{
+			taken[i] = true;
+			changed = true;
+		}
+
+		private void insert(java.util.ArrayList[] rows, int at, int[] row)
+		{
+			if (rows[at] == null) rows[at] = new java.util.ArrayList();
+			rows[at].add(row);
+		}
+
+		//Lays the program out again: the rows before a header go in ahead of it,
+		//the rows after an increment behind it, and taken quads are left out.
+		//A jump to a header still lands on the header, since only the loop jumps
+		//there, and a jump to a taken quad lands on whatever now comes next.
+		private void rewrite()
+		{
+			int[][] rows = new int[size][];
+			int[] target = new int[size + 1];
+			int n = 0;
+			for (int i = 0; i < size; i++)
+			{
+				rows[i] = saveRow(buffer, i);
+				if (before[i] != null) n += before[i].size();
+				target[i] = n;
+				if (!taken[i]) n++;
+				if (after[i] != null) n += after[i].size();
+			}
+			target[size] = n;
+
+			buffer.retain(new boolean[size]);
+			for (int i = 0; i < size; i++)
+			{
+				if (before[i] != null) for (int k = 0; k < before[i].size(); k++) append(buffer, (int[]) before[i].get(k));
+				if (!taken[i])
+				{
+					append(buffer, rows[i]);
+					int at = buffer.size() - 1;
+					if (buffer.isJump(at))
+					{
+						int jumpTarget = buffer.getResult(at);
+						if (jumpTarget >= 0 && jumpTarget <= size) buffer.setResult(at, target[jumpTarget]);
+					}
+				}
+				if (after[i] != null) for (int k = 0; k < after[i].size(); k++) append(buffer, (int[]) after[i].get(k));
+			}
+		}
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private boolean foldOffsets(QuadFlowGraph graph)
+	{
+		QuadBuffer buffer = graph.getQuadBuffer();
+		int size = buffer.size();
+		boolean[] tracked = new boolean[maxAddress(buffer) + 1];
+		for (int i = 0; i < size; i++)
+			if (buffer.getType(i) == NQG.ADD || buffer.getType(i) == NQG.SUB) tracked[buffer.getResult(i)] = true;
+		graph.computeLiveness(tracked);
+
+		boolean[] keep = new boolean[size];
+		for (int i = 0; i < size; i++) keep[i] = true;
+
+		boolean changed = false;
+		for (int i = 0; i < size; i++)
+		{
+			int type = buffer.getType(i);
+			if (type != NQG.ADD && type != NQG.SUB) continue;
+			int x, d;
+			if (buffer.isImmediateB(i) && !buffer.isImmediateA(i))
+			{ x = buffer.getA(i); d = buffer.getB(i); }
+			else if (type == NQG.ADD && buffer.isImmediateA(i) && !buffer.isImmediateB(i))
+			{ x = buffer.getB(i); d = buffer.getA(i); }
+			else continue;
+			if (type == NQG.SUB) d = -d;
+			int t = buffer.getResult(i);
+			if (t == x) continue;
+
+			//The first read of t in the block must be an OFFSET index, with x
+			//unchanged since the ADD
+			int end = graph.getBlockEnd(graph.getBlockOf(i));
+			int offset = -1;
+			for (int j = i + 1; j < end; j++)
+			{
+				if (reads(buffer, j, t)) { offset = j; break; }
+				if (writes(buffer, j, x) || writes(buffer, j, t) || storesThroughReference(buffer, j)) break;
+			}
+			if (offset == -1 || buffer.getType(offset) != NQG.OFFSET || buffer.isImmediateB(offset)
+				|| buffer.getB(offset) != t || buffer.getA(offset) == t) continue;
+			if (graph.isLiveAfter(offset, t)) continue;
+
+			buffer.set(offset, NQG.OFFSET, buffer.getMode(offset), buffer.getA(offset) + d, x);
+			keep[i] = false;
+			foldedOffsets++;
+			changed = true;
+		}
+		if (changed) remove(buffer, keep);
+		return changed;
+	}
+
+	private static int stepOf(QuadBuffer buffer, int increment)
+	{
+		int k = buffer.isImmediateB(increment) ? buffer.getB(increment) : buffer.getA(increment);
+		return buffer.getType(increment) == NQG.SUB ? -k : k;
+	}
+
+	//Value producing quads that read nothing but their operands and cannot fail
+	private static boolean isMovable(QuadBuffer buffer, int i)
+	{
+		int type = buffer.getType(i);
+		if (type == NQG.DIV) return buffer.isImmediateB(i) && buffer.getB(i) != 0;
+		if (type == NQG.ASGN) return !buffer.isIndirect(i);
+		return (type >= NQG.MUL && type <= NQG.NOT) || (type >= NQG.RLEQ && type <= NQG.RLGTEQ)
+				|| type == NQG.OFFSET;
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private static boolean reads(QuadBuffer buffer, int i, int address)
+	{
+		return buffer.getType(i) == NQG.RETURN
+			|| (buffer.readsA(i) && buffer.getA(i) == address)
+			|| (buffer.readsB(i) && buffer.getB(i) == address)
+			|| (buffer.readsResult(i) && buffer.getResult(i) == address);
+	}
+
+	private static boolean writes(QuadBuffer buffer, int i, int address)
+	{
+		return buffer.writesResult(i) && buffer.getResult(i) == address;
+	}
+
+	//An indirect ASSIGN stores through its result, and so may a READ
+	private static boolean storesThroughReference(QuadBuffer buffer, int i)
+	{
+		int type = buffer.getType(i);
+		return (type == NQG.ASGN && buffer.isIndirect(i)) || type == NQG.READ;
+	}
+
+	private static int maxAddress(QuadBuffer buffer)
+	{
+		int maxAddress = 0;
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			if (buffer.writesResult(i) || buffer.readsResult(i)) maxAddress = Math.max(maxAddress, buffer.getResult(i));
+			if (buffer.readsA(i)) maxAddress = Math.max(maxAddress, buffer.getA(i));
+			if (buffer.readsB(i)) maxAddress = Math.max(maxAddress, buffer.getB(i));
+		}
+		return maxAddress;
+	}
+
+	//Rows are kept as { type, mode, a, b, result, line } while the buffer moves
+	private static int[] saveRow(QuadBuffer buffer, int i)
+	{
+		return new int[] { buffer.getType(i), buffer.getMode(i), buffer.getA(i),
+						   buffer.getB(i), buffer.getResult(i), buffer.getSourceLine(i) };
+	}
+
+	private static void append(QuadBuffer buffer, int[] row)
+	{
+		int at = buffer.size();
+		buffer.add(at, row[0], row[1], row[2], row[3], row[4]);
+		buffer.setSourceLine(at, row[5]);
+	}
+
+	private static int[] append(int[] array, int index, int value)
+	{
+		if (index == array.length)
+		{
+			int[] copy = new int[array.length * 2];
+			System.arraycopy(array, 0, copy, 0, array.length);
+			array = copy;
+		}
+		array[index] = value;
+		return array;
+	}
+
+	//Drops the quads not kept, as NQO does, and returns the new index of every
+	//old one (a dropped quad maps to the first kept quad after it)
+	private static int[] remove(QuadBuffer buffer, boolean[] keep)
+	{
+		int size = buffer.size();
+		int[] newIndex = new int[size + 1];
+		int n = 0;
+		for (int i = 0; i < size; i++)
+		{
+			newIndex[i] = n;
+			if (keep[i]) n++;
+		}
+		newIndex[size] = n;
+
+		for (int i = 0; i < size; i++)
+		{
+			if (!keep[i] || !buffer.isJump(i)) continue;
+			int target = buffer.getResult(i);
+			if (target >= 0 && target <= size) buffer.setResult(i, newIndex[target]);
+		}
+		buffer.retain(keep);
+		return newIndex;
+	}
+}
@@ -0,0 +1,332 @@
+package NanoSymtabCompiler;
+public class NQO //Nano Quad Optimizer
+{
+	//A peephole pass over the finished quad program, run once the last quad has
+	//been generated and backpatched. It works on the rows of a QuadBuffer in place
+	//and repeats the following rewrites until none of them applies:
+	//
+	//	jump threading		a jump whose target is a JMP goes straight to where
+	//						that JMP (and any JMP it lands on) ends up
+	//	constant branches	IFTRUE/IFFALSE on an immediate (or a compare jump on
+	//						two) becomes a JMP when it is always taken and
+	//						disappears when it never is
+	//	jumps to next		a JMP/IFTRUE/IFFALSE/compare jump to the quad after
+	//						it disappears
+	//	copy folding		"OP t, ..." followed by "ASSIGN x, -, t", where t is
+	//						dead after the ASSIGN, becomes "OP x, ..."
+	//	branch fusion		"(<) t, a, b" followed by "IFTRUE t" (or IFFALSE),
+	//						where t is dead after the branch, becomes one "JMP< a, b"
+	//						(or the negated JMP>=), so conditions and for loop
+	//						tests no longer go through a boolean temp
+	//	branch inversion	a conditional jump over a lone JMP, which is no jump
+	//						target, becomes the negated jump to where the JMP
+	//						goes; jumping code for conditions ends in such pairs
+	//
+	//Removed quads are dropped from the buffer and every jump target (START
+	//included) is renumbered, so the program keeps its meaning but is shorter.
+	//
+	//Whether a temp is dead comes from the live variables of a QuadFlowGraph,
+	//not from counting its reads, since one temp address is written and read
+	//again by many statements.
+
+	private boolean jumpThreading = true;
+	private boolean constantBranches = true;
+	private boolean jumpsToNext = true;
+	private boolean copyFolding = true;
+	private boolean branchFusion = true;
+	private boolean branchInversion = true;
+
+	//Statistics of the last optimize()
+	private int threadedJumps;
+	private int foldedBranches;
+	private int removedJumps;
+	private int foldedCopies;
+	private int fusedBranches;
+	private int invertedBranches;
+	private int removedQuads;
+
+	public boolean isJumpThreading() { return jumpThreading; }
+	public void setJumpThreading(boolean on) { jumpThreading = on; }
+	public boolean isConstantBranches() { return constantBranches; }
+	public void setConstantBranches(boolean on) { constantBranches = on; }
+	public boolean isJumpsToNext() { return jumpsToNext; }
+	public void setJumpsToNext(boolean on) { jumpsToNext = on; }
+	public boolean isCopyFolding() { return copyFolding; }
+	public void setCopyFolding(boolean on) { copyFolding = on; }
+	public boolean isBranchFusion() { return branchFusion; }
+	public void setBranchFusion(boolean on) { branchFusion = on; }
+	public boolean isBranchInversion() { return branchInversion; }
+	public void setBranchInversion(boolean on) { branchInversion = on; }
+
+	public int getThreadedJumps() { return threadedJumps; }
+	public int getFoldedBranches() { return foldedBranches; }
+	public int getRemovedJumps() { return removedJumps; }
+	public int getFoldedCopies() { return foldedCopies; }
+	public int getFusedBranches() { return fusedBranches; }
+	public int getInvertedBranches() { return invertedBranches; }
+	public int getRemovedQuads() { return removedQuads; }
+
+	/*
+	 * Optimizes the program in buffer and returns the number of quads removed
+	 */
+	public int optimize(QuadBuffer buffer)
+	{
+		threadedJumps = foldedBranches = removedJumps = foldedCopies = fusedBranches = invertedBranches = removedQuads = 0;
+		boolean changed = true;
+		while (changed)
+		{
+			boolean[] keep = new boolean[buffer.size()];
+			for (int i = 0; i < keep.length; i++) keep[i] = true;
+
+			changed = false;
+			if (constantBranches && foldConstantBranches(buffer, keep)) changed = true;
+			if (jumpThreading && threadJumps(buffer)) changed = true;
+			if (jumpsToNext && removeJumpsToNext(buffer, keep)) changed = true;
+			QuadFlowGraph graph = (copyFolding || branchFusion) ? liveResults(buffer) : null;
+			if (copyFolding && foldCopies(buffer, keep, graph)) changed = true;
+			if (branchFusion && fuseBranches(buffer, keep, graph)) changed = true;
+			if (branchInversion && invertBranches(buffer, keep)) changed = true;
+
+			removedQuads += renumber(buffer, keep);
+		}
+		return removedQuads;
+	}
+
+	public void showStatistics()
+	{
+		System.out.println("<<<<<<<<<<< Peephole Statistics >>>>>>>>>>>>");
+		System.out.println("Jumps threaded:   " + threadedJumps);
+		System.out.println("Branches folded:  " + foldedBranches);
+		System.out.println("Jumps removed:    " + removedJumps);
+		System.out.println("Copies folded:    " + foldedCopies);
+		System.out.println("Branches fused:   " + fusedBranches);
+		System.out.println("Jumps inverted:   " + invertedBranches);
+		System.out.println("Quads removed:    " + removedQuads);
+		System.out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private boolean foldConstantBranches(QuadBuffer buffer, boolean[] keep)
+	{
+		boolean changed = false;
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			int type = buffer.getType(i);
+			boolean taken;
+			if (NQG.isCompareJump(type))
+			{
+				if (!buffer.isImmediateA(i) || !buffer.isImmediateB(i)) continue;
+				taken = NQG.fold(NQG.relopOf(type), buffer.getA(i), buffer.getB(i)) != 0;
+			}
+			else
+			{
+				if ((type != NQG.IFTRU && type != NQG.IFFAL) || !buffer.isImmediateA(i)) continue;
+				taken = (type == NQG.IFTRU) == (buffer.getA(i) != 0);
+			}
+			if (taken) buffer.set(i, NQG.DOJMP, 0, 0, 0);
+			else keep[i] = false;
+			foldedBranches++;
+			changed = true;
+		}
+		return changed;
+	}
+
+	private boolean threadJumps(QuadBuffer buffer)
+	{
+		boolean changed = false;
+		int size = buffer.size();
+		for (int i = 0; i < size; i++)
+		{
+			if (!buffer.isJump(i)) continue;
+			int target = buffer.getResult(i);
+			//At most size hops, so a loop made only of JMPs cannot hang us
+			for (int hops = 0; hops < size && target >= 0 && target < size
+				 && target != i && buffer.getType(target) == NQG.DOJMP; hops++)
+				target = buffer.getResult(target);
+			if (target != buffer.getResult(i))
+			{
+				buffer.setResult(i, target);
+				threadedJumps++;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	//START stays: the emulator begins at quad 0. So does a CALL, which is
+	//also a jump but has a frame to set up
+	private boolean removeJumpsToNext(QuadBuffer buffer, boolean[] keep)
+	{
+		boolean changed = false;
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			int type = buffer.getType(i);
+			if (!keep[i] || !buffer.isJump(i) || type == NQG.START || type == NQG.CALL) continue;
+			if (buffer.getResult(i) != nextKept(keep, i)) continue;
+			keep[i] = false;
+			removedJumps++;
+			changed = true;
+		}
+		return changed;
+	}
+
+	private boolean foldCopies(QuadBuffer buffer, boolean[] keep, QuadFlowGraph graph)
+	{
+		int size = buffer.size();
+		boolean[] isTarget = findTargets(buffer);
+
+		boolean changed = false;
+		for (int i = 0; i + 1 < size; i++)
+		{
+			int copy = i + 1;
+			if (!keep[i] || !keep[copy] || isTarget[copy]) continue;
+			if (buffer.getType(copy) != NQG.ASGN || buffer.getMode(copy) != 0) continue;
+			if (!producesValue(buffer, i)) continue;
+			int temp = buffer.getResult(i);
+			if (buffer.getA(copy) != temp || graph.isLiveAfter(copy, temp)) continue;
+			buffer.setResult(i, buffer.getResult(copy));
+			keep[copy] = false;
+			foldedCopies++;
+			changed = true;
+		}
+		return changed;
+	}
+
+	//The branch must not be a jump target, or control arriving there would test
+	//a temp the fused jump no longer sets
+	private boolean fuseBranches(QuadBuffer buffer, boolean[] keep, QuadFlowGraph graph)
+	{
+		int size = buffer.size();
+		boolean[] isTarget = findTargets(buffer);
+
+		boolean changed = false;
+		for (int i = 0; i + 1 < size; i++)
+		{
+			int branch = i + 1;
+			int type = buffer.getType(i);
+			int branchType = buffer.getType(branch);
+			if (!keep[i] || !keep[branch] || isTarget[branch]) continue;
+			if (type < NQG.RLEQ || type > NQG.RLGTEQ) continue;
+			if ((branchType != NQG.IFTRU && branchType != NQG.IFFAL) || buffer.isImmediateA(branch)) continue;
+			int temp = buffer.getResult(i);
+			if (buffer.getA(branch) != temp || graph.isLiveAfter(branch, temp)) continue;
+			int relop = (branchType == NQG.IFTRU) ? type : NQG.negatedRelop(type);
+			int mode = buffer.getMode(i) & (QuadBuffer.A_IMMEDIATE | QuadBuffer.B_IMMEDIATE);
+			buffer.set(i, NQG.compareJumpOf(relop), mode, buffer.getA(i), buffer.getB(i));
+			buffer.setResult(i, buffer.getResult(branch));
+			keep[branch] = false;
+			fusedBranches++;
+			changed = true;
+		}
+		return changed;
+	}
+
+	//The JMP must not be a jump target, or control arriving there would now run
+	//into the code the conditional jump used to skip to
+	private boolean invertBranches(QuadBuffer buffer, boolean[] keep)
+	{
+		int size = buffer.size();
+		boolean[] isTarget = findTargets(buffer);
+
+		boolean changed = false;
+		for (int i = 0; i + 1 < size; i++)
+		{
+			int jump = i + 1;
+			int type = buffer.getType(i);
+			if (!keep[i] || !keep[jump] || isTarget[jump] || buffer.getType(jump) != NQG.DOJMP) continue;
+			if (buffer.getResult(i) != nextKept(keep, jump)) continue;
+			int inverted;
+			if (type == NQG.IFTRU) inverted = NQG.IFFAL;
+			else if (type == NQG.IFFAL) inverted = NQG.IFTRU;
+			else if (NQG.isCompareJump(type)) inverted = NQG.compareJumpOf(NQG.negatedRelop(NQG.relopOf(type)));
+			else continue;
+			buffer.set(i, inverted, buffer.getMode(i), buffer.getA(i), buffer.getB(i));
+			buffer.setResult(i, buffer.getResult(jump));
+			keep[jump] = false;
+			invertedBranches++;
+			changed = true;
+		}
+		return changed;
+	}
+
+	//Live variables of the results a fold may drop, over the program as the jump
+	//rewrites of this round left it. The quads they dropped are still in the
+	//buffer, and a dropped jump only adds paths, so what is dead here is dead.
+	//Folds in the same round keep this true: each moves a write, or a branch
+	//with the same target, up by one quad inside a block.
+	private static QuadFlowGraph liveResults(QuadBuffer buffer)
+	{
+		boolean[] tracked = new boolean[maxResultAddress(buffer) + 1];
+		for (int i = 0; i < buffer.size(); i++)
+			if (producesValue(buffer, i)) tracked[buffer.getResult(i)] = true;
+		QuadFlowGraph graph = new QuadFlowGraph(buffer);
+		graph.computeLiveness(tracked);
+		return graph;
+	}
+
+	//Which quads (and the end of the program, at size) some jump lands on
+	private static boolean[] findTargets(QuadBuffer buffer)
+	{
+		int size = buffer.size();
+		boolean[] isTarget = new boolean[size + 1];
+		for (int i = 0; i < size; i++)
+		{
+			if (!buffer.isJump(i)) continue;
+			int target = buffer.getResult(i);
+			if (target >= 0 && target <= size) isTarget[target] = true;
+		}
+		return isTarget;
+	}
+
+	private static int maxResultAddress(QuadBuffer buffer)
+	{
+		int maxAddress = 0;
+		for (int i = 0; i < buffer.size(); i++)
+			if (!buffer.isJump(i)) maxAddress = Math.max(maxAddress, buffer.getResult(i));
+		return maxAddress;
+	}
+
+	//Quads whose only effect is to store a plain value in their result cell; an
+	//OFFSET stores a reference and an indirect ASSIGN stores through one, so
+	//moving either result would change what the copy means
+	private static boolean producesValue(QuadBuffer buffer, int i)
+	{
+		int type = buffer.getType(i);
+		if (type == NQG.ASGN) return !buffer.isIndirect(i);
+		return (type >= NQG.MUL && type <= NQG.NOT) || (type >= NQG.RLEQ && type <= NQG.RLGTEQ);
+	}
+
+	private static int nextKept(boolean[] keep, int i)
+	{
+		int next = i + 1;
+		while (next < keep.length && !keep[next]) next++;
+		return next;
+	}
+
+	//Drops the quads not kept and points every jump at the new index of its
+	//target; a jump to a dropped quad goes to the first kept quad after it (NQB
+	//removes its CHECKs with it too)
+	static int renumber(QuadBuffer buffer, boolean[] keep)
+	{
+		int size = buffer.size();
+		int[] newIndex = new int[size + 1];
+		int n = 0;
+		for (int i = 0; i < size; i++)
+		{
+			newIndex[i] = n;
+			if (keep[i]) n++;
+		}
+		newIndex[size] = n;
+		if (n == size) return 0;
+
+		for (int i = 0; i < size; i++)
+		{
+			if (!keep[i] || !buffer.isJump(i)) continue;
+			int target = buffer.getResult(i);
+			if (target >= 0 && target <= size) buffer.setResult(i, newIndex[target]);
+		}
+		buffer.retain(keep);
+		return size - n;
+	}
+}
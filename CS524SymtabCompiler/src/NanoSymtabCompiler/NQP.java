@@ -0,0 +1,254 @@
+package NanoSymtabCompiler;
+import java.io.PrintStream;
+public class NQP //Nano Quad Profile: execution counts of one program
+{
+	//The instrumentation mode of the emulator. An NQE given an NQP (setProfile)
+	//reports every quad it is about to execute, and the NQP counts
+	//
+	//	per quad		how many times it was executed
+	//	per branch		how many of those times an IFTRUE/IFFALSE or compare
+	//					jump was taken (a branch to the quad after it counts
+	//					as not taken)
+	//	per address		how many times the program read and wrote each cell of
+	//					runtime memory; a read through a reference counts for
+	//					the reference cell and for the element it points at
+	//
+	//Memory accesses are counted by the NRT that getMemory() returns, a subclass
+	//which only exists while profiling. Without a profile the emulator runs as
+	//before, with one test of a local per quad, and NRT has no other subclass
+	//for the JVM to dispatch to.
+	//
+	//showProfile() prints the quad listing annotated with the counts, the counts
+	//gathered per source line (the line each quad was made for, see
+	//NQG.addQuad), the loops of the QuadFlowGraph by how many quads ran in
+	//them, and the memory heatmap with the symbol table names of the cells.
+
+	private QuadBuffer buffer;
+	private PrintStream out;
+	private NRT memory;
+
+	private long[] quadCounts;
+	private long[] takenCounts;
+	private boolean[] isBranch;
+	private long[] readCounts;
+	private long[] writeCounts;
+	private int last;		//the quad entered before, to see where a branch went
+
+	public NQP(QuadBuffer buffer, int memorySize, boolean checkedMemory)
+	{
+		this(buffer, memorySize, checkedMemory, System.out);
+	}
+
+	public NQP(QuadBuffer buffer, int memorySize, boolean checkedMemory, PrintStream out)
+	{
+		this.buffer = buffer;
+		this.out = out;
+		int size = buffer.size();
+		quadCounts = new long[size];
+		takenCounts = new long[size];
+		isBranch = new boolean[size];
+		for (int i = 0; i < size; i++)
+		{
+			int type = buffer.getType(i);
+			isBranch[i] = type == NQG.IFTRU || type == NQG.IFFAL || NQG.isCompareJump(type);
+		}
+		readCounts = new long[memorySize];
+		writeCounts = new long[memorySize];
+		memory = new CountingMemory(memorySize, checkedMemory);
+		last = -1;
+	}
+
+	//The memory to run the profiled program with
+	public NRT getMemory() { return memory; }
+
+	public long getQuadCount(int i) { return quadCounts[i]; }
+	public long getTakenCount(int i) { return takenCounts[i]; }
+	public long getReadCount(int address) { return readCounts[address]; }
+	public long getWriteCount(int address) { return writeCounts[address]; }
+
+	public long getTotalQuadCount()
+	{
+		long total = 0;
+		for (int i = 0; i < quadCounts.length; i++) total += quadCounts[i];
+		return total;
+	}
+
+	//Called by NQE when a run starts and before each quad ip is executed
+	public void begin()
+	{
+		last = -1;
+	}
+
+	public void enter(int ip)
+	{
+		quadCounts[ip]++;
+		if (last >= 0 && isBranch[last] && ip != last + 1) takenCounts[last]++;
+		last = ip;
+	}
+
+	public void showProfile(NanoSymbolTable symtab)
+	{
+		long total = getTotalQuadCount();
+		showQuads();
+		showLines(total);
+		showLoops(total);
+		showMemory(symtab);
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//The quad listing of NQG.showQuads, each quad preceded by its count and line
+	private void showQuads()
+	{
+		out.println("<<<<<<<<<<< Quad Profile >>>>>>>>>>>>");
+		out.println(pad("Count", 12) + pad("Line", 6) + "  Quad");
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			String s = pad(String.valueOf(quadCounts[i]), 12) + pad(line(i), 6) + "  " + buffer.toString(i);
+			if (isBranch[i])
+				s += "  taken " + takenCounts[i] + ", not taken " + (quadCounts[i] - takenCounts[i]);
+			out.println(s);
+		}
+		out.println();
+	}
+
+	private void showLines(long total)
+	{
+		int maxLine = -1;
+		for (int i = 0; i < buffer.size(); i++) maxLine = Math.max(maxLine, buffer.getSourceLine(i));
+		long[] lineCounts = new long[maxLine + 2];		//the last one for quads of no known line
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			int line = buffer.getSourceLine(i);
+			lineCounts[line >= 0 ? line : maxLine + 1] += quadCounts[i];
+		}
+
+		out.println("<<<<<<<<<<< Source Line Profile >>>>>>>>>>>>");
+		out.println(pad("Line", 6) + pad("Quads", 14) + pad("Share", 9));
+		for (int line = 0; line < lineCounts.length; line++)
+		{
+			if (lineCounts[line] == 0) continue;
+			String name = (line <= maxLine) ? String.valueOf(line) : "?";
+			out.println(pad(name, 6) + pad(String.valueOf(lineCounts[line]), 14) + pad(share(lineCounts[line], total), 9));
+		}
+		out.println();
+	}
+
+	//A loop's quads are those of its blocks, so an inner loop's quads count
+	//for the loops around it as well
+	private void showLoops(long total)
+	{
+		QuadFlowGraph graph = new QuadFlowGraph(buffer);
+		out.println("<<<<<<<<<<< Loop Profile >>>>>>>>>>>>");
+		if (graph.getLoopCount() == 0) out.println("No loops");
+		for (int loop = 0; loop < graph.getLoopCount(); loop++)
+		{
+			int header = graph.getBlockStart(graph.getLoopHeader(loop));
+			long quads = 0;
+			for (int n = 0; n < graph.getLoopSize(loop); n++)
+			{
+				int b = graph.getLoopBlock(loop, n);
+				for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++) quads += quadCounts[i];
+			}
+			out.println("Loop at I-" + header + " (line " + line(header) + ", depth "
+						+ graph.getLoopDepth(graph.getLoopHeader(loop)) + "): header entered "
+						+ quadCounts[header] + " times, " + quads + " quads (" + share(quads, total) + ")");
+		}
+		out.println();
+	}
+
+	private void showMemory(NanoSymbolTable symtab)
+	{
+		out.println("<<<<<<<<<<< Memory Profile >>>>>>>>>>>>");
+		out.println(pad("Address", 8) + pad("Reads", 14) + pad("Writes", 14) + "  Name");
+		for (int address = 0; address < readCounts.length; address++)
+		{
+			if (readCounts[address] == 0 && writeCounts[address] == 0) continue;
+			out.println(pad(String.valueOf(address), 8) + pad(String.valueOf(readCounts[address]), 14)
+						+ pad(String.valueOf(writeCounts[address]), 14) + "  " + symtab.getSlotName(address));
+		}
+		out.println();
+	}
+
+	private String line(int i)
+	{
+		int line = buffer.getSourceLine(i);
+		return (line >= 0) ? String.valueOf(line) : "?";
+	}
+
+	private static String share(long count, long total)
+	{
+		if (total == 0) return "0.0%";
+		return (Math.round(count * 1000.0 / total) / 10.0) + "%";
+	}
+
+	//Right aligned in width columns
+	private static String pad(String s, int width)
+	{
+		StringBuffer padded = new StringBuffer();
+		for (int i = s.length(); i < width; i++) padded.append(' ');
+		return padded.append(s).toString();
+	}
+
+	//Runtime memory that counts every access into the profile's arrays
+	private class CountingMemory extends NRT
+	{
+		CountingMemory(int size, boolean checked) { super(size, checked); }
+
+		public void setIntValueAt(int index, int value)
+		{
+			super.setIntValueAt(index, value);
+			writeCounts[index]++;
+		}
+
+		public void setBoolValueAt(int index, boolean value)
+		{
+			super.setBoolValueAt(index, value);
+			writeCounts[index]++;
+		}
+
+		public void setReferenceAt(int index, int address)
+		{
+			super.setReferenceAt(index, address);
+			writeCounts[index]++;
+		}
+
+		public int getReferenceAt(int index)
+		{
+			int address = super.getReferenceAt(index);
+			readCounts[index]++;
+			return address;
+		}
+
+		public void copyValueAt(int fromIndex, int toIndex)
+		{
+			//The tag of fromIndex is unchanged by the copy unless toIndex is the
+			//same cell, and then it is copied onto itself
+			super.copyValueAt(fromIndex, toIndex);
+			countRead(fromIndex);
+			writeCounts[toIndex]++;
+		}
+
+		public int getIntValueAt(int index)
+		{
+			int value = super.getIntValueAt(index);
+			countRead(index);
+			return value;
+		}
+
+		public boolean getBoolValueAt(int index)
+		{
+			boolean value = super.getBoolValueAt(index);
+			countRead(index);
+			return value;
+		}
+
+		//Only called once the access succeeded, so index (and the element a
+		//reference there points at) are inside memory
+		private void countRead(int index)
+		{
+			readCounts[index]++;
+			if (getTagArray()[index] == REF_TAG) readCounts[getValueArray()[index]]++;
+		}
+	}
+}
@@ -0,0 +1,558 @@
+package NanoSymtabCompiler;
+import invisible.jacc.util.JavaSourceOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+public class NQS //Nano Quad Source: the quad program as a compiled Java class
+{
+	//The ahead of time counterpart of NQJ. The quad program is written out as
+	//the Java source of a class with the same entry point NQJ generates,
+	//
+	//	public static void run(int[] mem, byte[] tags, NanoSymtabCompiler.NQJ rt)
+	//
+	//which javax.tools compiles in process, and the class is then run by an NQJ
+	//(see NQJ.load(QuadBuffer, Class)). Java has no goto, so the body is a loop
+	//around a switch with one case per basic block that is a jump target; a
+	//jump sets the block number and continues the loop, and every other block
+	//falls into the next as the quads do. A RETURN switches on the quad index
+	//the call stack gives back, with a case for the quad after each CALL.
+	//Memory and references are handled exactly as in NQJ.
+	//
+	//Compiled classes are kept in a cache directory. A class is named after a
+	//hash of its source, so a program compiled before is loaded from the cache
+	//without running javac at all. The source is kept beside the class file,
+	//and a cached class is only loaded when that source is the one we would
+	//compile now. javac works in a fresh directory inside the cache, and the
+	//class and then its source are renamed into place, so a half written
+	//class is never seen. The default cache is in the user's home directory,
+	//and the cache directory is made readable and writable by its owner only,
+	//since whoever can write it decides what code we load.
+	//Like any Java method the body is limited to 64K of bytecode; javac reports
+	//larger programs as "code too large".
+
+	private static final String CLASS_PREFIX = "NanoProgram_";
+
+	private File cacheDirectory;
+	private PrintStream out;
+
+	//Statistics of the last compile()
+	private String className;
+	private boolean cacheHit;
+	private int sourceLength;
+	private long compileNanos;
+
+	public NQS(File cacheDirectory)
+	{
+		this(cacheDirectory, System.out);
+	}
+
+	public NQS(File cacheDirectory, PrintStream out)
+	{
+		this.cacheDirectory = cacheDirectory;
+		this.out = out;
+	}
+
+	//The default cache belongs to the user
+	public static File getDefaultCacheDirectory()
+	{
+		return new File(System.getProperty("user.home"), ".NanoProgramCache");
+	}
+
+	public File getCacheDirectory() { return cacheDirectory; }
+	public String getClassName() { return className; }
+	public boolean isCacheHit() { return cacheHit; }
+	public int getSourceLength() { return sourceLength; }
+	public long getCompileNanos() { return compileNanos; }
+
+	/*
+	 * Writes the Java source of the program in buffer, for a runtime memory of
+	 * memorySize cells, as class name
+	 */
+	public String translate(QuadBuffer buffer, int memorySize, String name)
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream stream = new PrintStream(bytes);
+		new Translation(buffer, memorySize, new JavaSourceOutputStream(stream)).write(name);
+		stream.flush();
+		try
+		{
+			return bytes.toString("ISO-8859-1");
+		}
+		catch (UnsupportedEncodingException e) { throw new IllegalStateException(e.toString()); }
+	}
+
+	/*
+	 * Translates the program and returns its compiled class, from the cache when
+	 * the same source was compiled before. Returns null (and reports why) if the
+	 * class can not be compiled or loaded.
+	 */
+	public Class compile(QuadBuffer buffer, int memorySize)
+	{
+		long startTime = System.nanoTime();
+		String source = translate(buffer, memorySize, CLASS_PREFIX);
+		className = CLASS_PREFIX + hash(source);
+		source = translate(buffer, memorySize, className);
+		sourceLength = source.length();
+
+		if (!makeCacheDirectory()) return null;
+		File classFile = new File(cacheDirectory, className + ".class");
+		cacheHit = classFile.isFile() && isCachedSource(source);
+		if (!cacheHit && !compileSource(source)) return null;
+
+		try
+		{
+			URLClassLoader loader = new URLClassLoader(new URL[] { cacheDirectory.toURI().toURL() },
+													   NQS.class.getClassLoader());
+			Class program = loader.loadClass(className);
+			compileNanos = System.nanoTime() - startTime;
+			return program;
+		}
+		catch (IOException e)
+		{
+			out.println("Load error: " + e);
+		}
+		catch (ClassNotFoundException e)
+		{
+			out.println("Load error: " + e);
+		}
+		catch (LinkageError e)
+		{
+			out.println("Load error: " + e);
+		}
+		return null;
+	}
+
+	public void showStatistics()
+	{
+		out.println("<<<<<<<<<<< Java Source Statistics >>>>>>>>>>>>");
+		out.println("Class:            " + className);
+		out.println("Source length:    " + sourceLength + " characters");
+		out.println("From cache:       " + cacheHit);
+		out.println("Compile time:     " + (compileNanos / 1000000.0) + " ms");
+		out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Creates the cache directory if need be and makes it private to its owner;
+	//this fails for a directory owned by someone else
+	private boolean makeCacheDirectory()
+	{
+		if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs())
+		{
+			out.println("Load error: can not create cache directory " + cacheDirectory);
+			return false;
+		}
+		if (!makePrivate(cacheDirectory))
+		{
+			out.println("Load error: can not make cache directory " + cacheDirectory + " private");
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean makePrivate(File file)
+	{
+		return file.setReadable(false, false) && file.setReadable(true, true)
+			&& file.setWritable(false, false) && file.setWritable(true, true)
+			&& file.setExecutable(false, false) && file.setExecutable(true, true);
+	}
+
+	//Whether the source kept beside the cached class is source
+	private boolean isCachedSource(String source)
+	{
+		File sourceFile = new File(cacheDirectory, className + ".java");
+		try
+		{
+			byte[] expected = source.getBytes("ISO-8859-1");
+			if (sourceFile.length() != expected.length) return false;
+			byte[] cached = new byte[expected.length];
+			FileInputStream stream = new FileInputStream(sourceFile);
+			try
+			{
+				int length = 0;
+				while (length < cached.length)
+				{
+					int count = stream.read(cached, length, cached.length - length);
+					if (count < 0) return false;
+					length += count;
+				}
+			}
+			finally
+			{
+				stream.close();
+			}
+			return Arrays.equals(expected, cached);
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+
+	private boolean compileSource(String source)
+	{
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		if (javac == null)
+		{
+			out.println("Load error: no Java compiler is available (a JDK is needed, not a JRE)");
+			return false;
+		}
+
+		File workDirectory;
+		try
+		{
+			workDirectory = File.createTempFile(className, ".tmp", cacheDirectory);
+		}
+		catch (IOException e)
+		{
+			out.println("Load error: " + e);
+			return false;
+		}
+		try
+		{
+			if (!workDirectory.delete() || !workDirectory.mkdir())
+			{
+				out.println("Load error: can not create " + workDirectory);
+				return false;
+			}
+			return compileSource(source, workDirectory);
+		}
+		finally
+		{
+			File[] files = workDirectory.listFiles();
+			for (int n = 0; files != null && n < files.length; n++) files[n].delete();
+			workDirectory.delete();
+		}
+	}
+
+	private boolean compileSource(String source, File workDirectory)
+	{
+		File sourceFile = new File(workDirectory, className + ".java");
+		try
+		{
+			FileOutputStream stream = new FileOutputStream(sourceFile);
+			stream.write(source.getBytes("ISO-8859-1"));
+			stream.close();
+		}
+		catch (IOException e)
+		{
+			out.println("Load error: " + e);
+			return false;
+		}
+
+		//The class refers to NQJ, so it compiles against our own class path
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		StringWriter messages = new StringWriter();
+		String[] options = { "-d", workDirectory.getPath(), "-nowarn", "-encoding", "ISO-8859-1",
+							 "-classpath", System.getProperty("java.class.path") };
+		Boolean ok = javac.getTask(messages, null, null, Arrays.asList(options), null,
+								   javac.getStandardFileManager(null, null, null)
+										.getJavaFileObjects(new File[] { sourceFile })).call();
+		if (!ok.booleanValue())
+		{
+			out.println("Load error: the Java source of the program does not compile");
+			out.println(messages.toString());
+			return false;
+		}
+
+		//The class first: a class whose source is not beside it yet is not used
+		return moveToCache(new File(workDirectory, className + ".class"))
+			&& moveToCache(sourceFile);
+	}
+
+	private boolean moveToCache(File file)
+	{
+		File target = new File(cacheDirectory, file.getName());
+		if (file.renameTo(target)) return true;
+		//Some platforms do not rename over an existing file
+		target.delete();
+		if (file.renameTo(target)) return true;
+		out.println("Load error: can not move " + file + " to " + target);
+		return false;
+	}
+
+	private static String hash(String source)
+	{
+		try
+		{
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes("ISO-8859-1"));
+			StringBuffer hex = new StringBuffer();
+			for (int i = 0; i < 10; i++)
+			{
+				hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+				hex.append(Character.forDigit(digest[i] & 0xF, 16));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e.toString()); }
+		catch (UnsupportedEncodingException e) { throw new IllegalStateException(e.toString()); }
+	}
+
+	//One program being written out
+	private static class Translation
+	{
+		private QuadBuffer buffer;
+		private JavaSourceOutputStream out;
+		private QuadFlowGraph graph;
+		private boolean[] isRefCell;
+		private boolean[] isCase;		//blocks that are jump targets, by number
+		private int[] returnPoints;		//the quad after each CALL
+
+		Translation(QuadBuffer buffer, int memorySize, JavaSourceOutputStream out)
+		{
+			this.buffer = buffer;
+			this.out = out;
+			graph = new QuadFlowGraph(buffer);
+			isRefCell = NQJ.findReferenceCells(buffer, memorySize);
+			isCase = new boolean[graph.getBlockCount()];
+			if (isCase.length > 0) isCase[0] = true;
+			for (int i = 0; i < buffer.size(); i++)
+				if (buffer.isJump(i) && isQuad(buffer.getResult(i))) isCase[graph.getBlockOf(buffer.getResult(i))] = true;
+			returnPoints = NQJ.findReturnPoints(buffer);
+			for (int n = 0; n < returnPoints.length; n++)
+				if (isQuad(returnPoints[n])) isCase[graph.getBlockOf(returnPoints[n])] = true;
+
+			//A block no quad falls into gets a case too, or javac rejects it as
+			//unreachable
+			for (int b = 0; b + 1 < isCase.length; b++)
+			{
+				int type = buffer.getType(graph.getLastQuad(b));
+				if (type == NQG.DOJMP || type == NQG.START || type == NQG.END || type == NQG.RETURN) isCase[b + 1] = true;
+			}
+		}
+
+		void write(String name)
+		{
+			boolean reads = false;
+			for (int i = 0; i < buffer.size(); i++) if (buffer.getType(i) == NQG.READ) reads = true;
+
+			out.line("// File generated by NanoSymtabCompiler from a quad program of "
+					 + buffer.size() + " quads.");
+			out.line();
+			out.line("public final class " + name);
+			out.openScope();
+			out.line("public static void run(int[] mem, byte[] tags, NanoSymtabCompiler.NQJ rt)");
+			out.openScope();
+			out.line("int ip = 0;");
+			out.line("long executed = 0;");
+			out.line("int block = 0;");
+			out.line("int target;");
+			out.line("try");
+			out.openScope();
+			out.line("for (;;)");
+			out.openScope();
+			out.line("switch (block)");
+			out.openScope();
+			for (int b = 0; b < graph.getBlockCount(); b++)
+			{
+				if (isCase[b]) out.line("case " + b + ":");
+				out.line("executed += " + (graph.getBlockEnd(b) - graph.getBlockStart(b)) + ";");
+				for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++) quad(i);
+			}
+			out.closeScope();
+			out.line("// Falling off the last quad is an error, as in the emulator");
+			out.line("ip = " + buffer.size() + ";");
+			out.line("rt.pastEnd();");
+			out.line("return;");
+			out.closeScope();
+			out.closeScope();
+			out.line("catch (RuntimeException e)");
+			out.openScope();
+			out.line("rt.fail(ip, e, executed);");
+			out.closeScope();
+			if (reads)
+			{
+				out.line("catch (java.io.IOException e)");
+				out.openScope();
+				out.line("rt.fail(ip, e, executed);");
+				out.closeScope();
+			}
+			out.closeScope();
+			out.closeScope();
+			out.flush();
+		}
+
+		private void quad(int i)
+		{
+			int type = buffer.getType(i);
+			int a = buffer.getA(i);
+			int b = buffer.getB(i);
+			int r = buffer.getResult(i);
+			boolean immA = buffer.isImmediateA(i);
+			boolean immB = buffer.isImmediateB(i);
+			if (NQJ.mayFail(buffer, i, isRefCell)) out.line("ip = " + i + ";");
+
+			switch (type)
+			{
+			case NQG.MUL: case NQG.DIV: case NQG.ADD: case NQG.SUB:
+			{
+				String op = type == NQG.MUL ? " * " : type == NQG.DIV ? " / " : type == NQG.ADD ? " + " : " - ";
+				store(cell(r), operand(immA, a) + op + operand(immB, b), isRefCell[r], NRT.INT_TAG);
+				break;
+			}
+			case NQG.AND: case NQG.OR:
+			{
+				String op = (type == NQG.AND) ? " && " : " || ";
+				store(cell(r), "(" + truth(immA, a) + op + truth(immB, b) + ") ? 1 : 0", isRefCell[r], NRT.BOOL_TAG);
+				break;
+			}
+			case NQG.RLEQ: case NQG.RLNTEQ: case NQG.RLST: case NQG.RLSTEQ: case NQG.RLGT: case NQG.RLGTEQ:
+				store(cell(r), "(" + operand(immA, a) + relop(type) + operand(immB, b) + ") ? 1 : 0",
+					  isRefCell[r], NRT.BOOL_TAG);
+				break;
+			case NQG.NEG:
+				store(cell(r), "-" + operand(immA, a), isRefCell[r], NRT.INT_TAG);
+				break;
+			case NQG.NOT:
+				store(cell(r), "(" + operand(immA, a) + " == 0) ? 1 : 0", isRefCell[r], NRT.BOOL_TAG);
+				break;
+			case NQG.OFFSET:
+				store(cell(r), constant(a) + " + " + operand(immB, b), true, NRT.REF_TAG);
+				break;
+			case NQG.CHECK:
+				out.line("rt.checkIndex(" + operand(immA, a) + ", " + constant(b) + ");");
+				break;
+			case NQG.ASGN:
+			{
+				byte tag = (immA && buffer.isBoolean(i)) ? NRT.BOOL_TAG : NRT.INT_TAG;
+				String value = (tag == NRT.BOOL_TAG) ? (a != 0 ? "1" : "0") : operand(immA, a);
+				if (buffer.isIndirect(i))
+				{
+					//The cell r holds the address of the element to store into
+					out.line("target = mem[" + r + "];");
+					store("target", value, true, tag);
+				}
+				else store(cell(r), value, isRefCell[r], tag);
+				break;
+			}
+			case NQG.DOJMP: case NQG.START:
+				out.line(jump(r));
+				break;
+			case NQG.PARAM:
+			{
+				byte tag = buffer.isBoolean(i) ? NRT.BOOL_TAG : NRT.INT_TAG;
+				String value = (immA && tag == NRT.BOOL_TAG) ? (a != 0 ? "1" : "0") : operand(immA, a);
+				out.line("rt.param(" + r + ", " + value + ", " + tag + ");");
+				break;
+			}
+			case NQG.CALL:
+				out.line("rt.call(" + (i + 1) + ", " + a + ", " + b + ");");
+				out.line(jump(r));
+				break;
+			case NQG.RETURN:
+				out.line("switch (rt.ret())");
+				out.openScope();
+				for (int n = 0; n < returnPoints.length; n++)
+					if (isQuad(returnPoints[n]))
+						out.line("case " + returnPoints[n] + ": block = " + graph.getBlockOf(returnPoints[n]) + "; continue;");
+				out.closeScope();
+				out.line("ip = " + buffer.size() + ";");
+				out.line("rt.pastEnd();");
+				out.line("return;");
+				break;
+			case NQG.IFTRU: case NQG.IFFAL:
+			{
+				String test = operand(immA, a) + (type == NQG.IFTRU ? " != 0" : " == 0");
+				out.line("if (" + test + ") { " + jump(r) + " }");
+				break;
+			}
+			case NQG.JMPEQ: case NQG.JMPNTEQ: case NQG.JMPST: case NQG.JMPSTEQ: case NQG.JMPGT: case NQG.JMPGTEQ:
+			{
+				String test = operand(immA, a) + relop(NQG.relopOf(type)) + operand(immB, b);
+				out.line("if (" + test + ") { " + jump(r) + " }");
+				break;
+			}
+			case NQG.PRNT:
+				if (r == -1)
+				{
+					out.text("rt.printString(");
+					out.literal(NQJ.stripQuotes(buffer.getFormatString(i)));
+					out.line(");");
+				}
+				else if (buffer.getFormatString(i).equals("I")) out.line("rt.printInt(" + operand(false, r) + ");");
+				else out.line("rt.printBool(" + operand(false, r) + ");");
+				break;
+			case NQG.READ:
+			{
+				//Stores through a cell produced by OFFSET, like an indirect assign
+				String read = buffer.getFormatString(i).equals("I") ? "rt.readInt()" : "rt.readBool()";
+				byte tag = buffer.getFormatString(i).equals("I") ? NRT.INT_TAG : NRT.BOOL_TAG;
+				if (isRefCell[r])
+				{
+					out.line("target = (tags[" + r + "] == " + NRT.REF_TAG + ") ? mem[" + r + "] : " + r + ";");
+					store("target", read, true, tag);
+				}
+				else store(cell(r), read, false, tag);
+				break;
+			}
+			case NQG.END:
+				out.line("rt.finish(executed);");
+				out.line("return;");
+				break;
+			}
+		}
+
+		//Only cells that can hold a reference need their tag kept up to date
+		private void store(String address, String value, boolean tagged, byte tag)
+		{
+			out.line("mem[" + address + "] = " + value + ";");
+			if (tagged) out.line("tags[" + address + "] = " + tag + ";");
+		}
+
+		private static String cell(int address) { return String.valueOf(address); }
+
+		//NQJ refuses to load a program with a bad jump, so it never runs
+		private String jump(int target)
+		{
+			if (!isQuad(target)) return "throw new IllegalStateException(\"jump target is not a quad\");";
+			return "block = " + graph.getBlockOf(target) + "; continue;";
+		}
+
+		private boolean isQuad(int index) { return index >= 0 && index < buffer.size(); }
+
+		//An immediate value, or the value of a cell (following a reference)
+		private String operand(boolean immediate, int value)
+		{
+			if (immediate) return constant(value);
+			if (value < 0 || value >= isRefCell.length || !isRefCell[value]) return "mem[" + value + "]";
+			return "(tags[" + value + "] == " + NRT.REF_TAG + " ? mem[mem[" + value + "]] : mem[" + value + "])";
+		}
+
+		private String truth(boolean immediate, int value)
+		{
+			return operand(immediate, value) + " != 0";
+		}
+
+		//Parenthesized when negative, so "x - -1" can't become "x--1"
+		private static String constant(int value)
+		{
+			return value < 0 ? "(" + value + ")" : String.valueOf(value);
+		}
+
+		private static String relop(int type)
+		{
+			switch (type)
+			{
+			case NQG.RLEQ: return " == ";
+			case NQG.RLNTEQ: return " != ";
+			case NQG.RLST: return " < ";
+			case NQG.RLSTEQ: return " <= ";
+			case NQG.RLGT: return " > ";
+			default: return " >= ";
+			}
+		}
+	}
+}
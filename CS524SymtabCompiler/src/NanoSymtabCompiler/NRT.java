@@ -1,85 +1,268 @@
 package NanoSymtabCompiler;
 
-import java.util.ArrayList;
 import NanoSymtabCompiler.NanoSymbolTable;
 
 
 
-public class NRT 
+public class NRT
 {
-	public abstract class NanoMemoryCell
+	//Every cell is one int in the values lane plus one byte in the tags lane.
+	//Booleans are stored as 0/1; a reference cell (produced by OFFSET) holds the
+	//address of the array element it stands for. A cell that was never written
+	//is EMPTY and reads as 0 or false.
+	public static final byte EMPTY_TAG = 0;
+	public static final byte INT_TAG = 1;
+	public static final byte BOOL_TAG = 2;
+	public static final byte REF_TAG = 3;
+
+	private int[] values;
+	private byte[] tags;
+	private int size;
+
+	//Checked mode tests every address against the memory size and every read
+	//against the tag of the cell, reporting mismatches the way the original
+	//cell classes did. Unchecked mode trusts the compiler: it leaves bounds to
+	//the JVM and only looks at a tag to follow references.
+	private boolean checked;
+
+	//The call stack for procedures (see NQG.CALL). A procedure's locals have
+	//fixed addresses, its frame; a CALL pushes the cells of the callee's frame,
+	//values and tags, followed by the frame base, the frame size and the point
+	//to return to, and the RETURN pops them back into place. The stack lives in
+	//two arrays made once, so a call is a copy and a bump of stackTop with no
+	//allocation; they double if a deep recursion fills them. The arguments of
+	//the PARAMs before a CALL wait in the pending arrays until the CALL has
+	//saved the frame their formals are in.
+	private static final int INITIAL_STACK_SIZE = 4096;
+	private int[] stackValues;
+	private byte[] stackTags;
+	private int stackTop;
+	private int callDepth;
+	private int maxCallDepth;
+	private int[] pendingAddresses;
+	private int[] pendingValues;
+	private byte[] pendingTags;
+	private int pendingCount;
+
+	//Default constructor designed to be big enough for our examples
+	public NRT()
+	{ this(10000); }
+
+	public NRT(int size)
+	{ this(size, true); }
+
+	//Exactly as much memory as the program compiled against symtab needs
+	public NRT(NanoSymbolTable symtab, boolean checked)
+	{ this(symtab.getMaxStackTopOffset(), checked); }
+
+	public NRT(int size, boolean checked)
 	{
-		protected int type = NanoSymbolTable.UNK_TYPE;
-		public NanoMemoryCell() {}
-		public boolean isInteger() { return (type == NanoSymbolTable.INT_TYPE); }
-		public boolean isBoolean() { return (type == NanoSymbolTable.BOOL_TYPE); }
+		this.size = size;
+		this.checked = checked;
+		values = new int[size];
+		tags = new byte[size];
+		stackValues = new int[INITIAL_STACK_SIZE];
+		stackTags = new byte[INITIAL_STACK_SIZE];
+		pendingAddresses = new int[16];
+		pendingValues = new int[16];
+		pendingTags = new byte[16];
 	}
-	
-	public final class NanoIntegerMemoryCell extends NanoMemoryCell
+
+	public int getSize() { return size; }
+	public boolean isChecked() { return checked; }
+	public void setChecked(boolean checked) { this.checked = checked; }
+
+	//The live cell lanes, for code compiled by NQJ that reads and writes them directly
+	public int[] getValueArray() { return values; }
+	public byte[] getTagArray() { return tags; }
+
+	//Kept for existing callers: these overwrite the cell at index
+	public void addAt(int value, int index)
 	{
-		private int integerValue;
-		public NanoIntegerMemoryCell(int value)
-		{	
-			type = NanoSymbolTable.INT_TYPE;
-			integerValue = value;
-		}
-		public int getValue() { return integerValue; }
-		public void setValue(int value) { integerValue = value; }
+		setIntValueAt(index, value);
 	}
 
-	public final class NanoBooleanMemoryCell extends NanoMemoryCell
+	public void addAt(boolean value, int index)
 	{
-		private boolean booleanValue;
-		public NanoBooleanMemoryCell(boolean value)
-		{	
-			type = NanoSymbolTable.BOOL_TYPE;
-			booleanValue = value;
-		}
-		public boolean getValue() { return booleanValue; }
-		public void setValue(boolean value) { booleanValue = value; }
+		setBoolValueAt(index, value);
+	}
 
+	public void setIntValueAt(int index, int value)
+	{
+		if (checked) checkAddress(index);
+		values[index] = value;
+		tags[index] = INT_TAG;
 	}
 
-	private ArrayList memory;
+	public void setBoolValueAt(int index, boolean value)
+	{
+		if (checked) checkAddress(index);
+		values[index] = value ? 1 : 0;
+		tags[index] = BOOL_TAG;
+	}
 
-	//Default constructor designed to be big enough for our examples
-	//Notice this is a minimalistic class
-	//Size isn't even managed as an instance variable and no bounds checking is done
-	//Tsk, tsk...
-	public NRT()
-	{ new NRT(10000); }
-	
-	public NRT(int size)
+	//Used by OFFSET: the cell at index now stands for the element at address
+	public void setReferenceAt(int index, int address)
 	{
-		memory = new ArrayList(size);
+		if (checked) checkAddress(index);
+		values[index] = address;
+		tags[index] = REF_TAG;
 	}
-		
-	public void addAt(int value, int index)
+
+	public boolean isReferenceAt(int index)
 	{
-		memory.add(index,new NanoIntegerMemoryCell(value));
-	}	
-		
-	public void addAt(boolean value, int index)
+		if (checked) checkAddress(index);
+		return tags[index] == REF_TAG;
+	}
+
+	public int getReferenceAt(int index)
+	{
+		if (checked)
+		{
+			checkAddress(index);
+			if (tags[index] != REF_TAG)
+			{
+				System.out.println("Access error: Memory cell does not contain a reference");
+				return index;
+			}
+		}
+		return values[index];
+	}
+
+	//Copies the value (not the reference) found at fromIndex into toIndex
+	public void copyValueAt(int fromIndex, int toIndex)
 	{
-		memory.add(index,new NanoBooleanMemoryCell(value));
+		int from = dereference(fromIndex);
+		if (checked) checkAddress(toIndex);
+		values[toIndex] = values[from];
+		tags[toIndex] = tags[from];
 	}
-		
+
 	public int getIntValueAt(int index)
 	{
-		NanoMemoryCell memCell = (NanoMemoryCell) memory.get(index);
-		int result = 0; 
-		if (memCell.isInteger()) result = ((NanoIntegerMemoryCell) memCell).getValue();
-		else System.out.println("Access error: Memory cell does not contain an integer");
-		return result;
+		int cell = dereference(index);
+		if (checked && tags[cell] == BOOL_TAG)
+		{
+			System.out.println("Access error: Memory cell does not contain an integer");
+			return 0;
+		}
+		return values[cell];
 	}
 
 	public boolean getBoolValueAt(int index)
 	{
-		NanoMemoryCell memCell = (NanoMemoryCell) memory.get(index);
-		boolean result = false; 
-		if (memCell.isBoolean()) result = ((NanoBooleanMemoryCell) memCell).getValue();
-		else System.out.println("Access error: Memory cell does not contain a boolean");
-		return result;
+		int cell = dereference(index);
+		if (checked && tags[cell] == INT_TAG)
+		{
+			System.out.println("Access error: Memory cell does not contain a boolean");
+			return false;
+		}
+		return values[cell] != 0;
 	}
-	
-}
\ No newline at end of file
+
+	//Reading through a reference cell reads the array element it points at
+	private int dereference(int index)
+	{
+		if (checked) checkAddress(index);
+		if (tags[index] == REF_TAG)
+		{
+			index = values[index];
+			if (checked) checkAddress(index);
+		}
+		return index;
+	}
+
+	//What a PARAM quad does: value (with the tag of its type) is stored into the
+	//formal at address by the next call()
+	public void pushParameter(int address, int value, byte tag)
+	{
+		if (pendingCount == pendingValues.length)
+		{
+			pendingAddresses = grow(pendingAddresses, pendingCount * 2);
+			pendingValues = grow(pendingValues, pendingCount * 2);
+			pendingTags = grow(pendingTags, pendingCount * 2);
+		}
+		pendingAddresses[pendingCount] = address;
+		pendingValues[pendingCount] = value;
+		pendingTags[pendingCount++] = tag;
+	}
+
+	//What a CALL quad does before it jumps: saves the size cells of the frame at
+	//base with the returnPoint, which is whatever the caller needs to continue
+	//after the call (the emulator's quad index), then passes the parameters
+	public void call(int returnPoint, int base, int size)
+	{
+		if (checked && size > 0) { checkAddress(base); checkAddress(base + size - 1); }
+		if (stackTop + size + 3 > stackValues.length)
+		{
+			int length = Math.max(stackValues.length * 2, stackTop + size + 3);
+			stackValues = grow(stackValues, length);
+			stackTags = grow(stackTags, length);
+		}
+		System.arraycopy(values, base, stackValues, stackTop, size);
+		System.arraycopy(tags, base, stackTags, stackTop, size);
+		stackTop += size;
+		stackValues[stackTop++] = base;
+		stackValues[stackTop++] = size;
+		stackValues[stackTop++] = returnPoint;
+		if (++callDepth > maxCallDepth) maxCallDepth = callDepth;
+
+		for (int n = 0; n < pendingCount; n++)
+		{
+			int address = pendingAddresses[n];
+			if (checked) checkAddress(address);
+			values[address] = pendingValues[n];
+			tags[address] = pendingTags[n];
+		}
+		pendingCount = 0;
+	}
+
+	//What a RETURN quad does: restores the frame of the latest call and gives
+	//back its returnPoint
+	public int ret()
+	{
+		if (callDepth == 0) throw new IllegalStateException("RETURN without a CALL");
+		int returnPoint = stackValues[--stackTop];
+		int size = stackValues[--stackTop];
+		int base = stackValues[--stackTop];
+		stackTop -= size;
+		System.arraycopy(stackValues, stackTop, values, base, size);
+		System.arraycopy(stackTags, stackTop, tags, base, size);
+		callDepth--;
+		return returnPoint;
+	}
+
+	public int getCallDepth() { return callDepth; }
+	public int getMaxCallDepth() { return maxCallDepth; }
+
+	//What a CHECK quad does (see NQG): an array index must lie in 0..size-1. This is
+	//independent of checked mode, which only guards the memory as a whole
+	public static void checkIndex(int index, int size)
+	{
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index error: index " + index +
+												" is outside array of size " + size);
+	}
+
+	private static int[] grow(int[] array, int length)
+	{
+		int[] grown = new int[length];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	private static byte[] grow(byte[] array, int length)
+	{
+		byte[] grown = new byte[length];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	private void checkAddress(int index)
+	{
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Access error: address " + index +
+												" is outside runtime memory of size " + size);
+	}
+
+}
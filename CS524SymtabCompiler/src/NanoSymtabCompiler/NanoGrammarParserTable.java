@@ -11,29 +11,29 @@ public class NanoGrammarParserTable extends ParserTable
 
     // The number of symbols.
 
-    private static final int gen_symbolCount = 95;
+    private static final int gen_symbolCount = 98;
 
     // The number of productions.
 
-    private static final int gen_productionCount = 94;
+    private static final int gen_productionCount = 97;
 
     // The symbol on the left hand side of each production.
 
     private static final int[] gen_productionLHSSymbol = 
     {46, 45, 48, 48, 49, 49, 50, 50, 54, 54, 47, 55, 51, 52, 56, 59, 59, 57, 57, 62,
-    62, 58, 64, 65, 66, 66, 66, 68, 61, 61, 63, 63, 53, 53, 53, 53, 53, 53, 53, 53,
-    67, 76, 78, 77, 69, 79, 79, 70, 81, 81, 82, 82, 71, 71, 72, 72, 83, 84, 85, 86,
-    73, 87, 74, 75, 75, 88, 88, 80, 80, 80, 80, 89, 89, 89, 89, 60, 60, 60, 90, 90,
-    90, 90, 90, 92, 92, 93, 93, 93, 93, 93, 93, 91, 91, 94};
+    62, 58, 64, 66, 65, 67, 67, 67, 69, 61, 61, 63, 63, 53, 53, 53, 53, 53, 53, 53,
+    53, 68, 77, 79, 78, 70, 80, 80, 71, 82, 82, 83, 83, 72, 72, 73, 73, 84, 85, 86,
+    87, 74, 88, 75, 76, 76, 89, 89, 81, 81, 81, 81, 90, 90, 90, 90, 91, 92, 60, 60,
+    60, 93, 93, 93, 93, 93, 95, 95, 96, 96, 96, 96, 96, 96, 94, 94, 97};
 
     // The length of the right hand side of each production.
 
     private static final int[] gen_productionRHSLength = 
     {1, 13, 2, 0, 2, 0, 2, 0, 2, 0, 0, 0, 0, 0, 5, 3, 1, 5, 5, 6,
-    4, 2, 6, 1, 3, 1, 0, 3, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
-    11, 0, 0, 0, 6, 0, 3, 6, 0, 3, 1, 4, 4, 7, 2, 2, 2, 2, 5, 0,
-    2, 7, 2, 5, 6, 3, 1, 3, 3, 3, 1, 3, 3, 3, 1, 1, 2, 2, 1, 1,
-    1, 3, 5, 1, 4, 1, 1, 1, 1, 1, 1, 1, 1, 2};
+    4, 2, 5, 2, 1, 3, 1, 0, 3, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+    1, 11, 0, 0, 0, 6, 0, 3, 6, 0, 3, 1, 4, 4, 7, 2, 2, 2, 2, 5,
+    0, 2, 7, 2, 5, 6, 3, 1, 3, 3, 2, 1, 3, 3, 2, 1, 2, 2, 1, 2,
+    2, 1, 1, 1, 3, 5, 1, 4, 1, 1, 1, 1, 1, 1, 1, 1, 2};
 
     // The parameter for each production.
 
@@ -42,7 +42,7 @@ public class NanoGrammarParserTable extends ParserTable
     0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
     0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
     0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
 
     // The maximum number of insertions during error repair.
 
@@ -69,7 +69,7 @@ public class NanoGrammarParserTable extends ParserTable
 
     // The goal production.
 
-    private static final int gen_goalProduction = 93;
+    private static final int gen_goalProduction = 96;
 
     // The end-of-file symbol.
 
@@ -82,7 +82,7 @@ public class NanoGrammarParserTable extends ParserTable
     1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
     1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
     0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
 
     // Deletion cost of each symbol for error repair.
 
@@ -91,7 +91,7 @@ public class NanoGrammarParserTable extends ParserTable
     1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
     1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
     0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+    0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
 
     // The number of LR(1) states.
 
@@ -101,132 +101,134 @@ public class NanoGrammarParserTable extends ParserTable
 
     private static short[][] gen_actionTable = null;
     private static short[] rle_actionTable = 
-    {125, 96, 188, -32510, 10, -32510, 188, 10, -32476, 188, 94, 189, 190, -32466, 188, 10, 96, 93, -32419, 188,
-    191, 96, 188, -32510, 3, -32510, 188, 3, -32473, 188, 192, -32467, 188, 3, 96, -32418, 188, 93, 96, 188,
-    193, -32511, 5, -32510, 188, 5, -32472, 188, 194, -32507, 188, 96, -32475, 188, 5, 96, -32471, 188, 110, -32497,
-    188, 195, -32478, 188, 110, 96, -32511, 188, 196, 7, -32510, 188, 7, -32471, 188, 197, -32507, 188, 98, -32476,
-    188, 7, 96, -32490, 188, 198, -32502, 188, 199, -32454, 188, 199, 96, -32471, 188, 200, -32497, 188, 201, -32511,
-    188, 202, -32481, 188, 200, 96, -32510, 188, 12, -32510, 188, 203, -32470, 188, 204, -32507, 188, 100, -32508, 188,
-    205, -32483, 188, 12, 96, -32471, 188, 109, -32461, 188, 109, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510,
-    188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 210, -32484, 188, 169, 173, 174, -32511, 188, 172,
-    96, -32490, 188, 16, 188, 16, -32511, 188, 211, -32447, 188, 16, 96, -32490, 188, 198, 188, 212, -32444, 188,
-    212, 96, -32488, 188, 213, -32444, 188, 213, 96, -32471, 188, 214, -32461, 188, 214, 96, -32510, 188, 215, -32422,
-    188, 215, 96, -32510, 188, 216, -32452, 188, 115, 188, 117, -32486, 188, 216, 96, -32492, 188, 185, 186, -32510,
-    188, 207, -32498, 188, 209, 172, -32467, 188, 171, 173, 174, -32511, 188, 172, 96, -32495, 188, 206, -32511, 188,
-    185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 217, -32505, 188,
-    218, 169, 173, 174, -32511, 188, 172, 96, -32492, 188, 185, 186, -32510, 188, 207, -32498, 188, 209, 172, -32467,
-    188, 170, 173, 174, -32511, 188, 172, 96, -32502, 188, 83, -32511, 188, -32511, 83, -32510, 188, -32511, 83, -32511,
-    188, -32511, 83, -32511, 188, 83, 219, -32508, 83, -32511, 188, -32507, 83, -32460, 188, 83, 96, -32489, 188, 108,
-    -32443, 188, 108, 96, -32470, 188, 220, -32462, 188, 220, 96, -32508, 188, 122, 123, -32459, 188, 221, -32480, 188,
-    122, 96, -32508, 188, 124, 125, -32457, 188, 222, -32482, 188, 124, 96, -32487, 188, 223, -32445, 188, 223, 96,
-    -32510, 188, 13, -32509, 188, -32510, 13, -32511, 188, 13, -32511, 188, -32511, 13, -32489, 188, 13, -32504, 188, 224,
-    -32471, 188, 13, 96, 188, -32509, 41, -32510, 188, -32510, 41, -32511, 188, 41, -32511, 188, -32511, 41, -32489, 188,
-    41, -32480, 188, 225, -32495, 188, 41, 96, -32493, 188, 226, -32507, 188, 175, -32511, 188, 227, 228, -32509, 188,
-    179, 184, 180, 182, 181, 183, -32462, 188, 229, 188, 175, 96, -32502, 188, 70, -32511, 188, -32511, 70, -32510,
-    188, 230, 70, -32511, 188, -32511, 70, -32511, 188, 70, 188, -32510, 70, 231, 232, -32511, 188, -32507, 70, -32460,
-    188, 70, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172,
-    -32497, 188, 168, -32494, 188, 233, -32505, 188, 218, 169, 173, 174, -32511, 188, 172, 96, -32484, 188, 234, -32448,
-    188, 234, 96, -32489, 188, 111, -32443, 188, 111, 96, -32489, 188, 112, -32443, 188, 112, 96, -32486, 188, 26,
-    -32499, 188, 110, -32497, 188, 235, -32507, 188, 236, 188, 237, -32487, 188, 26, 96, -32510, 188, 216, -32509, 188,
-    238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489, 188, 244, -32503, 188, 245, -32500, 188, 126, 188,
-    127, 128, 129, 130, 131, 132, 133, -32506, 188, 246, -32510, 188, 248, -32506, 188, 242, 96, 188, -32509, 3,
-    -32510, 188, -32510, 3, -32511, 188, 3, -32511, 188, -32511, 3, -32489, 188, 3, -32508, 188, 250, -32467, 188, 3,
-    96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188,
-    168, -32485, 188, 251, 169, 173, 174, -32511, 188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188,
-    207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32485, 188, 252, 169, 173, 174, -32511, 188, 172,
-    96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188,
-    168, -32485, 188, 253, 169, 173, 174, -32511, 188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188,
-    207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 254, -32505, 188, 218, 169, 173, 174,
-    -32511, 188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209,
-    172, -32497, 188, 167, -32484, 188, 169, 173, 174, -32511, 188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186,
-    -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 165, -32484, 188, 169, 173, 174, -32511, 188,
-    172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497,
-    188, 166, -32484, 188, 169, 173, 174, -32511, 188, 172, 96, -32493, 188, 226, -32505, 188, 178, 227, 228, -32450,
-    188, 178, 96, -32490, 188, 255, 188, 20, -32444, 188, 20, 96, -32490, 188, 198, 188, 256, -32444, 188, 256,
-    96, -32486, 188, 257, -32446, 188, 257, 96, -32489, 188, 258, -32511, 188, 25, -32446, 188, 25, 96, -32487, 188,
-    259, -32445, 188, 259, 96, -32487, 188, 260, -32445, 188, 260, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510,
-    188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 261, -32505, 188, 218, 169, 173,
-    174, -32511, 188, 172, 96, -32471, 188, 262, -32461, 188, 262, 96, -32489, 188, 156, -32443, 188, 156, 96, -32471,
-    188, 263, -32461, 188, 263, 96, -32485, 188, 264, -32508, 188, 265, -32453, 188, 265, 96, -32510, 188, -32511, 9,
-    -32510, 188, -32510, 9, -32511, 188, 9, -32511, 188, -32511, 9, -32489, 188, 9, -32502, 188, 266, -32473, 188, 9,
-    96, -32502, 188, 267, -32441, 188, 148, 149, -32504, 188, 267, 96, -32502, 188, 268, -32441, 188, 148, 149, -32504,
-    188, 268, 96, -32510, 188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489, 188,
-    244, -32503, 188, 154, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 246, -32510, 188,
-    248, -32506, 188, 242, 96, -32510, 188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243,
-    -32489, 188, 244, -32503, 188, 154, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 247,
-    -32510, 188, 249, -32506, 188, 242, 96, 188, 193, -32510, 5, -32510, 188, -32510, 5, -32511, 188, 5, -32511, 188,
-    -32511, 5, -32489, 188, 5, -32507, 188, 269, -32507, 188, 96, -32475, 188, 5, 96, -32502, 188, 69, -32511, 188,
-    -32511, 69, -32510, 188, 230, 69, -32511, 188, -32511, 69, -32511, 188, 69, 188, -32510, 69, 231, 232, -32511, 188,
-    -32507, 69, -32460, 188, 69, 96, -32502, 188, 67, -32511, 188, -32511, 67, -32510, 188, 230, 67, -32511, 188, -32511,
-    67, -32511, 188, 67, 188, -32510, 67, 231, 232, -32511, 188, -32507, 67, -32460, 188, 67, 96, -32502, 188, 68,
-    -32511, 188, -32511, 68, -32510, 188, 230, 68, -32511, 188, -32511, 68, -32511, 188, 68, 188, -32510, 68, 231, 232,
-    -32511, 188, -32507, 68, -32460, 188, 68, 96, -32493, 188, 226, -32507, 188, 176, -32511, 188, 227, 228, -32450, 188,
-    176, 96, -32471, 188, 270, -32494, 188, 113, -32481, 188, 270, 96, -32508, 188, 122, 123, -32459, 188, 121, -32480,
-    188, 122, 96, -32489, 188, 116, -32443, 188, 116, 96, -32486, 188, 26, -32499, 188, 110, -32497, 188, 235, -32507,
-    188, 118, 188, 237, -32487, 188, 26, 96, -32469, 188, 271, -32463, 188, 271, 96, -32469, 188, 272, -32463, 188,
-    272, 96, -32502, 188, 56, -32505, 188, 226, -32504, 188, 227, 228, -32450, 188, 56, 96, -32479, 188, 273, -32453,
-    188, 273, 96, -32487, 188, 274, -32445, 188, 274, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207,
-    -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 275, -32505, 188, 218, 169, 173, 174, -32511,
-    188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172,
-    -32497, 188, 168, -32494, 188, 276, -32505, 188, 218, 169, 173, 174, -32511, 188, 172, 96, -32510, 188, 216, 277,
-    -32510, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489, 188, 244, -32503, 188, 102, -32500, 188,
-    126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 246, -32510, 188, 248, -32506, 188, 277, 96, -32510,
-    188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489, 188, 244, -32503, 188, 278,
-    -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 247, -32510, 188, 249, -32506, 188, 242,
-    96, -32510, 188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489, 188, 244, -32503,
-    188, 279, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 247, -32510, 188, 249, -32506,
-    188, 242, 96, -32511, 188, 196, -32511, 43, -32510, 188, -32510, 43, -32511, 188, 43, -32511, 188, -32511, 43, -32489,
-    188, 43, -32499, 188, 98, -32494, 188, 280, -32496, 188, 43, 96, -32485, 188, 211, -32447, 188, 211, 96, -32490,
-    188, 45, -32510, 188, 45, -32462, 188, 281, -32498, 188, 45, 96, -32490, 188, 48, -32510, 188, 48, -32460, 188,
-    282, -32500, 188, 48, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188,
-    209, 172, -32497, 188, 168, -32494, 188, 283, -32505, 188, 218, 169, 173, 174, -32511, 188, 172, 96, -32495, 188,
-    206, -32511, 188, 185, 186, -32510, 188, 207, 284, -32510, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494,
-    188, 285, -32506, 188, 286, 218, 169, 173, 174, -32511, 188, 284, 96, -32493, 188, 226, -32505, 188, 287, 227,
-    228, -32450, 188, 287, 96, -32493, 188, 226, -32510, 188, 146, -32508, 188, 227, 228, -32450, 188, 146, 96, -32489,
-    188, 11, -32483, 188, 288, -32474, 188, 11, 96, -32510, 188, -32511, 57, -32510, 188, -32510, 57, 188, 289, 57,
-    -32511, 188, -32511, 57, -32489, 188, 57, -32461, 188, 57, 96, -32510, 188, -32511, 57, -32510, 188, -32510, 57, 188,
-    290, 57, -32511, 188, -32511, 57, -32489, 188, 57, -32461, 188, 57, 96, -32510, 188, -32511, 12, -32510, 188, -32510,
-    12, -32511, 188, 12, -32511, 188, -32511, 12, -32489, 188, 12, -32505, 188, 291, -32470, 188, 12, 96, -32490, 188,
-    292, -32510, 188, 293, -32446, 188, 293, 96, -32490, 188, 294, -32510, 188, 295, -32446, 188, 295, 96, -32499, 188,
-    296, -32508, 188, 226, -32504, 188, 227, 228, -32450, 188, 296, 96, -32489, 188, 157, -32443, 188, 157, 96, -32493,
-    188, 226, -32511, 188, 297, -32510, 188, 66, -32511, 188, 227, 228, -32450, 188, 66, 96, -32486, 188, 298, -32446,
-    188, 298, 96, -32479, 188, 299, -32453, 188, 299, 96, -32489, 188, 12, -32487, 188, 300, -32470, 188, 12, 96,
-    -32510, 188, 59, -32509, 188, -32510, 59, -32511, 188, 59, -32511, 188, -32511, 59, -32489, 188, 59, -32470, 188, 301,
-    -32505, 188, 59, 96, -32510, 188, 59, -32509, 188, -32510, 59, -32511, 188, 59, -32511, 188, -32511, 59, -32489, 188,
-    59, -32470, 188, 302, -32505, 188, 59, 96, -32510, 188, -32511, 9, -32510, 188, -32510, 9, -32511, 188, 9, -32511,
-    188, -32511, 9, -32489, 188, 9, -32502, 188, 303, -32473, 188, 9, 96, -32495, 188, 206, -32511, 188, 185, 186,
-    -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 304, -32505, 188, 218, 169,
-    173, 174, -32511, 188, 172, 96, -32489, 188, 138, -32443, 188, 138, 96, -32471, 188, 305, -32474, 188, 143, -32501,
-    188, 305, 96, -32489, 188, 141, -32443, 188, 141, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207,
-    -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 306, -32505, 188, 218, 169, 173, 174, -32511,
-    188, 172, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172,
-    -32497, 188, 168, -32494, 188, 285, -32506, 188, 159, 218, 169, 173, 174, -32511, 188, 172, 96, -32489, 188, 158,
-    -32443, 188, 158, 96, -32495, 188, 206, -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209,
-    172, -32497, 188, 168, -32494, 188, 307, -32505, 188, 218, 169, 173, 174, -32511, 188, 172, 96, -32489, 188, 95,
-    -32443, 188, 95, 96, -32510, 188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242, 243, -32489,
-    188, 244, -32503, 188, 152, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188, 246, -32510,
-    188, 248, -32506, 188, 242, 96, -32510, 188, 216, -32509, 188, 238, 239, 240, -32511, 188, 241, -32511, 188, 242,
-    243, -32489, 188, 244, -32503, 188, 152, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132, 133, -32506, 188,
-    247, -32510, 188, 249, -32506, 188, 242, 96, -32510, 188, 216, 308, -32510, 188, 238, 239, 240, -32511, 188, 241,
-    -32511, 188, 242, 243, -32489, 188, 244, -32503, 188, 102, -32500, 188, 126, 188, 127, 128, 129, 130, 131, 132,
-    133, -32506, 188, 246, -32510, 188, 248, -32506, 188, 308, 96, -32493, 188, 226, -32511, 188, 46, -32510, 188, 46,
-    -32511, 188, 227, 228, -32450, 188, 46, 96, -32490, 188, 50, -32510, 188, 50, 309, -32447, 188, 50, 96, -32498,
-    188, 155, -32509, 188, 226, -32504, 188, 227, 228, -32450, 188, 155, 96, -32493, 188, 226, -32510, 188, 147, -32508,
-    188, 227, 228, -32450, 188, 147, 96, -32489, 188, 42, -32460, 188, 310, -32497, 188, 42, 96, -32495, 188, 206,
-    -32511, 188, 185, 186, -32510, 188, 207, -32509, 188, 208, -32503, 188, 209, 172, -32497, 188, 168, -32494, 188, 311,
-    -32505, 188, 218, 169, 173, 174, -32511, 188, 172, 96, -32489, 188, 12, -32487, 188, 312, -32470, 188, 12, 96,
-    -32493, 188, 226, -32505, 188, 145, 227, 228, -32450, 188, 145, 96, -32489, 188, 134, -32443, 188, 134};
+    {125, 99, 194, -32510, 10, -32510, 194, 10, -32476, 194, 97, 195, 196, -32463, 194, 10, 99, 96, -32416, 194,
+    197, 99, 194, -32510, 3, -32510, 194, 3, -32473, 194, 198, -32464, 194, 3, 99, -32415, 194, 96, 99, 194,
+    199, -32511, 5, -32510, 194, 5, -32472, 194, 200, -32507, 194, 99, -32472, 194, 5, 99, -32471, 194, 113, -32497,
+    194, 201, -32475, 194, 113, 99, -32511, 194, 202, 7, -32510, 194, 7, -32471, 194, 203, -32507, 194, 101, -32473,
+    194, 7, 99, -32490, 194, 204, -32502, 194, 205, -32451, 194, 205, 99, -32471, 194, 206, -32497, 194, 207, -32511,
+    194, 208, -32478, 194, 206, 99, -32510, 194, 12, -32510, 194, 209, -32470, 194, 210, -32507, 194, 103, -32508, 194,
+    211, 194, 212, -32482, 194, 12, 99, -32471, 194, 112, -32458, 194, 112, 99, -32495, 194, 213, -32511, 194, 191,
+    192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 217, -32481, 194, 175, 179, 180, -32511,
+    194, 178, 99, -32490, 194, 16, 194, 16, -32511, 194, 218, -32444, 194, 16, 99, -32490, 194, 204, 194, 219,
+    -32441, 194, 219, 99, -32488, 194, 220, -32441, 194, 220, 99, -32471, 194, 120, -32458, 194, 120, 99, -32510, 194,
+    221, -32419, 194, 221, 99, -32510, 194, 222, -32452, 194, 118, -32511, 194, 121, -32484, 194, 222, 99, -32487, 194,
+    223, -32442, 194, 223, 99, -32492, 194, 191, 192, -32510, 194, 214, -32498, 194, 216, 178, -32464, 194, 177, 179,
+    180, -32511, 194, 178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194,
+    216, 178, -32497, 194, 172, -32493, 194, 224, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99,
+    -32492, 194, 191, 192, -32510, 194, 214, -32498, 194, 216, 178, -32464, 194, 176, 179, 180, -32511, 194, 178, 99,
+    -32502, 194, 86, -32511, 194, -32511, 86, -32510, 194, -32511, 86, -32511, 194, -32511, 86, -32511, 194, 86, 228, -32508,
+    86, -32511, 194, -32507, 86, -32457, 194, 86, 99, -32489, 194, 111, -32440, 194, 111, 99, -32470, 194, 229, -32459,
+    194, 229, 99, -32508, 194, 126, 127, -32459, 194, 230, -32477, 194, 126, 99, -32508, 194, 128, 129, -32457, 194,
+    231, -32479, 194, 128, 99, -32510, 194, 13, -32509, 194, -32510, 13, -32511, 194, 13, -32511, 194, -32511, 13, -32489,
+    194, 13, -32504, 194, 232, -32468, 194, 13, 99, 194, -32509, 42, -32510, 194, -32510, 42, -32511, 194, 42, -32511,
+    194, -32511, 42, -32489, 194, 42, -32479, 194, 233, -32493, 194, 42, 99, -32486, 194, 27, -32499, 194, 113, -32497,
+    194, 234, -32506, 194, 235, 194, 236, -32485, 194, 27, 99, -32493, 194, 173, -32507, 194, 181, -32511, 194, 237,
+    238, -32509, 194, 185, 190, 186, 188, 187, 189, -32459, 194, 239, 194, 181, 99, -32502, 194, 71, -32511, 194,
+    -32511, 71, -32510, 194, 174, 71, -32511, 194, -32511, 71, -32511, 194, 71, 194, -32510, 71, 240, 241, -32511, 194,
+    -32507, 71, -32457, 194, 71, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503,
+    194, 216, 178, -32497, 194, 172, -32484, 194, 242, 194, 227, 175, 179, 180, -32511, 194, 178, 99, -32495, 194,
+    213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 171, -32481, 194,
+    175, 179, 180, -32511, 194, 178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215,
+    -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 243, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194,
+    178, 99, -32484, 194, 244, -32445, 194, 244, 99, -32489, 194, 114, -32440, 194, 114, 99, -32489, 194, 115, -32440,
+    194, 115, 99, -32510, 194, 222, -32509, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194,
+    251, -32503, 194, 252, -32499, 194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 253, -32510, 194,
+    255, -32504, 194, 249, 99, 194, -32509, 3, -32510, 194, -32510, 3, -32511, 194, 3, -32511, 194, -32511, 3, -32489,
+    194, 3, -32508, 194, 257, -32464, 194, 3, 99, -32490, 194, 204, 194, 258, -32441, 194, 258, 99, -32486, 194,
+    259, -32443, 194, 259, 99, -32489, 194, 260, -32511, 194, 26, -32443, 194, 26, 99, -32495, 194, 213, -32511, 194,
+    191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32484, 194, 261, 194, 227,
+    175, 179, 180, -32511, 194, 178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215,
+    -32503, 194, 216, 178, -32497, 194, 172, -32484, 194, 262, 194, 227, 175, 179, 180, -32511, 194, 178, 99, -32495,
+    194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493,
+    194, 263, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32495, 194, 213, -32511, 194, 191,
+    192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 169, -32481, 194, 175, 179, 180, -32511,
+    194, 178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178,
+    -32497, 194, 170, -32481, 194, 175, 179, 180, -32511, 194, 178, 99, -32502, 194, 70, -32511, 194, -32511, 70, -32510,
+    194, 174, 70, -32511, 194, -32511, 70, -32511, 194, 70, 194, -32510, 70, 240, 241, -32511, 194, -32507, 70, -32457,
+    194, 70, 99, -32493, 194, 173, -32505, 194, 184, 237, 238, -32447, 194, 184, 99, -32490, 194, 264, 194, 20,
+    -32441, 194, 20, 99, -32487, 194, 265, -32442, 194, 265, 99, -32487, 194, 266, -32442, 194, 266, 99, -32495, 194,
+    213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194,
+    267, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32471, 194, 268, -32458, 194, 268, 99,
+    -32489, 194, 160, -32440, 194, 160, 99, -32471, 194, 269, -32458, 194, 269, 99, -32485, 194, 270, -32508, 194, 271,
+    -32450, 194, 271, 99, -32510, 194, -32511, 9, -32510, 194, -32510, 9, -32511, 194, 9, -32511, 194, -32511, 9, -32489,
+    194, 9, -32502, 194, 272, -32470, 194, 9, 99, -32502, 194, 273, -32440, 194, 152, 153, -32502, 194, 273, 99,
+    -32502, 194, 274, -32440, 194, 152, 153, -32502, 194, 274, 99, -32510, 194, 222, -32509, 194, 245, 246, 247, -32511,
+    194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194, 158, -32499, 194, 130, 194, 131, 132, 133, 134,
+    135, 136, 137, -32506, 194, 253, -32510, 194, 255, -32504, 194, 249, 99, -32510, 194, 222, -32509, 194, 245, 246,
+    247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194, 158, -32499, 194, 130, 194, 131, 132,
+    133, 134, 135, 136, 137, -32506, 194, 254, -32510, 194, 256, -32504, 194, 249, 99, 194, 199, -32510, 5, -32510,
+    194, -32510, 5, -32511, 194, 5, -32511, 194, -32511, 5, -32489, 194, 5, -32507, 194, 275, -32507, 194, 99, -32472,
+    194, 5, 99, -32508, 194, 126, 127, -32459, 194, 125, -32477, 194, 126, 99, -32489, 194, 119, -32440, 194, 119,
+    99, -32486, 194, 27, -32499, 194, 113, -32497, 194, 234, -32506, 194, 122, 194, 236, -32485, 194, 27, 99, -32502,
+    194, 68, -32511, 194, -32511, 68, -32510, 194, 174, 68, -32511, 194, -32511, 68, -32511, 194, 68, 194, -32510, 68,
+    240, 241, -32511, 194, -32507, 68, -32457, 194, 68, 99, -32502, 194, 69, -32511, 194, -32511, 69, -32510, 194, 174,
+    69, -32511, 194, -32511, 69, -32511, 194, 69, 194, -32510, 69, 240, 241, -32511, 194, -32507, 69, -32457, 194, 69,
+    99, -32493, 194, 173, -32507, 194, 182, -32511, 194, 237, 238, -32447, 194, 182, 99, -32471, 194, 276, -32494, 194,
+    116, -32478, 194, 276, 99, -32469, 194, 277, -32460, 194, 277, 99, -32469, 194, 278, -32460, 194, 278, 99, -32502,
+    194, 57, -32505, 194, 173, -32504, 194, 237, 238, -32447, 194, 57, 99, -32479, 194, 279, -32450, 194, 279, 99,
+    -32487, 194, 280, -32442, 194, 280, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215,
+    -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 281, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194,
+    178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497,
+    194, 172, -32493, 194, 282, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32510, 194, 222,
+    283, -32510, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194, 105, -32499,
+    194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 253, -32510, 194, 255, -32504, 194, 283, 99,
+    -32510, 194, 222, -32509, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194,
+    284, -32499, 194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 254, -32510, 194, 256, -32504, 194,
+    249, 99, -32510, 194, 222, -32509, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251,
+    -32503, 194, 285, -32499, 194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 254, -32510, 194, 256,
+    -32504, 194, 249, 99, -32511, 194, 202, -32511, 44, -32510, 194, -32510, 44, -32511, 194, 44, -32511, 194, -32511, 44,
+    -32489, 194, 44, -32499, 194, 101, -32493, 194, 286, -32494, 194, 44, 99, -32485, 194, 218, -32444, 194, 218, 99,
+    -32490, 194, 46, -32510, 194, 46, -32461, 194, 287, -32496, 194, 46, 99, -32490, 194, 49, -32510, 194, 49, -32459,
+    194, 288, -32498, 194, 49, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503,
+    194, 216, 178, -32497, 194, 172, -32493, 194, 289, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178,
+    99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214, 290, -32510, 194, 215, -32503, 194, 216, 178, -32497,
+    194, 172, -32493, 194, 291, -32506, 194, 292, 225, 226, 227, 175, 179, 180, -32511, 194, 290, 99, -32493, 194,
+    173, -32505, 194, 293, 237, 238, -32447, 194, 293, 99, -32493, 194, 173, -32510, 194, 150, -32508, 194, 237, 238,
+    -32447, 194, 150, 99, -32489, 194, 11, -32483, 194, 294, -32471, 194, 11, 99, -32510, 194, -32511, 58, -32510, 194,
+    -32510, 58, 194, 295, 58, -32511, 194, -32511, 58, -32489, 194, 58, -32458, 194, 58, 99, -32510, 194, -32511, 58,
+    -32510, 194, -32510, 58, 194, 296, 58, -32511, 194, -32511, 58, -32489, 194, 58, -32458, 194, 58, 99, -32510, 194,
+    -32511, 12, -32510, 194, -32510, 12, -32511, 194, 12, -32511, 194, -32511, 12, -32489, 194, 12, -32505, 194, 297, -32467,
+    194, 12, 99, -32490, 194, 298, -32510, 194, 299, -32443, 194, 299, 99, -32490, 194, 300, -32510, 194, 301, -32443,
+    194, 301, 99, -32499, 194, 302, -32508, 194, 173, -32504, 194, 237, 238, -32447, 194, 302, 99, -32489, 194, 161,
+    -32440, 194, 161, 99, -32493, 194, 173, -32511, 194, 303, -32510, 194, 67, -32511, 194, 237, 238, -32447, 194, 67,
+    99, -32486, 194, 304, -32443, 194, 304, 99, -32479, 194, 305, -32450, 194, 305, 99, -32489, 194, 12, -32487, 194,
+    306, -32467, 194, 12, 99, -32510, 194, 60, -32509, 194, -32510, 60, -32511, 194, 60, -32511, 194, -32511, 60, -32489,
+    194, 60, -32469, 194, 307, -32503, 194, 60, 99, -32510, 194, 60, -32509, 194, -32510, 60, -32511, 194, 60, -32511,
+    194, -32511, 60, -32489, 194, 60, -32469, 194, 308, -32503, 194, 60, 99, -32510, 194, -32511, 9, -32510, 194, -32510,
+    9, -32511, 194, 9, -32511, 194, -32511, 9, -32489, 194, 9, -32502, 194, 309, -32470, 194, 9, 99, -32495, 194,
+    213, -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194,
+    310, -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32489, 194, 142, -32440, 194, 142, 99,
+    -32471, 194, 311, -32473, 194, 147, -32499, 194, 311, 99, -32489, 194, 145, -32440, 194, 145, 99, -32495, 194, 213,
+    -32511, 194, 191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 312,
+    -32505, 194, 225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510,
+    194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 291, -32506, 194, 163, 225, 226,
+    227, 175, 179, 180, -32511, 194, 178, 99, -32489, 194, 162, -32440, 194, 162, 99, -32495, 194, 213, -32511, 194,
+    191, 192, -32510, 194, 214, -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 313, -32505, 194,
+    225, 226, 227, 175, 179, 180, -32511, 194, 178, 99, -32489, 194, 98, -32440, 194, 98, 99, -32510, 194, 222,
+    -32509, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194, 156, -32499, 194,
+    130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 253, -32510, 194, 255, -32504, 194, 249, 99, -32510,
+    194, 222, -32509, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251, -32503, 194, 156,
+    -32499, 194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 254, -32510, 194, 256, -32504, 194, 249,
+    99, -32510, 194, 222, 314, -32510, 194, 245, 246, 247, -32511, 194, 248, -32511, 194, 249, 250, -32489, 194, 251,
+    -32503, 194, 105, -32499, 194, 130, 194, 131, 132, 133, 134, 135, 136, 137, -32506, 194, 253, -32510, 194, 255,
+    -32504, 194, 314, 99, -32493, 194, 173, -32511, 194, 47, -32510, 194, 47, -32511, 194, 237, 238, -32447, 194, 47,
+    99, -32490, 194, 51, -32510, 194, 51, 315, -32444, 194, 51, 99, -32498, 194, 159, -32509, 194, 173, -32504, 194,
+    237, 238, -32447, 194, 159, 99, -32493, 194, 173, -32510, 194, 151, -32508, 194, 237, 238, -32447, 194, 151, 99,
+    -32489, 194, 43, -32459, 194, 316, -32495, 194, 43, 99, -32495, 194, 213, -32511, 194, 191, 192, -32510, 194, 214,
+    -32509, 194, 215, -32503, 194, 216, 178, -32497, 194, 172, -32493, 194, 317, -32505, 194, 225, 226, 227, 175, 179,
+    180, -32511, 194, 178, 99, -32489, 194, 12, -32487, 194, 318, -32467, 194, 12, 99, -32493, 194, 173, -32505, 194,
+    149, 237, 238, -32447, 194, 149, 99, -32489, 194, 138, -32440, 194, 138};
 
     // Unwinding action table for error repair.
 
     private static final int[] gen_unwindingTable = 
-    {10, 94, 3, 93, 5, 136, 7, 129, 136, 12, 136, 137, 16, 119, 119, 136, 97, 97, 137, 137,
-    137, 83, 118, 137, 99, 99, 120, 13, 41, 121, 70, 137, 123, 118, 118, 26, 110, 3, 137, 137,
-    137, 137, 137, 137, 137, 123, 20, 119, 121, 25, 120, 120, 137, 136, 118, 136, 128, 9, 105, 105,
-    110, 110, 5, 69, 67, 68, 121, 136, 99, 118, 26, 138, 138, 56, 128, 120, 137, 137, 98, 110,
-    110, 43, 122, 45, 48, 137, 121, 123, 118, 11, 57, 57, 12, 121, 121, 108, 118, 66, 121, 128,
-    12, 59, 59, 9, 137, 118, 136, 118, 137, 137, 118, 137, 118, 110, 110, 98, 46, 50, 109, 118,
-    42, 137, 12, 123, 118};
+    {10, 97, 3, 96, 5, 139, 7, 132, 139, 12, 139, 140, 16, 122, 122, 139, 100, 100, 123, 140,
+    140, 140, 86, 121, 140, 102, 102, 13, 42, 27, 124, 71, 140, 140, 140, 126, 121, 121, 113, 3,
+    122, 124, 26, 140, 140, 140, 140, 140, 70, 126, 20, 123, 123, 140, 139, 121, 139, 131, 9, 108,
+    108, 113, 113, 5, 102, 121, 27, 68, 69, 124, 139, 141, 141, 57, 131, 123, 140, 140, 101, 113,
+    113, 44, 125, 46, 49, 140, 124, 126, 121, 11, 58, 58, 12, 124, 124, 111, 121, 67, 124, 131,
+    12, 60, 60, 9, 140, 121, 139, 121, 140, 140, 121, 140, 121, 113, 113, 101, 47, 51, 112, 121,
+    43, 140, 12, 126, 121};
 
     // The names of symbols.
 
@@ -298,6 +300,7 @@ public class NanoGrammarParserTable extends ParserTable
         "arrayType",
         "procHeader",
         "procBody",
+        "procName",
         "formalList",
         "blockStmnt",
         "formal",
@@ -322,6 +325,8 @@ public class NanoGrammarParserTable extends ParserTable
         "forHeader",
         "exprList",
         "term",
+        "exprOrLeft",
+        "termAndLeft",
         "prim",
         "boolConst",
         "value",
@@ -357,6 +362,7 @@ public class NanoGrammarParserTable extends ParserTable
         "",
         "",
         "",
+        "",
         "list",
         "single",
         "empty",
@@ -408,6 +414,8 @@ public class NanoGrammarParserTable extends ParserTable
         "slash",
         "and",
         "factor",
+        "",
+        "",
         "positive",
         "negative",
         "not",
@@ -0,0 +1,3566 @@
+// File generated by Invisible Jacc version 1.1.
+// Invisible Jacc is Copyright 1997-1998 Invisible Software, Inc.
+
+package NanoSymtabCompiler;
+
+import invisible.jacc.parse.PrescannerByte;
+import invisible.jacc.parse.ScannerClient;
+import invisible.jacc.parse.ScannerCoded;
+import invisible.jacc.parse.ScannerTable;
+import invisible.jacc.parse.SyntaxException;
+import java.io.IOException;
+
+public class NanoGrammarScanner extends ScannerCoded
+{
+
+    // Checksum of the tables this scanner was generated from.
+
+    private static final int gen_checksum = -960139160;
+
+
+
+
+    // Constructor passes its parameters to ScannerCoded.
+
+    public NanoGrammarScanner (ScannerClient client, PrescannerByte source,
+        ScannerTable scannerTable, String file, int line, int column,
+        int bufSize, Object params)
+    {
+        super (client, source, scannerTable, file, line, column,
+            bufSize, params, gen_checksum);
+
+        return;
+    }
+
+
+
+
+    // Run the forward DFA.  Implements the scanForward() method of ScannerCoded.
+
+    protected int scanForward (int state) throws IOException, SyntaxException
+    {
+        _contextLength = 0;
+        _acceptLength = 0;
+        _acceptState = 0;
+
+        while (state >= 0)
+        {
+            if (state < 45)
+                state = scan0 (state);
+            else if (state < 83)
+                state = scan1 (state);
+            else if (state < 112)
+                state = scan2 (state);
+            else
+                state = scan3 (state);
+        }
+
+        return _acceptLength;
+    }
+
+
+
+
+    // Run the forward DFA for states 0 through 44.  Returns the next state, or -1.
+
+    private int scan0 (int state) throws IOException, SyntaxException
+    {
+        byte[] data = _dataBuffer;
+        byte[] categoryTable = _categoryTable;
+        int start = _tokenStart;
+        int pos = start + _contextLength;
+        int end = _dataEnd;
+        int acceptLength = _acceptLength;
+        int acceptState = _acceptState;
+
+        scan:
+        for ( ; ; )
+        {
+            // If we have processed all available data, read more
+
+            if (pos == end)
+            {
+                _contextLength = pos - start;
+
+                if (readData() == 0)
+                {
+                    state = -1;
+                    break scan;
+                }
+
+                data = _dataBuffer;
+                start = _tokenStart;
+                pos = start + _contextLength;
+                end = _dataEnd;
+            }
+
+            // Get the category of the next character, and make the
+            // transition.  A transition to a state that recognizes a token
+            // breaks out of the switch to record the accepting length.
+
+            int category = categoryTable[data[pos++] & 0xFF] & 0xFF;
+
+            accept:
+            {
+                switch (state)
+                {
+                    case 0:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 1:
+                    switch (category)
+                    {
+                        case 0:
+                        case 29:
+                        case 46:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 13;
+                        break accept;
+                        case 2:
+                        state = 15;
+                        break accept;
+                        case 3:
+                        state = 7;
+                        break accept;
+                        case 4:
+                        state = 18;
+                        break accept;
+                        case 5:
+                        state = 16;
+                        break accept;
+                        case 6:
+                        state = 20;
+                        break accept;
+                        case 9:
+                        state = 17;
+                        break accept;
+                        case 14:
+                        state = 9;
+                        break accept;
+                        case 15:
+                        state = 8;
+                        break accept;
+                        case 16:
+                        state = 19;
+                        break accept;
+                        case 18:
+                        state = 14;
+                        break accept;
+                        case 20:
+                        state = 11;
+                        break accept;
+                        case 22:
+                        state = 12;
+                        break accept;
+                        case 27:
+                        state = 6;
+                        break accept;
+                        case 28:
+                        state = 5;
+                        break accept;
+                        case 30:
+                        state = 34;
+                        continue scan;
+                        case 31:
+                        state = 21;
+                        break accept;
+                        case 32:
+                        state = 22;
+                        break accept;
+                        case 33:
+                        state = 23;
+                        break accept;
+                        case 34:
+                        state = 24;
+                        break accept;
+                        case 35:
+                        state = 25;
+                        break accept;
+                        case 36:
+                        state = 26;
+                        break accept;
+                        case 37:
+                        state = 27;
+                        break accept;
+                        case 38:
+                        state = 28;
+                        break accept;
+                        case 39:
+                        state = 29;
+                        break accept;
+                        case 40:
+                        state = 30;
+                        break accept;
+                        case 41:
+                        state = 31;
+                        break accept;
+                        case 42:
+                        state = 32;
+                        break accept;
+                        case 44:
+                        state = 33;
+                        break accept;
+                        case 45:
+                        state = 35;
+                        continue scan;
+                        case 47:
+                        state = 4;
+                        break accept;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 2:
+                    switch (category)
+                    {
+                        case 45:
+                        state = 37;
+                        continue scan;
+                        default:
+                        state = 36;
+                        break accept;
+                    }
+                    case 3:
+                    switch (category)
+                    {
+                        case 27:
+                        state = 40;
+                        continue scan;
+                        case 28:
+                        state = 39;
+                        break accept;
+                        case 45:
+                        state = 41;
+                        continue scan;
+                        default:
+                        state = 38;
+                        break accept;
+                    }
+                    case 4:
+                    switch (category)
+                    {
+                        case 47:
+                        state = 4;
+                        break accept;
+                    }
+                    state = -1;
+                    break scan;
+                    case 5:
+                    switch (category)
+                    {
+                        case 27:
+                        state = 43;
+                        break accept;
+                        case 28:
+                        state = 42;
+                        break accept;
+                    }
+                    state = -1;
+                    break scan;
+                    case 6:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 7:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 45;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 15:
+                        state = 44;
+                        break accept;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 8:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 46;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 9:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 15:
+                        state = 47;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 10:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 11:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 8:
+                        state = 50;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 15:
+                        state = 48;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 18:
+                        state = 49;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 12:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 51;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 13:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 52;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 14:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 53;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 15:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 55;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 15:
+                        state = 54;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 16:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 12:
+                        state = 57;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 14:
+                        state = 56;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 17:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 6:
+                        state = 59;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 14:
+                        state = 58;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 18:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 15:
+                        state = 60;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 19:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 61;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 20:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 63;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 15:
+                        state = 62;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                    case 21:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 22:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 23:
+                    switch (category)
+                    {
+                        case 40:
+                        state = 64;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 24:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 25:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 26:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 27:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 28:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 29:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 30:
+                    switch (category)
+                    {
+                        case 40:
+                        state = 65;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 31:
+                    switch (category)
+                    {
+                        case 40:
+                        state = 66;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 42:
+                        state = 67;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 32:
+                    switch (category)
+                    {
+                        case 40:
+                        state = 68;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 33:
+                    switch (category)
+                    {
+                        case 44:
+                        state = 33;
+                        break accept;
+                    }
+                    state = -1;
+                    break scan;
+                    case 34:
+                    switch (category)
+                    {
+                        case 30:
+                        state = 69;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 45:
+                        state = 70;
+                        break scan;
+                        default:
+                        state = 34;
+                        continue scan;
+                    }
+                    case 35:
+                    switch (category)
+                    {
+                        case 46:
+                        state = 71;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 36:
+                    switch (category)
+                    {
+                        case 45:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 36;
+                        break accept;
+                    }
+                    case 37:
+                    switch (category)
+                    {
+                        case 46:
+                        state = 72;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 38:
+                    switch (category)
+                    {
+                        case 27:
+                        case 45:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 38;
+                        break accept;
+                    }
+                    case 39:
+                    switch (category)
+                    {
+                        case 27:
+                        case 45:
+                        state = 74;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 73;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 40:
+                    switch (category)
+                    {
+                        case 28:
+                        state = 76;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 75;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 41:
+                    switch (category)
+                    {
+                        case 46:
+                        state = 77;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 42:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 43:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 44:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 78;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        break accept;
+                    }
+                }
+
+                state = -1;
+                break scan;
+            }
+
+            acceptLength = pos - start;
+            acceptState = state;
+        }
+
+        _contextLength = pos - start;
+        _acceptLength = acceptLength;
+        _acceptState = acceptState;
+
+        return state;
+    }
+
+
+
+
+    // Run the forward DFA for states 45 through 82.  Returns the next state, or -1.
+
+    private int scan1 (int state) throws IOException, SyntaxException
+    {
+        byte[] data = _dataBuffer;
+        byte[] categoryTable = _categoryTable;
+        int start = _tokenStart;
+        int pos = start + _contextLength;
+        int end = _dataEnd;
+        int acceptLength = _acceptLength;
+        int acceptState = _acceptState;
+
+        scan:
+        for ( ; ; )
+        {
+            // If we have processed all available data, read more
+
+            if (pos == end)
+            {
+                _contextLength = pos - start;
+
+                if (readData() == 0)
+                {
+                    state = -1;
+                    break scan;
+                }
+
+                data = _dataBuffer;
+                start = _tokenStart;
+                pos = start + _contextLength;
+                end = _dataEnd;
+            }
+
+            // Get the category of the next character, and make the
+            // transition.  A transition to a state that recognizes a token
+            // breaks out of the switch to record the accepting length.
+
+            int category = categoryTable[data[pos++] & 0xFF] & 0xFF;
+
+            accept:
+            {
+                switch (state)
+                {
+                    case 45:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 12:
+                        state = 79;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 46:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 47:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 20:
+                        state = 80;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 48:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 49:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 21:
+                        state = 81;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 50:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 82;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 51:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 83;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 52:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 4:
+                        state = 84;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 53:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 86;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 20:
+                        state = 85;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 54:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 15:
+                        state = 87;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 55:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 7:
+                        state = 88;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 56:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 4:
+                        state = 89;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 57:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 19:
+                        state = 90;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 58:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 20:
+                        state = 91;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 59:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 60:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 61:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 9:
+                        state = 93;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 15:
+                        state = 92;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 62:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 94;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 63:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 12:
+                        state = 95;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 64:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 65:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 66:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 67:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 68:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 69:
+                    switch (category)
+                    {
+                        case 30:
+                        state = 96;
+                        break scan;
+                    }
+                    state = -1;
+                    break scan;
+                    case 70:
+                    switch (category)
+                    {
+                        case 30:
+                        state = -1;
+                        break scan;
+                        case 45:
+                        state = 70;
+                        continue scan;
+                        case 46:
+                        state = 98;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 97;
+                        break scan;
+                    }
+                    case 71:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 72:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 73:
+                    switch (category)
+                    {
+                        case 27:
+                        case 45:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 38;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 74:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 75:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 76:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 77:
+                    switch (category)
+                    {
+                    }
+                    state = -1;
+                    break scan;
+                    case 78:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 19:
+                        state = 99;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 79:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 12:
+                        state = 100;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 80:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 81:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 101;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 82:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 102;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                }
+
+                state = -1;
+                break scan;
+            }
+
+            acceptLength = pos - start;
+            acceptState = state;
+        }
+
+        _contextLength = pos - start;
+        _acceptLength = acceptLength;
+        _acceptState = acceptState;
+
+        return state;
+    }
+
+
+
+
+    // Run the forward DFA for states 83 through 111.  Returns the next state, or -1.
+
+    private int scan2 (int state) throws IOException, SyntaxException
+    {
+        byte[] data = _dataBuffer;
+        byte[] categoryTable = _categoryTable;
+        int start = _tokenStart;
+        int pos = start + _contextLength;
+        int end = _dataEnd;
+        int acceptLength = _acceptLength;
+        int acceptState = _acceptState;
+
+        scan:
+        for ( ; ; )
+        {
+            // If we have processed all available data, read more
+
+            if (pos == end)
+            {
+                _contextLength = pos - start;
+
+                if (readData() == 0)
+                {
+                    state = -1;
+                    break scan;
+                }
+
+                data = _dataBuffer;
+                start = _tokenStart;
+                pos = start + _contextLength;
+                end = _dataEnd;
+            }
+
+            // Get the category of the next character, and make the
+            // transition.  A transition to a state that recognizes a token
+            // breaks out of the switch to record the accepting length.
+
+            int category = categoryTable[data[pos++] & 0xFF] & 0xFF;
+
+            accept:
+            {
+                switch (state)
+                {
+                    case 83:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 84:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 85:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 21:
+                        state = 103;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 86:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 4:
+                        state = 104;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 87:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 12:
+                        state = 105;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 88:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 9:
+                        state = 106;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 89:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 90:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 107;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 91:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 108;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 92:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 3:
+                        state = 109;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 93:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 110;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 94:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 95:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 19:
+                        state = 111;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 96:
+                    switch (category)
+                    {
+                        case 30:
+                        state = 69;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        case 45:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 96;
+                        continue scan;
+                    }
+                    case 97:
+                    switch (category)
+                    {
+                        case 30:
+                        state = -1;
+                        break scan;
+                        case 45:
+                        state = 70;
+                        break scan;
+                        default:
+                        state = 97;
+                        continue scan;
+                    }
+                    case 98:
+                    switch (category)
+                    {
+                        case 30:
+                        state = -1;
+                        break scan;
+                        case 45:
+                        state = 70;
+                        break scan;
+                        default:
+                        state = 97;
+                        continue scan;
+                    }
+                    case 99:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 20:
+                        state = 112;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 100:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 101:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 102:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 103:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 113;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 104:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 105:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 114;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 106:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 115;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 107:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 108:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 7:
+                        state = 116;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 109:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 117;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 110:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 20:
+                        state = 118;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 111:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 119;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                }
+
+                state = -1;
+                break scan;
+            }
+
+            acceptLength = pos - start;
+            acceptState = state;
+        }
+
+        _contextLength = pos - start;
+        _acceptLength = acceptLength;
+        _acceptState = acceptState;
+
+        return state;
+    }
+
+
+
+
+    // Run the forward DFA for states 112 through 128.  Returns the next state, or -1.
+
+    private int scan3 (int state) throws IOException, SyntaxException
+    {
+        byte[] data = _dataBuffer;
+        byte[] categoryTable = _categoryTable;
+        int start = _tokenStart;
+        int pos = start + _contextLength;
+        int end = _dataEnd;
+        int acceptLength = _acceptLength;
+        int acceptState = _acceptState;
+
+        scan:
+        for ( ; ; )
+        {
+            // If we have processed all available data, read more
+
+            if (pos == end)
+            {
+                _contextLength = pos - start;
+
+                if (readData() == 0)
+                {
+                    state = -1;
+                    break scan;
+                }
+
+                data = _dataBuffer;
+                start = _tokenStart;
+                pos = start + _contextLength;
+                end = _dataEnd;
+            }
+
+            // Get the category of the next character, and make the
+            // transition.  A transition to a state that recognizes a token
+            // breaks out of the switch to record the accepting length.
+
+            int category = categoryTable[data[pos++] & 0xFF] & 0xFF;
+
+            accept:
+            {
+                switch (state)
+                {
+                    case 112:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 113:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 120;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 114:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 1:
+                        state = 121;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 115:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 116:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 122;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 117:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 4:
+                        state = 123;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 118:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 119:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 120:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 121:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 14:
+                        state = 124;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 122:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 125;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 123:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 21:
+                        state = 126;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 124:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 125:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 126:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 18:
+                        state = 127;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 127:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        case 5:
+                        state = 128;
+                        break accept;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                    case 128:
+                    switch (category)
+                    {
+                        case 0:
+                        case 27:
+                        case 28:
+                        case 30:
+                        case 31:
+                        case 32:
+                        case 33:
+                        case 34:
+                        case 35:
+                        case 36:
+                        case 37:
+                        case 38:
+                        case 39:
+                        case 40:
+                        case 41:
+                        case 42:
+                        case 45:
+                        case 46:
+                        case 47:
+                        state = -1;
+                        break scan;
+                        default:
+                        state = 10;
+                        acceptLength = pos - start;
+                        acceptState = state;
+                        break scan;
+                    }
+                }
+
+                state = -1;
+                break scan;
+            }
+
+            acceptLength = pos - start;
+            acceptState = state;
+        }
+
+        _contextLength = pos - start;
+        _acceptLength = acceptLength;
+        _acceptState = acceptState;
+
+        return state;
+    }
+
+
+}
+
@@ -0,0 +1,128 @@
+package NanoSymtabCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import invisible.jacc.parse.Scanner;
+import invisible.jacc.parse.SyntaxException;
+import invisible.jacc.parse.Token;
+
+
+
+// Checks NanoGrammarScanner, the scanner coded from the scanner tables, against
+// the table-driven scanner.  Each file named on the command line (or each .txt
+// file in a directory named there, such as tests) is scanned by both, through
+// the same NanoSymtabCompiler token factories, and the two token streams must
+// agree in number, value, line and column up to and including EOF.  Both
+// scanners report the errors they find as they go, so each error shows twice.
+//
+// Usage: java NanoSymtabCompiler.NanoScannerCheck tests [file ...]
+
+public class NanoScannerCheck
+{
+
+	public static void main (String[] args) throws IOException, SyntaxException
+	{
+		ArrayList files = new ArrayList();
+		for (int i = 0; i < args.length; ++i)
+		{
+			File file = new File (args[i]);
+			File[] list = file.isDirectory() ? file.listFiles() : new File[] { file };
+			java.util.Arrays.sort (list);
+			for (int n = 0; n < list.length; ++n)
+			{
+				if (list[n].isFile() && (list[n] == file || list[n].getName().endsWith (".txt")))
+				{
+					files.add (list[n].getPath());
+				}
+			}
+		}
+		if (files.isEmpty())
+		{
+			System.out.println ("Usage: java NanoSymtabCompiler.NanoScannerCheck directory|file ...");
+			return;
+		}
+
+		int mismatches = 0;
+		for (int i = 0; i < files.size(); ++i)
+		{
+			String filename = (String) files.get(i);
+			String result = compare (filename);
+			System.out.println (filename + ": " + result);
+			if (!result.startsWith ("same"))
+			{
+				++mismatches;
+			}
+		}
+
+		System.out.println ();
+		System.out.println (files.size() + " files, " + mismatches + " with different tokens.");
+		if (mismatches != 0)
+		{
+			System.exit (1);
+		}
+		return;
+	}
+
+
+	// Scans filename with both scanners and describes the first difference
+	private static String compare (String filename) throws IOException, SyntaxException
+	{
+		Scanner table = makeScanner (filename, false);
+		Scanner coded = makeScanner (filename, true);
+		if (table == null || coded == null)
+		{
+			return "can not be opened";
+		}
+
+		int count = 0;
+		try
+		{
+			for (;;)
+			{
+				Token expected = table.nextToken();
+				Token actual = coded.nextToken();
+				++count;
+				if (!sameToken (expected, actual))
+				{
+					return "token " + count + " differs: table " + describe (expected)
+						+ ", coded " + describe (actual);
+				}
+				if (expected.number == Token.EOF)
+				{
+					return "same (" + count + " tokens)";
+				}
+			}
+		}
+		finally
+		{
+			table.close();
+			coded.close();
+		}
+	}
+
+
+	// Each scanner gets its own compiler, so identifiers are interned alike
+	private static Scanner makeScanner (String filename, boolean codedScanner)
+	{
+		NanoSymtabCompiler compiler = new NanoSymtabCompiler();
+		compiler.setCodedScanner (codedScanner);
+		return compiler.makeScanner (filename);
+	}
+
+
+	private static boolean sameToken (Token a, Token b)
+	{
+		return a.number == b.number && a.line == b.line && a.column == b.column
+			&& String.valueOf (a.value).equals (String.valueOf (b.value));
+	}
+
+
+	private static String describe (Token token)
+	{
+		return "#" + token.number + " '" + token.value + "' at " + token.line + ":" + token.column;
+	}
+
+
+}
@@ -4,6 +4,7 @@ import java.util.Stack;
 import java.util.Set;
 import java.util.Iterator;
 import java.util.ArrayList;
+import invisible.jacc.parse.TokenInterner;
 //
 ///\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/
 //				PICO SYMBOL TABLE MAIN CLASS
@@ -18,6 +19,7 @@ public class NanoSymbolTable //Pico Symbol Table
 	public static final int BOOL_TYPE = 1;
 	public static final int INT_ARRAY_TYPE = 2;
 	public static final int BOOL_ARRAY_TYPE = 3;
+	public static final int PROC_TYPE = 4;
 
 	//Utility class included here for proximity to original constant names
 	//Used in verbose output for tracing contents of symbol table
@@ -28,6 +30,7 @@ public class NanoSymbolTable //Pico Symbol Table
 		else if (type==BOOL_TYPE) result = "boolean";
 		else if (type==INT_ARRAY_TYPE) result = "integer array";
 		else if (type==BOOL_ARRAY_TYPE) result = "boolean array";
+		else if (type==PROC_TYPE) result = "procedure";
 		else if (type==UNK_TYPE) result = "unknown type (error)";
 		return result;
 	}
@@ -39,9 +42,21 @@ public class NanoSymbolTable //Pico Symbol Table
 	 							   //according to lexical blocks in the source code
 	private int stackTopOffset;	//this is what acts as an actual 
 								//address into the RunTime Memory model
+	private int maxStackTopOffset; //high-water mark of stackTopOffset, i.e. how
+								   //much RunTime Memory a compiled program needs
+	private int frameTopOffset;	//high-water mark inside the procedure being declared
 	private NSTBlockEntry currentBlock;
 								//Points to entry for local variables for lexical context 
 								//currently being parsed; include as inner final class below 
+	private NSTScopeStack scopeStack; //Only in scope stack mode, where it replaces the
+									  //block chain above (see NSTScopeStack below)
+
+	//What every RunTime Memory address has held over the whole compile, since
+	//popped blocks hand their addresses on: TEMP_SLOT and/or NAMED_SLOT bits
+	private static final byte TEMP_SLOT = 1;
+	private static final byte NAMED_SLOT = 2;
+	private byte[] slotUses;
+	private String[] slotNames;	//declared names that have held each address, for NQP
 
 	//Utility support for IdLists
 	private int currTempNum;
@@ -50,9 +65,23 @@ public class NanoSymbolTable //Pico Symbol Table
 	private ArrayList tempExprList;
 	
 	public NanoSymbolTable()
+	{ this(false); }
+
+	//In scope stack mode identifiers live in one hash table for the whole program
+	//rather than one per block, so get() costs the same however deep the nesting
+	public NanoSymbolTable(boolean scopeStackMode)
+	{ this(scopeStackMode, null); }
+
+	//Scope stack mode keyed by the symbol IDs of the scanner's interner (which may
+	//be null), see NSTScopeStack
+	public NanoSymbolTable(boolean scopeStackMode, TokenInterner symbols)
 	{
 		blockEntryStack = new Stack();
+		if (scopeStackMode) scopeStack = new NSTScopeStack(symbols);
 		stackTopOffset = 0;
+		maxStackTopOffset = 0;
+		slotUses = new byte[64];
+		slotNames = new String[64];
 		currentBlock = null;
 		currTempNum = 0;
 		tempIdList = new ArrayList();
@@ -67,6 +96,11 @@ public class NanoSymbolTable //Pico Symbol Table
 	public void startNewBlock()
 	{
 		blockCount++;
+		if (scopeStack != null)
+		{
+			scopeStack.enter(stackTopOffset);
+			return;
+		}
 		currentBlock = new NSTBlockEntry(stackTopOffset,currentBlock,blockCount);
 		blockEntryStack.push(currentBlock);
 	}
@@ -79,6 +113,11 @@ public class NanoSymbolTable //Pico Symbol Table
 	public void endCurrentBlock()
 	{
 		blockCount--;
+		if (scopeStack != null)
+		{
+			stackTopOffset = scopeStack.exit();
+			return;
+		}
 		NSTBlockEntry be = (NSTBlockEntry) blockEntryStack.pop();
 		currentBlock = be.beneath;
 		stackTopOffset -= be.lengthOfEntries();
@@ -89,12 +128,20 @@ public class NanoSymbolTable //Pico Symbol Table
 	 */
 	public NSTIndScalarEntry
 	addScalarToCurrentBlock(String name, int type)
+	{
+		return addScalarToCurrentBlock(name, type, NAMED_SLOT);
+	}
+
+	private NSTIndScalarEntry
+	addScalarToCurrentBlock(String name, int type, byte slotUse)
 	{
 		NSTIndScalarEntry e;
-		if (!currentBlock.entries.containsKey(name))
+		if (!isInCurrentBlock(name))
 		{
-			e = currentBlock.put(name, type, false);
+			e = putScalar(name, type, false);
+			markSlots(e.getAddress(), 1, slotUse, slotUse == NAMED_SLOT ? name : null, false);
 			stackTopOffset++;
+			updateMaxStackTopOffset();
 			return e;
 		}
 		else
@@ -104,17 +151,19 @@ public class NanoSymbolTable //Pico Symbol Table
 	}
 
 	/*
-	 * Method to add a declared constant variable (no arrays or booleans) to the curent block
-	 * Recall that constants get runtime memory assignments just like variables but have
-	 * a special flag set so that the compiler can ensure that no instructions modify those values
+	 * Method to add a declared constant to the curent block, with its value
+	 * Constants get no runtime memory: the entry is an immediate carrying the name,
+	 * so every use of the constant becomes an immediate operand, and it is still
+	 * flagged constant so that the compiler can ensure no instruction assigns to it
 	 */
-	public NSTIndScalarEntry addConstIntToCurrentBlock(String name)
+	public NSTIndImmediateEntry addConstToCurrentBlock(String name, NSTIndImmediateEntry value)
 	{
-		NSTIndScalarEntry e;
-		if (!currentBlock.entries.containsKey(name))
+		NSTIndImmediateEntry e;
+		if (!isInCurrentBlock(name))
 		{
-			e = currentBlock.put(name, NanoSymbolTable.INT_TYPE, true);
-			stackTopOffset++;
+			e = new NSTIndImmediateEntry(name, value);
+			if (scopeStack == null) currentBlock.put(name, e);
+			else scopeStack.declare(name, e);
 			return e;
 		}
 		else
@@ -123,6 +172,46 @@ public class NanoSymbolTable //Pico Symbol Table
 		}	
 	}
 
+	/*
+	 * Method to add a declared procedure to the curent block, with the quad its
+	 * code starts at. Like constants it takes no runtime memory itself; its
+	 * formals and locals make up its frame (see startFrame)
+	 */
+	public NSTIndProcEntry addProcedureToCurrentBlock(String name, int entryQuad)
+	{
+		NSTIndProcEntry e;
+		if (!isInCurrentBlock(name))
+		{
+			e = new NSTIndProcEntry(name, entryQuad);
+			if (scopeStack == null) currentBlock.put(name, e);
+			else scopeStack.declare(name, e);
+			return e;
+		}
+		else
+		{
+			return null;
+		}
+	}
+
+	/*
+	 * Opens the block of a procedure's formals. Everything declared until the
+	 * matching endFrame, temps included, lies in one window of RunTime Memory
+	 * from the stack top here up to the high-water mark reached in between: the
+	 * procedure's frame, which a CALL saves and a RETURN restores (see NRT.call)
+	 */
+	public void startFrame(NSTIndProcEntry e)
+	{
+		e.setFrameBase(stackTopOffset);
+		startNewBlock();
+		frameTopOffset = stackTopOffset;
+	}
+
+	public void endFrame(NSTIndProcEntry e)
+	{
+		e.setFrameSize(frameTopOffset - e.getFrameBase());
+		endCurrentBlock();
+	}
+
 	/*
 	 * Method to add a declared array variable to the curent block; 
 	 * applicable for integers and booleans
@@ -130,10 +219,12 @@ public class NanoSymbolTable //Pico Symbol Table
 	public NSTIndArrayEntry addArrayToCurrentBlock(String name, int type, int size)
 	{
 		NSTIndArrayEntry e;
-		if (!currentBlock.entries.containsKey(name))
+		if (!isInCurrentBlock(name))
 		{
-			e = currentBlock.put(name, type, size);
+			e = putArray(name, type, size);
+			markSlots(e.getAddress(), size, NAMED_SLOT, name, true);
 			stackTopOffset += size;
+			updateMaxStackTopOffset();
 			return e;
 		}
 		else
@@ -150,7 +241,7 @@ public class NanoSymbolTable //Pico Symbol Table
 	public NSTIndScalarEntry addNewTempToCurrentBlock(int type)
 	{
 		String name = getNewTempName();
-		NSTIndScalarEntry e = addScalarToCurrentBlock(name,type);
+		NSTIndScalarEntry e = addScalarToCurrentBlock(name,type,TEMP_SLOT);
 		tempIdListAdd(name);
 		return e;
 	}
@@ -168,6 +259,22 @@ public class NanoSymbolTable //Pico Symbol Table
 		return imm;
 	}
 
+	/*
+	 * For the constant folding mode of the quad generator: the immediate holding the
+	 * value a quad of type quadType would compute from immediates a and b (b is null
+	 * for NEG and NOT), or null if the quad can't be evaluated at compile time
+	 */
+	public NSTIndImmediateEntry foldImmediates(int quadType, NSTIndImmediateEntry a, NSTIndImmediateEntry b)
+	{
+		int valueA = a.isBoolean() ? (a.getBoolValue() ? 1 : 0) : a.getIntValue();
+		int valueB = 0;
+		if (b != null) valueB = b.isBoolean() ? (b.getBoolValue() ? 1 : 0) : b.getIntValue();
+		if (!NQG.isFoldable(quadType, valueA, valueB)) return null;
+		int value = NQG.fold(quadType, valueA, valueB);
+		if (NQG.hasBooleanResult(quadType)) return createImmediate(BOOL_TYPE, new Boolean(value != 0));
+		return createImmediate(INT_TYPE, new Integer(value));
+	}
+
 	/*
 	 *  Method to lookup an identifier at the main symbol table level,
 	 *  which triggers the local hash table checks and the walks up the chain.
@@ -178,6 +285,7 @@ public class NanoSymbolTable //Pico Symbol Table
 	 */
 	public NSTIndEntry get(String name)
 	{
+		if (scopeStack != null) return scopeStack.get(name);
 		NSTBlockEntry blockEntry = currentBlock;
 		NSTIndEntry entry = null;
 		while (blockEntry != null)
@@ -188,8 +296,62 @@ public class NanoSymbolTable //Pico Symbol Table
 		}
 		return entry;
 	}
+
+	/*
+	 *  The same for a symbol ID from the interner given to the constructor; only
+	 *  in scope stack mode with an interner, otherwise always null
+	 */
+	public NSTIndEntry get(int symbolId)
+	{
+		if (scopeStack == null || symbolId < 0) return null;
+		return scopeStack.get(symbolId);
+	}
 	
 
+	/*
+	 * The largest stackTopOffset reached so far; once the whole program has been
+	 * parsed this is the number of RunTime Memory cells it needs (see NRT)
+	 */
+	public int getMaxStackTopOffset()
+	{
+		return maxStackTopOffset;
+	}
+
+	/*
+	 * Lowers the RunTime Memory requirement once a later pass has packed the
+	 * program into fewer cells (see TempSlotAllocator)
+	 */
+	public void setMaxStackTopOffset(int offset)
+	{
+		maxStackTopOffset = offset;
+	}
+
+	/*
+	 * Whether address has only ever held compiler temps, so that a later pass may
+	 * move the temps using it; and whether it has held anything at all
+	 */
+	public boolean isTempSlot(int address)
+	{
+		return address >= 0 && address < slotUses.length && slotUses[address] == TEMP_SLOT;
+	}
+
+	public boolean isUsedSlot(int address)
+	{
+		return address >= 0 && address < slotUses.length && slotUses[address] != 0;
+	}
+
+	/*
+	 * The variables that have lived at address over the whole compile ("a[3]"
+	 * for an array element, several separated by "/" when blocks reused it),
+	 * "$temp" for an address only temps used, or "" if it was never used
+	 */
+	public String getSlotName(int address)
+	{
+		if (address < 0 || address >= slotUses.length) return "";
+		if (slotNames[address] != null) return slotNames[address];
+		return isTempSlot(address) ? "$temp" : "";
+	}
+
 	/*
 	 * Clearing methods for the support tempLists
 	 */
@@ -246,6 +408,63 @@ public class NanoSymbolTable //Pico Symbol Table
 		tempExprList.add(e);
 	}
 	
+	/*Private service method triggered whenever stackTopOffset grows
+	 */
+	private void updateMaxStackTopOffset()
+	{
+		if (stackTopOffset > maxStackTopOffset) maxStackTopOffset = stackTopOffset;
+		if (stackTopOffset > frameTopOffset) frameTopOffset = stackTopOffset;
+	}
+
+	/*Private service methods giving the add methods above the same behavior
+	 *in both modes; a new entry always takes the address at the stack top
+	 */
+	private boolean isInCurrentBlock(String name)
+	{
+		if (scopeStack != null) return scopeStack.isInCurrentScope(name);
+		return currentBlock.entries.containsKey(name);
+	}
+
+	private NSTIndScalarEntry putScalar(String name, int type, boolean isConstant)
+	{
+		if (scopeStack == null) return currentBlock.put(name, type, isConstant);
+		NSTIndScalarEntry e = new NSTIndScalarEntry(name,type,isConstant,stackTopOffset);
+		scopeStack.declare(name, e);
+		return e;
+	}
+
+	private NSTIndArrayEntry putArray(String name, int type, int size)
+	{
+		if (scopeStack == null) return currentBlock.put(name, type, size);
+		NSTIndArrayEntry e = new NSTIndArrayEntry(name,type,stackTopOffset,size);
+		scopeStack.declare(name, e);
+		return e;
+	}
+
+	/*Private service method recording what kind of entry holds count
+	 *addresses from address on, and its name (null for temps)
+	 */
+	private void markSlots(int address, int count, byte slotUse, String name, boolean isArray)
+	{
+		if (address + count > slotUses.length)
+		{
+			int length = Math.max(slotUses.length * 2, address + count);
+			byte[] grown = new byte[length];
+			System.arraycopy(slotUses, 0, grown, 0, slotUses.length);
+			slotUses = grown;
+			String[] grownNames = new String[length];
+			System.arraycopy(slotNames, 0, grownNames, 0, slotNames.length);
+			slotNames = grownNames;
+		}
+		for (int i = address; i < address + count; i++)
+		{
+			slotUses[i] |= slotUse;
+			if (name == null) continue;
+			String slotName = isArray ? name + "[" + (i - address) + "]" : name;
+			slotNames[i] = (slotNames[i] == null) ? slotName : slotNames[i] + "/" + slotName;
+		}
+	}
+
 	/*Private service method triggered by "addNewTempToCurrentBlock".
 	 *At end of a block the list of temporary variables and 
 	 *their names must be reset by another method.
@@ -266,6 +485,7 @@ public class NanoSymbolTable //Pico Symbol Table
 	{
 			Iterator besi = blockEntryStack.iterator();
 			System.out.println("Pico Symbol Table =================>\n\n");
+			if (scopeStack != null) System.out.println(scopeStack);
 			while (besi.hasNext())
 			{
 				System.out.println(besi.next());
@@ -323,6 +543,20 @@ public final class NSTBlockEntry
 		entryOffset++;
 		return e;
 	}	
+	/*
+	 * Constants take no room in the block, their value is in the entry
+	 */
+	public void put(String name, NSTIndImmediateEntry e)
+	{
+		entries.put(name, e);
+	}
+	/*
+	 * Procedures neither, their frame is laid out by the symbol table
+	 */
+	public void put(String name, NSTIndProcEntry e)
+	{
+		entries.put(name, e);
+	}
 	/*
 	 * For arrays of either integer or boolean the compiler need give name, type and size
 	 * The rest of the addressing information is done by the symbol table
@@ -361,6 +595,227 @@ public final class NSTBlockEntry
 	}
 }
 
+//
+///\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/
+//				PICO SYMBOL TABLE SCOPE STACK CLASS
+//			 (final inner support class for the above)
+///\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/
+//
+public final class NSTScopeStack
+{
+	//LeBlanc and Cook's arrangement: every identifier ever declared has one slot
+	//in a single open addressed hash table, and the slot points at the innermost
+	//visible entry for that name. Each entry remembers the entry it shadows.
+	//Entries are kept in declaration order, so the entries of the innermost scope
+	//are always the last ones and leaving a scope is just undoing them, newest
+	//first. The arrays only grow (by doubling), so entering and leaving scopes
+	//allocates nothing once they are big enough.
+	//
+	//Given the compiler's TokenInterner, the stack keeps no hash table of its own:
+	//the symbol ID of a name is its slot, so a name the scanner already interned
+	//costs one probe with a reference comparison, and get(int) none at all.
+
+	//Hash table: names and the index of the visible entry (-1 when none); with an
+	//interner only visible is used, indexed by symbol ID
+	private TokenInterner symbols;
+	private String[] names;
+	private int[] visible;
+	private int nameCount;
+
+	//Entries in declaration order, which doubles as the undo log
+	private NSTIndEntry[] entries;
+	private int[] shadowed;		//entry visible under the same name before this one
+	private int[] slotOf;		//hash table slot of the entry's name
+	private int entryCount;
+
+	//One mark per open scope: its first entry and the stack top when it opened
+	private int[] scopeFirstEntry;
+	private int[] scopeOffset;
+	private int depth;
+
+	public NSTScopeStack(TokenInterner symbols)
+	{
+		this.symbols = symbols;
+		names = new String[64];
+		visible = new int[64];
+		if (symbols != null) fill(visible, 0, -1);
+		entries = new NSTIndEntry[64];
+		shadowed = new int[64];
+		slotOf = new int[64];
+		scopeFirstEntry = new int[16];
+		scopeOffset = new int[16];
+		nameCount = entryCount = depth = 0;
+	}
+
+	public void enter(int stackTopOffset)
+	{
+		if (depth == scopeFirstEntry.length)
+		{
+			scopeFirstEntry = grow(scopeFirstEntry);
+			scopeOffset = grow(scopeOffset);
+		}
+		scopeFirstEntry[depth] = entryCount;
+		scopeOffset[depth] = stackTopOffset;
+		depth++;
+	}
+
+	//Undoes the innermost scope and returns the stack top from when it opened
+	public int exit()
+	{
+		depth--;
+		int first = scopeFirstEntry[depth];
+		while (entryCount > first)
+		{
+			entryCount--;
+			visible[slotOf[entryCount]] = shadowed[entryCount];
+			entries[entryCount] = null;
+		}
+		return scopeOffset[depth];
+	}
+
+	public NSTIndEntry get(String name)
+	{
+		return entryAt(lookupSlot(name));
+	}
+
+	//Only with an interner: the entry visible for a symbol ID
+	public NSTIndEntry get(int symbolId)
+	{
+		return entryAt(symbolId < visible.length ? symbolId : -1);
+	}
+
+	public boolean isInCurrentScope(String name)
+	{
+		int slot = lookupSlot(name);
+		return slot != -1 && visible[slot] != -1
+				&& depth > 0 && visible[slot] >= scopeFirstEntry[depth - 1];
+	}
+
+	public void declare(String name, NSTIndEntry e)
+	{
+		int slot = declareSlot(name);
+		if (entryCount == entries.length)
+		{
+			NSTIndEntry[] grown = new NSTIndEntry[entries.length * 2];
+			System.arraycopy(entries, 0, grown, 0, entryCount);
+			entries = grown;
+			shadowed = grow(shadowed);
+			slotOf = grow(slotOf);
+		}
+		entries[entryCount] = e;
+		shadowed[entryCount] = visible[slot];
+		slotOf[entryCount] = slot;
+		visible[slot] = entryCount++;
+	}
+
+	private NSTIndEntry entryAt(int slot)
+	{
+		if (slot < 0 || visible[slot] == -1) return null;
+		return entries[visible[slot]];
+	}
+
+	//Slot of name, or -1 if it has never been declared
+	private int lookupSlot(String name)
+	{
+		if (symbols != null)
+		{
+			int id = symbols.lookup(name);
+			return id < visible.length ? id : -1;
+		}
+		int slot = find(name);
+		return names[slot] == null ? -1 : slot;
+	}
+
+	//Slot of name, giving it one if it has none yet
+	private int declareSlot(String name)
+	{
+		if (symbols != null)
+		{
+			int id = symbols.intern(name);
+			if (id >= visible.length)
+			{
+				int oldLength = visible.length;
+				int[] grown = new int[Math.max(oldLength * 2, id + 1)];
+				System.arraycopy(visible, 0, grown, 0, oldLength);
+				fill(grown, oldLength, -1);
+				visible = grown;
+			}
+			return id;
+		}
+		int slot = find(name);
+		if (names[slot] == null)
+		{
+			names[slot] = name;
+			visible[slot] = -1;
+			nameCount++;
+			if (2 * nameCount > names.length)
+			{
+				rehash();
+				slot = find(name);
+			}
+		}
+		return slot;
+	}
+
+	//Slot holding name, or the empty slot where it would go (linear probing)
+	private int find(String name)
+	{
+		int mask = names.length - 1;
+		int slot = name.hashCode() & mask;
+		while (names[slot] != null && !names[slot].equals(name)) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	//Doubles the hash table; entries follow their names to the new slots
+	private void rehash()
+	{
+		String[] oldNames = names;
+		int[] oldVisible = visible;
+		names = new String[oldNames.length * 2];
+		visible = new int[oldNames.length * 2];
+		int[] moved = new int[oldNames.length];
+		for (int i = 0; i < oldNames.length; i++)
+		{
+			if (oldNames[i] == null) continue;
+			int slot = find(oldNames[i]);
+			names[slot] = oldNames[i];
+			visible[slot] = oldVisible[i];
+			moved[i] = slot;
+		}
+		for (int e = 0; e < entryCount; e++) slotOf[e] = moved[slotOf[e]];
+	}
+
+	private void fill(int[] array, int from, int value)
+	{
+		for (int i = from; i < array.length; i++) array[i] = value;
+	}
+
+	private int[] grow(int[] array)
+	{
+		int[] grown = new int[array.length * 2];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	/*
+	 * Scope contents in printable form, innermost scope last
+	 */
+	public String toString()
+	{
+		String result = "";
+		for (int d = 0; d < depth; d++)
+		{
+			int last = (d + 1 < depth) ? scopeFirstEntry[d + 1] : entryCount;
+			result += "			---------SymTab Scope Entry----------\n" +
+					  "			This is scope number " + (d + 1) + "\n" +
+					  "			BlockOffset: " + scopeOffset[d] + "\n\n";
+			for (int e = scopeFirstEntry[d]; e < last; e++) result += entries[e].toString();
+			result += "			-----------end of SymTab Scope Entry-------------\n\n";
+		}
+		return result;
+	}
+}
+
 //
 ///\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/\/
 //				PICO SYMBOL TABLE INDIVIDUAL ENTRY CLASS (and subclasses)
@@ -399,7 +854,8 @@ public class NSTIndEntry
 				( (actualType==BOOL_TYPE)?"boolean":
 					( (actualType==INT_ARRAY_TYPE)?"integer array":
 						( (actualType==BOOL_ARRAY_TYPE?"boolean array":
-							"unknown"))));
+							( (actualType==PROC_TYPE?"procedure":
+								"unknown"))))));
 
 			return
 				"\n			Symbol table individual entry: \n" +
@@ -421,6 +877,13 @@ extends NSTIndEntry
 		if (type==NanoSymbolTable.INT_TYPE) intValue = ((Integer) intOrBool).intValue();
 		if (type==NanoSymbolTable.BOOL_TYPE) boolValue = ((Boolean) intOrBool).booleanValue();
 	}
+	//A declared constant: named, with the value of the given immediate
+	public NSTIndImmediateEntry(String name, NSTIndImmediateEntry value)
+	{
+		super(name,value.actualType,true,true);
+		intValue = value.intValue;
+		boolValue = value.boolValue;
+	}
 	public int getIntValue() { return intValue; }
 	public boolean getBoolValue() { return boolValue; }
 	public String toString() 
@@ -475,4 +938,63 @@ extends NSTIndEntry
 	}
 }
 
+//A procedure: the quad its code starts at, its formals in order (scalar entries,
+//which the PARAM quads of a call store into) and its frame, the window of
+//RunTime Memory its formals, locals and temps occupy
+public final class NSTIndProcEntry 
+extends NSTIndEntry
+{
+	private int entryQuad;
+	private ArrayList formals;
+	private int frameBase;
+	private int frameSize = -1;	//not known until the procedure ends
+	public NSTIndProcEntry(String name, int entryQuad)
+	{
+		super(name,PROC_TYPE,false,false);
+		this.entryQuad = entryQuad;
+		this.formals = new ArrayList();
+	}
+	public int getEntryQuad() { return entryQuad; }
+	public void addFormal(NSTIndScalarEntry e) { formals.add(e); }
+	public int getFormalCount() { return formals.size(); }
+	public NSTIndScalarEntry getFormal(int n) { return (NSTIndScalarEntry) formals.get(n); }
+	public int getFrameBase() { return frameBase; }
+	public void setFrameBase(int base) { frameBase = base; }
+	public int getFrameSize() { return frameSize; }
+	public void setFrameSize(int size) { frameSize = size; }
+	public String toString() 
+	{
+			return
+			super.toString() +
+			"			Entry quad: " + entryQuad + "\n" +
+			"			Formals: " + formals.size() + "\n" +
+			"			Frame: " + frameBase + " size " + frameSize + "\n\n";
+	}
+}
+
+//A boolean expression compiled as jumping code in short-circuit mode: there is
+//no value cell, its quads jump to the true list when it holds and to the false
+//list when it does not (patch lists of pending jumps, see NQG)
+public final class NSTIndJumpEntry 
+extends NSTIndEntry
+{
+	private int trueList;
+	private int falseList;
+	public NSTIndJumpEntry(int trueList, int falseList)
+	{
+		super("",BOOL_TYPE,false,false);
+		this.trueList = trueList;
+		this.falseList = falseList;
+	}
+	public int getTrueList() { return trueList; }
+	public int getFalseList() { return falseList; }
+	public String toString() 
+	{
+			return
+			super.toString() +
+			"			True list:  I-" + trueList + "\n" +
+			"			False list: I-" + falseList + "\n\n";
+	}
+}
+
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package NanoSymtabCompiler;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -11,10 +12,13 @@ import NanoSymtabCompiler.NanoSymbolTable.*;
 import invisible.jacc.parse.CompilerModel;
 import invisible.jacc.parse.NonterminalFactory;
 import invisible.jacc.parse.Parser;
+import invisible.jacc.parse.Prescanner;
+import invisible.jacc.parse.PrescannerByte;
 import invisible.jacc.parse.Scanner;
 import invisible.jacc.parse.SyntaxException;
 import invisible.jacc.parse.Token;
 import invisible.jacc.parse.TokenFactory;
+import invisible.jacc.parse.TokenInterner;
 
 
 
@@ -29,13 +33,31 @@ public class NanoSymtabCompiler extends CompilerModel
 	private boolean showReductions = false;
 	private boolean showSymbolTable = false;
 	private boolean showQuads = true;
+	private boolean compactQuads = true;	//keep quads in a QuadBuffer, not as objects
+	private boolean constantFolding = true;	//evaluate operators on literals while compiling
+	private boolean peephole = true;		//run NQO over the quads once the program is complete
+	private boolean loopOptimization = true;	//move invariants out of loops and reduce multiplies, see NQL
+	private boolean boundsChecking = false;	//trap array indices outside the array, see NQB (-checkbounds)
+	private boolean shortCircuit = true;	//compile and/or/not in conditions as jumps, see NSTIndJumpEntry
+	private boolean recycleTemps = true;	//pack temps into as few RunTime Memory cells as possible
+	private boolean showFlowGraph = false;	//print basic blocks, dominators and loops
+	private boolean scopeStackSymtab = true;	//one hash table for all scopes, see NSTScopeStack
+	private boolean codedScanner = false;	//scan with NanoGrammarScanner instead of the scanner tables (-codedscan)
 	
 	int _conditionNotInComment;
 	int _conditionInLineComment;
 	int _conditionInBracketedComment;
 	
+	int _symbolAnd;
+	int _symbolOr;
+	int _symbolThen;
+	int _symbolRparen;
+	
+	private TokenInterner identifiers;	//symbol IDs shared by the scanner and symtab
 	private NanoSymbolTable symtab;
 	private NQG quadGen;
+	private NSTIndProcEntry currentProcedure;	//the procedure being declared, or null
+	private ArrayList recursiveCalls = new ArrayList();	//its CALLs of itself, waiting for its frame size
 
 	// Constructor must create the scanner and parser tables.
 
@@ -44,8 +66,11 @@ public class NanoSymtabCompiler extends CompilerModel
 		super();
 
 		//Instantiate the NanoSymbolTable
-		symtab = new NanoSymbolTable();
-		quadGen = new NQG();
+		identifiers = new TokenInterner();
+		symtab = new NanoSymbolTable(scopeStackSymtab, identifiers);
+		quadGen = new NQG(compactQuads);
+		quadGen.setConstantFolding(constantFolding);
+		quadGen.setBoundsChecking(boundsChecking);
 		
 		
 		// Get our scanner table
@@ -80,6 +105,12 @@ public class NanoSymtabCompiler extends CompilerModel
 		
 		// Get our parser table
 		_parserTable = new NanoGrammarParserTable ();
+		
+		// Link symbol numbers (the lookahead decides where jumping code may go, see settle())
+		_symbolAnd = _parserTable.lookupSymbol ("and");
+		_symbolOr = _parserTable.lookupSymbol ("or");
+		_symbolThen = _parserTable.lookupSymbol ("then");
+		_symbolRparen = _parserTable.lookupSymbol ("rparen");
 
 		// Link the nonterminal factories to the parser table
 		_parserTable.linkFactory("boolConst",        "true",         new boolConstTrueNT());
@@ -112,6 +143,8 @@ public class NanoSymtabCompiler extends CompilerModel
 		_parserTable.linkFactory("arrayIdList", 	"list", 		new arrayIdListListNT());
 		_parserTable.linkFactory("arrayIdList", 	"single", 		new arrayIdListSingleNT());
 		
+		_parserTable.linkFactory("procDec",      "",         new procDecNT());
+		_parserTable.linkFactory("procName",     "",         new procNameNT());
 		_parserTable.linkFactory("procBody",     "",         new procBodyNT());
 	
 		_parserTable.linkFactory("formalList", 		"list", 		new formalListListNT());
@@ -176,6 +209,8 @@ public class NanoSymtabCompiler extends CompilerModel
 		_parserTable.linkFactory("forHeader",       "",         new forHeaderNT());
 		
 		_parserTable.linkFactory("returnStmnt", 	"", 			new returnStmntNT());
+		_parserTable.linkFactory("callStmnt", 		"nothing", 		new callStmntNothingNT());
+		_parserTable.linkFactory("callStmnt", 		"exprList", 	new callStmntExprListNT());
 		
 		
 		_parserTable.linkFactory("exprList", 		"list", 		new exprListListNT());
@@ -185,11 +220,13 @@ public class NanoSymtabCompiler extends CompilerModel
 		_parserTable.linkFactory("expr", 			"minus", 		new exprMinusNT());
 		_parserTable.linkFactory("expr", 			"or", 			new exprOrNT());
 		_parserTable.linkFactory("expr", 			"term", 		new exprTermNT());
+		_parserTable.linkFactory("exprOrLeft", 		"", 			new exprOrLeftNT());
 		
 		_parserTable.linkFactory("term", 			"star", 		new termStarNT());
 		_parserTable.linkFactory("term", 			"slash", 		new termSlashNT());
 		_parserTable.linkFactory("term", 			"and", 			new termAndNT());
 		_parserTable.linkFactory("term", 			"factor", 		new termFactorNT());
+		_parserTable.linkFactory("termAndLeft", 	"", 			new termAndLeftNT());
 		
 		_parserTable.linkFactory("factor", 			"positive", 	new factorPositiveNT());
 		_parserTable.linkFactory("factor", 			"negative", 	new factorNegativeNT());
@@ -222,6 +259,18 @@ public class NanoSymtabCompiler extends CompilerModel
 		return;
 	}
 	
+	// NanoGrammarScanner is generated along with the tables (GenMain -j -c NanoGrammar.jacc)
+	// and runs the same DFA as Java code. The table-driven scanner stays the default;
+	// -codedscan selects the coded one, and NanoScannerCheck compares the two.
+	protected Scanner makeScanner (Prescanner source, String filename)
+	{
+		if (!codedScanner || !(source instanceof PrescannerByte))
+		{
+			return super.makeScanner (source, filename);
+		}
+		return new NanoGrammarScanner (this, (PrescannerByte) source, _scannerTable, filename, 1, 1, 4000, null);
+	}
+	
 	public void scannerEOF (Scanner scanner, Token token)
 	{
 		// If we are in the middle of a comment ...
@@ -233,18 +282,194 @@ public class NanoSymtabCompiler extends CompilerModel
 		return;
 	}
 
+	// Whether to scan with NanoGrammarScanner; off unless the -codedscan option
+	// asks for it
+	public void setCodedScanner (boolean on)
+	{
+		codedScanner = on;
+	}
+
+	// Whether array indices are checked (CHECK quads, see NQB); off unless the
+	// -checkbounds option asks for it
+	public void setBoundsChecking (boolean on)
+	{
+		boundsChecking = on;
+		quadGen.setBoundsChecking (on);
+	}
+
 
 	public static void main (String[] args) throws Exception
 	{
+		// Command-line options; the one argument that is not an option is the source file
+		String sourceFile = null;
+		boolean runAfterCompile = false;
+		boolean checkedMemory = true;
+		boolean compileToBytecode = false;
+		boolean compileToJava = false;
+		boolean predecode = false;
+		boolean profile = false;
+		boolean codedScanner = false;
+		boolean checkBounds = false;
+		for (int i = 0; i < args.length; ++i)
+		{
+			// If running the quads once the compile succeeds ...
+			if (args[i].equalsIgnoreCase ("-run"))
+			{
+				runAfterCompile = true;
+			}
+			
+			// If running without bounds and type checks on runtime memory ...
+			else if (args[i].equalsIgnoreCase ("-unchecked"))
+			{
+				checkedMemory = false;
+			}
+			
+			// If running the quads as JVM bytecode instead of on the emulator ...
+			else if (args[i].equalsIgnoreCase ("-jit"))
+			{
+				runAfterCompile = true;
+				compileToBytecode = true;
+			}
+			
+			// If running the quads as a Java class compiled from generated source ...
+			else if (args[i].equalsIgnoreCase ("-java"))
+			{
+				runAfterCompile = true;
+				compileToJava = true;
+			}
+			
+			// If running the quads as pre-decoded executor objects ...
+			else if (args[i].equalsIgnoreCase ("-closures"))
+			{
+				runAfterCompile = true;
+				predecode = true;
+			}
+			
+			// If running the quads on the emulator with execution counts recorded ...
+			else if (args[i].equalsIgnoreCase ("-profile"))
+			{
+				runAfterCompile = true;
+				profile = true;
+			}
+			
+			// If every array index should be checked against the array bounds ...
+			else if (args[i].equalsIgnoreCase ("-checkbounds"))
+			{
+				checkBounds = true;
+			}
+			
+			// If scanning with NanoGrammarScanner instead of the scanner tables ...
+			else if (args[i].equalsIgnoreCase ("-codedscan"))
+			{
+				codedScanner = true;
+			}
+			
+			// If unrecognized option ...
+			else if (args[i].charAt(0) == '-')
+			{
+				System.out.println ("Invalid command-line option '" + args[i] + "'.");
+				return;
+			}
+			
+			// Otherwise, its the source filename ...
+			else
+			{
+				sourceFile = args[i];
+			}
+		}
 
 		// Create the compiler object
 		NanoSymtabCompiler compiler = new NanoSymtabCompiler();
+		compiler.setCodedScanner (codedScanner);
+		compiler.setBoundsChecking (checkBounds);
 
 		System.out.println ("IJACC Nano Compiler for Testing Symbol Table-----------------");
-		System.out.println ("Compiling " + args[0] + " ...\n");
-		compiler.compile (args[0]);
+		System.out.println ("Compiling " + sourceFile + " ...\n");
+		compiler.compile (sourceFile);
 		System.out.println ("\n\nIJACC Nano Compiler complete.");
 		
+		if (runAfterCompile && !compiler.error())
+		{
+			if (compileToBytecode) compiler.runCompiledQuads();
+			else if (compileToJava) compiler.runJavaQuads(NQS.getDefaultCacheDirectory());
+			else if (predecode) compiler.runPredecodedQuads(checkedMemory);
+			else if (profile) compiler.runProfiledQuads(checkedMemory);
+			else compiler.runQuads(checkedMemory);
+		}
+	}
+
+	// Executes the quads of the last compile on the quad emulator, with a runtime
+	// memory exactly as large as the symbol table needed
+	public boolean runQuads(boolean checkedMemory)
+	{
+		NQE emulator = new NQE(new NRT(symtab, checkedMemory));
+		if (!emulator.load(quadGen)) return false;
+		System.out.println ("\nRunning ...\n");
+		boolean ok = emulator.run();
+		System.out.println ();
+		emulator.showStatistics();
+		return ok;
+	}
+
+	// Executes the quads on the quad emulator while counting quads, branches and
+	// memory accesses, then prints the profile against the source and symbol table
+	public boolean runProfiledQuads(boolean checkedMemory)
+	{
+		QuadBuffer buffer = quadGen.getQuadBuffer();
+		NQP profile = new NQP(buffer, symtab.getMaxStackTopOffset(), checkedMemory);
+		NQE emulator = new NQE(profile.getMemory());
+		emulator.setProfile(profile);
+		if (!emulator.load(buffer)) return false;
+		System.out.println ("\nRunning profiled ...\n");
+		boolean ok = emulator.run();
+		System.out.println ();
+		emulator.showStatistics();
+		profile.showProfile(symtab);
+		return ok;
+	}
+
+	// Turns the quads of the last compile into executor objects and runs those,
+	// which loads faster than compiling and runs faster than the emulator
+	public boolean runPredecodedQuads(boolean checkedMemory)
+	{
+		NQC executors = new NQC(new NRT(symtab, checkedMemory));
+		if (!executors.load(quadGen)) return false;
+		System.out.println ("\nRunning ...\n");
+		boolean ok = executors.run();
+		System.out.println ();
+		executors.showStatistics();
+		return ok;
+	}
+
+	// Compiles the quads of the last compile to a JVM class and runs that instead;
+	// compiled code always runs with unchecked memory
+	public boolean runCompiledQuads()
+	{
+		NQJ compiled = new NQJ(new NRT(symtab, false));
+		if (!compiled.load(quadGen)) return false;
+		System.out.println ("\nRunning compiled ...\n");
+		boolean ok = compiled.run();
+		System.out.println ();
+		compiled.showStatistics();
+		return ok;
+	}
+
+	// Translates the quads of the last compile to Java source, compiles that with
+	// javax.tools (or takes the class from cacheDirectory) and runs the class
+	public boolean runJavaQuads(File cacheDirectory)
+	{
+		NRT memory = new NRT(symtab, false);
+		NQS translator = new NQS(cacheDirectory);
+		Class program = translator.compile(quadGen.getQuadBuffer(), memory.getSize());
+		if (program == null) return false;
+		NQJ compiled = new NQJ(memory);
+		if (!compiled.load(quadGen.getQuadBuffer(), program)) return false;
+		System.out.println ("\nRunning " + translator.getClassName() + " ...\n");
+		boolean ok = compiled.run();
+		System.out.println ();
+		translator.showStatistics();
+		compiled.showStatistics();
+		return ok;
 	}
 
 	/**************************************************************************
@@ -256,8 +481,10 @@ public class NanoSymtabCompiler extends CompilerModel
 	{
 		public int makeToken (Scanner scanner, Token token) throws IOException, SyntaxException
 		{
-			String idString = scanner.tokenToString ();
-			token.value = idString;
+			//Interning finds a repeated identifier in the scanner's buffer
+			//without making a new String for it
+			int id = identifiers.intern (scanner);
+			token.value = identifiers.symbolName (id);
 		
 			// Assembled token
 			return assemble;
@@ -574,57 +801,30 @@ public class NanoSymtabCompiler extends CompilerModel
 			if (showReductions) 
 				System.out.println("intConst value: "+value+"\n");
 			
+			//Only literals and expressions folded down to a literal can be constants
+			if (!((NSTIndEntry) value).isImmediate()) {
+				reportError("","Constant value must be known at compile time.");
+				symtab.tempIdListClear();
+				return null;
+			}
+			
+			//Constants are integers, as they were when each one had a memory cell
+			NSTIndImmediateEntry imm = (NSTIndImmediateEntry) value;
+			if (!imm.isInteger()) {
+				reportError("","Type mismatch in constant assignment statement");
+				symtab.tempIdListClear();
+				return null;
+			}
+			
+			//No quads: the symbol table keeps the value, and every use of the
+			//constant is an immediate operand
 			Iterator tempIdListIterator = symtab.getTempIdListIterator();
 			boolean notAlreadyDefined = true;
 			String nameToDefine = "";
 			while (tempIdListIterator.hasNext())
 			{			
 				nameToDefine = (String)tempIdListIterator.next();
-				if (symtab.addConstIntToCurrentBlock(nameToDefine) == null){
-					notAlreadyDefined = false;
-				}
-				else {
-					notAlreadyDefined = true;
-				
-					//Get the value
-               NSTIndImmediateEntry e = (NSTIndImmediateEntry)parser.rhsValue(3);
-               
-               //Get the symbol table entry for the identifier
-               NSTIndScalarEntry i = (NSTIndScalarEntry) symtab.get(nameToDefine);
-               
-               //If the symbol table doesn't contain an entry for id
-               if (i==null){
-                 reportError("","Constant not defined in this scope.");
-                 return null;
-               //If the id and expression types don't match
-               }
-               else if (e.getActualType()!=i.getActualType()){
-                  reportError("","Type mismatch in constant assignment statement");
-                  return null;
-               }
-               
-               NSTIndImmediateEntry imm = (NSTIndImmediateEntry) e;
-               //If the assignment value is a boolean
-               if (imm.isBoolean())
-               {
-                  MemModQuad aqb = quadGen.makeAssignImmediateBoolean(i.getAddress(),imm.getBoolValue());
-                  quadGen.addQuad(aqb);
-                  return new Integer(aqb.getQuadId());
-               }
-               //If the assignment value is an integer
-               else if (imm.isInteger())
-               {
-                  MemModQuad aqi = quadGen.makeAssignImmediateInteger(i.getAddress(),imm.getIntValue());
-                  quadGen.addQuad(aqi);
-                  return new Integer(aqi.getQuadId());
-               //Otherwise we messed up
-               }else{
-                  reportError("","Compiler developer: invalid type of immediate assignment");
-                  return null;
-               }
-				
-				}   
-				
+				notAlreadyDefined = symtab.addConstToCurrentBlock(nameToDefine, imm) != null;
 				
 				if (!notAlreadyDefined)
 				{
@@ -702,9 +902,9 @@ public class NanoSymtabCompiler extends CompilerModel
 			symtab.startNewBlock();
 		
 			//We need to generate a start quad for the code
-			//Initial start seems to be -1 from Lewis' example
-			Quad quad = quadGen.makeStart(1);
-			quadGen.addQuad(quad);
+			//It jumps over the procedures, StartMarker backpatches it
+			Quad quad = quadGen.makeStart(-1);
+			quadGen.addQuad(quad, parser.token().line);
 			
 			//Return null value
 			return null;
@@ -724,12 +924,40 @@ public class NanoSymtabCompiler extends CompilerModel
 		
 			//We need to generate an end quad for the program
 			Quad quad = quadGen.makeEnd();
-			quadGen.addQuad(quad);
+			quadGen.addQuad(quad, parser.token().line);
 			
-			quadGen.performFinalBackpatching();
+			//The program is complete and backpatched, so it can be tidied up
+			NQO optimizer = new NQO();
+			if (peephole)
+				quadGen.optimize(optimizer);
+			NQB checkEliminator = new NQB();
+			if (boundsChecking)
+				quadGen.eliminateChecks(checkEliminator);
+			NQL loopOptimizer = new NQL();
+			if (loopOptimization)
+				quadGen.optimizeLoops(loopOptimizer);
+			TempSlotAllocator allocator = null;
+			if (recycleTemps && quadGen.isCompact())
+			{
+				allocator = new TempSlotAllocator(quadGen.getQuadBuffer(), symtab);
+				allocator.allocate();
+			}
 			
 			if(showQuads)
+			{
 				quadGen.showQuads();
+				if (peephole)
+					optimizer.showStatistics();
+				if (boundsChecking)
+					checkEliminator.showStatistics();
+				if (loopOptimization)
+					loopOptimizer.showStatistics();
+				if (allocator != null)
+					allocator.showStatistics();
+			}
+			
+			if (showFlowGraph)
+				new QuadFlowGraph(quadGen.getQuadBuffer()).showGraph();
 			
 			//Return null value
 			return null;
@@ -896,6 +1124,60 @@ public class NanoSymtabCompiler extends CompilerModel
 	}
 	
 	
+	//procDec
+	final class procDecNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+			if (showReductions) {
+				System.out.print(parser.token().line + ": ");
+				System.out.println("procDec ->  procHeader procBody\n");
+			}
+			
+			//Falling off the end of the body returns too
+			Quad returnQuad = quadGen.makeReturn();
+			quadGen.addQuad(returnQuad, parser.token().line);
+			
+			//The frame is complete, so calls made from inside the body can have its size
+			symtab.endFrame(currentProcedure);
+			Iterator calls = recursiveCalls.iterator();
+			while (calls.hasNext())
+				quadGen.setCallFrameSize(((Integer) calls.next()).intValue(), currentProcedure.getFrameSize());
+			recursiveCalls.clear();
+			currentProcedure = null;
+			
+			return new Integer(returnQuad.getQuadId());
+			}
+	}
+	
+	//procName
+	final class procNameNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+			String name = (String) parser.rhsValue(1);
+			if (showReductions) {
+				System.out.print(parser.token().line + ": ");
+				System.out.println("procName ->  procedure id");
+				System.out.println("identifier lexeme: " + name + "\n");
+			}
+			
+			//Declared in the enclosing block before the formals, so the body can call it
+			NSTIndProcEntry proc = symtab.addProcedureToCurrentBlock(name, quadGen.getCurrentQuadNumber());
+			if (proc == null)
+			{
+				reportError("","Duplicate declaration in this block of "+name);
+				proc = symtab.new NSTIndProcEntry(name, quadGen.getCurrentQuadNumber());
+			}
+			symtab.startFrame(proc);
+			currentProcedure = proc;
+			
+			return proc;
+			}
+	}
+	
 	final class procBodyNT extends NonterminalFactory
    {
       public Object makeNonterminal (Parser parser, int param) 
@@ -972,10 +1254,14 @@ public class NanoSymtabCompiler extends CompilerModel
          {  
             countNumberOfIds++;
             nameToDefine = (String)tempIdListIterator.next();
-            if (symtab.addScalarToCurrentBlock(nameToDefine,NanoSymbolTableTypeFlag) == null)
+            NSTIndScalarEntry formalEntry = symtab.addScalarToCurrentBlock(nameToDefine,NanoSymbolTableTypeFlag);
+            if (formalEntry == null)
                notAlreadyDefined = false;
             else
+            {
                notAlreadyDefined = true;
+               currentProcedure.addFormal(formalEntry);
+            }
             if (!notAlreadyDefined)
             {
             reportError("","Duplicate declaration in this procedure of"+nameToDefine);
@@ -1248,7 +1534,8 @@ public class NanoSymtabCompiler extends CompilerModel
          if (showReductions)
             System.out.println("\nReduced by rule: StartMarker -> /* empty */\n");
          
-         
+         //The main statements start here
+         quadGen.backpatch(quadGen.makelist(0), quadGen.getCurrentQuadNumber());
          return null;
       }
    }
@@ -1283,7 +1570,7 @@ public class NanoSymtabCompiler extends CompilerModel
 				//Generate a standard print quad
 				if(parser.rhsValue(3) == null){
 					MemModQuad quad = quadGen.makePrint(-1, outputString);
-					quadGen.addQuad(quad);
+					quadGen.addQuad(quad, parser.token().line);
 					return new Integer(quad.getQuadId());
 				}
 				
@@ -1327,11 +1614,11 @@ public class NanoSymtabCompiler extends CompilerModel
 
 					if ((entry.isBoolean()||entry.isBooleanArray()) && isBoolean){
 						quad = quadGen.makePrint(entry.getAddress(), "B");
-						quadGen.addQuad(quad);
+						quadGen.addQuad(quad, parser.token().line);
 					}
 					else if ((entry.isInteger()||entry.isIntArray()) && isInteger){
 						quad = quadGen.makePrint(entry.getAddress(), "I");
-						quadGen.addQuad(quad);
+						quadGen.addQuad(quad, parser.token().line);
 					}
 					else{
 						reportError("","printStmnt() - String expression type and expression do not match.");
@@ -1351,8 +1638,8 @@ public class NanoSymtabCompiler extends CompilerModel
 		public Object makeNonterminal (Parser parser, int param) 
 			throws IOException, SyntaxException
 			{
-			   	//Get the expression
-				NSTIndEntry expr = (NSTIndEntry) parser.rhsValue(2);
+			   	//Get the expression (jumping code is printed as a value)
+				NSTIndEntry expr = valueOf((NSTIndEntry) parser.rhsValue(2), parser.token().line);
 				
 				//If the expression is null
 				if(expr == null){
@@ -1367,10 +1654,18 @@ public class NanoSymtabCompiler extends CompilerModel
 			   }
 			   
 			   
-			   //can't have an immediate expression in a print
+			   //PRINT reads memory, so an immediate (a constant, or an expression
+			   //folded down to one) is printed from a temp
 			   if(expr.isImmediate()){
-				   reportError("","printExprListNonemptyNT() - Cannot print an immediate expression");
-				   return null;
+				   NSTIndImmediateEntry imm = (NSTIndImmediateEntry) expr;
+				   NSTIndScalarEntry tmp = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(imm.getActualType());
+				   if (imm.isBoolean())
+					   quadGen.addQuad(quadGen.makeAssignImmediateBoolean(tmp.getAddress(), imm.getBoolValue()),
+							   		   parser.token().line);
+				   else
+					   quadGen.addQuad(quadGen.makeAssignImmediateInteger(tmp.getAddress(), imm.getIntValue()),
+							   		   parser.token().line);
+				   expr = tmp;
 			   }
 			   
 			   symtab.tempExprListAdd(expr);
@@ -1463,11 +1758,11 @@ public class NanoSymtabCompiler extends CompilerModel
 						NSTIndScalarEntry entry = (NSTIndScalarEntry) target;
 						if ((entry.isBoolean()||entry.isBooleanArray()) && isBoolean){
 							quad = quadGen.makeRead(entry.getAddress(), "B");
-							quadGen.addQuad(quad);
+							quadGen.addQuad(quad, parser.token().line);
 						}
 						else if ((entry.isInteger()||entry.isIntArray()) && isInteger){
 							quad = quadGen.makeRead(entry.getAddress(), "I");
-							quadGen.addQuad(quad);
+							quadGen.addQuad(quad, parser.token().line);
 						}
 						else{
 							reportError("","printStmnt() - String expression type and expression do not match.");
@@ -1585,6 +1880,22 @@ public class NanoSymtabCompiler extends CompilerModel
 			    return entry;
 			}
 	}
+	//In bounds checking mode every OFFSET is preceded by a CHECK of its index,
+	//unless the index is a literal already known to be inside the array
+	private void addIndexCheck(NSTIndArrayEntry array, NSTIndEntry indexExpr, int line)
+	{
+		if (!quadGen.isBoundsChecking()) return;
+		if (indexExpr.isImmediate())
+		{
+			int index = ((NSTIndImmediateEntry) indexExpr).getIntValue();
+			if (index < 0 || index >= array.getSize())
+				quadGen.addQuad(quadGen.makeCheckIndexImmediate(index, array.getSize()), line);
+		}
+		else if (indexExpr.isScalar() || indexExpr.isIntArray())
+			quadGen.addQuad(quadGen.makeCheckIndexRegular(((NSTIndScalarEntry) indexExpr).getAddress(),
+														  array.getSize()), line);
+	}
+	
 	final class inputTargetIdArrayNT extends NonterminalFactory
 	{
 		public Object makeNonterminal (Parser parser, int param) 
@@ -1623,6 +1934,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	         
 	         //make an indexCalcQuad to calc the index offset
 	         //store the result in a tmpIndex symbol table entry
+	         addIndexCheck(array, indexExpr, parser.token().line);
 	         if (indexExpr.isImmediate())
 	         {
 	            NSTIndImmediateEntry immIndex = (NSTIndImmediateEntry) indexExpr;
@@ -1638,7 +1950,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	                           array.getAddress(), calculatedIndex.getAddress());
 	         }
 	         
-	         quadGen.addQuad(indexCalcQuad);
+	         quadGen.addQuad(indexCalcQuad, parser.token().line);
 	         //make a new symbol table entry for the array location with the offset
 	         return symtab.new NSTIndScalarEntry(array.getName(), array.getActualType(), false, indexCalcQuad.getResultAddress()); 
 	         
@@ -1668,24 +1980,25 @@ public class NanoSymtabCompiler extends CompilerModel
 	      NSTIndEntry e = (NSTIndEntry)parser.rhsValue(2);
 	      
 	      //Get the symbol table entry for the identifier
-	      NSTIndScalarEntry i = (NSTIndScalarEntry) symtab.get(idLexeme);
+	      NSTIndEntry target = symtab.get(idLexeme);
 	      
 	      //If the symbol table doesn't contain an entry for id
-	      if (i==null){
+	      if (target==null){
 	    	  reportError("","Id not defined in this scope.");
 	    	  return null;
 	      //If the id and expression types don't match
-	      }else if (e.getActualType()!=i.getActualType()){
+	      }else if (e.getActualType()!=target.getActualType()){
 	         reportError("","Type mismatch in assignment statement");
 	         return null;
 	      //If the value we're trying to assign to is constant, a no-no
-	      }else if (i.isConstant()){
+	      }else if (target.isConstant()){
 	         reportError("","Attempt to assign to a constant identifier");
 	         return null;
 	      
 	         
 	      //Otherwise we passed the tests, so let's move on
 	      }else{
+	         NSTIndScalarEntry i = (NSTIndScalarEntry) target;
 	    	 //If our value to assign is immediate
 	         if (e.isImmediate())
 	         {
@@ -1694,14 +2007,14 @@ public class NanoSymtabCompiler extends CompilerModel
 	            if (imm.isBoolean())
 	            {
 	               MemModQuad aqb = quadGen.makeAssignImmediateBoolean(i.getAddress(),imm.getBoolValue());
-	               quadGen.addQuad(aqb);
+	               quadGen.addQuad(aqb, parser.token().line);
 	               return new Integer(aqb.getQuadId());
 	            }
 	            //If the assignment value is an integer
 	            else if (imm.isInteger())
 	            {
 	               MemModQuad aqi = quadGen.makeAssignImmediateInteger(i.getAddress(),imm.getIntValue());
-	               quadGen.addQuad(aqi);
+	               quadGen.addQuad(aqi, parser.token().line);
 	               return new Integer(aqi.getQuadId());
 	            //Otherwise we messed up
 	            }else {
@@ -1716,7 +2029,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	         	}else{
 	            NSTIndScalarEntry es = (NSTIndScalarEntry) e;
 	            MemModQuad aqr = quadGen.makeAssignRegular(i.getAddress(),es.getAddress());
-	            quadGen.addQuad(aqr);
+	            quadGen.addQuad(aqr, parser.token().line);
 	            return new Integer(aqr.getQuadId());
 	         	}
 	      	}
@@ -1822,6 +2135,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	      }
 	      
 	      //Calculate the memory location to modify
+	      addIndexCheck(array, indexExpr, parser.token().line);
 	      if (indexExpr.isImmediate())
 	      {
 	         NSTIndImmediateEntry immIndex = (NSTIndImmediateEntry) indexExpr;
@@ -1841,7 +2155,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	      }
 	     
 	      //Add the index quad
-	      quadGen.addQuad(indexCalcQuad);
+	      quadGen.addQuad(indexCalcQuad, parser.token().line);
 	      
 	      //Use the immediate value flag
 	      if (isImmediateValToAssign)
@@ -1849,15 +2163,15 @@ public class NanoSymtabCompiler extends CompilerModel
 	    	 //If it's an integer type, make an integer assignment quad
 	         if (typeFlag==NanoSymbolTable.INT_TYPE)
 	         {
-	            MemModQuad immassgnIntQuad = quadGen.makeAssignImmediateInteger(indexCalcQuad.getResultAddress(),immToAssign.getIntValue() );
-	            quadGen.addQuad(immassgnIntQuad);
+	            MemModQuad immassgnIntQuad = quadGen.makeAssignIndirectImmediateInteger(indexCalcQuad.getResultAddress(),immToAssign.getIntValue() );
+	            quadGen.addQuad(immassgnIntQuad, parser.token().line);
 	            return new Integer(immassgnIntQuad.getQuadId());
 	         }
 	         //If it's a boolean type, make a boolean assignment quad
 	         else if (typeFlag==NanoSymbolTable.BOOL_TYPE)
 	         {
-	            MemModQuad immassgnBoolQuad = quadGen.makeAssignImmediateBoolean(indexCalcQuad.getResultAddress(),immToAssign.getBoolValue() );
-	            quadGen.addQuad(immassgnBoolQuad);
+	            MemModQuad immassgnBoolQuad = quadGen.makeAssignIndirectImmediateBoolean(indexCalcQuad.getResultAddress(),immToAssign.getBoolValue() );
+	            quadGen.addQuad(immassgnBoolQuad, parser.token().line);
 	            return new Integer(immassgnBoolQuad.getQuadId());
 	         }
 	         //Otherwise we screwed up royally
@@ -1868,10 +2182,11 @@ public class NanoSymtabCompiler extends CompilerModel
 	         }
 	      }
 	      //value is not immediate; use regular assignment, types already checked
+	      //(all three element stores go through the OFFSET temp, hence indirect)
 	      else
 	      {
-	         MemModQuad aq = quadGen.makeAssignRegular(indexCalcQuad.getResultAddress(), valToAssign.getAddress());
-	         quadGen.addQuad(aq);
+	         MemModQuad aq = quadGen.makeAssignIndirectRegular(indexCalcQuad.getResultAddress(), valToAssign.getAddress());
+	         quadGen.addQuad(aq, parser.token().line);
 	         return new Integer(aq.getQuadId());
 	      }
 
@@ -1885,18 +2200,17 @@ public class NanoSymtabCompiler extends CompilerModel
 	   {
 	      if (showReductions) System.out.println(
 	         "\nReduced by rule: Cond {unmatched} -> CondIfPart CondThenPartUM");
-	      InstrModQuad imq = (InstrModQuad) parser.rhsValue(0);
-	      if (imq==null)
+	      Integer falseList = (Integer) parser.rhsValue(0);
+	      if (falseList==null)
 	      {
 	         return null;
 	      }
 	      else
 	      {
-	         String jumpQuadLabel = imq.getBackpatchQuadLabel();
 	         //A statement, whether single or block, should return the index of the
 	         //last quad produced for it (single--the index, block--the last index)
 	         Integer lastQuadIndex = (Integer) parser.rhsValue(1);
-	         quadGen.updateBackpatching(jumpQuadLabel, lastQuadIndex.intValue()+1);
+	         quadGen.backpatch(falseList.intValue(), lastQuadIndex.intValue()+1);
 	         return lastQuadIndex;
 	      }
 	   }
@@ -1909,19 +2223,18 @@ public class NanoSymtabCompiler extends CompilerModel
 	   {
 	      if (showReductions) System.out.println(
 	         "\nReduced by rule: Cond {matched} -> CondIfPart CondThenPartM");
-	      InstrModQuad imq = (InstrModQuad) parser.rhsValue(0);
-	      if (imq==null)
+	      Integer falseList = (Integer) parser.rhsValue(0);
+	      if (falseList==null)
 	      {
 	         return null;
 	      }
 	      else
 	      {
-	         String jumpQuadLabel = imq.getBackpatchQuadLabel();
 	         //A statement, whether single or block, should return the index of the
 	         //last quad produced for it (single--the index, block--the last index)
 	         Integer lastQuadIndex = (Integer) parser.rhsValue(1);
 	         
-	         quadGen.updateBackpatching(jumpQuadLabel, lastQuadIndex.intValue()+2);
+	         quadGen.backpatch(falseList.intValue(), lastQuadIndex.intValue()+2);
 	         return lastQuadIndex;
 	      }
 	   }
@@ -1946,19 +2259,28 @@ public class NanoSymtabCompiler extends CompilerModel
 	      }
 	      else
 	      {
-	         if (e.isImmediate())
+	         //The patch list of the jumps to the else part (or past the statement)
+	         //is passed up
+	         if (e instanceof NSTIndJumpEntry)
+	         {
+	            //jumping code: the then part starts with the next quad
+	            NSTIndJumpEntry jumps = (NSTIndJumpEntry) e;
+	            quadGen.backpatch(jumps.getTrueList(), quadGen.getCurrentQuadNumber());
+	            return new Integer(jumps.getFalseList());
+	         }
+	         else if (e.isImmediate())
 	         {
 	            NSTIndImmediateEntry imm = (NSTIndImmediateEntry) e;
 	            InstrModQuad iqi = quadGen.makeIfFalseImmediate(-1, imm.getBoolValue());
-	            quadGen.addQuad(iqi);
-	            return iqi;
+	            quadGen.addQuad(iqi, parser.token().line);
+	            return new Integer(quadGen.makelist(iqi.getQuadId()));
 	         }
 	         else if (!e.isImmediate()) //Should perhaps actually be checking for other mistakes
 	         {
 	            NSTIndScalarEntry es = (NSTIndScalarEntry) e;
 	            InstrModQuad iqs = quadGen.makeIfFalseRegular(-1, es.getAddress());
-	            quadGen.addQuad(iqs);
-	            return iqs;
+	            quadGen.addQuad(iqs, parser.token().line);
+	            return new Integer(quadGen.makelist(iqs.getQuadId()));
 	         }
 	         else return null;
 	      }
@@ -2007,11 +2329,10 @@ public class NanoSymtabCompiler extends CompilerModel
 	         }
 	         else
 	         {
-	            String jumpQuadLabel = imq.getBackpatchQuadLabel();
 	            //A statement, whether single or block, should return the index of the
 	            //last quad produced for it (single--the index, block--the last index)
 	            Integer lastElseQuadIndex = (Integer) parser.rhsValue(4);
-	            quadGen.updateBackpatching(jumpQuadLabel, lastElseQuadIndex.intValue()+1);
+	            quadGen.backpatch(quadGen.makelist(imq.getQuadId()), lastElseQuadIndex.intValue()+1);
 	            return lastStmtQuadIndex; //To be used for the previous backpatching
 	         }
 	      }
@@ -2026,7 +2347,7 @@ public class NanoSymtabCompiler extends CompilerModel
 	      if (showReductions) System.out.println(
 	      "\nReduced by rule: CondElseJump -> /* empty */");
 	      InstrModQuad gotoq = quadGen.makeUnconditionalJump(-1);
-	      quadGen.addQuad(gotoq);
+	      quadGen.addQuad(gotoq, parser.token().line);
 	      return gotoq;
 	   }
 	}
@@ -2044,6 +2365,7 @@ public class NanoSymtabCompiler extends CompilerModel
          
          //Use the passed up quad to get the address of the for loop id
          MemModQuad assgForStart = (MemModQuad) parser.rhsValue(0);
+         if (assgForStart == null) return null;	//error already reported in the header
          int forIdAddress = assgForStart.getResultAddress();
          
          //create the incrementing quad
@@ -2051,16 +2373,15 @@ public class NanoSymtabCompiler extends CompilerModel
          MemModQuad incrementForCounterQuad;
          incrementForCounterQuad = quadGen.makeAddRightImmediate(forIdAddress, 
                forIdAddress, amountToIncrement);
-         quadGen.addQuad(incrementForCounterQuad);
+         quadGen.addQuad(incrementForCounterQuad, parser.token().line);
          
          //create jump quad one index past the assign quad passed up from below
          InstrModQuad jumpToStartofFor;
          jumpToStartofFor = quadGen.makeUnconditionalJump(assgForStart.getQuadId()+1);
-         quadGen.addQuad(jumpToStartofFor);
+         quadGen.addQuad(jumpToStartofFor, parser.token().line);
          
          int quadIndexforIfTrue = assgForStart.getQuadId() + 2;
-         InstrModQuad imq = (InstrModQuad)quadGen.getQuadList().get(quadIndexforIfTrue);
-         String ifTrueLabel = imq.getBackpatchQuadLabel();
+         int ifTrueList = quadGen.makelist(quadIndexforIfTrue);
          Integer lastQuadIndex = (Integer) parser.rhsValue(1);
     
          if (lastQuadIndex==null)
@@ -2069,7 +2390,7 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          else {
-            quadGen.updateBackpatching(ifTrueLabel, lastQuadIndex.intValue()+3);
+            quadGen.backpatch(ifTrueList, lastQuadIndex.intValue()+3);
             return new Integer(jumpToStartofFor.getQuadId());
          }
          }
@@ -2088,13 +2409,19 @@ public class NanoSymtabCompiler extends CompilerModel
             System.out.println("identifier lexeme: " + idString + "\n");
          }
          
-         NSTIndScalarEntry i = (NSTIndScalarEntry)symtab.get((String)parser.rhsValue(1));
-         if (i==null)
+         NSTIndEntry idEntry = symtab.get((String)parser.rhsValue(1));
+         if (idEntry==null)
          {
             reportError("","For statement Identifier not recognized.");
             return null; 
          }
          
+         if (idEntry.isConstant()) {
+            reportError("","For statement Identifier is a constant.");
+            return null;
+         }
+         NSTIndScalarEntry i = (NSTIndScalarEntry) idEntry;
+         
          if (!i.isInteger()) {
             reportError("","For statement Identifier not an integer.");
             return null;
@@ -2130,7 +2457,7 @@ public class NanoSymtabCompiler extends CompilerModel
             reportError("","Invalid for left statement range");
             return null;
          }
-         quadGen.addQuad(assgForStart);
+         quadGen.addQuad(assgForStart, parser.token().line);
          
          //make a quad to evaluate the current index count against the end of the loop counter
          MemModQuad relopForQuad;
@@ -2151,12 +2478,12 @@ public class NanoSymtabCompiler extends CompilerModel
             reportError("","Invalid for right statement ranges");
             return null;
          }
-         quadGen.addQuad(relopForQuad);
+         quadGen.addQuad(relopForQuad, parser.token().line);
          
          //if for loop is done then goto past the return jump quad
          InstrModQuad testLoopEndQuad;
          testLoopEndQuad = quadGen.makeIfTrueRegular(-1, tmpForCountRelop.getAddress());
-         quadGen.addQuad(testLoopEndQuad);
+         quadGen.addQuad(testLoopEndQuad, parser.token().line);
          
          return assgForStart;
          
@@ -2174,7 +2501,13 @@ public class NanoSymtabCompiler extends CompilerModel
    			System.out.println("returnStmnt -> return semicolon\n");
 		   }
 		   
-		   MemModQuad returnQuad = null;
+		   if (currentProcedure == null)
+		   {
+		      reportError("","Return statement outside of a procedure.");
+		      return null;
+		   }
+		   Quad returnQuad = quadGen.makeReturn();
+		   quadGen.addQuad(returnQuad, parser.token().line);
 		   
 		   return new Integer(returnQuad.getQuadId());
 			}
@@ -2182,6 +2515,93 @@ public class NanoSymtabCompiler extends CompilerModel
 	
 	
 	
+	//callStmnt (nothing, exprList)
+	final class callStmntNothingNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+		   if (showReductions) {
+   			System.out.print(parser.token().line + ": ");
+   			System.out.println("callStmnt {nothing} -> call id lparen rparen semicolon\n");
+		   }
+		   
+		   return makeCall((String)parser.rhsValue(1), new ArrayList(), parser.token().line);
+			}
+	}
+	final class callStmntExprListNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+		   if (showReductions) {
+   			System.out.print(parser.token().line + ": ");
+   			System.out.println("callStmnt {exprList} -> call id lparen exprList rparen semicolon\n");
+		   }
+		   
+		   ArrayList args = (ArrayList)parser.rhsValue(3);
+		   if (args==null) {return null; }
+		   return makeCall((String)parser.rhsValue(1), args, parser.token().line);
+			}
+	}
+	
+	//A PARAM for each argument, storing it into its formal when the CALL is made,
+	//and the CALL itself
+	private Integer makeCall(String name, ArrayList args, int line)
+	{
+		NSTIndEntry e = symtab.get(name);
+		if (!(e instanceof NSTIndProcEntry))
+		{
+			reportError("","Invalid procedure call. Not a procedure: "+name);
+			return null;
+		}
+		NSTIndProcEntry proc = (NSTIndProcEntry) e;
+		if (args.size() != proc.getFormalCount())
+		{
+			reportError("","Invalid procedure call. Wrong number of arguments to "+name);
+			return null;
+		}
+		for (int n = 0; n < args.size(); n++)
+		{
+			if (scalarTypeOf((NSTIndEntry) args.get(n)) != proc.getFormal(n).getActualType())
+			{
+				reportError("","Invalid procedure call. Type mismatch in argument "+(n+1)+" to "+name);
+				return null;
+			}
+		}
+		
+		for (int n = 0; n < args.size(); n++)
+		{
+			NSTIndEntry arg = (NSTIndEntry) args.get(n);
+			int formal = proc.getFormal(n).getAddress();
+			MemModQuad paramQuad;
+			if (arg.isImmediate() && arg.isBoolean())
+				paramQuad = quadGen.makeParamImmediateBoolean(formal, ((NSTIndImmediateEntry) arg).getBoolValue());
+			else if (arg.isImmediate())
+				paramQuad = quadGen.makeParamImmediateInteger(formal, ((NSTIndImmediateEntry) arg).getIntValue());
+			else
+				paramQuad = quadGen.makeParamRegular(formal, ((NSTIndScalarEntry) arg).getAddress(),
+													 scalarTypeOf(arg) == NanoSymbolTable.BOOL_TYPE);
+			quadGen.addQuad(paramQuad, line);
+		}
+		
+		//A call from inside the procedure's own body gets the frame size when the body ends
+		boolean recursive = (proc == currentProcedure);
+		InstrModQuad callQuad = quadGen.makeCall(proc.getEntryQuad(), proc.getFrameBase(),
+												 recursive ? 0 : proc.getFrameSize());
+		quadGen.addQuad(callQuad, line);
+		if (recursive) recursiveCalls.add(new Integer(callQuad.getQuadId()));
+		return new Integer(callQuad.getQuadId());
+	}
+	
+	//An array element keeps the type of its array
+	private static int scalarTypeOf(NSTIndEntry e)
+	{
+		if (e.isIntArray()) return NanoSymbolTable.INT_TYPE;
+		if (e.isBooleanArray()) return NanoSymbolTable.BOOL_TYPE;
+		return e.getActualType();
+	}
+	
 	//exprList (list, single)
 	final class exprListListNT extends NonterminalFactory
 	{
@@ -2193,47 +2613,18 @@ public class NanoSymtabCompiler extends CompilerModel
    			System.out.println("exprList {list} -> expr comma exprList\n");
 		   }
 		   
+		   //The arguments in order; expr was settled by the comma after it
 		   NSTIndEntry expr = (NSTIndEntry)parser.rhsValue(0);
-         if (expr==null) {return null; }
-         
-         int countNumberofParams = ((Integer) parser.rhsValue(2)).intValue() + 1;
-         
+		   ArrayList args = (ArrayList)parser.rhsValue(2);
+         if (expr==null || args==null) {return null; }
          
-         MemModQuad paramQuad;
-         MemModQuad immedTransferQuad;
-         
-         //int topStack = symtab.getStackTopOffset();
-         
-         if (expr.isImmediate() && expr.isBoolean())
-         {
-            NSTIndImmediateEntry immExpr = (NSTIndImmediateEntry) expr;
-            NSTIndScalarEntry tmpExpr = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
-            immedTransferQuad = quadGen.makeAssignImmediateBoolean(tmpExpr.getAddress(), immExpr.getBoolValue());
-         //   paramQuad = quadGen.makeParam(topStack, tmpExpr.getAddress());
-            quadGen.addQuad(immedTransferQuad);
-         }
-         else if (expr.isImmediate() && expr.isInteger())
-         {
-            NSTIndImmediateEntry immExpr = (NSTIndImmediateEntry) expr;
-            NSTIndScalarEntry tmpExpr = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
-            immedTransferQuad = quadGen.makeAssignImmediateInteger(tmpExpr.getAddress(), immExpr.getIntValue());
-         //   paramQuad = quadGen.makeParam(topStack, tmpExpr.getAddress());
-            quadGen.addQuad(immedTransferQuad);
-         }
-         else if (expr.isScalar())
-         {
-            NSTIndScalarEntry scalarExpr = (NSTIndScalarEntry) expr;
-         //   paramQuad = quadGen.makeParam(topStack, scalarExpr.getAddress());
-         }
-         else
+         if (!expr.isScalar() && !(expr instanceof NSTIndScalarEntry))	//an array element is
          {
             reportError("","Invalid procedure call.");
             return null;
          }
-         
-         //quadGen.addQuad(paramQuad);
-         //not sure if this is the right thing to return
-         return countNumberofParams;
+         args.add(0, expr);
+         return args;
 			}
 	}
 	final class exprListSingleNT extends NonterminalFactory
@@ -2247,44 +2638,17 @@ public class NanoSymtabCompiler extends CompilerModel
    			System.out.println("exprList {single} -> expr\n");
 		   }
 		   
-		   NSTIndEntry expr = (NSTIndEntry)parser.rhsValue(0);
+		   NSTIndEntry expr = valueOf((NSTIndEntry)parser.rhsValue(0), parser.token().line);
          if (expr==null) {return null; }
          
-         MemModQuad paramQuad;
-         MemModQuad immedTransferQuad;
-         
-         //int topStack = symtab.getStackTopOffset();
-         
-         if (expr.isImmediate() && expr.isBoolean())
-         {
-            NSTIndImmediateEntry immExpr = (NSTIndImmediateEntry) expr;
-            NSTIndScalarEntry tmpExpr = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
-            immedTransferQuad = quadGen.makeAssignImmediateBoolean(tmpExpr.getAddress(), immExpr.getBoolValue());
-         //   paramQuad = quadGen.makeParam(topStack, tmpExpr.getAddress());
-            quadGen.addQuad(immedTransferQuad);
-         }
-         else if (expr.isImmediate() && expr.isInteger())
-         {
-            NSTIndImmediateEntry immExpr = (NSTIndImmediateEntry) expr;
-            NSTIndScalarEntry tmpExpr = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
-            immedTransferQuad = quadGen.makeAssignImmediateInteger(tmpExpr.getAddress(), immExpr.getIntValue());
-         //   paramQuad = quadGen.makeParam(topStack, tmpExpr.getAddress());
-            quadGen.addQuad(immedTransferQuad);
-         }
-         else if (expr.isScalar())
-         {
-            NSTIndScalarEntry scalarExpr = (NSTIndScalarEntry) expr;
-         //   paramQuad = quadGen.makeParam(topStack, scalarExpr.getAddress());
-         }
-         else
+         if (!expr.isScalar() && !(expr instanceof NSTIndScalarEntry))	//an array element is
          {
             reportError("","Invalid procedure call.");
             return null;
          }
-         
-         //quadGen.addQuad(paramQuad);
-         //not sure if this is the right thing to return
-         return 1;
+         ArrayList args = new ArrayList();
+         args.add(expr);
+         return args;
 			}
 	}
 	
@@ -2313,6 +2677,14 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftExpr.isImmediate() && rightTerm.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.ADD,
+                  (NSTIndImmediateEntry) leftExpr, (NSTIndImmediateEntry) rightTerm);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad exprPlusQuad;
          NSTIndScalarEntry tmpExprPlusResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
@@ -2351,7 +2723,7 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
-         quadGen.addQuad(exprPlusQuad);
+         quadGen.addQuad(exprPlusQuad, parser.token().line);
          return tmpExprPlusResult;
 			}
 	}
@@ -2379,6 +2751,14 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftExpr.isImmediate() && rightTerm.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.SUB,
+                  (NSTIndImmediateEntry) leftExpr, (NSTIndImmediateEntry) rightTerm);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad exprMinusQuad;
          NSTIndScalarEntry tmpExprMinusResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
@@ -2417,10 +2797,106 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
-         quadGen.addQuad(exprMinusQuad);
+         quadGen.addQuad(exprMinusQuad, parser.token().line);
          return tmpExprMinusResult;
 			}
 	}
+	//In short circuit mode a boolean expression in a condition is compiled as
+	//jumping code: an NSTIndJumpEntry holding the patch lists of the jumps taken
+	//when it is true and when it is false, with no boolean temp. Whether the
+	//expression is in a condition shows in the lookahead when it is reduced: only
+	//and, or, then and a closing rparen can be followed by something that takes
+	//jumps, anywhere else the value is needed and settle() materializes it
+	private boolean allowsJumps(Parser parser) throws IOException, SyntaxException
+	{
+		int lookahead = parser.lookahead().number;
+		return lookahead == _symbolAnd || lookahead == _symbolOr
+			|| lookahead == _symbolThen || lookahead == _symbolRparen;
+	}
+	
+	private NSTIndEntry settle(NSTIndEntry e, Parser parser) throws IOException, SyntaxException
+	{
+		if (e instanceof NSTIndJumpEntry && !allowsJumps(parser))
+			return valueOf(e, parser.token().line);
+		return e;
+	}
+	
+	//The jumping code of a boolean: a literal jumps one way unconditionally, a
+	//variable or temp is tested
+	private NSTIndJumpEntry jumpsOf(NSTIndEntry e, int line)
+	{
+		if (e instanceof NSTIndJumpEntry) return (NSTIndJumpEntry) e;
+		if (e.isImmediate())
+		{
+			InstrModQuad jmp = quadGen.makeUnconditionalJump(-1);
+			quadGen.addQuad(jmp, line);
+			int list = quadGen.makelist(jmp.getQuadId());
+			if (((NSTIndImmediateEntry) e).getBoolValue())
+				return symtab.new NSTIndJumpEntry(list, NQG.EMPTY_PATCH_LIST);
+			return symtab.new NSTIndJumpEntry(NQG.EMPTY_PATCH_LIST, list);
+		}
+		InstrModQuad ifTrue = quadGen.makeIfTrueRegular(-1, ((NSTIndScalarEntry) e).getAddress());
+		quadGen.addQuad(ifTrue, line);
+		InstrModQuad jmp = quadGen.makeUnconditionalJump(-1);
+		quadGen.addQuad(jmp, line);
+		return symtab.new NSTIndJumpEntry(quadGen.makelist(ifTrue.getQuadId()),
+										  quadGen.makelist(jmp.getQuadId()));
+	}
+	
+	//The value of jumping code, stored in a new temp: true where the true list
+	//lands, false where the false list does
+	private NSTIndEntry valueOf(NSTIndEntry e, int line)
+	{
+		if (!(e instanceof NSTIndJumpEntry)) return e;
+		NSTIndJumpEntry jumps = (NSTIndJumpEntry) e;
+		NSTIndScalarEntry tmp = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
+		int skip = NQG.EMPTY_PATCH_LIST;
+		if (jumps.getTrueList() != NQG.EMPTY_PATCH_LIST)
+		{
+			quadGen.backpatch(jumps.getTrueList(), quadGen.getCurrentQuadNumber());
+			quadGen.addQuad(quadGen.makeAssignImmediateBoolean(tmp.getAddress(), true), line);
+			if (jumps.getFalseList() != NQG.EMPTY_PATCH_LIST)
+			{
+				InstrModQuad jmp = quadGen.makeUnconditionalJump(-1);
+				quadGen.addQuad(jmp, line);
+				skip = quadGen.makelist(jmp.getQuadId());
+			}
+		}
+		if (jumps.getFalseList() != NQG.EMPTY_PATCH_LIST)
+		{
+			quadGen.backpatch(jumps.getFalseList(), quadGen.getCurrentQuadNumber());
+			quadGen.addQuad(quadGen.makeAssignImmediateBoolean(tmp.getAddress(), false), line);
+		}
+		quadGen.backpatch(skip, quadGen.getCurrentQuadNumber());
+		return tmp;
+	}
+	
+	//The left operand of or is complete here: in short circuit mode its true
+	//jumps skip the right operand and its false jumps land on it
+	final class exprOrLeftNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+		   if (showReductions) {
+   			System.out.print(parser.token().line + ": ");
+   			System.out.println("exprOrLeft -> expr or\n");
+		   }
+		   NSTIndEntry leftExpr = (NSTIndEntry) parser.rhsValue(0);
+         if (leftExpr == null || !shortCircuit || !leftExpr.isBoolean() || leftExpr.isImmediate())
+            return leftExpr;
+         
+         if (leftExpr instanceof NSTIndJumpEntry)
+         {
+            NSTIndJumpEntry jumps = (NSTIndJumpEntry) leftExpr;
+            quadGen.backpatch(jumps.getFalseList(), quadGen.getCurrentQuadNumber());
+            return symtab.new NSTIndJumpEntry(jumps.getTrueList(), NQG.EMPTY_PATCH_LIST);
+         }
+         InstrModQuad ifTrue = quadGen.makeIfTrueRegular(-1, ((NSTIndScalarEntry) leftExpr).getAddress());
+         quadGen.addQuad(ifTrue, parser.token().line);
+         return symtab.new NSTIndJumpEntry(quadGen.makelist(ifTrue.getQuadId()), NQG.EMPTY_PATCH_LIST);
+			}
+	}
 	final class exprOrNT extends NonterminalFactory
 	{
 		public Object makeNonterminal (Parser parser, int param) 
@@ -2428,12 +2904,12 @@ public class NanoSymtabCompiler extends CompilerModel
 			{
 		   if (showReductions) {
    			System.out.print(parser.token().line + ": ");
-   			System.out.println("expr {or} -> expr or term\n");
+   			System.out.println("expr {or} -> exprOrLeft term\n");
 		   }
 		   
 		   //get expr or term left and right hand sides
          NSTIndEntry leftExpr = (NSTIndEntry) parser.rhsValue(0);
-         NSTIndEntry rightTerm = (NSTIndEntry) parser.rhsValue(2);
+         NSTIndEntry rightTerm = (NSTIndEntry) parser.rhsValue(1);
          
          //check if null
          if (leftExpr == null || rightTerm==null) return null;     
@@ -2445,6 +2921,24 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //short circuit: the left operand already jumps past the right one when true
+         if (leftExpr instanceof NSTIndJumpEntry)
+         {
+            NSTIndJumpEntry left = (NSTIndJumpEntry) leftExpr;
+            NSTIndJumpEntry right = jumpsOf(rightTerm, parser.token().line);
+            return settle(symtab.new NSTIndJumpEntry(quadGen.merge(left.getTrueList(), right.getTrueList()),
+                  right.getFalseList()), parser);
+         }
+         rightTerm = valueOf(rightTerm, parser.token().line);
+         
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftExpr.isImmediate() && rightTerm.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.OR,
+                  (NSTIndImmediateEntry) leftExpr, (NSTIndImmediateEntry) rightTerm);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad exprOrQuad;
          NSTIndScalarEntry tmpExprOrResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
@@ -2483,7 +2977,7 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
-         quadGen.addQuad(exprOrQuad);
+         quadGen.addQuad(exprOrQuad, parser.token().line);
          return tmpExprOrResult;
 			}
 	}
@@ -2528,6 +3022,14 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftTerm.isImmediate() && rightFactor.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.MUL,
+                  (NSTIndImmediateEntry) leftTerm, (NSTIndImmediateEntry) rightFactor);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad termStarQuad;
          NSTIndScalarEntry tmpTermStarResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
@@ -2566,7 +3068,7 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
-         quadGen.addQuad(termStarQuad);
+         quadGen.addQuad(termStarQuad, parser.token().line);
          return tmpTermStarResult;
 			}
 	}
@@ -2594,6 +3096,14 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftTerm.isImmediate() && rightFactor.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.DIV,
+                  (NSTIndImmediateEntry) leftTerm, (NSTIndImmediateEntry) rightFactor);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad termSlashQuad;
          NSTIndScalarEntry tmpTermSlashResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
@@ -2632,10 +3142,36 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
-         quadGen.addQuad(termSlashQuad);
+         quadGen.addQuad(termSlashQuad, parser.token().line);
          return tmpTermSlashResult;
 			}
 	}
+	//The left operand of and is complete here: in short circuit mode its false
+	//jumps skip the right operand and its true jumps land on it
+	final class termAndLeftNT extends NonterminalFactory
+	{
+		public Object makeNonterminal (Parser parser, int param) 
+			throws IOException, SyntaxException
+			{
+		   if (showReductions) {
+   			System.out.print(parser.token().line + ": ");
+   			System.out.println("termAndLeft -> term and\n");
+		   }
+		   NSTIndEntry leftTerm = (NSTIndEntry) parser.rhsValue(0);
+         if (leftTerm == null || !shortCircuit || !leftTerm.isBoolean() || leftTerm.isImmediate())
+            return leftTerm;
+         
+         if (leftTerm instanceof NSTIndJumpEntry)
+         {
+            NSTIndJumpEntry jumps = (NSTIndJumpEntry) leftTerm;
+            quadGen.backpatch(jumps.getTrueList(), quadGen.getCurrentQuadNumber());
+            return symtab.new NSTIndJumpEntry(NQG.EMPTY_PATCH_LIST, jumps.getFalseList());
+         }
+         InstrModQuad ifFalse = quadGen.makeIfFalseRegular(-1, ((NSTIndScalarEntry) leftTerm).getAddress());
+         quadGen.addQuad(ifFalse, parser.token().line);
+         return symtab.new NSTIndJumpEntry(NQG.EMPTY_PATCH_LIST, quadGen.makelist(ifFalse.getQuadId()));
+			}
+	}
 	final class termAndNT extends NonterminalFactory
 	{
 		public Object makeNonterminal (Parser parser, int param) 
@@ -2643,12 +3179,12 @@ public class NanoSymtabCompiler extends CompilerModel
 			{
 		   if (showReductions) {
    			System.out.print(parser.token().line + ": ");
-   			System.out.println("term {and} -> term and factor\n");
+   			System.out.println("term {and} -> termAndLeft factor\n");
 		   }
 		   
 		   //get term and factor left and right hand sides
 		   NSTIndEntry leftTerm = (NSTIndEntry) parser.rhsValue(0);
-         NSTIndEntry rightFactor = (NSTIndEntry) parser.rhsValue(2);
+         NSTIndEntry rightFactor = (NSTIndEntry) parser.rhsValue(1);
          
          //check if null
          if (leftTerm == null || rightFactor==null) return null;		
@@ -2660,6 +3196,24 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         //short circuit: the left operand already jumps past the right one when false
+         if (leftTerm instanceof NSTIndJumpEntry)
+         {
+            NSTIndJumpEntry left = (NSTIndJumpEntry) leftTerm;
+            NSTIndJumpEntry right = jumpsOf(rightFactor, parser.token().line);
+            return settle(symtab.new NSTIndJumpEntry(right.getTrueList(),
+                  quadGen.merge(left.getFalseList(), right.getFalseList())), parser);
+         }
+         rightFactor = valueOf(rightFactor, parser.token().line);
+         
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && leftTerm.isImmediate() && rightFactor.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(NQG.AND,
+                  (NSTIndImmediateEntry) leftTerm, (NSTIndImmediateEntry) rightFactor);
+            if (folded != null) return folded;
+         }
+         
          //declare the quad and get temp symtab address
          MemModQuad termAndQuad;
          NSTIndScalarEntry tmpTermAndResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
@@ -2698,7 +3252,7 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
 		   
-         quadGen.addQuad(termAndQuad);
+         quadGen.addQuad(termAndQuad, parser.token().line);
          return tmpTermAndResult;
 			}
 	}
@@ -2752,13 +3306,17 @@ public class NanoSymtabCompiler extends CompilerModel
             reportError("","Can not make non-integer negative");
             return null;
          }
+         if (prim.isImmediate() && quadGen.isConstantFolding())
+         {
+            return symtab.foldImmediates(NQG.NEG, (NSTIndImmediateEntry) prim, null);
+         }
          if (prim.isImmediate())
          {
             NSTIndImmediateEntry immPrim = (NSTIndImmediateEntry) prim;
             NSTIndScalarEntry tmpPrim = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
             negativeQuad = quadGen.makeNegImmediate(tmpPrim.getAddress(),          
                   immPrim.getIntValue()); 
-            quadGen.addQuad(negativeQuad);
+            quadGen.addQuad(negativeQuad, parser.token().line);
             return tmpPrim;
             
          }
@@ -2768,7 +3326,7 @@ public class NanoSymtabCompiler extends CompilerModel
             NSTIndScalarEntry tmpPrim = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.INT_TYPE);
             negativeQuad = quadGen.makeNegRegular(tmpPrim.getAddress(),          
                   scalarPrim.getAddress());
-            quadGen.addQuad(negativeQuad);
+            quadGen.addQuad(negativeQuad, parser.token().line);
             return tmpPrim;
          }
 			}
@@ -2791,13 +3349,24 @@ public class NanoSymtabCompiler extends CompilerModel
             reportError("","Can not make non-boolean a not");
             return null;
          }
+         //jumping code is negated by swapping its lists, no quad needed
+         if (prim instanceof NSTIndJumpEntry
+               || (shortCircuit && !prim.isImmediate() && allowsJumps(parser)))
+         {
+            NSTIndJumpEntry jumps = jumpsOf(prim, parser.token().line);
+            return settle(symtab.new NSTIndJumpEntry(jumps.getFalseList(), jumps.getTrueList()), parser);
+         }
+         if (prim.isImmediate() && quadGen.isConstantFolding())
+         {
+            return symtab.foldImmediates(NQG.NOT, (NSTIndImmediateEntry) prim, null);
+         }
          if (prim.isImmediate())
          {
             NSTIndImmediateEntry immPrim = (NSTIndImmediateEntry) prim;
             NSTIndScalarEntry tmpPrim = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
             notQuad = quadGen.makeNotImmediate(tmpPrim.getAddress(),          
                   immPrim.getBoolValue()); 
-            quadGen.addQuad(notQuad);
+            quadGen.addQuad(notQuad, parser.token().line);
             return tmpPrim;
          }
          else
@@ -2806,7 +3375,7 @@ public class NanoSymtabCompiler extends CompilerModel
             NSTIndScalarEntry tmpPrim = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
             notQuad = quadGen.makeNotRegular(tmpPrim.getAddress(),          
                   scalarPrim.getAddress());
-            quadGen.addQuad(notQuad);
+            quadGen.addQuad(notQuad, parser.token().line);
             return tmpPrim;
          }
 			}
@@ -2882,7 +3451,7 @@ public class NanoSymtabCompiler extends CompilerModel
          }
          NSTIndEntry expr = (NSTIndEntry)parser.rhsValue(1);
          if (expr==null) {return null; }
-         return expr;
+         return settle(expr, parser);
          }
    }
    
@@ -2914,12 +3483,50 @@ public class NanoSymtabCompiler extends CompilerModel
             return null;
          }
          
+         String relopName = (String)parser.rhsValue (2);
+         int relopType = NQG.UNK;
+         if (relopName.equals("==")) relopType = NQG.RLEQ;
+         else if (relopName.equals("<>")) relopType = NQG.RLNTEQ;
+         else if (relopName.equals("<")) relopType = NQG.RLST;
+         else if (relopName.equals("<=")) relopType = NQG.RLSTEQ;
+         else if (relopName.equals(">")) relopType = NQG.RLGT;
+         else if (relopName.equals(">=")) relopType = NQG.RLGTEQ;
+         
+         //in constant folding mode literal operands are evaluated here, not by a quad
+         if (quadGen.isConstantFolding() && eLeft.isImmediate() && eRight.isImmediate())
+         {
+            NSTIndImmediateEntry folded = symtab.foldImmediates(relopType,
+                  (NSTIndImmediateEntry) eLeft, (NSTIndImmediateEntry) eRight);
+            if (folded != null) return folded;
+         }
+         
+         //in a condition the comparison jumps instead of producing a boolean temp
+         if (shortCircuit && relopType != NQG.UNK && allowsJumps(parser))
+         {
+            InstrModQuad compareJump;
+            if (eLeft.isImmediate() && eRight.isImmediate())
+               compareJump = quadGen.makeCompareJumpBothImmediate(relopType, -1,
+                     ((NSTIndImmediateEntry) eLeft).getIntValue(), ((NSTIndImmediateEntry) eRight).getIntValue());
+            else if (eLeft.isImmediate())
+               compareJump = quadGen.makeCompareJumpLeftImmediate(relopType, -1,
+                     ((NSTIndImmediateEntry) eLeft).getIntValue(), ((NSTIndScalarEntry) eRight).getAddress());
+            else if (eRight.isImmediate())
+               compareJump = quadGen.makeCompareJumpRightImmediate(relopType, -1,
+                     ((NSTIndScalarEntry) eLeft).getAddress(), ((NSTIndImmediateEntry) eRight).getIntValue());
+            else
+               compareJump = quadGen.makeCompareJumpRegular(relopType, -1,
+                     ((NSTIndScalarEntry) eLeft).getAddress(), ((NSTIndScalarEntry) eRight).getAddress());
+            quadGen.addQuad(compareJump, parser.token().line);
+            InstrModQuad jmp = quadGen.makeUnconditionalJump(-1);
+            quadGen.addQuad(jmp, parser.token().line);
+            return symtab.new NSTIndJumpEntry(quadGen.makelist(compareJump.getQuadId()),
+                  quadGen.makelist(jmp.getQuadId()));
+         }
+         
          //declare the relop quad and get temp symtab address
          MemModQuad relopQuad;
          NSTIndScalarEntry tmpRelopResult = (NSTIndScalarEntry)symtab.addNewTempToCurrentBlock(NanoSymbolTable.BOOL_TYPE);
          
-         String relopName = (String)parser.rhsValue (2);
-         
          if (relopName.equals("==")) { 
              if (eLeft.isImmediate() && eRight.isImmediate())
              {
@@ -2939,7 +3546,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopEqualsBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopEqualsRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -2973,7 +3580,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopNotEqualsBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopNotEqualsRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -3007,7 +3614,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopLessThanBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopLessThanRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -3041,7 +3648,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopLessThanEqualsBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopLessThanEqualsRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -3075,7 +3682,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopGreaterThanBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopGreaterThanRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -3109,7 +3716,7 @@ public class NanoSymtabCompiler extends CompilerModel
              {
                 NSTIndScalarEntry eLeftImm = (NSTIndScalarEntry) eLeft;
                 NSTIndImmediateEntry eRightImm = (NSTIndImmediateEntry) eRight;
-                relopQuad = quadGen.makeRelopGreaterThanEqualsBothImmediate(tmpRelopResult.getAddress(),          
+                relopQuad = quadGen.makeRelopGreaterThanEqualsRightImmediate(tmpRelopResult.getAddress(),          
                       eLeftImm.getAddress(), eRightImm.getIntValue());
              }
              else if (!eLeft.isImmediate() && !eRight.isImmediate())
@@ -3129,7 +3736,7 @@ public class NanoSymtabCompiler extends CompilerModel
              return null;
           }
             
-            quadGen.addQuad(relopQuad);
+            quadGen.addQuad(relopQuad, parser.token().line);
             return tmpRelopResult;  
             }
    }
@@ -3147,12 +3754,18 @@ public class NanoSymtabCompiler extends CompilerModel
             System.out.println("identifier lexeme: " + idString + "\n");
          }
          
-         NSTIndScalarEntry i = (NSTIndScalarEntry)symtab.get((String)parser.rhsValue(0));
+         //A constant comes back as its immediate value
+         NSTIndEntry i = symtab.get((String)parser.rhsValue(0));
          if (i==null)
          {
             reportError("","Identifier not recognized");
             return null; //Or something better?
          }
+         else if (i instanceof NSTIndProcEntry)
+         {
+            reportError("","Procedure identifier used as a value");
+            return null;
+         }
          else
             //No quad to generate, just want to pass up the nst 
             return i;
@@ -3196,6 +3809,7 @@ public class NanoSymtabCompiler extends CompilerModel
          
          //make an indexCalcQuad to calc the index offset
          //store the result in a tmpIndex symbol table entry
+         addIndexCheck(array, indexExpr, parser.token().line);
          if (indexExpr.isImmediate())
          {
             NSTIndImmediateEntry immIndex = (NSTIndImmediateEntry) indexExpr;
@@ -3211,7 +3825,7 @@ public class NanoSymtabCompiler extends CompilerModel
                            array.getAddress(), calculatedIndex.getAddress());
          }
          
-         quadGen.addQuad(indexCalcQuad);
+         quadGen.addQuad(indexCalcQuad, parser.token().line);
          //make a new symbol table entry for the array location with the offset
          
          return symtab.new NSTIndScalarEntry(array.getName(), array.getActualType(), false, indexCalcQuad.getResultAddress());
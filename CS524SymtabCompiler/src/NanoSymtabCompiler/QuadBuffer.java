@@ -0,0 +1,479 @@
+package NanoSymtabCompiler;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import NanoSymtabCompiler.NQG.*;
+public class QuadBuffer //Struct-of-arrays quad store
+{
+	//A compact alternative to keeping one NQG quad object per quad. Each quad is
+	//one row across five parallel int columns:
+	//
+	//	type	the NQG type constant (NQG.MUL ... NQG.JMPGTEQ)
+	//	mode	operand mode bits, below
+	//	a		first operand: immediate value, address, or string pool index
+	//	b		second operand: immediate value or address
+	//	result	result address, or target quad index for jumps
+	//
+	//plus a sixth column, the source line each quad was made for (-1 if not
+	//known), which rows keep through insertion and retain() for the profiler.
+	//
+	//PRINT/READ format strings are kept once in a small pool so no column holds
+	//object references. Columns double in size as they fill, so appending is
+	//amortized constant time.
+
+	public static final int A_IMMEDIATE = 1;	//a is a value, not an address
+	public static final int B_IMMEDIATE = 2;	//b is a value, not an address
+	public static final int INDIRECT = 4;		//ASSIGN stores through the result (n@)
+	public static final int BOOLEAN = 8;		//immediate values are booleans (0/1), or
+												//a PARAM passes a boolean
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private int size;
+	private int[] types;
+	private int[] modes;
+	private int[] argsA;
+	private int[] argsB;
+	private int[] results;
+	private int[] lines;
+
+	private ArrayList stringPool;
+	private Hashtable stringIndex;
+
+	public QuadBuffer()
+	{ this(DEFAULT_CAPACITY); }
+
+	public QuadBuffer(int initialCapacity)
+	{
+		if (initialCapacity < 1) initialCapacity = 1;
+		size = 0;
+		types = new int[initialCapacity];
+		modes = new int[initialCapacity];
+		argsA = new int[initialCapacity];
+		argsB = new int[initialCapacity];
+		results = new int[initialCapacity];
+		lines = new int[initialCapacity];
+		stringPool = new ArrayList();
+		stringIndex = new Hashtable();
+	}
+
+	//Builds a buffer from the first count quads of a list of NQG quad objects
+	public static QuadBuffer fromQuads(ArrayList quads, int count)
+	{
+		QuadBuffer buffer = new QuadBuffer(count);
+		for (int i = 0; i < count; i++) buffer.add(i, (Quad) quads.get(i));
+		return buffer;
+	}
+
+	public int size() { return size; }
+
+	//Raw column access for passes that scan the whole program
+	public int getType(int i) { return types[i]; }
+	public int getMode(int i) { return modes[i]; }
+	public int getA(int i) { return argsA[i]; }
+	public int getB(int i) { return argsB[i]; }
+	public void setA(int i, int a) { argsA[i] = a; }
+	public void setB(int i, int b) { argsB[i] = b; }
+	public int getResult(int i) { return results[i]; }
+	public void setResult(int i, int result) { results[i] = result; }
+	public int getSourceLine(int i) { return lines[i]; }
+	public void setSourceLine(int i, int line) { lines[i] = line; }
+	public void set(int i, int type, int mode, int a, int b)
+	{ types[i] = type; modes[i] = mode; argsA[i] = a; argsB[i] = b; }
+	public boolean isImmediateA(int i) { return (modes[i] & A_IMMEDIATE) != 0; }
+	public boolean isImmediateB(int i) { return (modes[i] & B_IMMEDIATE) != 0; }
+	public boolean isIndirect(int i) { return (modes[i] & INDIRECT) != 0; }
+	public boolean isBoolean(int i) { return (modes[i] & BOOLEAN) != 0; }
+
+	//Jumps (and START and CALL) keep their target where other quads keep their result
+	public boolean isJump(int i)
+	{
+		int type = types[i];
+		return type==NQG.DOJMP || type==NQG.IFTRU || type==NQG.IFFAL || type==NQG.START
+				|| type==NQG.CALL || NQG.isCompareJump(type);
+	}
+
+	//Which memory cells a row touches, for passes that track addresses. Operand a
+	//is read unless it is immediate (a PRINT/READ a is a format string, an OFFSET
+	//a is the array base it adds to, a jump's a is only read for IFTRUE/IFFALSE
+	//and the compare jumps, and a CALL's a and b are its frame); b is read by
+	//binary operators, the compare jumps and OFFSET (a CHECK b is the array size and
+	//always immediate). PRINT and an indirect ASSIGN read their result cell, READ reads it
+	//to follow a reference and writes it, and the rest of the value producing
+	//quads write it. The formal a PARAM names is only written by the CALL after it.
+	public boolean readsA(int i)
+	{
+		int type = types[i];
+		if (type==NQG.DOJMP || type==NQG.START || type==NQG.END || type==NQG.PRNT || type==NQG.READ
+			|| type==NQG.OFFSET || type==NQG.RETURN)
+			return false;
+		return !isImmediateA(i);
+	}
+
+	public boolean readsB(int i)
+	{
+		int type = types[i];
+		boolean binary = (type>=NQG.MUL && type<=NQG.OR) || (type>=NQG.RLEQ && type<=NQG.RLGTEQ)
+							|| type==NQG.OFFSET || NQG.isCompareJump(type);
+		return binary && !isImmediateB(i);
+	}
+
+	public boolean readsResult(int i)
+	{
+		int type = types[i];
+		if (type==NQG.PRNT) return results[i] >= 0;
+		return type==NQG.READ || (type==NQG.ASGN && isIndirect(i));
+	}
+
+	public boolean writesResult(int i)
+	{
+		int type = types[i];
+		if (type==NQG.ASGN) return !isIndirect(i);
+		return (type>=NQG.MUL && type<=NQG.NOT) || (type>=NQG.RLEQ && type<=NQG.RLGTEQ)
+				|| type==NQG.OFFSET || type==NQG.READ;
+	}
+
+	//PRINT/READ format string (a literal PRINT keeps its quotes)
+	public String getFormatString(int i)
+	{
+		if (types[i]!=NQG.PRNT && types[i]!=NQG.READ) return null;
+		return (String) stringPool.get(argsA[i]);
+	}
+
+	//Appends or inserts a row; mirrors ArrayList.add(index, element) as used by NQG
+	public void add(int index, int type, int mode, int a, int b, int result)
+	{
+		if (size == types.length) grow();
+		if (index < size)
+		{
+			int moved = size - index;
+			System.arraycopy(types, index, types, index + 1, moved);
+			System.arraycopy(modes, index, modes, index + 1, moved);
+			System.arraycopy(argsA, index, argsA, index + 1, moved);
+			System.arraycopy(argsB, index, argsB, index + 1, moved);
+			System.arraycopy(results, index, results, index + 1, moved);
+			System.arraycopy(lines, index, lines, index + 1, moved);
+		}
+		types[index] = type;
+		modes[index] = mode;
+		argsA[index] = a;
+		argsB[index] = b;
+		results[index] = result;
+		lines[index] = -1;
+		size++;
+	}
+
+	//Drops every row i with keep[i] false, closing the gaps in order. Jump
+	//targets are left alone: renumbering them is up to the caller.
+	public void retain(boolean[] keep)
+	{
+		int n = 0;
+		for (int i = 0; i < size; i++)
+		{
+			if (!keep[i]) continue;
+			if (n != i)
+			{
+				types[n] = types[i];
+				modes[n] = modes[i];
+				argsA[n] = argsA[i];
+				argsB[n] = argsB[i];
+				results[n] = results[i];
+				lines[n] = lines[i];
+			}
+			n++;
+		}
+		size = n;
+	}
+
+	//Encodes an NQG quad object into a row; the object can be dropped afterwards
+	public void add(int index, Quad q)
+	{
+		int mode = 0, a = 0, b = 0, r = 0;
+		if (q instanceof MemModQuad) r = ((MemModQuad) q).getResultAddress();
+		if (q instanceof InstrModQuad) r = ((InstrModQuad) q).getTargetQuadIndex();
+
+		if (q instanceof MulBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((MulBothImmediate) q).getActualValueA(); b = ((MulBothImmediate) q).getActualValueB(); }
+		else if (q instanceof MulLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((MulLeftImmediate) q).getActualValueA(); b = ((MulLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof MulRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((MulRightImmediate) q).getActualAddressA(); b = ((MulRightImmediate) q).getActualValueB(); }
+		else if (q instanceof MulRegular)
+		{ a = ((MulRegular) q).getActualAddressA(); b = ((MulRegular) q).getActualAddressB(); }
+
+		else if (q instanceof DivBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((DivBothImmediate) q).getActualValueA(); b = ((DivBothImmediate) q).getActualValueB(); }
+		else if (q instanceof DivLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((DivLeftImmediate) q).getActualValueA(); b = ((DivLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof DivRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((DivRightImmediate) q).getActualAddressA(); b = ((DivRightImmediate) q).getActualValueB(); }
+		else if (q instanceof DivRegular)
+		{ a = ((DivRegular) q).getActualAddressA(); b = ((DivRegular) q).getActualAddressB(); }
+
+		else if (q instanceof AndBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE|BOOLEAN; a = bit(((AndBothImmediate) q).getActualValueA()); b = bit(((AndBothImmediate) q).getActualValueB()); }
+		else if (q instanceof AndLeftImmediate)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((AndLeftImmediate) q).getActualValueA()); b = ((AndLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof AndRightImmediate)
+		{ mode = B_IMMEDIATE|BOOLEAN; a = ((AndRightImmediate) q).getActualAddressA(); b = bit(((AndRightImmediate) q).getActualValueB()); }
+		else if (q instanceof AndRegular)
+		{ mode = BOOLEAN; a = ((AndRegular) q).getActualAddressA(); b = ((AndRegular) q).getActualAddressB(); }
+
+		else if (q instanceof AddBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((AddBothImmediate) q).getActualValueA(); b = ((AddBothImmediate) q).getActualValueB(); }
+		else if (q instanceof AddLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((AddLeftImmediate) q).getActualValueA(); b = ((AddLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof AddRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((AddRightImmediate) q).getActualAddressA(); b = ((AddRightImmediate) q).getActualValueB(); }
+		else if (q instanceof AddRegular)
+		{ a = ((AddRegular) q).getActualAddressA(); b = ((AddRegular) q).getActualAddressB(); }
+
+		else if (q instanceof SubBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((SubBothImmediate) q).getActualValueA(); b = ((SubBothImmediate) q).getActualValueB(); }
+		else if (q instanceof SubLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((SubLeftImmediate) q).getActualValueA(); b = ((SubLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof SubRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((SubRightImmediate) q).getActualAddressA(); b = ((SubRightImmediate) q).getActualValueB(); }
+		else if (q instanceof SubRegular)
+		{ a = ((SubRegular) q).getActualAddressA(); b = ((SubRegular) q).getActualAddressB(); }
+
+		else if (q instanceof OrBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE|BOOLEAN; a = bit(((OrBothImmediate) q).getActualValueA()); b = bit(((OrBothImmediate) q).getActualValueB()); }
+		else if (q instanceof OrLeftImmediate)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((OrLeftImmediate) q).getActualValueA()); b = ((OrLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof OrRightImmediate)
+		{ mode = B_IMMEDIATE|BOOLEAN; a = ((OrRightImmediate) q).getActualAddressA(); b = bit(((OrRightImmediate) q).getActualValueB()); }
+		else if (q instanceof OrRegular)
+		{ mode = BOOLEAN; a = ((OrRegular) q).getActualAddressA(); b = ((OrRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopEqualsBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopEqualsBothImmediate) q).getActualValueA(); b = ((RelopEqualsBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopEqualsLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopEqualsLeftImmediate) q).getActualValueA(); b = ((RelopEqualsLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopEqualsRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopEqualsRightImmediate) q).getActualAddressA(); b = ((RelopEqualsRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopEqualsRegular)
+		{ a = ((RelopEqualsRegular) q).getActualAddressA(); b = ((RelopEqualsRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopNotEqualsBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopNotEqualsBothImmediate) q).getActualValueA(); b = ((RelopNotEqualsBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopNotEqualsLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopNotEqualsLeftImmediate) q).getActualValueA(); b = ((RelopNotEqualsLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopNotEqualsRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopNotEqualsRightImmediate) q).getActualAddressA(); b = ((RelopNotEqualsRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopNotEqualsRegular)
+		{ a = ((RelopNotEqualsRegular) q).getActualAddressA(); b = ((RelopNotEqualsRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopLessThanBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopLessThanBothImmediate) q).getActualValueA(); b = ((RelopLessThanBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopLessThanLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopLessThanLeftImmediate) q).getActualValueA(); b = ((RelopLessThanLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopLessThanRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopLessThanRightImmediate) q).getActualAddressA(); b = ((RelopLessThanRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopLessThanRegular)
+		{ a = ((RelopLessThanRegular) q).getActualAddressA(); b = ((RelopLessThanRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopLessThanEqualsBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopLessThanEqualsBothImmediate) q).getActualValueA(); b = ((RelopLessThanEqualsBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopLessThanEqualsLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopLessThanEqualsLeftImmediate) q).getActualValueA(); b = ((RelopLessThanEqualsLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopLessThanEqualsRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopLessThanEqualsRightImmediate) q).getActualAddressA(); b = ((RelopLessThanEqualsRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopLessThanEqualsRegular)
+		{ a = ((RelopLessThanEqualsRegular) q).getActualAddressA(); b = ((RelopLessThanEqualsRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopGreaterThanBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopGreaterThanBothImmediate) q).getActualValueA(); b = ((RelopGreaterThanBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopGreaterThanLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopGreaterThanLeftImmediate) q).getActualValueA(); b = ((RelopGreaterThanLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopGreaterThanRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopGreaterThanRightImmediate) q).getActualAddressA(); b = ((RelopGreaterThanRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopGreaterThanRegular)
+		{ a = ((RelopGreaterThanRegular) q).getActualAddressA(); b = ((RelopGreaterThanRegular) q).getActualAddressB(); }
+
+		else if (q instanceof RelopGreaterThanEqualsBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((RelopGreaterThanEqualsBothImmediate) q).getActualValueA(); b = ((RelopGreaterThanEqualsBothImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopGreaterThanEqualsLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((RelopGreaterThanEqualsLeftImmediate) q).getActualValueA(); b = ((RelopGreaterThanEqualsLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof RelopGreaterThanEqualsRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((RelopGreaterThanEqualsRightImmediate) q).getActualAddressA(); b = ((RelopGreaterThanEqualsRightImmediate) q).getActualValueB(); }
+		else if (q instanceof RelopGreaterThanEqualsRegular)
+		{ a = ((RelopGreaterThanEqualsRegular) q).getActualAddressA(); b = ((RelopGreaterThanEqualsRegular) q).getActualAddressB(); }
+
+		else if (q instanceof NegImmediate)
+		{ mode = A_IMMEDIATE; a = ((NegImmediate) q).getActualValue(); }
+		else if (q instanceof NegRegular)
+		{ a = ((NegRegular) q).getActualAddress(); }
+		else if (q instanceof NotImmediate)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((NotImmediate) q).getActualValue()); }
+		else if (q instanceof NotRegular)
+		{ mode = BOOLEAN; a = ((NotRegular) q).getActualAddress(); }
+
+		else if (q instanceof OffsetImmediate)
+		{ mode = B_IMMEDIATE; a = ((OffsetImmediate) q).getBaseAddressToEvaluate();
+		  b = ((OffsetImmediate) q).getImmediateAddressToEvaluateAndUseAsOffset(); }
+		else if (q instanceof OffsetRegular)
+		{ a = ((OffsetRegular) q).getBaseAddressToEvaluate();
+		  b = ((OffsetRegular) q).getAddressToEvaluateAndUseAsOffset(); }
+
+		else if (q instanceof CheckIndexImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((CheckIndexImmediate) q).getActualValue();
+		  b = ((CheckIndexImmediate) q).getArraySize(); }
+		else if (q instanceof CheckIndexRegular)
+		{ mode = B_IMMEDIATE; a = ((CheckIndexRegular) q).getActualAddress();
+		  b = ((CheckIndexRegular) q).getArraySize(); }
+
+		else if (q instanceof AssignImmediateInteger)
+		{ mode = A_IMMEDIATE; a = ((AssignImmediateInteger) q).getIntValue(); }
+		else if (q instanceof AssignIndirectImmediateInteger)
+		{ mode = A_IMMEDIATE|INDIRECT; a = ((AssignIndirectImmediateInteger) q).getIntValue(); }
+		else if (q instanceof AssignImmediateBoolean)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((AssignImmediateBoolean) q).getBoolValue()); }
+		else if (q instanceof AssignIndirectImmediateBoolean)
+		{ mode = A_IMMEDIATE|BOOLEAN|INDIRECT; a = bit(((AssignIndirectImmediateBoolean) q).getBoolValue()); }
+		else if (q instanceof AssignRegular)
+		{ a = ((AssignRegular) q).getAddress(); }
+		else if (q instanceof AssignIndirectRegular)
+		{ mode = INDIRECT; a = ((AssignIndirectRegular) q).getAddress(); }
+
+		else if (q instanceof IfTrueImmediate)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((IfTrueImmediate) q).getValue()); }
+		else if (q instanceof IfTrueRegular)
+		{ mode = BOOLEAN; a = ((IfTrueRegular) q).getAddress(); }
+		else if (q instanceof IfFalseImmediate)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((IfFalseImmediate) q).getValue()); }
+		else if (q instanceof IfFalseRegular)
+		{ mode = BOOLEAN; a = ((IfFalseRegular) q).getAddress(); }
+
+		else if (q instanceof CompareJumpBothImmediate)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((CompareJumpBothImmediate) q).getActualValueA(); b = ((CompareJumpBothImmediate) q).getActualValueB(); }
+		else if (q instanceof CompareJumpLeftImmediate)
+		{ mode = A_IMMEDIATE; a = ((CompareJumpLeftImmediate) q).getActualValueA(); b = ((CompareJumpLeftImmediate) q).getActualAddressB(); }
+		else if (q instanceof CompareJumpRightImmediate)
+		{ mode = B_IMMEDIATE; a = ((CompareJumpRightImmediate) q).getActualAddressA(); b = ((CompareJumpRightImmediate) q).getActualValueB(); }
+		else if (q instanceof CompareJumpRegular)
+		{ a = ((CompareJumpRegular) q).getActualAddressA(); b = ((CompareJumpRegular) q).getActualAddressB(); }
+
+		else if (q instanceof ParamImmediateInteger)
+		{ mode = A_IMMEDIATE; a = ((ParamImmediateInteger) q).getIntValue(); }
+		else if (q instanceof ParamImmediateBoolean)
+		{ mode = A_IMMEDIATE|BOOLEAN; a = bit(((ParamImmediateBoolean) q).getBoolValue()); }
+		else if (q instanceof ParamRegular)
+		{ mode = ((ParamRegular) q).isBoolean() ? BOOLEAN : 0; a = ((ParamRegular) q).getAddress(); }
+		else if (q instanceof Call)
+		{ mode = A_IMMEDIATE|B_IMMEDIATE; a = ((Call) q).getFrameBase(); b = ((Call) q).getFrameSize(); }
+
+		else if (q instanceof Print)
+		{ a = intern(((Print) q).getFormatString()); }
+		else if (q instanceof Read)
+		{ a = intern(((Read) q).getFormatString()); }
+
+		//UnconditionalJump, Start, End and Return carry nothing beyond type and target
+
+		add(index, q.getQuadType(), mode, a, b, r);
+		lines[index] = q.getSourceLine();
+	}
+
+	//Same layout as the toString() of the corresponding NQG quad class
+	public String toString(int i)
+	{
+		int type = types[i];
+		String s = "< I-" + i + "\t| " + NQG.quadTypeNameMap(type) + "\t|";
+		if (type == NQG.END || type == NQG.RETURN) return s + " >";
+		if (isJump(i))
+		{
+			s += "\tI-" + results[i];
+			if (type == NQG.CALL)
+				return s + "\t|\t#" + argsA[i] + "\t|\t#" + argsB[i] + "\t>";
+			if (type == NQG.IFTRU || type == NQG.IFFAL)
+				return s + "\t|\t-\t|\t" + operandA(i) + "\t>";
+			if (NQG.isCompareJump(type))
+				return s + "\t|\t" + operandA(i) + "\t|\t" + operandB(i) + "\t>";
+			return s + "\t|\t-\t|\t-\t>";
+		}
+		if (type == NQG.CHECK)
+			return s + "\t-\t|\t" + operandA(i) + "\t|\t" + operandB(i) + "\t>";
+		s += "\t" + results[i];
+		switch (type)
+		{
+		case NQG.NEG:
+			return s + "\t|\t-\t|\t" + operandA(i) + "\t>";
+		case NQG.NOT:
+			if (isImmediateA(i)) return s + "\t|\t-\t" + operandA(i) + "\t>";
+			return s + "\t|\t-\t|\t" + operandA(i) + "\t>";
+		case NQG.OFFSET:
+			return s + "\t|\t#" + argsA[i] + "\t|\t" + operandB(i) + "\t>";
+		case NQG.ASGN:
+			return s + (isIndirect(i) ? "@" : "") + "\t|\t-\t|\t" + operandA(i) + "\t>";
+		case NQG.PARAM:
+			return s + "\t|\t-\t|\t" + operandA(i) + "\t>";
+		case NQG.PRNT:
+		case NQG.READ:
+			return s + "\t|\t-\t|\t" + stringPool.get(argsA[i]) + "\t>";
+		default:
+			return s + "\t|\t" + operandA(i) + "\t|\t" + operandB(i) + "\t>";
+		}
+	}
+
+	public QuadView view(int i) { return new QuadView(i); }
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	//Read (and backpatch) access to one row with the familiar quad getters,
+	//for callers that were written against the NQG quad objects
+	public final class QuadView
+	{
+		private int index;
+		public QuadView(int index) { this.index = index; }
+		public int getQuadId() { return index; }
+		public int getQuadType() { return types[index]; }
+		public String getQuadTypeName() { return NQG.quadTypeNameMap(types[index]); }
+		public int getResultAddress() { return isJump(index) ? -1 : results[index]; }
+		public int getTargetQuadIndex() { return isJump(index) ? results[index] : -1; }
+		public void setTargetQuadIndex(int target) { results[index] = target; }
+		public String getFormatString() { return QuadBuffer.this.getFormatString(index); }
+		public String toString() { return QuadBuffer.this.toString(index); }
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private String operandA(int i)
+	{ return isImmediateA(i) ? "#" + immediate(i, argsA[i]) : String.valueOf(argsA[i]); }
+
+	private String operandB(int i)
+	{ return isImmediateB(i) ? "#" + immediate(i, argsB[i]) : String.valueOf(argsB[i]); }
+
+	private String immediate(int i, int value)
+	{ return isBoolean(i) ? String.valueOf(value != 0) : String.valueOf(value); }
+
+	private int intern(String s)
+	{
+		Integer index = (Integer) stringIndex.get(s);
+		if (index == null)
+		{
+			index = new Integer(stringPool.size());
+			stringPool.add(s);
+			stringIndex.put(s, index);
+		}
+		return index.intValue();
+	}
+
+	private static int bit(boolean value) { return value ? 1 : 0; }
+
+	private void grow()
+	{
+		int capacity = types.length * 2;
+		types = copyOf(types, capacity);
+		modes = copyOf(modes, capacity);
+		argsA = copyOf(argsA, capacity);
+		argsB = copyOf(argsB, capacity);
+		results = copyOf(results, capacity);
+		lines = copyOf(lines, capacity);
+	}
+
+	private static int[] copyOf(int[] column, int capacity)
+	{
+		int[] copy = new int[capacity];
+		System.arraycopy(column, 0, copy, 0, column.length);
+		return copy;
+	}
+}
@@ -0,0 +1,515 @@
+package NanoSymtabCompiler;
+public class QuadFlowGraph //Basic blocks and control flow over a QuadBuffer
+{
+	//Splits a quad program into basic blocks and links them into a control flow
+	//graph, then finds the dominator tree and the natural loops (for example the
+	//one every for statement makes). A block starts at quad 0, at every jump
+	//target, and after every jump (START and CALL included), END or RETURN. A
+	//CALL has an edge to the procedure and one to the quad after it, where the
+	//RETURN comes back to; the RETURN itself has no successor.
+	//
+	//Everything is held in int arrays. Edge lists use the compressed layout
+	//where the successors of block b are succ[succStart[b]] up to but not
+	//including succ[succStart[b+1]], and likewise for predecessors, loop bodies
+	//and dominator tree children. No pass recurses, so building the graph is
+	//linear in the number of quads and edges however long the program is;
+	//only the loop bodies cost more, in proportion to how deeply loops nest.
+	//
+	//Live variables are only worked out when a pass asks for them, for the
+	//addresses it names (computeLiveness), one bit per address and block. What
+	//is live after a RETURN is what is live at the quad after any CALL, since
+	//that is where it may come back to.
+
+	private QuadBuffer buffer;
+	private int quadCount;
+
+	//Blocks
+	private int blockCount;
+	private int[] blockStart;	//first quad of each block, plus quadCount at the end
+	private int[] blockOf;		//block of each quad
+
+	//Edges
+	private int[] succStart;
+	private int[] succ;
+	private int[] predStart;
+	private int[] pred;
+
+	//Dominators: idom is -1 for the entry block and for blocks never reached
+	private int[] reversePostorder;	//reachable blocks only
+	private int reachableCount;
+	private int[] idom;
+	private int[] domPre;		//dominator tree numbering, so dominates() is O(1)
+	private int[] domPost;
+
+	//Natural loops, one per header (back edges to the same header are merged)
+	private int loopCount;
+	private int[] loopHeader;
+	private int[] loopBlockStart;
+	private int[] loopBlocks;
+	private int[] loopDepth;	//of each block
+
+	//Live variables: liveBit is the bit of each tracked address, or -1
+	private int[] liveBit;
+	private int liveWords;
+	private long[] liveIn;
+	private long[] liveOut;
+
+	public QuadFlowGraph(QuadBuffer buffer)
+	{
+		this.buffer = buffer;
+		quadCount = buffer.size();
+		findBlocks();
+		linkBlocks();
+		findDominators();
+		findLoops();
+	}
+
+	public QuadBuffer getQuadBuffer() { return buffer; }
+	public int getBlockCount() { return blockCount; }
+	public int getBlockStart(int b) { return blockStart[b]; }
+	public int getBlockEnd(int b) { return blockStart[b + 1]; }	//exclusive
+	public int getLastQuad(int b) { return blockStart[b + 1] - 1; }
+	public int getBlockOf(int quad) { return blockOf[quad]; }
+
+	public int getSuccessorCount(int b) { return succStart[b + 1] - succStart[b]; }
+	public int getSuccessor(int b, int n) { return succ[succStart[b] + n]; }
+	public int getPredecessorCount(int b) { return predStart[b + 1] - predStart[b]; }
+	public int getPredecessor(int b, int n) { return pred[predStart[b] + n]; }
+
+	public boolean isReachable(int b) { return b == 0 || idom[b] != -1; }
+	public int getImmediateDominator(int b) { return idom[b]; }
+	public int getReachableCount() { return reachableCount; }
+	public int getReversePostorder(int n) { return reversePostorder[n]; }
+
+	//Whether every path from the entry to b passes through a
+	public boolean dominates(int a, int b)
+	{
+		if (!isReachable(a) || !isReachable(b)) return false;
+		return domPre[a] <= domPre[b] && domPost[b] <= domPost[a];
+	}
+
+	public int getLoopCount() { return loopCount; }
+	public int getLoopHeader(int loop) { return loopHeader[loop]; }
+	public int getLoopSize(int loop) { return loopBlockStart[loop + 1] - loopBlockStart[loop]; }
+	public int getLoopBlock(int loop, int n) { return loopBlocks[loopBlockStart[loop] + n]; }
+	public int getLoopDepth(int b) { return loopDepth[b]; }
+
+	public boolean isInLoop(int loop, int b)
+	{
+		for (int i = loopBlockStart[loop]; i < loopBlockStart[loop + 1]; i++)
+			if (loopBlocks[i] == b) return true;
+		return false;
+	}
+
+	/*
+	 * Backward live variable analysis of every address with tracked[address]
+	 * set, iterated to a fixed point from the last block up. Addresses left out
+	 * count as live everywhere.
+	 */
+	public void computeLiveness(boolean[] tracked)
+	{
+		liveBit = new int[tracked.length];
+		int bits = 0;
+		for (int address = 0; address < tracked.length; address++)
+			liveBit[address] = tracked[address] ? bits++ : -1;
+		liveWords = (bits + 63) / 64;
+		long[] use = new long[blockCount * liveWords];
+		long[] def = new long[blockCount * liveWords];
+		liveIn = new long[blockCount * liveWords];
+		liveOut = new long[blockCount * liveWords];
+		if (bits == 0) return;
+
+		int[] returnSites = new int[4];
+		int returnSiteCount = 0;
+		for (int b = 0; b < blockCount; b++)
+		{
+			int base = b * liveWords;
+			int last = blockStart[b + 1] - 1;
+			if (buffer.getType(last) == NQG.CALL && b + 1 < blockCount)
+				returnSites = append(returnSites, returnSiteCount++, b + 1);
+			for (int i = blockStart[b]; i <= last; i++)
+			{
+				if (buffer.readsA(i)) useBit(use, def, base, buffer.getA(i));
+				if (buffer.readsB(i)) useBit(use, def, base, buffer.getB(i));
+				if (buffer.readsResult(i)) useBit(use, def, base, buffer.getResult(i));
+				if (buffer.writesResult(i))
+				{
+					int bit = bitOf(buffer.getResult(i));
+					if (bit != -1) def[base + (bit >> 6)] |= 1L << (bit & 63);
+				}
+			}
+		}
+
+		long[] returnLive = new long[liveWords];
+		boolean changed = true;
+		while (changed)
+		{
+			changed = false;
+			for (int w = 0; w < liveWords; w++) returnLive[w] = 0;
+			for (int n = 0; n < returnSiteCount; n++)
+				for (int w = 0; w < liveWords; w++) returnLive[w] |= liveIn[returnSites[n] * liveWords + w];
+			for (int b = blockCount - 1; b >= 0; b--)
+			{
+				int base = b * liveWords;
+				boolean returns = buffer.getType(blockStart[b + 1] - 1) == NQG.RETURN;
+				for (int w = 0; w < liveWords; w++)
+				{
+					long out = returns ? returnLive[w] : 0;
+					for (int e = succStart[b]; e < succStart[b + 1]; e++)
+						out |= liveIn[succ[e] * liveWords + w];
+					long in = use[base + w] | (out & ~def[base + w]);
+					if (out != liveOut[base + w] || in != liveIn[base + w])
+					{
+						liveOut[base + w] = out;
+						liveIn[base + w] = in;
+						changed = true;
+					}
+				}
+			}
+		}
+	}
+
+	//Whether address may be read on some path from the start (or the end) of b
+	//before it is written
+	public boolean isLiveIn(int b, int address) { return isLive(liveIn, b, address); }
+	public boolean isLiveOut(int b, int address) { return isLive(liveOut, b, address); }
+
+	//Whether the value address holds after quad may still be read
+	public boolean isLiveAfter(int quad, int address)
+	{
+		int b = blockOf[quad];
+		for (int i = quad + 1; i < blockStart[b + 1]; i++)
+		{
+			if ((buffer.readsA(i) && buffer.getA(i) == address)
+				|| (buffer.readsB(i) && buffer.getB(i) == address)
+				|| (buffer.readsResult(i) && buffer.getResult(i) == address))
+				return true;
+			if (buffer.writesResult(i) && buffer.getResult(i) == address) return false;
+		}
+		return isLiveOut(b, address);
+	}
+
+	public void showGraph()
+	{
+		System.out.println("<<<<<<<<<<< Control Flow Graph >>>>>>>>>>>>");
+		for (int b = 0; b < blockCount; b++)
+		{
+			String s = "B" + b + "\tI-" + blockStart[b] + " .. I-" + getLastQuad(b) + "\t->";
+			for (int n = 0; n < getSuccessorCount(b); n++) s += " B" + getSuccessor(b, n);
+			s += "\tidom " + (idom[b] == -1 ? "-" : "B" + idom[b]);
+			if (!isReachable(b)) s += "\tunreachable";
+			if (loopDepth[b] > 0) s += "\tloop depth " + loopDepth[b];
+			System.out.println(s);
+		}
+		for (int loop = 0; loop < loopCount; loop++)
+		{
+			String s = "Loop " + loop + "\theader B" + loopHeader[loop] + "\tblocks";
+			for (int n = 0; n < getLoopSize(loop); n++) s += " B" + getLoopBlock(loop, n);
+			System.out.println(s);
+		}
+		System.out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private boolean endsBlock(int quad)
+	{
+		return buffer.isJump(quad) || buffer.getType(quad) == NQG.END || buffer.getType(quad) == NQG.RETURN;
+	}
+
+	//Jump target of quad, or -1 when it has none inside the program
+	private int targetOf(int quad)
+	{
+		if (!buffer.isJump(quad)) return -1;
+		int target = buffer.getResult(quad);
+		return (target >= 0 && target < quadCount) ? target : -1;
+	}
+
+	private void findBlocks()
+	{
+		boolean[] leader = new boolean[quadCount + 1];
+		if (quadCount > 0) leader[0] = true;
+		for (int i = 0; i < quadCount; i++)
+		{
+			int target = targetOf(i);
+			if (target != -1) leader[target] = true;
+			if (endsBlock(i)) leader[i + 1] = true;
+		}
+
+		blockCount = 0;
+		for (int i = 0; i < quadCount; i++) if (leader[i]) blockCount++;
+		blockStart = new int[blockCount + 1];
+		blockOf = new int[quadCount];
+		int b = -1;
+		for (int i = 0; i < quadCount; i++)
+		{
+			if (leader[i]) blockStart[++b] = i;
+			blockOf[i] = b;
+		}
+		blockStart[blockCount] = quadCount;
+	}
+
+	private void linkBlocks()
+	{
+		//At most two successors each: the jump target and the fall through
+		int[] first = new int[blockCount];
+		int[] second = new int[blockCount];
+		int edgeCount = 0;
+		for (int b = 0; b < blockCount; b++)
+		{
+			first[b] = second[b] = -1;
+			int last = getLastQuad(b);
+			int type = buffer.getType(last);
+			int target = targetOf(last);
+			if (target != -1) first[b] = blockOf[target];
+			boolean fallsThrough = type != NQG.DOJMP && type != NQG.START && type != NQG.END && type != NQG.RETURN;
+			if (fallsThrough && b + 1 < blockCount && blockOf[last + 1] != first[b])
+			{
+				if (first[b] == -1) first[b] = b + 1;
+				else second[b] = b + 1;
+			}
+			if (first[b] != -1) edgeCount++;
+			if (second[b] != -1) edgeCount++;
+		}
+
+		succStart = new int[blockCount + 1];
+		succ = new int[edgeCount];
+		predStart = new int[blockCount + 1];
+		pred = new int[edgeCount];
+		int n = 0;
+		for (int b = 0; b < blockCount; b++)
+		{
+			succStart[b] = n;
+			if (first[b] != -1) { succ[n++] = first[b]; predStart[first[b] + 1]++; }
+			if (second[b] != -1) { succ[n++] = second[b]; predStart[second[b] + 1]++; }
+		}
+		succStart[blockCount] = n;
+
+		//Counts to offsets, then fill
+		for (int b = 0; b < blockCount; b++) predStart[b + 1] += predStart[b];
+		int[] fill = new int[blockCount];
+		for (int b = 0; b < blockCount; b++)
+			for (int e = succStart[b]; e < succStart[b + 1]; e++)
+			{
+				int s = succ[e];
+				pred[predStart[s] + fill[s]++] = b;
+			}
+	}
+
+	//Iterative depth first search from the entry block giving the reverse postorder
+	private void numberBlocks()
+	{
+		reversePostorder = new int[blockCount];
+		reachableCount = 0;
+		if (blockCount == 0) return;
+		int[] stack = new int[blockCount];
+		int[] nextEdge = new int[blockCount];
+		boolean[] visited = new boolean[blockCount];
+		int[] postorder = new int[blockCount];
+		int top = 0;
+		stack[top++] = 0;
+		visited[0] = true;
+		nextEdge[0] = succStart[0];
+		while (top > 0)
+		{
+			int b = stack[top - 1];
+			if (nextEdge[b] < succStart[b + 1])
+			{
+				int s = succ[nextEdge[b]++];
+				if (!visited[s])
+				{
+					visited[s] = true;
+					nextEdge[s] = succStart[s];
+					stack[top++] = s;
+				}
+			}
+			else
+			{
+				postorder[reachableCount++] = b;
+				top--;
+			}
+		}
+		for (int i = 0; i < reachableCount; i++)
+			reversePostorder[i] = postorder[reachableCount - 1 - i];
+	}
+
+	//Cooper, Harvey and Kennedy's iterative algorithm over the reverse postorder
+	private void findDominators()
+	{
+		numberBlocks();
+		idom = new int[blockCount];
+		int[] rpoNumber = new int[blockCount];
+		for (int b = 0; b < blockCount; b++) { idom[b] = -1; rpoNumber[b] = -1; }
+		for (int i = 0; i < reachableCount; i++) rpoNumber[reversePostorder[i]] = i;
+		if (blockCount == 0) { domPre = domPost = new int[0]; return; }
+
+		idom[0] = 0;
+		boolean changed = true;
+		while (changed)
+		{
+			changed = false;
+			for (int i = 1; i < reachableCount; i++)
+			{
+				int b = reversePostorder[i];
+				int newIdom = -1;
+				for (int e = predStart[b]; e < predStart[b + 1]; e++)
+				{
+					int p = pred[e];
+					if (idom[p] == -1) continue;
+					newIdom = (newIdom == -1) ? p : intersect(p, newIdom, rpoNumber);
+				}
+				if (newIdom != idom[b])
+				{
+					idom[b] = newIdom;
+					changed = true;
+				}
+			}
+		}
+		idom[0] = -1;
+		numberDominatorTree();
+	}
+
+	private int intersect(int a, int b, int[] rpoNumber)
+	{
+		while (a != b)
+		{
+			while (rpoNumber[a] > rpoNumber[b]) a = idom[a];
+			while (rpoNumber[b] > rpoNumber[a]) b = idom[b];
+		}
+		return a;
+	}
+
+	//Pre and post numbers of a walk over the dominator tree: a dominates b
+	//exactly when b is numbered inside a
+	private void numberDominatorTree()
+	{
+		int[] childStart = new int[blockCount + 1];
+		for (int b = 1; b < blockCount; b++) if (idom[b] != -1) childStart[idom[b] + 1]++;
+		for (int b = 0; b < blockCount; b++) childStart[b + 1] += childStart[b];
+		int[] children = new int[childStart[blockCount]];
+		int[] fill = new int[blockCount];
+		for (int b = 1; b < blockCount; b++)
+			if (idom[b] != -1) children[childStart[idom[b]] + fill[idom[b]]++] = b;
+
+		domPre = new int[blockCount];
+		domPost = new int[blockCount];
+		int[] stack = new int[blockCount];
+		int[] nextChild = new int[blockCount];
+		int top = 0, pre = 0, post = 0;
+		stack[top++] = 0;
+		domPre[0] = pre++;
+		nextChild[0] = childStart[0];
+		while (top > 0)
+		{
+			int b = stack[top - 1];
+			if (nextChild[b] < childStart[b + 1])
+			{
+				int c = children[nextChild[b]++];
+				domPre[c] = pre++;
+				nextChild[c] = childStart[c];
+				stack[top++] = c;
+			}
+			else
+			{
+				domPost[b] = post++;
+				top--;
+			}
+		}
+	}
+
+	//A back edge is an edge t -> h where h dominates t; the natural loop of h is
+	//h plus every block that reaches such a t without passing through h
+	private void findLoops()
+	{
+		loopDepth = new int[blockCount];
+		int[] headerLoop = new int[blockCount];
+		int headers = 0;
+		for (int b = 0; b < blockCount; b++)
+		{
+			headerLoop[b] = -1;
+			for (int e = predStart[b]; e < predStart[b + 1]; e++)
+				if (dominates(b, pred[e])) { headerLoop[b] = headers++; break; }
+		}
+
+		loopCount = headers;
+		loopHeader = new int[loopCount];
+		loopBlockStart = new int[loopCount + 1];
+		int[] blocks = new int[Math.max(blockCount, 1)];
+		int blockTotal = 0;
+		int[] mark = new int[blockCount];
+		for (int b = 0; b < blockCount; b++) mark[b] = -1;
+		int[] work = new int[blockCount];
+
+		for (int h = 0; h < blockCount; h++)
+		{
+			int loop = headerLoop[h];
+			if (loop == -1) continue;
+			loopHeader[loop] = h;
+			loopBlockStart[loop] = blockTotal;
+
+			int top = 0;
+			mark[h] = loop;
+			blocks = append(blocks, blockTotal++, h);
+			for (int e = predStart[h]; e < predStart[h + 1]; e++)
+			{
+				int t = pred[e];
+				if (dominates(h, t) && mark[t] != loop)
+				{
+					mark[t] = loop;
+					blocks = append(blocks, blockTotal++, t);
+					work[top++] = t;
+				}
+			}
+			while (top > 0)
+			{
+				int b = work[--top];
+				for (int e = predStart[b]; e < predStart[b + 1]; e++)
+				{
+					int p = pred[e];
+					if (mark[p] != loop && isReachable(p))
+					{
+						mark[p] = loop;
+						blocks = append(blocks, blockTotal++, p);
+						work[top++] = p;
+					}
+				}
+			}
+			for (int i = loopBlockStart[loop]; i < blockTotal; i++) loopDepth[blocks[i]]++;
+		}
+		loopBlockStart[loopCount] = blockTotal;
+		loopBlocks = blocks;
+	}
+
+	private int bitOf(int address)
+	{
+		return (address >= 0 && address < liveBit.length) ? liveBit[address] : -1;
+	}
+
+	//A read counts when the block has not written the address yet
+	private void useBit(long[] use, long[] def, int base, int address)
+	{
+		int bit = bitOf(address);
+		if (bit == -1) return;
+		long mask = 1L << (bit & 63);
+		if ((def[base + (bit >> 6)] & mask) == 0) use[base + (bit >> 6)] |= mask;
+	}
+
+	private boolean isLive(long[] bits, int b, int address)
+	{
+		int bit = bitOf(address);
+		if (bit == -1) return true;
+		return (bits[b * liveWords + (bit >> 6)] & (1L << (bit & 63))) != 0;
+	}
+
+	private static int[] append(int[] array, int index, int value)
+	{
+		if (index == array.length)
+		{
+			int[] copy = new int[array.length * 2];
+			System.arraycopy(array, 0, copy, 0, array.length);
+			array = copy;
+		}
+		array[index] = value;
+		return array;
+	}
+}
@@ -0,0 +1,368 @@
+package NanoSymtabCompiler;
+public class TempSlotAllocator //Linear scan reuse of temp addresses
+{
+	//The symbol table gives every intermediate result a fresh "$T<n>" address and
+	//only takes addresses back when a block ends, so a long block needs one cell
+	//of RunTime Memory per subexpression. This pass runs on the finished quad
+	//program instead: it works out where each temp is live and packs the temps
+	//into as few addresses as can hold the ones live at the same time.
+	//
+	//A temp is known by its address, and only addresses that never held anything
+	//but temps (NanoSymbolTable.isTempSlot) are moved. Most temps are written and
+	//read inside one basic block, and their live interval is just first to last
+	//mention. The few that cross blocks, such as the bound of a for loop, get a
+	//backward live variable analysis over the QuadFlowGraph, and their interval is
+	//stretched over every block they are live into or out of. Intervals are then
+	//handed the lowest free address in start order (linear scan), drawing on the
+	//temp addresses themselves, and the symbol table's memory size is lowered.
+	//
+	//The temps of procedure code stay where they are: a CALL saves and restores
+	//the frame of its procedure (see NRT.call), and only the addresses inside
+	//it come back as they were. A temp of the main program may be moved into a
+	//frame, as the CALL restores it. Each CALL's frame is cut back to the memory
+	//that is left.
+
+	private QuadBuffer buffer;
+	private NanoSymbolTable symtab;
+
+	//Statistics of the last allocate()
+	private int tempCount;
+	private int slotCount;
+	private int memoryBefore;
+	private int memoryAfter;
+
+	public TempSlotAllocator(QuadBuffer buffer, NanoSymbolTable symtab)
+	{
+		this.buffer = buffer;
+		this.symtab = symtab;
+	}
+
+	public int getTempCount() { return tempCount; }
+	public int getSlotCount() { return slotCount; }
+	public int getMemoryBefore() { return memoryBefore; }
+	public int getMemoryAfter() { return memoryAfter; }
+
+	/*
+	 * Rewrites the temp addresses in the program and returns the number of RunTime
+	 * Memory cells it now needs
+	 */
+	public int allocate()
+	{
+		int quadCount = buffer.size();
+		memoryBefore = memoryAfter = symtab.getMaxStackTopOffset();
+		tempCount = slotCount = 0;
+
+		//Number the movable temps by address; pool holds those addresses in order
+		boolean[] pinned = findProcedureTemps(memoryBefore);
+		int[] tempOf = new int[memoryBefore];
+		int[] pool = new int[memoryBefore];
+		int highestFixed = -1;
+		for (int address = 0; address < memoryBefore; address++)
+		{
+			tempOf[address] = -1;
+			if (symtab.isTempSlot(address) && !pinned[address])
+			{
+				pool[tempCount] = address;
+				tempOf[address] = tempCount++;
+			}
+			else if (symtab.isUsedSlot(address) || pinned[address]) highestFixed = address;
+		}
+		if (tempCount == 0 || quadCount == 0) return memoryAfter;
+
+		QuadFlowGraph graph = new QuadFlowGraph(buffer);
+		int[] start = new int[tempCount];
+		int[] end = new int[tempCount];
+		int[] homeBlock = new int[tempCount];
+		boolean[] global = new boolean[tempCount];
+		boolean[] defined = new boolean[tempCount];
+		for (int t = 0; t < tempCount; t++) { start[t] = -1; homeBlock[t] = -1; }
+
+		//First pass: intervals within blocks, and which temps cross blocks
+		int[] operands = new int[3];
+		for (int i = 0; i < quadCount; i++)
+		{
+			int b = graph.getBlockOf(i);
+			int uses = usedTemps(i, tempOf, operands);
+			for (int n = 0; n < uses; n++)
+			{
+				int t = operands[n];
+				mention(t, i, start, end);
+				if (homeBlock[t] == -1) homeBlock[t] = b;
+				if (homeBlock[t] != b || !defined[t]) global[t] = true;
+			}
+			int t = definedTemp(i, tempOf);
+			if (t != -1)
+			{
+				mention(t, i, start, end);
+				if (homeBlock[t] == -1) homeBlock[t] = b;
+				if (homeBlock[t] != b) global[t] = true;
+				defined[t] = true;
+			}
+		}
+
+		int globalCount = 0;
+		int[] globalOf = new int[tempCount];
+		for (int t = 0; t < tempCount; t++) globalOf[t] = global[t] ? globalCount++ : -1;
+		if (globalCount > 0) extendGlobalIntervals(graph, tempOf, globalOf, globalCount, start, end);
+
+		//Linear scan in order of interval start
+		int[] slotOf = scan(start, end, quadCount);
+		for (int t = 0; t < tempCount; t++)
+			if (start[t] != -1 && slotOf[t] + 1 > slotCount) slotCount = slotOf[t] + 1;
+
+		for (int i = 0; i < quadCount; i++)
+		{
+			if (buffer.readsA(i) && isTemp(buffer.getA(i), tempOf))
+				buffer.setA(i, pool[slotOf[tempOf[buffer.getA(i)]]]);
+			if (buffer.readsB(i) && isTemp(buffer.getB(i), tempOf))
+				buffer.setB(i, pool[slotOf[tempOf[buffer.getB(i)]]]);
+			if ((buffer.readsResult(i) || buffer.writesResult(i)) && isTemp(buffer.getResult(i), tempOf))
+				buffer.setResult(i, pool[slotOf[tempOf[buffer.getResult(i)]]]);
+		}
+
+		int highest = highestFixed;
+		if (slotCount > 0 && pool[slotCount - 1] > highest) highest = pool[slotCount - 1];
+		memoryAfter = highest + 1;
+		symtab.setMaxStackTopOffset(memoryAfter);
+		for (int i = 0; i < quadCount; i++)
+			if (buffer.getType(i) == NQG.CALL && buffer.getA(i) + buffer.getB(i) > memoryAfter)
+				buffer.setB(i, Math.max(0, memoryAfter - buffer.getA(i)));
+		return memoryAfter;
+	}
+
+	public void showStatistics()
+	{
+		System.out.println("<<<<<<<<<<< Temp Slot Statistics >>>>>>>>>>>>");
+		System.out.println("Temp addresses:   " + tempCount);
+		System.out.println("Slots after:      " + slotCount);
+		System.out.println("Memory before:    " + memoryBefore);
+		System.out.println("Memory after:     " + memoryAfter);
+		System.out.println();
+	}
+
+	//\\///\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//
+
+	private static boolean isTemp(int address, int[] tempOf)
+	{
+		return address >= 0 && address < tempOf.length && tempOf[address] != -1;
+	}
+
+	//The temp addresses mentioned in procedure code: every block reached from
+	//the target of a CALL, since a RETURN has no successor back into the caller
+	private boolean[] findProcedureTemps(int memorySize)
+	{
+		boolean[] pinned = new boolean[memorySize];
+		boolean calls = false;
+		for (int i = 0; i < buffer.size(); i++) if (buffer.getType(i) == NQG.CALL) calls = true;
+		if (!calls) return pinned;
+
+		QuadFlowGraph graph = new QuadFlowGraph(buffer);
+		boolean[] reached = new boolean[graph.getBlockCount()];
+		int[] work = new int[graph.getBlockCount()];
+		int workCount = 0;
+		for (int i = 0; i < buffer.size(); i++)
+		{
+			if (buffer.getType(i) != NQG.CALL) continue;
+			int entry = graph.getBlockOf(buffer.getResult(i));
+			if (!reached[entry]) { reached[entry] = true; work[workCount++] = entry; }
+		}
+		while (workCount > 0)
+		{
+			int b = work[--workCount];
+			for (int n = 0; n < graph.getSuccessorCount(b); n++)
+			{
+				int s = graph.getSuccessor(b, n);
+				if (!reached[s]) { reached[s] = true; work[workCount++] = s; }
+			}
+			for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++)
+			{
+				if (buffer.readsA(i)) pin(pinned, buffer.getA(i));
+				if (buffer.readsB(i)) pin(pinned, buffer.getB(i));
+				if (buffer.readsResult(i) || buffer.writesResult(i)) pin(pinned, buffer.getResult(i));
+			}
+		}
+		return pinned;
+	}
+
+	private static void pin(boolean[] pinned, int address)
+	{
+		if (address >= 0 && address < pinned.length) pinned[address] = true;
+	}
+
+	private static void mention(int t, int i, int[] start, int[] end)
+	{
+		if (start[t] == -1) start[t] = i;
+		end[t] = i;
+	}
+
+	//The temps quad i reads, into operands; returns how many
+	private int usedTemps(int i, int[] tempOf, int[] operands)
+	{
+		int n = 0;
+		if (buffer.readsA(i) && isTemp(buffer.getA(i), tempOf)) operands[n++] = tempOf[buffer.getA(i)];
+		if (buffer.readsB(i) && isTemp(buffer.getB(i), tempOf)) operands[n++] = tempOf[buffer.getB(i)];
+		if (buffer.readsResult(i) && isTemp(buffer.getResult(i), tempOf)) operands[n++] = tempOf[buffer.getResult(i)];
+		return n;
+	}
+
+	//The temp quad i writes, or -1
+	private int definedTemp(int i, int[] tempOf)
+	{
+		if (buffer.writesResult(i) && isTemp(buffer.getResult(i), tempOf)) return tempOf[buffer.getResult(i)];
+		return -1;
+	}
+
+	//Backward live variable analysis for the temps that cross blocks, one bit per
+	//temp and block, iterated to a fixed point from the last block up
+	private void extendGlobalIntervals(QuadFlowGraph graph, int[] tempOf, int[] globalOf,
+									   int globalCount, int[] start, int[] end)
+	{
+		int blockCount = graph.getBlockCount();
+		int words = (globalCount + 63) / 64;
+		long[] use = new long[blockCount * words];
+		long[] def = new long[blockCount * words];
+		long[] liveIn = new long[blockCount * words];
+		long[] liveOut = new long[blockCount * words];
+
+		int[] operands = new int[3];
+		for (int b = 0; b < blockCount; b++)
+		{
+			int base = b * words;
+			for (int i = graph.getBlockStart(b); i < graph.getBlockEnd(b); i++)
+			{
+				int uses = usedTemps(i, tempOf, operands);
+				for (int n = 0; n < uses; n++)
+				{
+					int g = globalOf[operands[n]];
+					if (g != -1 && !test(def, base, g)) set(use, base, g);
+				}
+				int t = definedTemp(i, tempOf);
+				if (t != -1 && globalOf[t] != -1) set(def, base, globalOf[t]);
+			}
+		}
+
+		boolean changed = true;
+		while (changed)
+		{
+			changed = false;
+			for (int b = blockCount - 1; b >= 0; b--)
+			{
+				int base = b * words;
+				for (int w = 0; w < words; w++)
+				{
+					long out = 0;
+					for (int n = 0; n < graph.getSuccessorCount(b); n++)
+						out |= liveIn[graph.getSuccessor(b, n) * words + w];
+					long in = use[base + w] | (out & ~def[base + w]);
+					if (out != liveOut[base + w] || in != liveIn[base + w])
+					{
+						liveOut[base + w] = out;
+						liveIn[base + w] = in;
+						changed = true;
+					}
+				}
+			}
+		}
+
+		int[] tempOfGlobal = new int[globalCount];
+		for (int t = 0; t < globalOf.length; t++) if (globalOf[t] != -1) tempOfGlobal[globalOf[t]] = t;
+		for (int b = 0; b < blockCount; b++)
+		{
+			int base = b * words;
+			for (int g = 0; g < globalCount; g++)
+			{
+				int t = tempOfGlobal[g];
+				if (test(liveIn, base, g)) stretch(t, graph.getBlockStart(b), start, end);
+				if (test(liveOut, base, g)) stretch(t, graph.getLastQuad(b), start, end);
+			}
+		}
+	}
+
+	private static void stretch(int t, int i, int[] start, int[] end)
+	{
+		if (start[t] == -1 || i < start[t]) start[t] = i;
+		if (i > end[t]) end[t] = i;
+	}
+
+	private static boolean test(long[] bits, int base, int n)
+	{ return (bits[base + (n >> 6)] & (1L << (n & 63))) != 0; }
+
+	private static void set(long[] bits, int base, int n)
+	{ bits[base + (n >> 6)] |= 1L << (n & 63); }
+
+	//Gives each temp with an interval the lowest slot not held by an interval
+	//still live; a slot is free again once the interval holding it has ended
+	//before the next one starts. Temps never mentioned get no slot.
+	private int[] scan(int[] start, int[] end, int quadCount)
+	{
+		int n = start.length;
+		int[] slotOf = new int[n];
+
+		//Counting sort of the temps by interval start
+		int[] bucket = new int[quadCount + 1];
+		for (int t = 0; t < n; t++) if (start[t] != -1) bucket[start[t] + 1]++;
+		for (int i = 0; i < quadCount; i++) bucket[i + 1] += bucket[i];
+		int[] order = new int[bucket[quadCount]];
+		for (int t = 0; t < n; t++) if (start[t] != -1) order[bucket[start[t]]++] = t;
+
+		int[] active = new int[n];		//min heap of temps by interval end
+		int activeCount = 0;
+		int[] free = new int[n];		//min heap of released slots
+		int freeCount = 0;
+		int nextSlot = 0;
+		for (int k = 0; k < order.length; k++)
+		{
+			int t = order[k];
+			while (activeCount > 0 && end[active[0]] < start[t])
+			{
+				int done = active[0];
+				activeCount = pop(active, activeCount, end);
+				freeCount = push(free, freeCount, slotOf[done], null);
+			}
+			if (freeCount > 0)
+			{
+				slotOf[t] = free[0];
+				freeCount = pop(free, freeCount, null);
+			}
+			else slotOf[t] = nextSlot++;
+			activeCount = push(active, activeCount, t, end);
+		}
+		return slotOf;
+	}
+
+	//Binary heap of ints ordered by key[value], or by value when key is null
+	private static int push(int[] heap, int count, int value, int[] key)
+	{
+		int i = count++;
+		heap[i] = value;
+		while (i > 0)
+		{
+			int parent = (i - 1) / 2;
+			if (weight(heap[parent], key) <= weight(heap[i], key)) break;
+			int swap = heap[parent]; heap[parent] = heap[i]; heap[i] = swap;
+			i = parent;
+		}
+		return count;
+	}
+
+	private static int pop(int[] heap, int count, int[] key)
+	{
+		heap[0] = heap[--count];
+		int i = 0;
+		while (true)
+		{
+			int smallest = i, left = 2 * i + 1, right = left + 1;
+			if (left < count && weight(heap[left], key) < weight(heap[smallest], key)) smallest = left;
+			if (right < count && weight(heap[right], key) < weight(heap[smallest], key)) smallest = right;
+			if (smallest == i) break;
+			int swap = heap[smallest]; heap[smallest] = heap[i]; heap[i] = swap;
+			i = smallest;
+		}
+		return count;
+	}
+
+	private static int weight(int value, int[] key)
+	{
+		return key == null ? value : key[value];
+	}
+}
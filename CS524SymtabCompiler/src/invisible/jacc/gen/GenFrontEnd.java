@@ -44,6 +44,12 @@ scanner and parser tables, and then saves the tables into files.
 		boolean makeScan, boolean makeParse,
 		boolean makeOut, boolean makeGen, boolean makeJava)
 
+	public void generate (GenObserver genObserver, boolean async,
+		ErrorOutput errOut, boolean verbose, String filename,
+		boolean makeScan, boolean makeParse,
+		boolean makeOut, boolean makeGen, boolean makeJava,
+		boolean makeCoded)
+
 While the parser generator is running, you can use the following functions
 to interrupt it, wait for it to finish, or check if it is finished.
 	
@@ -78,6 +84,8 @@ to get the results.
 	
 	public String scannerJavaFilename ()
 	
+	public String codedScannerJavaFilename ()
+	
 	public String parserJavaFilename ()
 	
 	public String genFilename ()
@@ -205,6 +213,15 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 		return _scannerJavaFilename;
 	}
 	
+	// Name of coded scanner Java file, or null if not creating it.
+	
+	private String _codedScannerJavaFilename = null;
+	
+	public String codedScannerJavaFilename ()
+	{
+		return _codedScannerJavaFilename;
+	}
+	
 	// Name of parser table Java file, or null if not creating Java source.
 	
 	private String _parserJavaFilename = null;
@@ -264,6 +281,10 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 	
 	private boolean _makeJava;
 	
+	// Flag to make Java source for a coded scanner
+	
+	private boolean _makeCoded;
+	
 	// This is our status observer, it can be null
 	
 	private GenObserver _genObserver = null;
@@ -415,6 +436,7 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 		_shortFilename = null;
 		_outFilename = null;
 		_scannerJavaFilename = null;
+		_codedScannerJavaFilename = null;
 		_parserJavaFilename = null;
 		_genFilename = null;
 
@@ -429,6 +451,7 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 		_makeOut = false;
 		_makeGen = false;
 		_makeJava = false;
+		_makeCoded = false;
 		_genObserver = null;
 		_isDone = false;
 		_interruptRequested = false;
@@ -551,6 +574,8 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 	//	makeOut = true to write an output file.
 	//	makeGen = true to write a generated file.
 	//	makeJava = true to write Java source files.
+	//	makeCoded = true to also write Java source for a coded scanner, that
+	//		is, a subclass of ScannerCoded.  This requires makeJava.
 	//
 	// If the async parameter is true, this function creates a separate thread
 	// and returns immediately;  you must rely on calls to the genObserver
@@ -572,13 +597,26 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 	// the parser generator strips off the supplied extension (if any) and
 	// appends the extension ".out" or ".gen" respectively.  The filenames for
 	// the Java source files are derived from the %java option in the grammar
-	// specification file.
+	// specification file.  The coded scanner is named by appending "Scanner"
+	// to the Java class name.
 	
 	public void generate (GenObserver genObserver, boolean async,
 		ErrorOutput errOut, boolean verbose, String filename,
 		boolean makeScan, boolean makeParse,
 		boolean makeOut, boolean makeGen, boolean makeJava)
 	{
+		generate (genObserver, async, errOut, verbose, filename,
+			makeScan, makeParse, makeOut, makeGen, makeJava, false);
+		
+		return;
+	}
+	
+	public void generate (GenObserver genObserver, boolean async,
+		ErrorOutput errOut, boolean verbose, String filename,
+		boolean makeScan, boolean makeParse,
+		boolean makeOut, boolean makeGen, boolean makeJava,
+		boolean makeCoded)
+	{
 		
 		// If bad arguments, throw exception
 		
@@ -613,6 +651,7 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 			_makeOut = makeOut;
 			_makeGen = makeGen;
 			_makeJava = makeJava;
+			_makeCoded = makeCoded;
 		
 			_genObserver = genObserver;
 		}
@@ -1137,6 +1176,95 @@ public class GenFrontEnd implements Runnable, GeneratorStatus
 			}
 		}
 			
+		// If we made a scanner table, and we're writing a coded scanner ...
+			
+		if (_makeJava && _makeCoded && _scannerTable != null && _javaName != null)
+		{
+		
+			// Report stage
+			
+			_errOut.reportError (ErrorOutput.typeInformational, null, null,
+								 ErrorOutput.noPosition, ErrorOutput.noPosition,
+								 null, "Writing coded scanner Java source ..." );
+				
+			statusStage ("Writing coded scanner Java source");
+						
+			// The destination stream
+				
+			PrintStream javaStream = null;
+						
+			try
+			{
+					
+				// Construct the filename
+		
+				_codedScannerJavaFilename = _fval[0] + _fval[1] + javaClass + "Scanner.java";
+					
+				// Open the stream
+					
+				PrintStream ps = new PrintStream (new FileOutputStream (_codedScannerJavaFilename));
+				javaStream = ps;	// Pass PrintStream to catch clause
+
+				// Create the Java source file.  In the call to
+				// writeCodedScannerToJavaSource, the first argument is a
+				// PrintStream to which the source is written, the second
+				// argument is the package name, and the third argument is the
+				// class name.
+
+				_scannerTable.writeCodedScannerToJavaSource (
+					ps,
+					javaPackage,
+					javaClass + "Scanner" );
+					
+				// Close the stream
+					
+				ps.flush();
+				javaStream = null;	// Tell catch clause that we closed it
+				ps.close();
+					
+				// Check for error
+					
+				if (ps.checkError())
+				{
+					throw new IOException();
+				}
+			}
+		
+			// Note we need to catch all exceptions so we get SecurityException
+			// as well as IOException
+		
+			catch (Exception e)
+			{
+					
+				// If the output stream is open, close it
+					
+				if (javaStream != null)
+				{
+					try
+					{
+						javaStream.close();
+					}
+					catch (Exception e2)
+					{
+					}
+					javaStream = null;
+				}
+					
+				// Write an error message
+
+				_errOut.reportError (ErrorOutput.typeError, null, null,
+									 ErrorOutput.noPosition, ErrorOutput.noPosition,
+									 null, "Cannot write coded scanner Java source file "
+										   + _codedScannerJavaFilename );
+				
+				javaSourceError = true;
+					
+				// Set error flags
+				
+				statusError (GenObserver.efScannerJavaWrite);
+			}
+		}
+			
 		// If we made a parser table, and we're writing Java source ...
 			
 		if (_makeJava && _parserTable != null && _javaName != null)
@@ -33,6 +33,11 @@ import invisible.jacc.parse.ErrorOutputStream;
 			parser tables are created by concatenating "ScannerTable" and
 			"ParserTable", respectively, to the grammar's class name.
 
+	-c		Also creates Java source code for a coded scanner, in which the
+			scanner's forward DFA is written as Java code.  The class name
+			is created by concatenating "Scanner" to the grammar's class name.
+			This option requires -j.
+
 	-s		Generates only scanner tables.
 
 	-p		Generates only parser tables.
@@ -72,6 +77,10 @@ public class GenMain implements GenObserver
 
 		boolean makeJava = false;
 
+		// Assume not making a coded scanner
+
+		boolean makeCoded = false;
+
 		// Assume making scanner table
 
 		boolean makeScan = true;
@@ -117,6 +126,13 @@ public class GenMain implements GenObserver
 				makeJava = true;
 			}
 
+			// If making a coded scanner ...
+
+			else if (args[i].equalsIgnoreCase ("-c"))
+			{
+				makeCoded = true;
+			}
+
 			// If making scanner table only ...
 
 			else if (args[i].equalsIgnoreCase ("-s"))
@@ -168,6 +184,14 @@ public class GenMain implements GenObserver
 			System.out.println ("Cannot specify both -p and -s.");
 			return;
 		}
+		
+		// Check that we got -j if we got -c
+		
+		if (makeCoded && !makeJava)
+		{
+			System.out.println ("Cannot specify -c without -j.");
+			return;
+		}
 			
 		// Set up the parser generator front end
 			
@@ -184,7 +208,8 @@ public class GenMain implements GenObserver
 							  makeParse,
 							  makeOut,
 							  makeGen,
-							  makeJava );
+							  makeJava,
+							  makeCoded );
 
 		// All done
 
@@ -1,6 +1,7 @@
 package invisible.jacc.parse;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.IOException;
@@ -214,9 +215,11 @@ public abstract class CompilerModel implements ScannerClient, ParserClient
 	// Given a filename, this function creates a Scanner object for scanning
 	// the file.  The return value is null if the file could not be opened.
 	//
-	// This implementation uses the prescanner PrescannerByteStream.  This
-	// assumes that the file contains ASCII text, which is fed directly to the
-	// scanner.
+	// This implementation uses the prescanner PrescannerWholeFile if the file
+	// is a regular file small enough to read whole, or PrescannerByteStream
+	// otherwise.
+	// This assumes that the file contains ASCII text, which is fed directly to
+	// the scanner.
 	//
 	// A token factory that recognizes an 'include' statement can use this
 	// function to create a scanner for the include file.  The scanner can then
@@ -224,7 +227,8 @@ public abstract class CompilerModel implements ScannerClient, ParserClient
 	//
 	// A concrete subclass can optionally override this method.  Possible
 	// reasons for overriding this method include (a) using a different
-	// prescanner, or (b) implementing a search path.
+	// prescanner, or (b) implementing a search path.  To use a different
+	// scanner class, override makeScanner(Prescanner, String) instead.
 
 	public Scanner makeScanner (String filename)
 	{
@@ -233,19 +237,32 @@ public abstract class CompilerModel implements ScannerClient, ParserClient
 
 		try
 		{
-		
-			// Open the file and attach it to an InputStream
-
-			InputStream stream = new FileInputStream (filename);
 
 			// Make an input source for the scanner
 
-			Prescanner scannerSource = new PrescannerByteStream (stream);
+			Prescanner scannerSource;
+
+			File file = new File (filename);
+
+			// If it's a regular file, read it into memory
+
+			if (file.isFile() && (file.length() <= Integer.MAX_VALUE))
+			{
+				scannerSource = new PrescannerWholeFile (filename);
+			}
+
+			// Otherwise, open the file and attach it to an InputStream
+
+			else
+			{
+				InputStream stream = new FileInputStream (filename);
+
+				scannerSource = new PrescannerByteStream (stream);
+			}
 
 			// Create our scanner
 
-			Scanner scanner = Scanner.makeScanner (
-				this, scannerSource, _scannerTable, filename, 1, 1, 4000, null );
+			Scanner scanner = makeScanner (scannerSource, filename);
 
 			// Return the scanner we created
 
@@ -263,6 +280,24 @@ public abstract class CompilerModel implements ScannerClient, ParserClient
 
 
 
+	// Given an input source and its filename, this function creates a
+	// Scanner object for scanning the source.  It is called by
+	// makeScanner(String).
+	//
+	// This implementation uses Scanner.makeScanner(), which creates a
+	// table-driven scanner.  A concrete subclass can optionally override this
+	// method, for example to create a coded scanner (a subclass of
+	// ScannerCoded) generated from the grammar.
+
+	protected Scanner makeScanner (Prescanner source, String filename)
+	{
+		return Scanner.makeScanner (
+			this, source, _scannerTable, filename, 1, 1, 4000, null );
+	}
+
+
+
+
 	// Given a filename, this function reads a generated file and creates the
 	// _scannerTable and _parserTable objects.
 	//
@@ -343,6 +343,13 @@ public class Parser
 	private Preprocessor _source;
 
 
+	// True while productions are reduced by a shift-and-reduce action on a
+	// terminal, when _token is the terminal just shifted and the next one has
+	// not been read yet.
+
+	private boolean _tokenShifted;
+
+
 	// The parser table object.
 	//
 	// A nonterminal factory may call parserTable() to retrieve the object.
@@ -480,6 +487,34 @@ public class Parser
 
 
 
+	// Obtain the lookahead token, the terminal that follows the right hand
+	// side of the production being reduced.
+	//
+	// A nonterminal factory may call this function when the code it generates
+	// depends on what follows.  Usually this is the same as token().  But when
+	// shifting a terminal completes a production, the production is reduced
+	// before the next terminal is read, and then the lookahead is peeked from
+	// the preprocessor.  The same restrictions apply to the returned Token
+	// object as for token().
+
+	public final Token lookahead () throws IOException, SyntaxException
+	{
+		if (!_tokenShifted)
+		{
+			return _token;
+		}
+
+		// The preprocessor may reuse the Token object while peeking, so keep
+		// a copy of the terminal just shifted for token()
+
+		_token = new Token (_token);
+
+		return _source.peekAheadToken (0);
+	}
+
+
+
+
 	// Obtain the name of a symbol, given its number.
 	//
 	// This function may be called by a nonterminal factory or by a client.
@@ -647,6 +682,8 @@ public class Parser
 
 		_valueStack[_stackTop] = null;
 
+		_tokenShifted = false;
+
 		// Get the first terminal
 
 		_token = _source.nextToken();
@@ -816,6 +853,8 @@ public class Parser
 
 					_valueStack[_stackTop] = _token.value;
 
+					_tokenShifted = true;
+
 					// While the action is shift-and-reduce ...
 
 					while (action < _productionCountTimesTwo)
@@ -857,6 +896,8 @@ public class Parser
 
 				// Get the next terminal
 
+				_tokenShifted = false;
+
 				_token = _source.nextToken();
 			}
 
@@ -0,0 +1,161 @@
+// Copyright 1997 Invisible Software, Inc.
+
+package invisible.jacc.parse;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+
+/*->
+
+  PrescannerWholeFile is a prescanner that reads an entire file into memory
+  when it is created, and delivers the raw byte stream to the scanner, with
+  no modifications.
+
+  PrescannerWholeFile implements the PrescannerByte interface, so it can be
+  used anywhere a PrescannerByteStream can be used.  In addition, when it is
+  passed to Scanner.makeScanner(), the scanner takes the array holding the
+  file with takeAll() and uses it as its data buffer, so the file is never
+  copied and the buffer never needs to be refilled or moved.
+
+  The file is read with plain bulk reads, not memory-mapped.  The scanner
+  works on a byte[] (token factories get their text through rawByteText()),
+  so a mapping would only be copied into one; reading the file straight into
+  that array costs no more than the copy alone.
+
+  The file must be a regular file no longer than Integer.MAX_VALUE bytes.
+
+->*/
+
+
+
+public class PrescannerWholeFile implements PrescannerByte
+{
+
+	// The contents of the file, or null once takeAll() has handed them over.
+
+	private byte[] _contents;
+
+
+	// The next byte to be delivered.
+
+	private int _position;
+
+
+	// The constructor reads the file.
+
+	public PrescannerWholeFile (String filename) throws IOException
+	{
+		super ();
+
+		long size = new File (filename).length();
+
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IOException ("PrescannerWholeFile: file too large to read whole");
+		}
+
+		FileInputStream stream = new FileInputStream (filename);
+
+		try
+		{
+			byte[] contents = new byte[(int) size];
+
+			int length = 0;
+
+			while (length < contents.length)
+			{
+				int count = stream.read (contents, length, contents.length - length);
+
+				if (count < 0)
+				{
+					break;
+				}
+
+				length += count;
+			}
+
+			// If the file became shorter since we asked its length, trim the array
+
+			if (length < contents.length)
+			{
+				byte[] trimmed = new byte[length];
+
+				System.arraycopy (contents, 0, trimmed, 0, length);
+
+				contents = trimmed;
+			}
+
+			_contents = contents;
+		}
+		finally
+		{
+			stream.close();
+		}
+
+		_position = 0;
+
+		return;
+	}
+
+
+	// Return the number of bytes not yet delivered.
+
+	public int remaining ()
+	{
+		return (_contents == null) ? 0 : (_contents.length - _position);
+	}
+
+
+	// Hand over the array holding the file, which the caller may keep and
+	// modify.  Its length is the length of the file.  This must be called
+	// before any bytes are read, and afterwards the source is at end of file.
+
+	public byte[] takeAll ()
+	{
+		if (_contents == null || _position != 0)
+		{
+			throw new IllegalStateException ("PrescannerWholeFile.takeAll");
+		}
+
+		byte[] contents = _contents;
+
+		_contents = null;
+
+		return contents;
+	}
+
+
+	// Read bytes from the source.
+	//
+	// Implements the read() method of PrescannerByte.
+
+	public int read (byte[] dstArray, int dstOffset, int dstLength, Token token)
+		throws IOException, SyntaxException
+	{
+		int length = Math.min (dstLength, remaining());
+
+		if (length > 0)
+		{
+			System.arraycopy (_contents, _position, dstArray, dstOffset, length);
+
+			_position += length;
+		}
+
+		return length;
+	}
+
+
+	// Close the source.  The file was closed once it had been read.
+	//
+	// Implements the close() method of PrescannerByte.
+
+	public void close () throws IOException
+	{
+		_contents = null;
+		return;
+	}
+
+
+}
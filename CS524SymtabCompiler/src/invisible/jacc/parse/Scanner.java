@@ -18,7 +18,10 @@ import java.io.IOException;
   makeScanner() creates a ScannerByte object if given a PrescannerByte, or
   a ScannerChar object if given a PrescannerChar.  (Note that Prescanner
   is actually an "abstract" superinterface;  an implementation of Prescanner
-  must also implement either PrescannerByte or PrescannerChar.)
+  must also implement either PrescannerByte or PrescannerChar.)  Given a
+  PrescannerWholeFile, makeScanner() creates a ScannerByte whose data buffer
+  is the array holding the entire file, so scanning never has to refill or
+  move the buffer.
 
   Most client code doesn't care if the source text is byte or char.  Therefore,
   the class Scanner abstracts away from the source text type, allowing client
@@ -211,11 +214,15 @@ public abstract class Scanner implements TokenStream
 
 	// The forward DFA recognition sequence.
 	//
-	// As a token is scanned with the forward DFA, the recognition code of each
-	// state is stored in this array.  _recognitionSequence[0] contains the
+	// This array holds the recognition code of each state as a token is
+	// scanned with the forward DFA.  _recognitionSequence[0] contains the
 	// recognition code of the initial state.  (Thus, _contextLength may be
 	// used as an index into _recognitionSequence).
 	//
+	// The forward scan itself only remembers the longest accepting length.
+	// The sequence is filled in, up to that length, only if the first token
+	// recognized there has a right context or is rejected by its factory.
+	//
 	// Note:  Scanner code assumes that _recognitionSequence.length >= 2, so
 	// it is always possible to scan at least one character.
 
@@ -498,6 +505,40 @@ public abstract class Scanner implements TokenStream
 
 	protected boolean[][] _revContextSplit;
 
+
+	// ----- Flat Scanner Tables -----
+
+
+	// The length of one row in the flat DFA tables, which is _categoryCount+1.
+
+	protected int _flatRowLength;
+
+
+	// Forward DFA flat table, from ScannerTable.getFwdFlatTable().
+	//
+	// A state is represented by its row offset, s*_flatRowLength.  For row
+	// offset r and category c, _fwdFlatTable[r+c] is the row offset of the
+	// target state, and _fwdFlatTable[r+_categoryCount] is the recognition
+	// code of the state.  So each character costs a single array load.
+
+	protected int[] _fwdFlatTable;
+
+
+	// Row offset of the invalid forward state, _fwdStateCount*_flatRowLength.
+
+	protected int _fwdFlatInvalid;
+
+
+	// Reverse DFA flat table, from ScannerTable.getRevFlatTable().  It has
+	// the same layout as _fwdFlatTable.
+
+	protected int[] _revFlatTable;
+
+
+	// Row offset of the invalid reverse state, _revStateCount*_flatRowLength.
+
+	protected int _revFlatInvalid;
+
 	
 
 
@@ -534,7 +575,18 @@ public abstract class Scanner implements TokenStream
 			throw new NullPointerException ("Scanner.makeScanner");
 		}
 
-		// If the source is a PrescannerByte ...
+		// If the source is a PrescannerWholeFile ...
+
+		if (source instanceof PrescannerWholeFile)
+		{
+
+			// Create a ScannerByte object that holds the whole file
+
+			return new ScannerByte (client, (PrescannerWholeFile) source,
+				scannerTable, file, line, column, bufSize, params );
+		}
+
+		// Otherwise, if the source is a PrescannerByte ...
 
 		if (source instanceof PrescannerByte)
 		{
@@ -665,6 +717,14 @@ public abstract class Scanner implements TokenStream
 		_revRecognitionTable = scannerTable._revRecognitionTable;
 		_revContextSplit = scannerTable._revContextSplit;
 
+		// Get the flat tables
+
+		_flatRowLength = _categoryCount + 1;
+		_fwdFlatTable = scannerTable.getFwdFlatTable();
+		_fwdFlatInvalid = _fwdStateCount * _flatRowLength;
+		_revFlatTable = scannerTable.getRevFlatTable();
+		_revFlatInvalid = _revStateCount * _flatRowLength;
+
 		_tokenFactories = scannerTable.getFactories();
 
 		return;
@@ -1266,6 +1326,45 @@ final class ScannerByte extends Scanner implements TokenStream
 
 
 
+	// Constructor for a whole file.  The parameters are the same as above.
+	//
+	// The array holding the entire file becomes the data buffer, without a
+	// copy, and end-of-file is marked as already reached.  So readData()
+	// always returns 0 without touching the buffer, and nextToken() scans
+	// straight through the file.
+
+	ScannerByte (ScannerClient client, PrescannerWholeFile source,
+		ScannerTable scannerTable, String file, int line, int column,
+		int bufSize, Object params)
+	{
+
+		// Pass parameters to the Scanner constructor
+
+		super (client, scannerTable, file, line, column, bufSize, params);
+
+		// Save the source
+
+		if (source == null)
+		{
+			throw new NullPointerException ("ScannerByte.ScannerByte");
+		}
+
+		_source = source;
+
+		// Scan the file in the array it was read into
+
+		_dataBuffer = source.takeAll();
+
+		_dataEnd = _dataBuffer.length;
+
+		_reachedEOF = true;
+
+		return;
+	}
+
+
+
+
 	// Read additional data from the source.  The return value is the number of
 	// characters read, or 0 if end of file.
 	//
@@ -1441,86 +1540,194 @@ final class ScannerByte extends Scanner implements TokenStream
 
 			_contextLength = 0;
 
-			// The maximum number of characters we can process without either
-			// reading more data or enlarging the recognition sequence
+			// The number of characters we can process without reading more
+			// data
+
+			int maxContextLength = _dataEnd - _tokenStart;
 
-			int maxContextLength =
-				Math.min (_dataEnd - _tokenStart, _recognitionSequence.length - 1);
+			// Get the initial state, depending on the start condition, as a
+			// row offset into the flat table.  Note that this is guaranteed
+			// not to be the invalid state.  It is saved in case we need to
+			// run the DFA again below.
 
-			// Get the initial state, depending on the start condition.
-			// Note that this is guaranteed not to be the invalid state.
+			int initialState = _fwdInitialState[_condition] * _flatRowLength;
 
-			int state = _fwdInitialState[_condition];
+			// The length of the longest string that recognizes at least one
+			// token, and the recognition code at that length.  A length of 0
+			// means no token is recognized, since we don't recognize
+			// zero-length tokens.
 
-			// Save the recognition code of this state
+			int acceptLength = 0;
 
-			_recognitionSequence[0] = _fwdRecognitionTable[state];
+			int acceptCode = 0;
 
 			// Get the first character from the data buffer, get its category,
 			// and then get the target state
 
-			state = _fwdTransitionTable[state][
-				_categoryTable[_dataBuffer[_tokenStart] & 0xFF] & 0xFF ];
+			int state = _fwdFlatTable[initialState +
+				(_categoryTable[_dataBuffer[_tokenStart] & 0xFF] & 0xFF) ];
 
-			// Loop until we reach the invalid state
+			// Loop until we reach the invalid state.  This is the maximal munch
+			// loop, so it only remembers the last accepting length, instead of
+			// storing a recognition code for each character.
 
-			while (state != _fwdStateCount)
+			while (state != _fwdFlatInvalid)
 			{
 
-				// Save the recognition code of this state, and increment the
-				// number of characters we have processed successfully
+				// Increment the number of characters we have processed
+				// successfully, and remember it if this state recognizes a token
 
-				_recognitionSequence[++_contextLength] = _fwdRecognitionTable[state];
+				++_contextLength;
 
-				// If we are at the maximum length ...
+				int recCode = _fwdFlatTable[state + _categoryCount];
 
-				if (_contextLength == maxContextLength)
+				if (_fwdTokenListLength[recCode] != 0)
 				{
+					acceptLength = _contextLength;
+					acceptCode = recCode;
+				}
 
-					// If the recognition sequence array is full, enlarge it
+				// If we have processed all available data ...
 
-					if (_contextLength == (_recognitionSequence.length - 1))
-					{
-						enlargeRecognitionSequence ();
-					}
+				if (_contextLength == maxContextLength)
+				{
 
-					// If we have processed all available data ...
+					// Read more data and check for end of file
 
-					if (_contextLength == (_dataEnd - _tokenStart))
+					if (readData() == 0)
 					{
 
-						// Read more data and check for end of file
-
-						if (readData() == 0)
-						{
-
-							// We have reached end-of-file with a partial token
-							// text, so break out of loop as if end-of-file forces
-							// a transition to the invalid state
+						// We have reached end-of-file with a partial token
+						// text, so break out of loop as if end-of-file forces
+						// a transition to the invalid state
 
-							break;
-						}
+						break;
 					}
 
 					// Update the maximum length
 
-					maxContextLength =
-						Math.min (_dataEnd - _tokenStart, _recognitionSequence.length - 1);
+					maxContextLength = _dataEnd - _tokenStart;
 
 				}	// end if at maximum length
 
 				// Get the next character from the data buffer, get its category,
 				// and then get the target state
 
-				state = _fwdTransitionTable[state][
-					_categoryTable[_dataBuffer[_tokenStart + _contextLength] & 0xFF] & 0xFF ];
+				state = _fwdFlatTable[state +
+					(_categoryTable[_dataBuffer[_tokenStart + _contextLength] & 0xFF] & 0xFF) ];
 
 			}	// end loop until invalid state
 
+			// Longer strings don't recognize any tokens, so start the search
+			// at the accepting length
+
+			_contextLength = acceptLength;
+
+			// The index in the token list where the search starts
+
+			int firstRecIndex = 0;
+
+			// If a token is recognized ...
+
+			if (acceptLength != 0)
+			{
+
+				// Get the first recognized token number
+
+				_tokenIndex = _fwdTokenList[acceptCode][0];
+
+				// If it has no right context, then it is the token that the
+				// search below would try first, so try it now.  This is the
+				// common case, and needs no recognition sequence.
+
+				if (_contextNumber[_tokenIndex] == _contextCount)
+				{
+
+					// Token length is the same as context length
+
+					_tokenLength = _contextLength;
+
+					// Get the parameter for this token
+
+					_token.number = _tokenParam[_tokenIndex];
+
+					// Initialize the token value
+
+					_token.value = null;
+
+					// Call the token factory, and switch on the result
+
+					switch (_tokenFactories[_tokenIndex].makeToken (this, _token))
+					{
+
+					case TokenFactory.assemble:
+
+						// Assembled token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Return the token
+
+						return _token;
+
+					case TokenFactory.discard:
+
+						// Discard token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Start another scan
+
+						continue mainLoop;
+
+					case TokenFactory.reject:
+
+						// Reject token, the search continues with the next one
+
+						firstRecIndex = 1;
+
+						break;
+
+					default:
+
+						// Otherwise, we got an illegal command
+
+						throw new IllegalArgumentException ("ScannerByte.nextToken");
+					}
+
+				}	// end if no right context
+
+				// The search needs the recognition sequence, so make sure
+				// there is room for it
+
+				while (_recognitionSequence.length <= acceptLength)
+				{
+					enlargeRecognitionSequence ();
+				}
+
+				// Run the DFA again from the saved initial state, this time
+				// saving the recognition code of each state.  The text is still
+				// in the data buffer, since it belongs to the current token.
+
+				state = initialState;
+
+				_recognitionSequence[0] = _fwdFlatTable[state + _categoryCount];
+
+				for (int i = 0; i < acceptLength; )
+				{
+					state = _fwdFlatTable[state +
+						(_categoryTable[_dataBuffer[_tokenStart + i] & 0xFF] & 0xFF) ];
+
+					_recognitionSequence[++i] = _fwdFlatTable[state + _categoryCount];
+				}
+
+			}	// end if a token is recognized
+
 			// At this point, _contextLength is the length of the longest string
-			// that matches any initial substring of any token.  We now need to
-			// scan backwards to find recognized tokens.  But we don't recognize
-			// zero-length tokens, even if the DFA accepts them.
+			// that recognizes any token.  We now need to scan backwards to
+			// find tokens that are accepted by their token factories.
 
 			// Outer loop over context length ...
 
@@ -1533,7 +1740,7 @@ final class ScannerByte extends Scanner implements TokenStream
 
 				// Inner loop over recognized tokens ...
 
-				for (int recIndex = 0; recIndex < recList.length; ++recIndex)
+				for (int recIndex = firstRecIndex; recIndex < recList.length; ++recIndex)
 				{
 
 					// Get the recognized token number
@@ -1607,7 +1814,7 @@ final class ScannerByte extends Scanner implements TokenStream
 
 					}	// end if no right context
 
-					// Initial state in reverse DFA
+					// Initial state in reverse DFA, which is row 0
 
 					state = 0;
 
@@ -1617,14 +1824,14 @@ final class ScannerByte extends Scanner implements TokenStream
 					// don't accept zero-length tokens, but we do accept
 					// zero-length right contexts.
 
-					while ((_tokenLength > 0) && (state != _revStateCount))
+					while ((_tokenLength > 0) && (state != _revFlatInvalid))
 					{
 
 						// If the forward and reverse DFA's both accept this
 						// as a split location ...
 
 						if (_fwdContextSplit[_recognitionSequence[_tokenLength]][recContext]
-							&& _revContextSplit[_revRecognitionTable[state]][recContext] )
+							&& _revContextSplit[_revFlatTable[state + _categoryCount]][recContext] )
 						{
 
 							// Get the parameter for this token
@@ -1679,13 +1886,17 @@ final class ScannerByte extends Scanner implements TokenStream
 						// Back up one character, get the character from the data buffer,
 						// get its category, and then get the reverse DFA target state
 
-						state = _revTransitionTable[state][_categoryTable[
-							_dataBuffer[_tokenStart + (--_tokenLength)] & 0xFF ] & 0xFF ];
+						state = _revFlatTable[state + (_categoryTable[
+							_dataBuffer[_tokenStart + (--_tokenLength)] & 0xFF ] & 0xFF) ];
 
 					}	// end loop searching for context split
 
 				}	// end inner loop over recognized tokens
 
+				// Shorter lengths search their whole token list
+
+				firstRecIndex = 0;
+
 			}	// end outer loop over possible context lengths
 
 			// Didn't find any matching tokens, or all token factories rejected
@@ -2091,86 +2302,194 @@ final class ScannerChar extends Scanner implements TokenStream
 
 			_contextLength = 0;
 
-			// The maximum number of characters we can process without either
-			// reading more data or enlarging the recognition sequence
+			// The number of characters we can process without reading more
+			// data
+
+			int maxContextLength = _dataEnd - _tokenStart;
 
-			int maxContextLength =
-				Math.min (_dataEnd - _tokenStart, _recognitionSequence.length - 1);
+			// Get the initial state, depending on the start condition, as a
+			// row offset into the flat table.  Note that this is guaranteed
+			// not to be the invalid state.  It is saved in case we need to
+			// run the DFA again below.
 
-			// Get the initial state, depending on the start condition.
-			// Note that this is guaranteed not to be the invalid state.
+			int initialState = _fwdInitialState[_condition] * _flatRowLength;
 
-			int state = _fwdInitialState[_condition];
+			// The length of the longest string that recognizes at least one
+			// token, and the recognition code at that length.  A length of 0
+			// means no token is recognized, since we don't recognize
+			// zero-length tokens.
 
-			// Save the recognition code of this state
+			int acceptLength = 0;
 
-			_recognitionSequence[0] = _fwdRecognitionTable[state];
+			int acceptCode = 0;
 
 			// Get the first character from the data buffer, get its category,
 			// and then get the target state
 
-			state = _fwdTransitionTable[state][
-				_categoryTable[_dataBuffer[_tokenStart]] & 0xFF ];
+			int state = _fwdFlatTable[initialState +
+				(_categoryTable[_dataBuffer[_tokenStart]] & 0xFF) ];
 
-			// Loop until we reach the invalid state
+			// Loop until we reach the invalid state.  This is the maximal munch
+			// loop, so it only remembers the last accepting length, instead of
+			// storing a recognition code for each character.
 
-			while (state != _fwdStateCount)
+			while (state != _fwdFlatInvalid)
 			{
 
-				// Save the recognition code of this state, and increment the
-				// number of characters we have processed successfully
+				// Increment the number of characters we have processed
+				// successfully, and remember it if this state recognizes a token
 
-				_recognitionSequence[++_contextLength] = _fwdRecognitionTable[state];
+				++_contextLength;
 
-				// If we are at the maximum length ...
+				int recCode = _fwdFlatTable[state + _categoryCount];
 
-				if (_contextLength == maxContextLength)
+				if (_fwdTokenListLength[recCode] != 0)
 				{
+					acceptLength = _contextLength;
+					acceptCode = recCode;
+				}
 
-					// If the recognition sequence array is full, enlarge it
+				// If we have processed all available data ...
 
-					if (_contextLength == (_recognitionSequence.length - 1))
-					{
-						enlargeRecognitionSequence ();
-					}
+				if (_contextLength == maxContextLength)
+				{
 
-					// If we have processed all available data ...
+					// Read more data and check for end of file
 
-					if (_contextLength == (_dataEnd - _tokenStart))
+					if (readData() == 0)
 					{
 
-						// Read more data and check for end of file
-
-						if (readData() == 0)
-						{
-
-							// We have reached end-of-file with a partial token
-							// text, so break out of loop as if end-of-file forces
-							// a transition to the invalid state
+						// We have reached end-of-file with a partial token
+						// text, so break out of loop as if end-of-file forces
+						// a transition to the invalid state
 
-							break;
-						}
+						break;
 					}
 
 					// Update the maximum length
 
-					maxContextLength =
-						Math.min (_dataEnd - _tokenStart, _recognitionSequence.length - 1);
+					maxContextLength = _dataEnd - _tokenStart;
 
 				}	// end if at maximum length
 
 				// Get the next character from the data buffer, get its category,
 				// and then get the target state
 
-				state = _fwdTransitionTable[state][
-					_categoryTable[_dataBuffer[_tokenStart + _contextLength]] & 0xFF ];
+				state = _fwdFlatTable[state +
+					(_categoryTable[_dataBuffer[_tokenStart + _contextLength]] & 0xFF) ];
 
 			}	// end loop until invalid state
 
+			// Longer strings don't recognize any tokens, so start the search
+			// at the accepting length
+
+			_contextLength = acceptLength;
+
+			// The index in the token list where the search starts
+
+			int firstRecIndex = 0;
+
+			// If a token is recognized ...
+
+			if (acceptLength != 0)
+			{
+
+				// Get the first recognized token number
+
+				_tokenIndex = _fwdTokenList[acceptCode][0];
+
+				// If it has no right context, then it is the token that the
+				// search below would try first, so try it now.  This is the
+				// common case, and needs no recognition sequence.
+
+				if (_contextNumber[_tokenIndex] == _contextCount)
+				{
+
+					// Token length is the same as context length
+
+					_tokenLength = _contextLength;
+
+					// Get the parameter for this token
+
+					_token.number = _tokenParam[_tokenIndex];
+
+					// Initialize the token value
+
+					_token.value = null;
+
+					// Call the token factory, and switch on the result
+
+					switch (_tokenFactories[_tokenIndex].makeToken (this, _token))
+					{
+
+					case TokenFactory.assemble:
+
+						// Assembled token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Return the token
+
+						return _token;
+
+					case TokenFactory.discard:
+
+						// Discard token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Start another scan
+
+						continue mainLoop;
+
+					case TokenFactory.reject:
+
+						// Reject token, the search continues with the next one
+
+						firstRecIndex = 1;
+
+						break;
+
+					default:
+
+						// Otherwise, we got an illegal command
+
+						throw new IllegalArgumentException ("ScannerChar.nextToken");
+					}
+
+				}	// end if no right context
+
+				// The search needs the recognition sequence, so make sure
+				// there is room for it
+
+				while (_recognitionSequence.length <= acceptLength)
+				{
+					enlargeRecognitionSequence ();
+				}
+
+				// Run the DFA again from the saved initial state, this time
+				// saving the recognition code of each state.  The text is still
+				// in the data buffer, since it belongs to the current token.
+
+				state = initialState;
+
+				_recognitionSequence[0] = _fwdFlatTable[state + _categoryCount];
+
+				for (int i = 0; i < acceptLength; )
+				{
+					state = _fwdFlatTable[state +
+						(_categoryTable[_dataBuffer[_tokenStart + i]] & 0xFF) ];
+
+					_recognitionSequence[++i] = _fwdFlatTable[state + _categoryCount];
+				}
+
+			}	// end if a token is recognized
+
 			// At this point, _contextLength is the length of the longest string
-			// that matches any initial substring of any token.  We now need to
-			// scan backwards to find recognized tokens.  But we don't recognize
-			// zero-length tokens, even if the DFA accepts them.
+			// that recognizes any token.  We now need to scan backwards to
+			// find tokens that are accepted by their token factories.
 
 			// Outer loop over context length ...
 
@@ -2183,7 +2502,7 @@ final class ScannerChar extends Scanner implements TokenStream
 
 				// Inner loop over recognized tokens ...
 
-				for (int recIndex = 0; recIndex < recList.length; ++recIndex)
+				for (int recIndex = firstRecIndex; recIndex < recList.length; ++recIndex)
 				{
 
 					// Get the recognized token number
@@ -2257,7 +2576,7 @@ final class ScannerChar extends Scanner implements TokenStream
 
 					}	// end if no right context
 
-					// Initial state in reverse DFA
+					// Initial state in reverse DFA, which is row 0
 
 					state = 0;
 
@@ -2267,14 +2586,14 @@ final class ScannerChar extends Scanner implements TokenStream
 					// don't accept zero-length tokens, but we do accept
 					// zero-length right contexts.
 
-					while ((_tokenLength > 0) && (state != _revStateCount))
+					while ((_tokenLength > 0) && (state != _revFlatInvalid))
 					{
 
 						// If the forward and reverse DFA's both accept this
 						// as a split location ...
 
 						if (_fwdContextSplit[_recognitionSequence[_tokenLength]][recContext]
-							&& _revContextSplit[_revRecognitionTable[state]][recContext] )
+							&& _revContextSplit[_revFlatTable[state + _categoryCount]][recContext] )
 						{
 
 							// Get the parameter for this token
@@ -2329,13 +2648,17 @@ final class ScannerChar extends Scanner implements TokenStream
 						// Back up one character, get the character from the data buffer,
 						// get its category, and then get the reverse DFA target state
 
-						state = _revTransitionTable[state][_categoryTable[
-							_dataBuffer[_tokenStart + (--_tokenLength)]] & 0xFF ];
+						state = _revFlatTable[state + (_categoryTable[
+							_dataBuffer[_tokenStart + (--_tokenLength)]] & 0xFF) ];
 
 					}	// end loop searching for context split
 
 				}	// end inner loop over recognized tokens
 
+				// Shorter lengths search their whole token list
+
+				firstRecIndex = 0;
+
 			}	// end outer loop over possible context lengths
 
 			// Didn't find any matching tokens, or all token factories rejected
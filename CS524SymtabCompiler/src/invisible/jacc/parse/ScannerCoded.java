@@ -0,0 +1,869 @@
+// Copyright 1997 Invisible Software, Inc.
+
+package invisible.jacc.parse;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+
+/*->
+
+  ScannerCoded is an abstract implementation of Scanner that accepts input
+  text in byte form, in which the forward DFA is Java code instead of a table.
+
+  A concrete subclass is generated from a scanner table by
+  ScannerTable.writeCodedScannerToJavaSource().  The subclass implements
+  scanForward(), in which each DFA state is a case of a switch statement, and
+  each transition is a case of a nested switch on the character category.
+  This gives the JIT compiler straight-line code for each state, in place of
+  the table lookups done by ScannerByte.  (The states are split among several
+  methods, so that no method is too large for HotSpot to compile.)
+
+  Everything else works exactly as in ScannerByte:  data buffering, the
+  backward search over recognized tokens, right contexts (which use the
+  reverse DFA table), and the token factory protocol.  The one difference
+  is that a token whose factory is the default discard or assemble factory
+  is handled directly, by a switch on an int action code, without calling
+  the factory.
+
+  The generated subclass must be used with the scanner table it was
+  generated from.  The constructor checks this, using tableChecksum().
+
+->*/
+
+
+public abstract class ScannerCoded extends Scanner implements TokenStream
+{
+
+
+	// The source.
+
+	private PrescannerByte _source;
+
+
+	// The data buffer used to hold data from the source.
+	//
+	// A token factory or client may use rawByteText() to get the data buffer.
+	// The generated scanForward() reads characters directly from it.
+
+	protected byte[] _dataBuffer;
+
+
+	// The accepting length and state.
+	//
+	// While scanForward() runs, _acceptLength is the length of the longest
+	// string so far that recognizes at least one token (or 0 if there is
+	// none), and _acceptState is the forward DFA state reached at that length.
+
+	protected int _acceptLength;
+
+	protected int _acceptState;
+
+
+	// Factory action codes.
+	//
+	// For token t, _factoryAction[t] is TokenFactory.discard or
+	// TokenFactory.assemble if the token uses the default factory that always
+	// returns that value, or -1 if its factory must be called.
+
+	private int[] _factoryAction;
+
+
+
+
+	// Retrieves the data buffer.
+	//
+	// Overrides the rawByteText() method of Scanner.
+
+	public final byte[] rawByteText ()
+	{
+		return _dataBuffer;
+	}
+
+
+
+
+	// Indicates if the data buffer is byte or char.
+	//
+	// Implements the isByteText() method of Scanner.
+
+	public boolean isByteText ()
+	{
+		return true;
+	}
+
+
+
+
+	// Convert raw text to a String object.
+	//
+	// Characters from _dataBuffer[off] through _dataBuffer[off+len-1] are
+	// converted to a String object.  If the text is byte, each character is
+	// zero-extended to 16 bits.
+	//
+	// All the characters must lie in the region between _tokenStart and
+	// _dataEnd, otherwise an exception is thrown.
+	//
+	// Implements the rawTextToString() method of Scanner.
+
+	public String rawTextToString (int off, int len)
+	{
+
+		// Validate the arguments
+
+		if ((off < _tokenStart) || (off > _dataEnd) || (len < 0) || (len > (_dataEnd - off)))
+		{
+			throw new IllegalArgumentException ("ScannerCoded.rawTextToString");
+		}
+
+		// Create the new String.  ISO-8859-1 maps each byte to the char with
+		// the same value, which is the zero-extension.
+
+		try
+		{
+			return new String (_dataBuffer, off, len, "ISO-8859-1");
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			throw new InternalError ("ScannerCoded.rawTextToString");
+		}
+	}
+
+
+
+
+	// Obtain one character from the raw text.
+	//
+	// The contents of _dataBuffer[off] is returned as a char.  (If _dataBuffer
+	// is of type byte[], then the byte is converted to char by zero-extension.)
+	//
+	// The character must lie between _tokenStart and _dataEnd.
+
+	public char rawTextCharAt (int off)
+	{
+
+		// Validate the argument
+
+		if ((off < _tokenStart) || (off >= _dataEnd))
+		{
+			throw new IllegalArgumentException ("ScannerCoded.rawTextCharAt");
+		}
+
+		// Return result as a char
+
+		return (char)(_dataBuffer[off] & 0xFF);
+	}
+
+
+
+
+	// Copy raw text into a char array.
+	//
+	// Characters from _dataBuffer[off] through _dataBuffer[off+len-1] are
+	// copied into dst[dstOff] through dst[dstOff+len-1].  If the text is byte,
+	// each character is zero-extended to 16 bits.
+	//
+	// All the characters must lie in the region between _tokenStart and
+	// _dataEnd, otherwise an exception is thrown.
+
+	public void rawTextToChars (int off, int len, char[] dst, int dstOff)
+	{
+
+		// Validate the arguments
+
+		if ((off < _tokenStart) || (off > _dataEnd) || (len < 0) || (len > (_dataEnd - off))
+			|| (dstOff < 0) || (dstOff > dst.length) || (len > (dst.length - dstOff)))
+		{
+			throw new IllegalArgumentException ("ScannerCoded.rawTextToChars");
+		}
+
+		// Copy the characters
+
+		int srcIndex = off;
+
+		int dstIndex = dstOff;
+
+		int srcLimit = off + len;
+
+		while (srcIndex < srcLimit)
+		{
+			dst[dstIndex++] = (char)(_dataBuffer[srcIndex++] & 0xFF);
+		}
+
+		return;
+	}
+
+
+
+
+	// Constructor to create a scanner.
+	//
+	// client - A ScannerClient object that represents the scanner's client.
+	//
+	// source - A PrescannerByte object that supplies the input.  If it is a
+	//	PrescannerWholeFile, the array holding the entire file becomes the
+	//	data buffer, as in ScannerByte.
+	//
+	// scannerTable - A ScannerTable object that supplies the scanning tables
+	//	which define the deterministic finite automata.  It must have the
+	//	same tables that the subclass was generated from.
+	//
+	// file - A String which specifies the file name.  This file name is
+	//	returned in the file field of all Token objects.
+	//
+	// line - An int that contains the initial line number, typically 1.
+	//
+	// column - An int that contains the initial column, typically 1.
+	//
+	// bufSize - The recommended initial buffer size for reading the source.
+	//
+	// params - Initial value for the clientParams variable, which the client
+	//	may use for any purpose.
+	//
+	// checksum - The value of tableChecksum() for the tables that the
+	//	subclass was generated from.
+
+	protected ScannerCoded (ScannerClient client, PrescannerByte source,
+		ScannerTable scannerTable, String file, int line, int column,
+		int bufSize, Object params, int checksum)
+	{
+
+		// Pass parameters to the Scanner constructor
+
+		super (client, scannerTable, file, line, column, bufSize, params);
+
+		// Check that the generated code matches the tables
+
+		if (checksum != tableChecksum (scannerTable))
+		{
+			throw new IllegalArgumentException ("ScannerCoded.ScannerCoded: scanner table does not match generated code");
+		}
+
+		// Save the source
+
+		if (source == null)
+		{
+			throw new NullPointerException ("ScannerCoded.ScannerCoded");
+		}
+
+		_source = source;
+
+		// If it's a whole file ...
+
+		if (source instanceof PrescannerWholeFile)
+		{
+
+			// Scan the file in the array it was read into
+
+			_dataBuffer = ((PrescannerWholeFile) source).takeAll();
+
+			_dataEnd = _dataBuffer.length;
+
+			_reachedEOF = true;
+		}
+
+		// Otherwise, initialize the data buffer
+
+		else
+		{
+			if (bufSize < 0)
+			{
+				throw new IllegalArgumentException ("ScannerCoded.ScannerCoded");
+			}
+
+			_dataBuffer = new byte[Math.max (32, bufSize)];
+		}
+
+		// Make the factory action codes
+
+		_factoryAction = new int[_tokenCount];
+
+		for (int t = 0; t < _tokenCount; ++t)
+		{
+			_factoryAction[t] = ScannerTable.defaultFactoryAction (_tokenFactories[t]);
+		}
+
+		return;
+	}
+
+
+
+
+	// Compute a checksum of the forward DFA and the tables that the generated
+	// code depends on.  The generator stores the checksum in the generated
+	// class, and the constructor compares it with the checksum of the table
+	// that is actually supplied.
+
+	public static int tableChecksum (ScannerTable scannerTable)
+	{
+		int sum = scannerTable._categoryCount;
+
+		sum = (sum * 31) + scannerTable._fwdStateCount;
+
+		for (int s = 0; s < scannerTable._fwdStateCount; ++s)
+		{
+			short[] row = scannerTable._fwdTransitionTable[s];
+
+			for (int c = 0; c < scannerTable._categoryCount; ++c)
+			{
+				sum = (sum * 31) + row[c];
+			}
+
+			sum = (sum * 31) + scannerTable._fwdRecognitionTable[s];
+		}
+
+		for (int r = 0; r < scannerTable._fwdRecognitionCount; ++r)
+		{
+			sum = (sum * 31) + scannerTable._fwdTokenListLength[r];
+		}
+
+		return sum;
+	}
+
+
+
+
+	// Run the forward DFA, starting in the given state, over the text at
+	// _tokenStart.  The return value is the length of the longest string that
+	// recognizes at least one token, or 0 if there is none, and _acceptState
+	// is set to the state at that length.
+	//
+	// The DFA runs until it reaches the invalid state or end-of-file.  When it
+	// has processed all available data, it must save the number of characters
+	// processed in _contextLength and call readData(), which may move the
+	// data buffer.
+	//
+	// This is implemented by the generated subclass.
+
+	protected abstract int scanForward (int state) throws IOException, SyntaxException;
+
+
+
+
+	// Read additional data from the source.  The return value is the number of
+	// characters read, or 0 if end of file.
+	//
+	// Data from _tokenStart to _dataEnd-1 are preserved, although they may be
+	// moved to the start of the buffer.  The buffer is reallocated if a larger
+	// buffer is needed.  This function can change _dataBuffer, _tokenStart,
+	// and _dataEnd.
+	//
+	// Overrides the readData() method of Scanner.
+
+	public int readData () throws IOException, SyntaxException
+	{
+
+		// If already reached end-of-file, just return 0
+
+		if (_reachedEOF)
+		{
+			return 0;
+		}
+
+		// Length of existing data
+
+		int dataLength = _dataEnd - _tokenStart;
+
+		// If nonnegative, number of characters read;  if negative, amount of
+		// buffer space required
+
+		int charsRead = -1;
+
+		// If the buffer is no more than half full ...
+
+		if (dataLength <= (_dataBuffer.length >> 1))
+		{
+
+			// If no data ...
+
+			if (dataLength == 0)
+			{
+
+				// Reset pointers to start of buffer
+
+				_dataEnd = 0;
+				_tokenStart = 0;
+			}
+
+			// Otherwise, there is buffered data ...
+
+			else
+			{
+
+				// If data isn't confined to the first half of the buffer (which
+				// implies _tokenStart is nonzero) ...
+
+				if (_dataEnd > (_dataBuffer.length >> 1))
+				{
+
+					// Copy data to start of buffer
+
+					System.arraycopy (_dataBuffer, _tokenStart, _dataBuffer, 0, dataLength);
+
+					// Adjust pointers
+
+					_dataEnd -= _tokenStart;
+					_tokenStart = 0;
+				}
+			}
+
+			// Read from the source
+
+			_token.column += (_dataEnd - _tokenStart);
+
+			charsRead = _source.read (
+				_dataBuffer, _dataEnd, _dataBuffer.length - _dataEnd, _token);
+
+			_token.column -= (_dataEnd - _tokenStart);
+		}
+
+		// Loop until successful read or end-of-file
+
+		while (charsRead < 0)
+		{
+
+			// Allocate a new buffer with at least the minimum required
+			// space, and at least 3/2 the size of the old buffer
+
+			byte[] newDataBuffer = new byte[Math.max (dataLength - charsRead,
+				_dataBuffer.length + ((_dataBuffer.length + 1) >> 1) )];
+
+			// Copy data to start of new buffer
+
+			if (dataLength != 0)
+			{
+				System.arraycopy (_dataBuffer, _tokenStart, newDataBuffer, 0, dataLength);
+			}
+
+			// Adjust pointers
+
+			_dataEnd -= _tokenStart;
+			_tokenStart = 0;
+
+			// Adopt the new buffer
+
+			_dataBuffer = newDataBuffer;
+
+			// Read from the source
+
+			_token.column += (_dataEnd - _tokenStart);
+
+			charsRead = _source.read (
+				_dataBuffer, _dataEnd, _dataBuffer.length - _dataEnd, _token);
+
+			_token.column -= (_dataEnd - _tokenStart);
+		}
+
+		// Adjust the end-of-data pointer
+
+		_dataEnd += charsRead;
+
+		// If end-of-file, set the flag
+
+		if (charsRead == 0)
+		{
+			_reachedEOF = true;
+		}
+
+		// Return number of characters read
+
+		return charsRead;
+	}
+
+
+
+
+	// Read the next token.
+	//
+	// Implements the nextToken() method of TokenStream.
+
+	public Token nextToken () throws IOException, SyntaxException
+	{
+
+		// Main loop to step past discarded tokens and illegal characters
+
+	mainLoop:
+		for ( ; ; )
+		{
+
+			// If there is no buffered data ...
+
+			if (_dataEnd == _tokenStart)
+			{
+
+				// Read more data and check for end of file
+
+				if (readData() == 0)
+				{
+
+					// Set up end-of-file token
+
+					_token.number = Token.EOF;
+					_token.value = null;
+
+					// Tell client we are at end of file
+
+					_client.scannerEOF (this, _token);
+
+					// Return our contained Token object
+
+					return _token;
+				}
+			}
+
+			// Get the initial state, depending on the start condition.  Note
+			// that this is guaranteed not to be the invalid state.
+
+			int initialState = _fwdInitialState[_condition];
+
+			// Run the generated forward DFA to get the length of the longest
+			// string that recognizes at least one token, and the recognition
+			// code at that length.  A length of 0 means no token is recognized,
+			// since we don't recognize zero-length tokens.
+
+			int acceptLength = scanForward (initialState);
+
+			int acceptCode = _fwdRecognitionTable[_acceptState];
+
+			// Longer strings don't recognize any tokens, so start the search
+			// at the accepting length
+
+			_contextLength = acceptLength;
+
+			// The index in the token list where the search starts
+
+			int firstRecIndex = 0;
+
+			// If a token is recognized ...
+
+			if (acceptLength != 0)
+			{
+
+				// Get the first recognized token number
+
+				_tokenIndex = _fwdTokenList[acceptCode][0];
+
+				// If it has no right context, then it is the token that the
+				// search below would try first, so try it now.  This is the
+				// common case, and needs no recognition sequence.
+
+				if (_contextNumber[_tokenIndex] == _contextCount)
+				{
+
+					// Token length is the same as context length
+
+					_tokenLength = _contextLength;
+
+					// Get the parameter for this token
+
+					_token.number = _tokenParam[_tokenIndex];
+
+					// Initialize the token value
+
+					_token.value = null;
+
+					// Get the factory action, and switch on the result
+
+					switch (makeToken ())
+					{
+
+					case TokenFactory.assemble:
+
+						// Assembled token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Return the token
+
+						return _token;
+
+					case TokenFactory.discard:
+
+						// Discard token, skip past its text
+
+						_token.column += _tokenLength;
+						_tokenStart += _tokenLength;
+
+						// Start another scan
+
+						continue mainLoop;
+
+					case TokenFactory.reject:
+
+						// Reject token, the search continues with the next one
+
+						firstRecIndex = 1;
+
+						break;
+
+					default:
+
+						// Otherwise, we got an illegal command
+
+						throw new IllegalArgumentException ("ScannerCoded.nextToken");
+					}
+
+				}	// end if no right context
+
+				// The search needs the recognition sequence, so make sure
+				// there is room for it
+
+				while (_recognitionSequence.length <= acceptLength)
+				{
+					enlargeRecognitionSequence ();
+				}
+
+				// Run the DFA again from the initial state, using the flat table,
+				// this time saving the recognition code of each state.  The text
+				// is still in the data buffer, since it belongs to the current
+				// token.
+
+				int state = initialState * _flatRowLength;
+
+				_recognitionSequence[0] = _fwdFlatTable[state + _categoryCount];
+
+				for (int i = 0; i < acceptLength; )
+				{
+					state = _fwdFlatTable[state +
+						(_categoryTable[_dataBuffer[_tokenStart + i] & 0xFF] & 0xFF) ];
+
+					_recognitionSequence[++i] = _fwdFlatTable[state + _categoryCount];
+				}
+
+			}	// end if a token is recognized
+
+			// At this point, _contextLength is the length of the longest string
+			// that recognizes any token.  We now need to scan backwards to
+			// find tokens that are accepted by their token factories.
+
+			// Outer loop over context length ...
+
+			for ( ; _contextLength > 0; --_contextLength)
+			{
+
+				// Get the list of recognized tokens
+
+				int[] recList = _fwdTokenList[_recognitionSequence[_contextLength]];
+
+				// Inner loop over recognized tokens ...
+
+				for (int recIndex = firstRecIndex; recIndex < recList.length; ++recIndex)
+				{
+
+					// Get the recognized token number
+
+					_tokenIndex = recList[recIndex];
+
+					// Get the recognized context number
+
+					int recContext = _contextNumber[_tokenIndex];
+
+					// Initial token length is the same as context length
+
+					_tokenLength = _contextLength;
+
+					// If there is no right context ...
+
+					if (recContext == _contextCount)
+					{
+
+						// Get the parameter for this token
+
+						_token.number = _tokenParam[_tokenIndex];
+
+						// Initialize the token value
+
+						_token.value = null;
+
+						// Get the factory action, and switch on the result
+
+						switch (makeToken ())
+						{
+
+						case TokenFactory.assemble:
+
+							// Assembled token, skip past its text
+
+							_token.column += _tokenLength;
+							_tokenStart += _tokenLength;
+
+							// Return the token
+
+							return _token;
+
+						case TokenFactory.discard:
+
+							// Discard token, skip past its text
+
+							_token.column += _tokenLength;
+							_tokenStart += _tokenLength;
+
+							// Start another scan
+
+							continue mainLoop;
+
+						case TokenFactory.reject:
+
+							// Reject token, do nothing
+
+							break;
+
+						default:
+
+							// Otherwise, we got an illegal command
+
+							throw new IllegalArgumentException ("ScannerCoded.nextToken");
+						}
+
+						// Search for another token
+
+						continue;
+
+					}	// end if no right context
+
+					// Initial state in reverse DFA, which is row 0
+
+					int state = 0;
+
+					// Scan backwards, beginning at the end of the current
+					// context, looking for a context split.  The forward and
+					// reverse DFA's must agree on the split location.  We
+					// don't accept zero-length tokens, but we do accept
+					// zero-length right contexts.
+
+					while ((_tokenLength > 0) && (state != _revFlatInvalid))
+					{
+
+						// If the forward and reverse DFA's both accept this
+						// as a split location ...
+
+						if (_fwdContextSplit[_recognitionSequence[_tokenLength]][recContext]
+							&& _revContextSplit[_revFlatTable[state + _categoryCount]][recContext] )
+						{
+
+							// Get the parameter for this token
+
+							_token.number = _tokenParam[_tokenIndex];
+
+							// Initialize the token value
+
+							_token.value = null;
+
+							// Get the factory action, and switch on the result
+
+							switch (makeToken ())
+							{
+
+							case TokenFactory.assemble:
+
+								// Assembled token, skip past its text
+
+								_token.column += _tokenLength;
+								_tokenStart += _tokenLength;
+
+								// Return the token
+
+								return _token;
+
+							case TokenFactory.discard:
+
+								// Discard token, skip past its text
+
+								_token.column += _tokenLength;
+								_tokenStart += _tokenLength;
+
+								// Start another scan
+
+								continue mainLoop;
+
+							case TokenFactory.reject:
+
+								// Reject token, do nothing
+
+								break;
+
+							default:
+
+								// Otherwise, we got an illegal command
+
+								throw new IllegalArgumentException ("ScannerCoded.nextToken");
+							}
+						}
+
+						// Back up one character, get the character from the data buffer,
+						// get its category, and then get the reverse DFA target state
+
+						state = _revFlatTable[state + (_categoryTable[
+							_dataBuffer[_tokenStart + (--_tokenLength)] & 0xFF ] & 0xFF) ];
+
+					}	// end loop searching for context split
+
+				}	// end inner loop over recognized tokens
+
+				// Shorter lengths search their whole token list
+
+				firstRecIndex = 0;
+
+			}	// end outer loop over possible context lengths
+
+			// Didn't find any matching tokens, or all token factories rejected
+			// the token, so tell the client
+
+			_token.number = 0;
+
+			_token.value = null;
+
+			_client.scannerUnmatchedToken (this, _token);
+
+			// Step forward one character and try again
+
+			_token.column += 1;
+			_tokenStart += 1;
+
+		}	// end main loop searching for a token to match
+
+	}	// end nextToken()
+
+
+
+
+	// Get the action for token _tokenIndex.  If the token uses a default
+	// factory, the action is known without calling the factory.  Otherwise,
+	// the factory is called to make the token.
+
+	private int makeToken () throws IOException, SyntaxException
+	{
+		int action = _factoryAction[_tokenIndex];
+
+		if (action < 0)
+		{
+			action = _tokenFactories[_tokenIndex].makeToken (this, _token);
+		}
+
+		return action;
+	}
+
+
+
+
+	// Close the token stream.
+	//
+	// Implements the close() method of TokenStream.
+
+	public void close () throws IOException
+	{
+
+		// Close the source
+
+		_source.close ();
+
+		return;
+	}
+
+
+
+}
+
+
+
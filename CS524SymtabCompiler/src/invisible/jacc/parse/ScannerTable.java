@@ -379,6 +379,16 @@ public class ScannerTable implements Cloneable
 	private TokenFactory[] _tokenFactories;
 
 
+	// The flat DFA tables.
+	//
+	// These are built from the transition and recognition tables the first
+	// time getFwdFlatTable() or getRevFlatTable() is called.
+
+	private int[] _fwdFlatTable;
+
+	private int[] _revFlatTable;
+
+
 	// Tracing output.
 	//
 	// If tracing is enabled, this is an ErrorOutput object that is the
@@ -403,6 +413,10 @@ public class ScannerTable implements Cloneable
 
 		_tokenFactories = null;
 
+		_fwdFlatTable = null;
+
+		_revFlatTable = null;
+
 		_traceOut = null;
 
 		return;
@@ -596,6 +610,127 @@ public class ScannerTable implements Cloneable
 	}
 
 
+
+
+	// This function tells whether a token factory is one of the default
+	// factories that getFactories() installs.  The return value is
+	// TokenFactory.discard or TokenFactory.assemble for the default discard or
+	// assemble factory, which always returns that value from makeToken(), and
+	// -1 for any other factory.  Only ScannerCoded should use this function.
+
+	static int defaultFactoryAction (TokenFactory factory)
+	{
+		if (factory instanceof ScannerTableKFDiscard)
+		{
+			return TokenFactory.discard;
+		}
+
+		if (factory instanceof ScannerTableKFAssemble)
+		{
+			return TokenFactory.assemble;
+		}
+
+		return -1;
+	}
+
+
+
+
+	// This function returns the forward DFA as a flat table.  Only Scanner
+	// should use this function.
+	//
+	// The table has one row of _categoryCount+1 entries for each state, and a
+	// state is identified by the offset of its row, s*(_categoryCount+1).  For
+	// row offset r and category c, entry r+c is the row offset of the target
+	// state (or _fwdStateCount*(_categoryCount+1) if there is no transition),
+	// and entry r+_categoryCount is the recognition code of the state.  So
+	// a scanner can step the DFA and read the recognition code with a single
+	// array load each, instead of going through a separate row array.
+	//
+	// The table is constructed the first time this function is called.
+
+	public int[] getFwdFlatTable ()
+	{
+
+		// If the table is not constructed yet, construct it
+
+		if (_fwdFlatTable == null)
+		{
+			_fwdFlatTable = makeFlatTable (
+				_fwdStateCount, _fwdTransitionTable, _fwdRecognitionTable );
+		}
+
+		return _fwdFlatTable;
+	}
+
+
+
+
+	// This function returns the reverse DFA as a flat table.  Only Scanner
+	// should use this function.
+	//
+	// The layout is the same as for getFwdFlatTable(), using _revStateCount,
+	// _revTransitionTable, and _revRecognitionTable.
+
+	public int[] getRevFlatTable ()
+	{
+
+		// If the table is not constructed yet, construct it
+
+		if (_revFlatTable == null)
+		{
+			_revFlatTable = makeFlatTable (
+				_revStateCount, _revTransitionTable, _revRecognitionTable );
+		}
+
+		return _revFlatTable;
+	}
+
+
+
+
+	// Build a flat table from a transition table and a recognition table.
+
+	private int[] makeFlatTable (int stateCount, short[][] transitionTable,
+		int[] recognitionTable)
+	{
+
+		// Length of each row
+
+		int rowLength = _categoryCount + 1;
+
+		// Allocate the table
+
+		int[] flatTable = new int[stateCount * rowLength];
+
+		// For each state ...
+
+		for (int s = 0; s < stateCount; ++s)
+		{
+
+			// Offset of this row
+
+			int row = s * rowLength;
+
+			// Store target row offsets, pre-multiplied by the row length.
+			// The invalid state stateCount becomes stateCount*rowLength.
+
+			for (int c = 0; c < _categoryCount; ++c)
+			{
+				flatTable[row + c] = transitionTable[s][c] * rowLength;
+			}
+
+			// Store the recognition code
+
+			flatTable[row + _categoryCount] = recognitionTable[s];
+		}
+
+		// Return the table
+
+		return flatTable;
+	}
+
+
 	
 
 	// Write the scanner table to a data stream.
@@ -720,6 +855,12 @@ public class ScannerTable implements Cloneable
 
 		long inputSignature = stream.readLong ();
 
+		// Discard any flat tables built from the old contents
+
+		_fwdFlatTable = null;
+
+		_revFlatTable = null;
+
 		if (inputSignature != streamSignature)
 		{
 			throw new IODataFormatException (
@@ -1694,6 +1835,460 @@ public class ScannerTable implements Cloneable
 
 
 
+
+	// This function writes a Java source file for a subclass of ScannerCoded.
+	// The subclass is a scanner whose forward DFA is written as Java code:
+	// each state is a case of a switch on the state number, containing a
+	// switch on the character category whose cases make the transitions.
+	// See ScannerCoded for details.
+	//
+	// The generated scanner must be constructed with a ScannerTable that
+	// contains the same tables as this object, typically the subclass that
+	// writeToJavaSource() writes for this object.
+	//
+	// The parameters to this function specify the stream to which the Java
+	// source is to be written, the name to be used for the subclass's
+	// package, and the name to be used for the subclass itself.
+	//
+	// The return value is stream.checkError(), which is true if there was
+	// an I/O error.
+
+	public boolean writeCodedScannerToJavaSource (PrintStream stream,
+		String packageName, String className)
+	{
+
+		// Create a Java source output stream object
+
+		JavaSourceOutputStream out = new JavaSourceOutputStream (stream);
+
+		// Write file header
+
+		out.line ("// File generated by " + ProductInfo.product 
+				      + " version " + ProductInfo.version + "." );
+		out.line ("// " + ProductInfo.product + " is " + ProductInfo.copyright 
+					  + ((ProductInfo.copyright.charAt(ProductInfo.copyright.length()-1) == '.') ? "" : ".") );
+		out.line ();
+
+		// Write package statement
+
+		if (packageName != null && packageName.length() != 0)
+		{
+			out.line ("package " + packageName + ";");
+			out.line ();
+		}
+
+		// Write the import statements
+
+		out.line ("import invisible.jacc.parse.PrescannerByte;");
+		out.line ("import invisible.jacc.parse.ScannerClient;");
+		out.line ("import invisible.jacc.parse.ScannerCoded;");
+		out.line ("import invisible.jacc.parse.ScannerTable;");
+		out.line ("import invisible.jacc.parse.SyntaxException;");
+		out.line ("import java.io.IOException;");
+		out.line ();
+
+		// Write the class statement
+
+		out.line ("public class " + className + " extends ScannerCoded");
+		out.openScope ();
+		out.line ();
+
+		// Write the checksum
+
+		out.line ("// Checksum of the tables this scanner was generated from.");
+		out.line ();
+		out.text ("private static final int gen_checksum = ");
+		out.literal (ScannerCoded.tableChecksum (this));
+		out.line (";");
+		out.line ();
+		out.line ();
+		out.line ();
+		out.line ();
+
+		// Write the constructor
+
+		out.line ("// Constructor passes its parameters to ScannerCoded.");
+		out.line ();
+
+		out.line ("public " + className + " (ScannerClient client, PrescannerByte source,");
+		out.line ("    ScannerTable scannerTable, String file, int line, int column,");
+		out.line ("    int bufSize, Object params)");
+		out.openScope ();
+		out.line ("super (client, source, scannerTable, file, line, column,");
+		out.line ("    bufSize, params, gen_checksum);");
+		out.line ();
+		out.line ("return;");
+		out.closeScope ();
+		out.line ();
+		out.line ();
+		out.line ();
+		out.line ();
+
+		// Split the states into groups of consecutive states, so that the
+		// code for each group fits comfortably within the size limit that
+		// HotSpot places on methods it will compile (8000 bytes of bytecode).
+		// Each group is a separate method.  groupStart[g] is the first state
+		// in group g, and groupStart[groupCount] is _fwdStateCount.
+
+		int[] groupStart = new int[_fwdStateCount + 1];
+
+		int groupCount = 0;
+
+		int groupSize = codedGroupLimit;
+
+		for (int s = 0; s < _fwdStateCount; ++s)
+		{
+			int stateSize = codedStateSize (s);
+
+			if (groupSize + stateSize > codedGroupLimit)
+			{
+				groupStart[groupCount++] = s;
+				groupSize = 0;
+			}
+
+			groupSize += stateSize;
+		}
+
+		groupStart[groupCount] = _fwdStateCount;
+
+		// Write the forward DFA, which calls the method for the group that
+		// contains the current state until a method returns -1
+
+		out.line ("// Run the forward DFA.  Implements the scanForward() method of ScannerCoded.");
+		out.line ();
+
+		out.line ("protected int scanForward (int state) throws IOException, SyntaxException");
+		out.openScope ();
+		out.line ("_contextLength = 0;");
+		out.line ("_acceptLength = 0;");
+		out.line ("_acceptState = 0;");
+		out.line ();
+		out.line ("while (state >= 0)");
+		out.openScope ();
+
+		if (groupCount == 1)
+		{
+			out.line ("state = scan0 (state);");
+		}
+		else
+		{
+			for (int g = 0; g < groupCount; ++g)
+			{
+				if (g == 0)
+				{
+					out.line ("if (state < " + groupStart[g + 1] + ")");
+				}
+				else if (g < groupCount - 1)
+				{
+					out.line ("else if (state < " + groupStart[g + 1] + ")");
+				}
+				else
+				{
+					out.line ("else");
+				}
+
+				out.line ("    state = scan" + g + " (state);");
+			}
+		}
+
+		out.closeScope ();
+		out.line ();
+		out.line ("return _acceptLength;");
+		out.closeScope ();
+
+		// Write the method for each group
+
+		for (int g = 0; g < groupCount; ++g)
+		{
+			out.line ();
+			out.line ();
+			out.line ();
+			out.line ();
+
+			out.line ("// Run the forward DFA for states " + groupStart[g]
+				+ " through " + (groupStart[g + 1] - 1) + ".  Returns the next state, or -1.");
+			out.line ();
+
+			out.line ("private int scan" + g + " (int state) throws IOException, SyntaxException");
+			out.openScope ();
+			out.line ("byte[] data = _dataBuffer;");
+			out.line ("byte[] categoryTable = _categoryTable;");
+			out.line ("int start = _tokenStart;");
+			out.line ("int pos = start + _contextLength;");
+			out.line ("int end = _dataEnd;");
+			out.line ("int acceptLength = _acceptLength;");
+			out.line ("int acceptState = _acceptState;");
+			out.line ();
+			out.line ("scan:");
+			out.line ("for ( ; ; )");
+			out.openScope ();
+
+			out.line ("// If we have processed all available data, read more");
+			out.line ();
+			out.line ("if (pos == end)");
+			out.openScope ();
+			out.line ("_contextLength = pos - start;");
+			out.line ();
+			out.line ("if (readData() == 0)");
+			out.openScope ();
+			out.line ("state = -1;");
+			out.line ("break scan;");
+			out.closeScope ();
+			out.line ();
+			out.line ("data = _dataBuffer;");
+			out.line ("start = _tokenStart;");
+			out.line ("pos = start + _contextLength;");
+			out.line ("end = _dataEnd;");
+			out.closeScope ();
+			out.line ();
+
+			out.line ("// Get the category of the next character, and make the");
+			out.line ("// transition.  A transition to a state that recognizes a token");
+			out.line ("// breaks out of the switch to record the accepting length.");
+			out.line ();
+			out.line ("int category = categoryTable[data[pos++] & 0xFF] & 0xFF;");
+			out.line ();
+			out.line ("accept:");
+			out.openScope ();
+			out.line ("switch (state)");
+			out.openScope ();
+
+			boolean breaksAccept = false;
+
+			for (int s = groupStart[g]; s < groupStart[g + 1]; ++s)
+			{
+				breaksAccept |= writeCodedState (out, s, groupStart[g], groupStart[g + 1]);
+			}
+
+			out.closeScope ();
+			out.line ();
+			out.line ("state = -1;");
+			out.line ("break scan;");
+			out.closeScope ();
+
+			// The code after the block is reachable only if some transition
+			// breaks out of it
+
+			if (breaksAccept)
+			{
+				out.line ();
+				out.line ("acceptLength = pos - start;");
+				out.line ("acceptState = state;");
+			}
+
+			out.closeScope ();
+			out.line ();
+
+			out.line ("_contextLength = pos - start;");
+			out.line ("_acceptLength = acceptLength;");
+			out.line ("_acceptState = acceptState;");
+			out.line ();
+			out.line ("return state;");
+			out.closeScope ();
+		}
+
+		out.line ();
+		out.line ();
+
+		// End the class
+
+		out.closeScope ();
+		out.line ();
+
+		// Return error flag
+
+		return stream.checkError ();
+	}
+
+
+
+
+	// The estimated bytecode size limit for one group of states in a coded
+	// scanner, for writeCodedScannerToJavaSource().
+
+	private static final int codedGroupLimit = 6000;
+
+
+
+
+	// Return the most common target of forward DFA state s, for
+	// writeCodedScannerToJavaSource().  Transitions to the default target don't
+	// need case labels.  If the invalid state is as common as any other target,
+	// it is the default.
+
+	private int codedDefaultTarget (int s)
+	{
+		short[] row = _fwdTransitionTable[s];
+
+		int[] targetCount = new int[_fwdStateCount + 1];
+
+		for (int c = 0; c < _categoryCount; ++c)
+		{
+			++targetCount[row[c]];
+		}
+
+		int defaultTarget = _fwdStateCount;
+
+		for (int t = 0; t < _fwdStateCount; ++t)
+		{
+			if (targetCount[t] > targetCount[defaultTarget])
+			{
+				defaultTarget = t;
+			}
+		}
+
+		return defaultTarget;
+	}
+
+
+
+
+	// Return an estimate of the bytecode size of the code for forward DFA
+	// state s, for writeCodedScannerToJavaSource().  This allows 8 bytes for
+	// each case label and 16 bytes for each group of labels, which is an
+	// upper bound for both tableswitch and lookupswitch.
+
+	private int codedStateSize (int s)
+	{
+		short[] row = _fwdTransitionTable[s];
+
+		int defaultTarget = codedDefaultTarget (s);
+
+		int size = 32;
+
+		boolean[] seen = new boolean[_fwdStateCount + 1];
+
+		for (int c = 0; c < _categoryCount; ++c)
+		{
+			if (row[c] != defaultTarget)
+			{
+				size += 8;
+
+				if (!seen[row[c]])
+				{
+					seen[row[c]] = true;
+					size += 16;
+				}
+			}
+		}
+
+		return size;
+	}
+
+
+
+
+	// Write the code for forward DFA state s, for
+	// writeCodedScannerToJavaSource().  The state is in the group of states
+	// from groupFirst through groupLimit-1.  The return value is true if the
+	// code contains "break accept".
+
+	private boolean writeCodedState (JavaSourceOutputStream out, int s,
+		int groupFirst, int groupLimit)
+	{
+		short[] row = _fwdTransitionTable[s];
+
+		int defaultTarget = codedDefaultTarget (s);
+
+		out.line ("case " + s + ":");
+		out.line ("switch (category)");
+		out.openScope ();
+
+		// Write the cases for each target other than the default, in order of
+		// first appearance
+
+		boolean[] written = new boolean[_fwdStateCount + 1];
+
+		boolean breaksAccept = false;
+
+		for (int c = 0; c < _categoryCount; ++c)
+		{
+			int target = row[c];
+
+			if (target == defaultTarget || written[target])
+			{
+				continue;
+			}
+
+			written[target] = true;
+
+			for (int c2 = c; c2 < _categoryCount; ++c2)
+			{
+				if (row[c2] == target)
+				{
+					out.line ("case " + c2 + ":");
+				}
+			}
+
+			breaksAccept |= writeCodedTransition (out, target, groupFirst, groupLimit);
+		}
+
+		// Write the default, or leave the switch if the default is invalid
+
+		if (defaultTarget != _fwdStateCount)
+		{
+			out.line ("default:");
+			breaksAccept |= writeCodedTransition (out, defaultTarget, groupFirst, groupLimit);
+			out.closeScope ();
+		}
+		else
+		{
+			out.closeScope ();
+			out.line ("state = -1;");
+			out.line ("break scan;");
+		}
+
+		return breaksAccept;
+	}
+
+
+
+
+	// Write the code for a forward DFA transition to the given target, for
+	// writeCodedScannerToJavaSource().  The invalid state ends the scan.  A
+	// target outside the current group of states returns it to scanForward(),
+	// after recording the accepting length if the target recognizes a token.
+	// The return value is true if the code is "break accept".
+
+	private boolean writeCodedTransition (JavaSourceOutputStream out, int target,
+		int groupFirst, int groupLimit)
+	{
+
+		// Transition to the invalid state
+
+		if (target == _fwdStateCount)
+		{
+			out.line ("state = -1;");
+			out.line ("break scan;");
+			return false;
+		}
+
+		out.line ("state = " + target + ";");
+
+		boolean accepting = (_fwdTokenListLength[_fwdRecognitionTable[target]] != 0);
+
+		// Transition within the group
+
+		if (target >= groupFirst && target < groupLimit)
+		{
+			out.line (accepting ? "break accept;" : "continue scan;");
+			return accepting;
+		}
+
+		// Transition to another group
+
+		if (accepting)
+		{
+			out.line ("acceptLength = pos - start;");
+			out.line ("acceptState = state;");
+		}
+
+		out.line ("break scan;");
+
+		return false;
+	}
+
+
 	
 	// Creates a copy of the tables.  This is a shallow copy.  The clone object
 	// shares its contained tables with the original.
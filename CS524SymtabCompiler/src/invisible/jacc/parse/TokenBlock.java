@@ -0,0 +1,163 @@
+// Copyright 1997 Invisible Software, Inc.
+
+package invisible.jacc.parse;
+
+
+/*->
+
+  TokenBlock objects hold a block of tokens that is handed from a producer
+  to a consumer as a unit, for example from a scanner running on its own
+  thread to the parser.  Nothing in the package fills blocks yet;  the
+  parser still reads one token at a time through Preprocessor.nextToken().
+
+  The tokens are held in parallel arrays, one array for each field of Token.
+  The arrays are allocated once, by the caller, and then refilled for each
+  block, so reading a block does not create any objects.
+
+  Data fields within the TokenBlock object are declared public to allow
+  efficient access.
+
+->*/
+
+
+public class TokenBlock
+{
+
+	// The token numbers.  Element i has the same meaning as Token.number for
+	// the i-th token in the block.
+
+	public int[] number;
+
+
+	// The token values.
+
+	public Object[] value;
+
+
+	// The source files where the tokens originated.
+
+	public String[] file;
+
+
+	// The line numbers where the tokens originated.
+
+	public int[] line;
+
+
+	// The column numbers where the tokens originated.
+
+	public int[] column;
+
+
+	// The number of tokens in the block.  Elements 0 through count-1 of each
+	// array are valid.
+
+	public int count;
+
+
+
+
+	// Constructor creates an empty block that can hold the specified number
+	// of tokens.
+
+	public TokenBlock (int capacity)
+	{
+		super();
+
+		// Validate the argument
+
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException ("TokenBlock.TokenBlock");
+		}
+
+		// Allocate the arrays
+
+		number = new int[capacity];
+		value = new Object[capacity];
+		file = new String[capacity];
+		line = new int[capacity];
+		column = new int[capacity];
+
+		count = 0;
+
+		return;
+	}
+
+
+
+
+	// Returns the maximum number of tokens the block can hold.
+
+	public final int capacity ()
+	{
+		return number.length;
+	}
+
+
+
+
+	// Returns true if the block cannot hold any more tokens.
+
+	public final boolean isFull ()
+	{
+		return count == number.length;
+	}
+
+
+
+
+	// Appends a copy of the fields of the specified Token object to the block.
+	// The caller must check that the block is not full.
+
+	public final void add (Token token)
+	{
+		number[count] = token.number;
+		value[count] = token.value;
+		file[count] = token.file;
+		line[count] = token.line;
+		column[count] = token.column;
+
+		++count;
+
+		return;
+	}
+
+
+
+
+	// Copies the fields of the token at the specified index into the specified
+	// Token object.
+
+	public final void getToken (int index, Token token)
+	{
+		token.number = number[index];
+		token.value = value[index];
+		token.file = file[index];
+		token.line = line[index];
+		token.column = column[index];
+
+		return;
+	}
+
+
+
+
+	// Removes all tokens from the block.  References to token values and file
+	// names are cleared, so the block does not keep them alive.
+
+	public final void clear ()
+	{
+		for (int i = 0; i < count; ++i)
+		{
+			value[i] = null;
+			file[i] = null;
+		}
+
+		count = 0;
+
+		return;
+	}
+
+
+}
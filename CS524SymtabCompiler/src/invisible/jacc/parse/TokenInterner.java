@@ -0,0 +1,321 @@
+package invisible.jacc.parse;
+
+
+/*->
+
+  TokenInterner maps the text of tokens (typically identifiers) to small
+  integer symbol IDs, and each ID to one canonical String.
+
+  A token factory calls intern(scanner) to look up the current token.  The
+  text is hashed and compared directly in the scanner's raw byte or char
+  buffer, so when the symbol has been seen before no String or other object
+  is created.  The first occurrence of a symbol copies its characters into
+  a shared character pool and creates its canonical String.
+
+  IDs are assigned consecutively from 0, so clients can index arrays by
+  symbol ID instead of hashing names.  Hash codes are computed the same way
+  as String.hashCode(), so intern(String) and lookup(String) agree with
+  intern(scanner) on the same text.
+
+->*/
+
+
+public class TokenInterner
+{
+
+	// The hash table.  Each entry is a symbol ID plus one, or zero if the
+	// entry is empty.  The table length is a power of 2 and is kept at
+	// least twice the number of symbols.
+
+	private int[] _table;
+
+
+	// The symbols.  The characters of symbol n are _pool[_start[n]] through
+	// _pool[_start[n]+_length[n]-1].
+
+	private char[] _pool;
+
+	private int _poolLength;
+
+	private int[] _start;
+
+	private int[] _length;
+
+	private int[] _hash;
+
+	private String[] _strings;
+
+	private int _count;
+
+
+
+
+	// Creates an empty interner.
+
+	public TokenInterner ()
+	{
+		super();
+
+		_table = new int[256];
+		_pool = new char[1024];
+		_poolLength = 0;
+		_start = new int[128];
+		_length = new int[128];
+		_hash = new int[128];
+		_strings = new String[128];
+		_count = 0;
+
+		return;
+	}
+
+
+
+
+	// Returns the number of symbols.
+
+	public int size ()
+	{
+		return _count;
+	}
+
+
+
+
+	// Returns the canonical String for symbol ID id.
+
+	public String symbolName (int id)
+	{
+		return _strings[id];
+	}
+
+
+
+
+	// Returns the symbol ID for the current token of scanner, adding it if
+	// it is new.
+
+	public int intern (Scanner scanner)
+	{
+		return intern (scanner, 0, scanner.tokenLength());
+	}
+
+
+
+
+	// Returns the symbol ID for len characters of the current token of
+	// scanner starting at off, adding it if it is new.
+
+	public int intern (Scanner scanner, int off, int len)
+	{
+		int start = scanner.tokenStart() + off;
+
+		if (scanner.isByteText())
+		{
+			byte[] text = scanner.rawByteText();
+
+			int h = 0;
+			for (int i = 0; i < len; ++i)
+			{
+				h = 31 * h + (text[start + i] & 0xFF);
+			}
+
+			int mask = _table.length - 1;
+			for (int slot = h & mask; ; slot = (slot + 1) & mask)
+			{
+				int id = _table[slot] - 1;
+				if (id < 0)
+				{
+					return add (scanner.tokenToString (off, len), h, slot);
+				}
+				if (_hash[id] == h && _length[id] == len && sameBytes (id, text, start))
+				{
+					return id;
+				}
+			}
+		}
+
+		char[] text = scanner.rawCharText();
+
+		int h = 0;
+		for (int i = 0; i < len; ++i)
+		{
+			h = 31 * h + text[start + i];
+		}
+
+		int mask = _table.length - 1;
+		for (int slot = h & mask; ; slot = (slot + 1) & mask)
+		{
+			int id = _table[slot] - 1;
+			if (id < 0)
+			{
+				return add (scanner.tokenToString (off, len), h, slot);
+			}
+			if (_hash[id] == h && _length[id] == len && sameChars (id, text, start))
+			{
+				return id;
+			}
+		}
+	}
+
+
+
+
+	// Returns the symbol ID for s, adding it if it is new.
+
+	public int intern (String s)
+	{
+		int h = s.hashCode();
+
+		int mask = _table.length - 1;
+		for (int slot = h & mask; ; slot = (slot + 1) & mask)
+		{
+			int id = _table[slot] - 1;
+			if (id < 0)
+			{
+				return add (s, h, slot);
+			}
+			if (_strings[id] == s || (_hash[id] == h && _strings[id].equals (s)))
+			{
+				return id;
+			}
+		}
+	}
+
+
+
+
+	// Returns the symbol ID for s, or -1 if s has not been interned.  For a
+	// canonical String this costs one probe and a reference comparison.
+
+	public int lookup (String s)
+	{
+		int h = s.hashCode();
+
+		int mask = _table.length - 1;
+		for (int slot = h & mask; ; slot = (slot + 1) & mask)
+		{
+			int id = _table[slot] - 1;
+			if (id < 0)
+			{
+				return -1;
+			}
+			if (_strings[id] == s || (_hash[id] == h && _strings[id].equals (s)))
+			{
+				return id;
+			}
+		}
+	}
+
+
+
+
+	// Adds a new symbol in the empty table entry slot.
+
+	private int add (String s, int h, int slot)
+	{
+		int id = _count;
+
+		if (id == _strings.length)
+		{
+			_start = grow (_start);
+			_length = grow (_length);
+			_hash = grow (_hash);
+
+			String[] strings = new String[_strings.length * 2];
+			System.arraycopy (_strings, 0, strings, 0, _count);
+			_strings = strings;
+		}
+
+		int len = s.length();
+		if (_poolLength + len > _pool.length)
+		{
+			char[] pool = new char[Math.max (_pool.length * 2, _poolLength + len)];
+			System.arraycopy (_pool, 0, pool, 0, _poolLength);
+			_pool = pool;
+		}
+		s.getChars (0, len, _pool, _poolLength);
+
+		_start[id] = _poolLength;
+		_length[id] = len;
+		_hash[id] = h;
+		_strings[id] = s;
+		_poolLength += len;
+		_count++;
+
+		_table[slot] = id + 1;
+		if (2 * _count > _table.length)
+		{
+			rehash ();
+		}
+
+		return id;
+	}
+
+
+
+
+	// Doubles the hash table.
+
+	private void rehash ()
+	{
+		int[] table = new int[_table.length * 2];
+		int mask = table.length - 1;
+
+		for (int id = 0; id < _count; ++id)
+		{
+			int slot = _hash[id] & mask;
+			while (table[slot] != 0)
+			{
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+
+		_table = table;
+		return;
+	}
+
+
+
+
+	private boolean sameBytes (int id, byte[] text, int start)
+	{
+		int p = _start[id];
+		for (int i = 0; i < _length[id]; ++i)
+		{
+			if (_pool[p + i] != (char) (text[start + i] & 0xFF))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+
+
+	private boolean sameChars (int id, char[] text, int start)
+	{
+		int p = _start[id];
+		for (int i = 0; i < _length[id]; ++i)
+		{
+			if (_pool[p + i] != text[start + i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+
+
+	private static int[] grow (int[] array)
+	{
+		int[] grown = new int[array.length * 2];
+		System.arraycopy (array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+
+}